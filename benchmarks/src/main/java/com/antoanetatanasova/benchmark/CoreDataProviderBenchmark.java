@@ -0,0 +1,58 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CoreDataProvider#getDataFromExcel(String, Class, Object[], ExcelReadMode)} for the
+ * annotated DTO shapes in every read mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CoreDataProviderBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"ITEMS", "WIDE_NUMERIC", "WIDE_STRING"})
+    public FixtureShape shape;
+
+    @Param({"WORKBOOK", "STREAMING", "SNAPSHOT"})
+    public ExcelReadMode mode;
+
+    private String path;
+    private Object[] template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = FixtureGenerator.xlsx(shape, rows);
+        template = (Object[]) Array.newInstance(shape.getType(), 0);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object[] getDataFromExcel(RowCounter counter) throws IOException {
+        Object[] data = CoreDataProvider.getDataFromExcel(path, (Class<Object>) shape.getType(), template, mode);
+        counter.rows += data.length;
+        return data;
+    }
+}
@@ -0,0 +1,54 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CsvDataProvider#getCsvData(String, CsvFormat, CsvReadMode)} in every read mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CsvDataProviderBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"CUSTOMERS", "ITEMS", "WIDE_NUMERIC", "WIDE_STRING"})
+    public FixtureShape shape;
+
+    @Param({"SEQUENTIAL", "PARALLEL", "SNAPSHOT"})
+    public CsvReadMode mode;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = FixtureGenerator.csv(shape, rows);
+    }
+
+    @Benchmark
+    public String[][] getCsvData(RowCounter counter) throws IOException {
+        String[][] data = CsvDataProvider.getCsvData(path, CsvFormat.DEFAULT, mode);
+        counter.rows += data.length;
+        return data;
+    }
+}
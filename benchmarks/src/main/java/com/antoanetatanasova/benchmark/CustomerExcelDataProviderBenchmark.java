@@ -0,0 +1,51 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider.customer.CustomerExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dto.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CustomerExcelDataProvider#getData(String, ExcelReadMode)} on the customer layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CustomerExcelDataProviderBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"WORKBOOK", "STREAMING"})
+    public ExcelReadMode mode;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = FixtureGenerator.xlsx(FixtureShape.CUSTOMERS, rows);
+    }
+
+    @Benchmark
+    public Customer[] getData(RowCounter counter) throws IOException {
+        Customer[] data = CustomerExcelDataProvider.getData(path, mode);
+        counter.rows += data.length;
+        return data;
+    }
+}
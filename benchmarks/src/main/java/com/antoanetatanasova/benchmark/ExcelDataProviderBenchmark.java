@@ -0,0 +1,54 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider._example.ExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExcelDataProvider#getExcelData(String, ExcelReadMode)}. Only string shapes are used,
+ * since the workbook mode reads every cell as text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExcelDataProviderBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"CUSTOMERS", "WIDE_STRING"})
+    public FixtureShape shape;
+
+    @Param({"WORKBOOK", "STREAMING"})
+    public ExcelReadMode mode;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = FixtureGenerator.xlsx(shape, rows);
+    }
+
+    @Benchmark
+    public String[][] getExcelData(RowCounter counter) throws IOException {
+        String[][] data = ExcelDataProvider.getExcelData(path, mode);
+        counter.rows += data.length;
+        return data;
+    }
+}
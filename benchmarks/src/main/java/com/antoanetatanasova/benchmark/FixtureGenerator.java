@@ -0,0 +1,171 @@
+package com.antoanetatanasova.benchmark;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * Writes deterministic synthetic .xlsx and .csv fixtures for the benchmarks.
+ * <p>
+ * Fixtures are written once to the directory named by the {@value #DIRECTORY_PROPERTY} system property
+ * ({@code target/fixtures} by default) and reused by later runs. The same shape and row count always produce
+ * the same content, so results of different runs can be compared.
+ */
+public final class FixtureGenerator {
+    /**
+     * System property holding the directory the fixtures are written to.
+     */
+    public static final String DIRECTORY_PROPERTY = "benchmark.fixtures";
+
+    /**
+     * The largest number of data rows of an Excel fixture: an .xlsx sheet holds at most 1,048,576 rows,
+     * including the header.
+     */
+    public static final int MAX_XLSX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private static final long SEED = 20240501L;
+
+    private FixtureGenerator() {
+    }
+
+    /**
+     * Returns the path to an Excel fixture, generating it first if it does not exist.
+     *
+     * @param shape the layout of the fixture
+     * @param rows  the number of data rows, not counting the header; at most {@link #MAX_XLSX_ROWS}
+     * @return the path to the .xlsx file
+     * @throws IllegalArgumentException if the rows do not fit in an .xlsx sheet
+     * @throws IOException              if the fixture cannot be written
+     */
+    public static String xlsx(FixtureShape shape, int rows) throws IOException {
+        if (rows > MAX_XLSX_ROWS) {
+            throw new IllegalArgumentException("An .xlsx sheet holds at most " + MAX_XLSX_ROWS
+                    + " data rows, cannot generate " + rows);
+        }
+        Path path = path(shape, rows, "xlsx");
+        if (Files.notExists(path)) {
+            Path temp = temp(path);
+            SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+            workbook.setCompressTempFiles(true);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                Sheet sheet = workbook.createSheet("Sheet1");
+                Row header = sheet.createRow(0);
+                String[] titles = shape.getHeader();
+                for (int i = 0; i < titles.length; i++) {
+                    header.createCell(i).setCellValue(titles[i]);
+                }
+
+                Random random = new Random(SEED);
+                for (int r = 1; r <= rows; r++) {
+                    Row row = sheet.createRow(r);
+                    for (int c = 0; c < titles.length; c++) {
+                        Cell cell = row.createCell(c);
+                        Object value = shape.value(random, r, c);
+                        if (value instanceof Number) {
+                            cell.setCellValue(((Number) value).doubleValue());
+                        } else {
+                            cell.setCellValue((String) value);
+                        }
+                    }
+                }
+                workbook.write(out);
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return path.toString();
+    }
+
+    /**
+     * Returns the path to a CSV fixture, generating it first if it does not exist. The CSV file holds the
+     * same values as the Excel fixture of the same shape and row count.
+     *
+     * @param shape the layout of the fixture
+     * @param rows  the number of data rows, not counting the header
+     * @return the path to the .csv file
+     * @throws IOException if the fixture cannot be written
+     */
+    public static String csv(FixtureShape shape, int rows) throws IOException {
+        Path path = path(shape, rows, "csv");
+        if (Files.notExists(path)) {
+            Path temp = temp(path);
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(String.join(",", shape.getHeader()));
+                writer.newLine();
+
+                Random random = new Random(SEED);
+                StringBuilder line = new StringBuilder();
+                for (int r = 1; r <= rows; r++) {
+                    line.setLength(0);
+                    for (int c = 0; c < shape.getColumnCount(); c++) {
+                        if (c > 0) {
+                            line.append(',');
+                        }
+                        line.append(shape.value(random, r, c));
+                    }
+                    writer.write(line.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return path.toString();
+    }
+
+    /**
+     * Generates fixtures ahead of a benchmark run, so the first trial does not pay for them. Row counts above
+     * {@link #MAX_XLSX_ROWS} only get a CSV fixture.
+     * <p>
+     * Usage: {@code FixtureGenerator <rows>[,<rows>...] [shape,...]}
+     *
+     * @param args the row counts and, optionally, the shapes to generate
+     * @throws IOException if a fixture cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: FixtureGenerator <rows>[,<rows>...] [shape,...]");
+            System.exit(2);
+        }
+        FixtureShape[] shapes = FixtureShape.values();
+        if (args.length > 1) {
+            String[] names = args[1].split(",");
+            shapes = new FixtureShape[names.length];
+            for (int i = 0; i < names.length; i++) {
+                shapes[i] = FixtureShape.valueOf(names[i].trim());
+            }
+        }
+        for (String rows : args[0].split(",")) {
+            for (FixtureShape shape : shapes) {
+                int count = Integer.parseInt(rows.trim());
+                if (count <= MAX_XLSX_ROWS) {
+                    System.out.println(xlsx(shape, count));
+                }
+                System.out.println(csv(shape, count));
+            }
+        }
+    }
+
+    private static Path path(FixtureShape shape, int rows, String extension) throws IOException {
+        Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY, "target/fixtures"));
+        Files.createDirectories(directory);
+        return directory.resolve(shape.name().toLowerCase() + "-" + rows + "." + extension);
+    }
+
+    private static Path temp(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+}
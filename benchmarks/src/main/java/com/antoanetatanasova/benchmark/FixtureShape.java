@@ -0,0 +1,101 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dto.Customer;
+import com.antoanetatanasova.dto.Item;
+
+import java.util.Random;
+
+/**
+ * Layout of a synthetic fixture: its header, the DTO it maps to and how its cells are generated.
+ */
+public enum FixtureShape {
+    /**
+     * Narrow, string-heavy sheet with the columns of {@link Customer}.
+     */
+    CUSTOMERS(Customer.class, false, "Customer Name", "Address", "City"),
+
+    /**
+     * Narrow sheet mixing text and numbers, with the columns of {@link Item}.
+     */
+    ITEMS(Item.class, false, "Item Name", "Unit Price", "Quantity", "Unit of Measure", "VAT Rate", "Account", "Batch"),
+
+    /**
+     * Wide, numeric-heavy sheet mapped to {@link WideNumericRow}.
+     */
+    WIDE_NUMERIC(WideNumericRow.class, true, wideHeader()),
+
+    /**
+     * Wide, string-heavy sheet mapped to {@link WideStringRow}.
+     */
+    WIDE_STRING(WideStringRow.class, false, wideHeader());
+
+    private static final String[] WORDS = {
+            "Sofia", "Plovdiv", "Varna", "Burgas", "Ruse", "Stara Zagora", "Pleven", "Sliven", "Dobrich", "Shumen",
+            "Chocolate Cake", "Butter Cookies", "Apple Pie", "Croissant", "Baguette", "Cheesecake", "Muffin", "Donut"
+    };
+
+    private final Class<?> type;
+    private final boolean numeric;
+    private final String[] header;
+
+    FixtureShape(Class<?> type, boolean numeric, String... header) {
+        this.type = type;
+        this.numeric = numeric;
+        this.header = header;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    public int getColumnCount() {
+        return header.length;
+    }
+
+    /**
+     * Generates the value of a cell. Numbers are returned as {@link Double} or {@link Integer}, everything
+     * else as {@link String}.
+     *
+     * @param random the generator of the fixture
+     * @param row    the 1-based data row number
+     * @param column the column index
+     * @return the cell value
+     */
+    Object value(Random random, int row, int column) {
+        if (numeric) {
+            return Math.round(random.nextDouble() * 1_000_000) / 100.0;
+        }
+        if (this == ITEMS) {
+            switch (column) {
+                case 1:
+                    return Math.round(random.nextDouble() * 10_000) / 100.0;
+                case 2:
+                    return 1 + random.nextInt(50);
+                case 3:
+                    return random.nextBoolean() ? "pcs" : "box";
+                case 4:
+                    return "20%";
+                case 5:
+                    return 700 + random.nextInt(10);
+                case 6:
+                    return "Batch " + row;
+                default:
+                    break;
+            }
+        }
+        String word = WORDS[random.nextInt(WORDS.length)];
+        return column == 0 ? word + " " + row : word + " " + random.nextInt(1000);
+    }
+
+    private static String[] wideHeader() {
+        String[] header = new String[24];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = String.format("C%02d", i + 1);
+        }
+        return header;
+    }
+}
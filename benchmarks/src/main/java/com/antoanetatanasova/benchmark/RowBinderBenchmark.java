@@ -0,0 +1,57 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of already parsed rows to DTOs with {@link RowBinder}, without any file access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RowBinderBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"ITEMS", "WIDE_NUMERIC", "WIDE_STRING"})
+    public FixtureShape shape;
+
+    private String[][] data;
+    private RowBinder<?> binder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = CsvDataProvider.getCsvData(FixtureGenerator.csv(shape, rows));
+        binder = RowBinder.forHeader(shape.getType(), Arrays.asList(shape.getHeader()));
+    }
+
+    @Benchmark
+    public Object[] bind(RowCounter counter) {
+        Object[] result = new Object[data.length - 1];
+        for (int r = 1; r < data.length; r++) {
+            String[] row = data[r];
+            result[r - 1] = binder.bind(i -> row[i]);
+        }
+        counter.rows += result.length;
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.StreamingDataIterator;
+import com.antoanetatanasova.dataprovider.item.StreamingSheetReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from opening a file until its first data row is available, for the readers that hand
+ * out rows while the file is still being parsed. The workbook and snapshot modes produce their first row
+ * only after the whole file is loaded, so their time to first row is the time of a full read in the other
+ * benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TimeToFirstRowBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"ITEMS", "WIDE_NUMERIC", "WIDE_STRING"})
+    public FixtureShape shape;
+
+    private String xlsxPath;
+    private String csvPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        xlsxPath = FixtureGenerator.xlsx(shape, rows);
+        csvPath = FixtureGenerator.csv(shape, rows);
+    }
+
+    @Benchmark
+    public Object iterateDataFromExcel() {
+        try (StreamingDataIterator<?> iterator = CoreDataProvider.iterateDataFromExcel(xlsxPath, shape.getType())) {
+            return iterator.next();
+        }
+    }
+
+    @Benchmark
+    public String[] streamingSheetReader() throws IOException {
+        String[][] first = new String[1][];
+        StreamingSheetReader.read(xlsxPath, 0, (rowNum, cells) -> {
+            first[0] = cells;
+            return rowNum == 0; // stop after the first row below the header
+        });
+        return first[0];
+    }
+
+    @Benchmark
+    public String[] csvParser() throws IOException {
+        try (CsvParser parser = CsvParser.open(csvPath)) {
+            parser.next(); // header
+            CsvRecord record = parser.next();
+            return record.toArray();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+
+/**
+ * DTO for the {@link FixtureShape#WIDE_NUMERIC} fixtures: 24 double columns named {@code C01} to {@code C24}.
+ */
+public class WideNumericRow {
+    @ExcelColumn(names = "C01")
+    private double c01;
+    @ExcelColumn(names = "C02")
+    private double c02;
+    @ExcelColumn(names = "C03")
+    private double c03;
+    @ExcelColumn(names = "C04")
+    private double c04;
+    @ExcelColumn(names = "C05")
+    private double c05;
+    @ExcelColumn(names = "C06")
+    private double c06;
+    @ExcelColumn(names = "C07")
+    private double c07;
+    @ExcelColumn(names = "C08")
+    private double c08;
+    @ExcelColumn(names = "C09")
+    private double c09;
+    @ExcelColumn(names = "C10")
+    private double c10;
+    @ExcelColumn(names = "C11")
+    private double c11;
+    @ExcelColumn(names = "C12")
+    private double c12;
+    @ExcelColumn(names = "C13")
+    private double c13;
+    @ExcelColumn(names = "C14")
+    private double c14;
+    @ExcelColumn(names = "C15")
+    private double c15;
+    @ExcelColumn(names = "C16")
+    private double c16;
+    @ExcelColumn(names = "C17")
+    private double c17;
+    @ExcelColumn(names = "C18")
+    private double c18;
+    @ExcelColumn(names = "C19")
+    private double c19;
+    @ExcelColumn(names = "C20")
+    private double c20;
+    @ExcelColumn(names = "C21")
+    private double c21;
+    @ExcelColumn(names = "C22")
+    private double c22;
+    @ExcelColumn(names = "C23")
+    private double c23;
+    @ExcelColumn(names = "C24")
+    private double c24;
+
+    public WideNumericRow() {
+    }
+}
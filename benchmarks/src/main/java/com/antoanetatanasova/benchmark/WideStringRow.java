@@ -0,0 +1,60 @@
+package com.antoanetatanasova.benchmark;
+
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+
+/**
+ * DTO for the {@link FixtureShape#WIDE_STRING} fixtures: 24 String columns named {@code C01} to {@code C24}.
+ */
+public class WideStringRow {
+    @ExcelColumn(names = "C01")
+    private String c01;
+    @ExcelColumn(names = "C02")
+    private String c02;
+    @ExcelColumn(names = "C03")
+    private String c03;
+    @ExcelColumn(names = "C04")
+    private String c04;
+    @ExcelColumn(names = "C05")
+    private String c05;
+    @ExcelColumn(names = "C06")
+    private String c06;
+    @ExcelColumn(names = "C07")
+    private String c07;
+    @ExcelColumn(names = "C08")
+    private String c08;
+    @ExcelColumn(names = "C09")
+    private String c09;
+    @ExcelColumn(names = "C10")
+    private String c10;
+    @ExcelColumn(names = "C11")
+    private String c11;
+    @ExcelColumn(names = "C12")
+    private String c12;
+    @ExcelColumn(names = "C13")
+    private String c13;
+    @ExcelColumn(names = "C14")
+    private String c14;
+    @ExcelColumn(names = "C15")
+    private String c15;
+    @ExcelColumn(names = "C16")
+    private String c16;
+    @ExcelColumn(names = "C17")
+    private String c17;
+    @ExcelColumn(names = "C18")
+    private String c18;
+    @ExcelColumn(names = "C19")
+    private String c19;
+    @ExcelColumn(names = "C20")
+    private String c20;
+    @ExcelColumn(names = "C21")
+    private String c21;
+    @ExcelColumn(names = "C22")
+    private String c22;
+    @ExcelColumn(names = "C23")
+    private String c23;
+    @ExcelColumn(names = "C24")
+    private String c24;
+
+    public WideStringRow() {
+    }
+}
@@ -0,0 +1,509 @@
+package com.antoanetatanasova.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code RowMapper} for every class with {@code @ExcelColumn} annotated fields and registers the
+ * mappers in {@code META-INF/services}, where {@code RowBinder} finds them at run time.
+ * <p>
+ * The mapper of a class {@code Item} is {@code Item_RowMapper}, in the same package; nested classes are named
+ * after all enclosing classes, such as {@code Outer_Inner_RowMapper}. Records are created in the first way
+ * the class allows:
+ * <ol>
+ *     <li>with its no-argument constructor, assigning the annotated fields, if none of them is private or
+ *     final;</li>
+ *     <li>with its no-argument constructor, calling a {@code set} method for private fields;</li>
+ *     <li>with a constructor whose parameters have the names and types of the annotated fields, in
+ *     declaration order. Such a mapper cannot leave a field unset, so it reports that it does not support
+ *     missing columns and {@code RowBinder} binds headers without a column for every field reflectively.</li>
+ * </ol>
+ * Classes that allow none of these, that are private or not static, or that have annotated fields of
+ * unsupported types get no mapper and are bound reflectively; the processor explains why in a note.
+ * <p>
+ * The processor refers to the annotation and the runtime types by name, so it has no dependency on the
+ * project it runs on.
+ */
+@SupportedAnnotationTypes(RowMapperProcessor.EXCEL_COLUMN)
+public final class RowMapperProcessor extends AbstractProcessor {
+    static final String EXCEL_COLUMN = "com.antoanetatanasova.dataprovider.item.ExcelColumn";
+
+    private static final String ITEM_PACKAGE = "com.antoanetatanasova.dataprovider.item";
+    private static final String ROW_MAPPER = ITEM_PACKAGE + ".RowMapper";
+    private static final String SERVICE_FILE = "META-INF/services/" + ROW_MAPPER;
+    private static final String SUFFIX = "_RowMapper";
+
+    private final Set<String> mappers = new LinkedHashSet<>();
+    private Filer filer;
+    private Messager messager;
+    private Types types;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+        types = processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            Set<TypeElement> classes = new LinkedHashSet<>();
+            for (Element field : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (field.getKind() == ElementKind.FIELD) {
+                    classes.add((TypeElement) field.getEnclosingElement());
+                }
+            }
+            for (TypeElement type : classes) {
+                generate(type);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        List<MappedField> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror annotation = excelColumn(field);
+            if (annotation == null) {
+                continue;
+            }
+            MappedField mapped = MappedField.of(field, annotation);
+            if (mapped == null) {
+                skip(type, "field " + field.getSimpleName() + " has unsupported type " + field.asType());
+                return;
+            }
+            fields.add(mapped);
+        }
+
+        if (type.getModifiers().contains(Modifier.PRIVATE) || type.getModifiers().contains(Modifier.ABSTRACT)
+                || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            skip(type, "the class is private, abstract or not static");
+            return;
+        }
+
+        ExecutableElement noArgConstructor = null;
+        ExecutableElement fieldConstructor = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            if (constructor.getParameters().isEmpty()) {
+                noArgConstructor = constructor;
+            } else if (matchesFields(constructor, fields)) {
+                fieldConstructor = constructor;
+            }
+        }
+
+        boolean fieldAccess = noArgConstructor != null;
+        for (MappedField field : fields) {
+            fieldAccess &= !field.element.getModifiers().contains(Modifier.PRIVATE)
+                    && !field.element.getModifiers().contains(Modifier.FINAL);
+        }
+        boolean setterAccess = noArgConstructor != null;
+        if (!fieldAccess && setterAccess) {
+            for (MappedField field : fields) {
+                if (field.element.getModifiers().contains(Modifier.PRIVATE) || field.element.getModifiers().contains(Modifier.FINAL)) {
+                    field.setter = setter(type, field);
+                    setterAccess &= field.setter != null;
+                }
+            }
+        }
+
+        Strategy strategy;
+        if (fieldAccess) {
+            strategy = Strategy.FIELDS;
+        } else if (setterAccess) {
+            strategy = Strategy.SETTERS;
+        } else if (fieldConstructor != null) {
+            strategy = Strategy.CONSTRUCTOR;
+        } else {
+            skip(type, "it has no accessible constructor taking the annotated fields, and no accessible"
+                    + " no-argument constructor with accessible fields or setters");
+            return;
+        }
+
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String mapperName = mapperName(type);
+        String qualifiedName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedName, type);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                write(out, packageName, mapperName, type.getQualifiedName().toString(), fields, strategy);
+            }
+            mappers.add(qualifiedName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write " + qualifiedName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void write(PrintWriter out, String packageName, String mapperName, String typeName,
+                       List<MappedField> fields, Strategy strategy) {
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import " + ITEM_PACKAGE + ".CellSource;");
+        out.println("import " + ITEM_PACKAGE + ".ExcelColumn;");
+        out.println("import " + ROW_MAPPER + ";");
+        out.println("import " + ITEM_PACKAGE + ".StringDictionary;");
+        out.println();
+        out.println("import java.util.Arrays;");
+        out.println("import java.util.Collections;");
+        out.println("import java.util.HashMap;");
+        out.println("import java.util.List;");
+        out.println("import java.util.Map;");
+        out.println();
+        out.println("/**");
+        out.println(" * Row mapper of {@link " + typeName + "}, generated by " + getClass().getSimpleName() + ". Do not edit.");
+        out.println(" */");
+        out.println("public final class " + mapperName + " implements RowMapper<" + typeName + "> {");
+        out.print("    private static final List<String> FIELD_NAMES = Collections.unmodifiableList(Arrays.asList(");
+        for (int i = 0; i < fields.size(); i++) {
+            out.print((i == 0 ? "" : ", ") + literal(fields.get(i).name));
+        }
+        out.println("));");
+        out.println();
+
+        out.println("    @Override");
+        out.println("    public Class<" + typeName + "> getTargetClass() {");
+        out.println("        return " + typeName + ".class;");
+        out.println("    }");
+        out.println();
+
+        out.println("    @Override");
+        out.println("    public List<String> getFieldNames() {");
+        out.println("        return FIELD_NAMES;");
+        out.println("    }");
+        out.println();
+
+        out.println("    @Override");
+        out.println("    public StringDictionary[] createDictionaries() {");
+        out.println("        return new StringDictionary[]{");
+        for (MappedField field : fields) {
+            out.println("                " + (field.kind == Kind.STRING
+                    ? "StringDictionary.forMode(ExcelColumn.Dedup." + field.dedup + ")" : "null") + ",");
+        }
+        out.println("        };");
+        out.println("    }");
+        out.println();
+
+        out.println("    @Override");
+        out.println("    public int[] resolve(List<String> headers) {");
+        out.println("        Map<String, Integer> columns = new HashMap<>();");
+        out.println("        for (int i = 0; i < headers.size(); i++) {");
+        out.println("            columns.put(headers.get(i), i);");
+        out.println("        }");
+        out.println("        return new int[]{");
+        for (MappedField field : fields) {
+            StringBuilder names = new StringBuilder();
+            for (String name : field.names) {
+                names.append(", ").append(literal(name));
+            }
+            out.println("                column(columns" + names + "),");
+        }
+        out.println("        };");
+        out.println("    }");
+        out.println();
+
+        if (strategy == Strategy.CONSTRUCTOR) {
+            out.println("    @Override");
+            out.println("    public boolean supportsMissingColumns() {");
+            out.println("        return false;");
+            out.println("    }");
+            out.println();
+        }
+
+        out.println("    @Override");
+        out.println("    public " + typeName + " map(CellSource cells, int[] columns, StringDictionary[] dictionaries) {");
+        out.println("        int column;");
+        if (strategy == Strategy.CONSTRUCTOR) {
+            StringBuilder arguments = new StringBuilder();
+            for (int i = 0; i < fields.size(); i++) {
+                MappedField field = fields.get(i);
+                out.println("        column = columns[" + i + "];");
+                out.println("        " + field.kind.type + " value" + i + " = column < 0 ? " + field.kind.defaultValue
+                        + " : " + field.kind.read(i) + ";");
+                arguments.append(i == 0 ? "" : ", ").append("value").append(i);
+            }
+            out.println("        return new " + typeName + "(" + arguments + ");");
+        } else {
+            out.println("        " + typeName + " record = new " + typeName + "();");
+            for (int i = 0; i < fields.size(); i++) {
+                MappedField field = fields.get(i);
+                out.println("        column = columns[" + i + "];");
+                out.println("        if (column >= 0) {");
+                if (field.setter != null) {
+                    out.println("            record." + field.setter + "(" + field.kind.read(i) + ");");
+                } else {
+                    out.println("            record." + field.name + " = " + field.kind.read(i) + ";");
+                }
+                out.println("        }");
+            }
+            out.println("        return record;");
+        }
+        out.println("    }");
+        out.println();
+
+        out.println("    private static String text(String value, StringDictionary dictionary) {");
+        out.println("        return dictionary != null ? dictionary.canonical(value) : value;");
+        out.println("    }");
+        out.println();
+        out.println("    private static int column(Map<String, Integer> columns, String... names) {");
+        out.println("        for (String name : names) {");
+        out.println("            Integer column = columns.get(name);");
+        out.println("            if (column != null) {");
+        out.println("                return column;");
+        out.println("            }");
+        out.println("        }");
+        out.println("        return -1;");
+        out.println("    }");
+        out.println("}");
+    }
+
+    private void writeServiceFile() {
+        if (mappers.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = file.openWriter()) {
+                for (String mapper : mappers) {
+                    out.write(mapper);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private boolean matchesFields(ExecutableElement constructor, List<MappedField> fields) {
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        if (parameters.size() != fields.size()) {
+            return false;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            MappedField field = fields.get(i);
+            if (!parameter.getSimpleName().contentEquals(field.name)
+                    || !types.isSameType(parameter.asType(), field.element.asType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String setter(TypeElement type, MappedField field) {
+        String name = "set" + Character.toUpperCase(field.name.charAt(0)) + field.name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name) && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC) && method.getParameters().size() == 1
+                    && types.isSameType(method.getParameters().get(0).asType(), field.element.asType())) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private void skip(TypeElement type, String reason) {
+        messager.printMessage(Diagnostic.Kind.NOTE, "No row mapper generated for " + type.getQualifiedName()
+                + " because " + reason + "; it is bound reflectively", type);
+    }
+
+    private static AnnotationMirror excelColumn(Element field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(EXCEL_COLUMN)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static PackageElement packageOf(Element element) {
+        while (!(element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return (PackageElement) element;
+    }
+
+    private static String mapperName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element outer = type.getEnclosingElement(); outer instanceof TypeElement; outer = outer.getEnclosingElement()) {
+            name.insert(0, outer.getSimpleName() + "_");
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    /**
+     * Writes a string as a Java literal. Non-ASCII characters, such as the zero-width spaces of some header
+     * aliases, are escaped so the generated source does not depend on its encoding.
+     */
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7E) {
+                        literal.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private enum Strategy {
+        FIELDS, SETTERS, CONSTRUCTOR
+    }
+
+    /**
+     * Supported field types, with the code reading a cell value of each.
+     */
+    private enum Kind {
+        STRING("String", "null", "text(cells.getString(column), dictionaries[%d])"),
+        INT("int", "0", "cells.getInt(column)"),
+        LONG("long", "0L", "cells.getLong(column)"),
+        DOUBLE("double", "0.0", "cells.getDouble(column)"),
+        BOOLEAN("boolean", "false", "cells.getBoolean(column)"),
+        BOXED_INT("Integer", "null", "Integer.valueOf(cells.getInt(column))"),
+        BOXED_LONG("Long", "null", "Long.valueOf(cells.getLong(column))"),
+        BOXED_DOUBLE("Double", "null", "Double.valueOf(cells.getDouble(column))"),
+        BOXED_BOOLEAN("Boolean", "null", "Boolean.valueOf(cells.getBoolean(column))");
+
+        final String type;
+        final String defaultValue;
+        private final String reader;
+
+        Kind(String type, String defaultValue, String reader) {
+            this.type = type;
+            this.defaultValue = defaultValue;
+            this.reader = reader;
+        }
+
+        String read(int field) {
+            return String.format(reader, field);
+        }
+
+        static Kind of(String typeName) {
+            switch (typeName) {
+                case "java.lang.String":
+                    return STRING;
+                case "int":
+                    return INT;
+                case "long":
+                    return LONG;
+                case "double":
+                    return DOUBLE;
+                case "boolean":
+                    return BOOLEAN;
+                case "java.lang.Integer":
+                    return BOXED_INT;
+                case "java.lang.Long":
+                    return BOXED_LONG;
+                case "java.lang.Double":
+                    return BOXED_DOUBLE;
+                case "java.lang.Boolean":
+                    return BOXED_BOOLEAN;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * An annotated field with the values of its annotation.
+     */
+    private static final class MappedField {
+        final VariableElement element;
+        final String name;
+        final Kind kind;
+        final List<String> names;
+        final String dedup;
+        String setter;
+
+        private MappedField(VariableElement element, Kind kind, List<String> names, String dedup) {
+            this.element = element;
+            this.name = element.getSimpleName().toString();
+            this.kind = kind;
+            this.names = names;
+            this.dedup = dedup;
+        }
+
+        static MappedField of(VariableElement field, AnnotationMirror annotation) {
+            Kind kind = Kind.of(field.asType().toString());
+            if (kind == null) {
+                return null;
+            }
+            List<String> names = new ArrayList<>();
+            String dedup = "AUTO";
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotation.getElementValues().entrySet()) {
+                String key = entry.getKey().getSimpleName().toString();
+                Object value = entry.getValue().getValue();
+                if (key.equals("names")) {
+                    for (Object name : (List<?>) value) {
+                        names.add((String) ((AnnotationValue) name).getValue());
+                    }
+                } else if (key.equals("dedup")) {
+                    dedup = ((VariableElement) value).getSimpleName().toString();
+                }
+            }
+            return new MappedField(field, kind, names, dedup);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.snapshot.ColumnarSnapshot;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ColumnarSnapshotTest {
+    private Path directory;
+    private Path source;
+
+    @BeforeMethod
+    public void copySource() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+        source = directory.resolve("items.csv");
+        Files.copy(Paths.get("src/test/resources/data/items.csv"), source);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void snapshotRestoresParsedItems() throws IOException {
+        Path workbook = directory.resolve("items.xlsx");
+        Files.copy(Paths.get("src/test/resources/data/items.xlsx"), workbook);
+        Item[] parsed = CoreDataProvider.getDataFromExcel(workbook.toString(), Item.class, new Item[0],
+                ExcelReadMode.WORKBOOK);
+
+        Item[] compiled = CoreDataProvider.getDataFromExcel(workbook.toString(), Item.class, new Item[0],
+                ExcelReadMode.SNAPSHOT);
+        Item[] restored = CoreDataProvider.getDataFromExcel(workbook.toString(), Item.class, new Item[0],
+                ExcelReadMode.SNAPSHOT);
+
+        assertTrue(Files.isRegularFile(ColumnarSnapshot.sidecarPath(workbook.toString(), "Item")));
+        assertEquals(parsed.length, 7);
+        assertEquals(toStrings(compiled), toStrings(parsed));
+        assertEquals(toStrings(restored), toStrings(parsed));
+    }
+
+    @Test
+    public void snapshotRestoresAllFieldTypes() throws IOException {
+        Record[] records = {new Record("first", 1, 10_000_000_000L, 1.5, true), new Record("", -2, 0, -0.25, false)};
+
+        ColumnarSnapshot.load(source.toString(), "", Record.class, new Record[0], () -> records);
+        Record[] restored = ColumnarSnapshot.load(source.toString(), "", Record.class, new Record[0], () -> {
+            throw new AssertionError("snapshot was compiled again");
+        });
+
+        assertEquals(toStrings(restored), toStrings(records));
+        assertNull(restored[0].missing);
+    }
+
+    @Test
+    public void upToDateSnapshotIsNotCompiledAgain() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+
+        load(parses);
+        load(parses);
+
+        assertEquals(parses.get(), 1);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.anyMatch(path -> path.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void snapshotIsCompiledAgainWhenSourceSizeChanges() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        load(parses);
+        long lastModified = source.toFile().lastModified();
+
+        Files.write(source, "Cake,1.00,1,pcs,20%,701,Batch 099\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertTrue(source.toFile().setLastModified(lastModified));
+        load(parses);
+
+        assertEquals(parses.get(), 2);
+    }
+
+    @Test
+    public void snapshotIsCompiledAgainWhenSourceIsModified() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        load(parses);
+
+        assertTrue(source.toFile().setLastModified(source.toFile().lastModified() + 2000));
+        load(parses);
+
+        assertEquals(parses.get(), 2);
+    }
+
+    @Test
+    public void snapshotIsCompiledAgainWhenSchemaChanges() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        load(parses);
+
+        // same simple name, and so the same sidecar file, but another field
+        Changed.Record[] records = {new Changed.Record("first", "extra")};
+        Changed.Record[] restored = ColumnarSnapshot.load(source.toString(), "", Changed.Record.class,
+                new Changed.Record[0], () -> records);
+        load(parses);
+
+        assertEquals(restored[0].extra, "extra");
+        assertEquals(parses.get(), 2);
+    }
+
+    @Test
+    public void truncatedSnapshotIsCompiledAgain() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        load(parses);
+        Path sidecar = ColumnarSnapshot.sidecarPath(source.toString(), "Record");
+        byte[] complete = Files.readAllBytes(sidecar);
+
+        // every length that still holds the complete header
+        for (int length = 44; length < complete.length; length++) {
+            Files.write(sidecar, Arrays.copyOf(complete, length));
+            Record[] restored = ColumnarSnapshot.load(source.toString(), "", Record.class, new Record[0], () -> {
+                parses.incrementAndGet();
+                return new Record[]{new Record("first", 1, 2, 3.0, true)};
+            });
+
+            assertEquals(toStrings(restored), new String[]{"first|1|2|3.0|true|null"}, "length " + length);
+            assertEquals(Files.readAllBytes(sidecar), complete, "length " + length);
+        }
+        assertEquals(parses.get(), complete.length - 44 + 1);
+    }
+
+    @Test
+    public void tableSnapshotWithCorruptValuesIsCompiledAgain() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        String[][] table = {{"a", "b"}, {"c"}};
+        ColumnarSnapshot.loadTable(source.toString(), "", () -> table);
+        Path sidecar = ColumnarSnapshot.sidecarPath(source.toString(), "table");
+        byte[] complete = Files.readAllBytes(sidecar);
+
+        // the dictionary ids of the last column point past the dictionary
+        byte[] corrupt = complete.clone();
+        Arrays.fill(corrupt, corrupt.length - 8, corrupt.length, (byte) 0x7F);
+        Files.write(sidecar, corrupt);
+        String[][] restored = ColumnarSnapshot.loadTable(source.toString(), "", () -> {
+            parses.incrementAndGet();
+            return table;
+        });
+
+        assertEquals(restored, table);
+        assertEquals(parses.get(), 1);
+        assertEquals(Files.readAllBytes(sidecar), complete);
+    }
+
+    @Test
+    public void tableSnapshotIsCompiledAgainWhenParseOptionsChange() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        String[][] table = {{"a", "b"}, {"c"}};
+
+        ColumnarSnapshot.loadTable(source.toString(), "delimiter=,", () -> {
+            parses.incrementAndGet();
+            return table;
+        });
+        String[][] restored = ColumnarSnapshot.loadTable(source.toString(), "delimiter=,", () -> {
+            parses.incrementAndGet();
+            return table;
+        });
+        ColumnarSnapshot.loadTable(source.toString(), "delimiter=;", () -> {
+            parses.incrementAndGet();
+            return table;
+        });
+
+        assertEquals(restored, table);
+        assertEquals(parses.get(), 2);
+    }
+
+    @Test
+    public void dtoSnapshotIsCompiledAgainWhenParseOptionsChange() throws IOException {
+        Path semicolons = directory.resolve("semicolons.csv");
+        Files.write(semicolons, Files.readAllLines(source, StandardCharsets.UTF_8).stream()
+                .map(line -> line.replace(',', ';'))
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+        Item[] expected = CsvDataProvider.getCsvData(semicolons.toString(), Item.class, new Item[0],
+                CsvFormat.DEFAULT.withDelimiter(';'), CsvReadMode.SEQUENTIAL);
+
+        // a snapshot compiled with the wrong delimiter maps no column at all
+        Item[] commas = CsvDataProvider.getCsvData(semicolons.toString(), Item.class, new Item[0],
+                CsvFormat.DEFAULT, CsvReadMode.SNAPSHOT);
+        Item[] restored = CsvDataProvider.getCsvData(semicolons.toString(), Item.class, new Item[0],
+                CsvFormat.DEFAULT.withDelimiter(';'), CsvReadMode.SNAPSHOT);
+
+        assertEquals(expected.length, 7);
+        assertNotEquals(toStrings(commas), toStrings(expected));
+        assertEquals(toStrings(restored), toStrings(expected));
+    }
+
+    private void load(AtomicInteger parses) throws IOException {
+        ColumnarSnapshot.load(source.toString(), "", Record.class, new Record[0], () -> {
+            parses.incrementAndGet();
+            return new Record[]{new Record("first", 1, 2, 3.0, true)};
+        });
+    }
+
+    private static String[] toStrings(Object[] records) {
+        return Arrays.stream(records).map(Object::toString).toArray(String[]::new);
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Name")
+        String name;
+        @ExcelColumn(names = "Count")
+        int count;
+        @ExcelColumn(names = "Total")
+        long total;
+        @ExcelColumn(names = "Price")
+        double price;
+        @ExcelColumn(names = "Active")
+        boolean active;
+        @ExcelColumn(names = "Missing")
+        String missing;
+
+        public Record() {
+        }
+
+        Record(String name, int count, long total, double price, boolean active) {
+            this.name = name;
+            this.count = count;
+            this.total = total;
+            this.price = price;
+            this.active = active;
+        }
+
+        @Override
+        public String toString() {
+            return name + "|" + count + "|" + total + "|" + price + "|" + active + "|" + missing;
+        }
+    }
+
+    public static class Changed {
+        public static class Record {
+            @ExcelColumn(names = "Name")
+            String name;
+            @ExcelColumn(names = "Extra")
+            String extra;
+
+            public Record() {
+            }
+
+            Record(String name, String extra) {
+                this.name = name;
+                this.extra = extra;
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.item.ColumnarTable;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.writer.ExcelRecordWriter;
+import com.antoanetatanasova.dataprovider.writer.RecordWriter;
+import com.antoanetatanasova.dataprovider.writer.SyntheticData;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ColumnarTableTest {
+    // more than one range of 64 blocks of 4096 rows, so that parallel aggregations are split
+    private static final int ROWS = 300_000;
+
+    private static final Field UNIT_PRICE = field("unitPrice");
+    private static final Field QUANTITY = field("quantity");
+    private static final Field VAT_RATE = field("vatRate");
+    private static final Field BATCH = field("batch");
+
+    private Path directory;
+    private Item[] items;
+    private ColumnarTable<Item> table;
+
+    @BeforeClass
+    public void createFixture() throws IOException {
+        directory = Files.createTempDirectory("columnar-table");
+        String csvFile = directory.resolve("items.csv").toString();
+        SyntheticData.of(Item.class, 13).write(csvFile, ROWS);
+        items = CsvDataProvider.getCsvData(csvFile, Item.class, new Item[0]);
+        table = ColumnarTable.fromCsv(csvFile, CsvFormat.DEFAULT, Item.class);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixture() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void rowsEqualCsvLoad() {
+        assertEquals(table.size(), ROWS);
+        for (int row = 0; row < ROWS; row += 997) {
+            assertEquals(table.get(row).toString(), items[row].toString());
+        }
+        assertEquals(table.get(ROWS - 1).toString(), items[ROWS - 1].toString());
+        expectThrows(IndexOutOfBoundsException.class, () -> table.get(ROWS));
+    }
+
+    @Test
+    public void distinctValuesAreInOrderOfFirstOccurrence() {
+        List<String> expected = Arrays.stream(items).map(item -> (String) get(BATCH, item)).distinct()
+                .collect(Collectors.toList());
+
+        assertEquals(table.distinctValues("batch"), expected);
+    }
+
+    @Test
+    public void aggregatesEqualStreams() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            ColumnarTable<Item>.Aggregation all = parallel ? table.aggregate().parallel() : table.aggregate();
+
+            assertEquals(all.count(), ROWS);
+            assertSum(all.sum("unitPrice"), stream(item -> true).mapToDouble(this::price).sum());
+            assertSum(all.sum("quantity"), stream(item -> true).mapToDouble(this::quantity).sum());
+            assertSum(all.sumProduct("unitPrice", "quantity"),
+                    stream(item -> true).mapToDouble(item -> price(item) * quantity(item)).sum());
+            assertEquals(all.min("unitPrice"), stream(item -> true).mapToDouble(this::price).min().getAsDouble());
+            assertEquals(all.max("quantity"), stream(item -> true).mapToDouble(this::quantity).max().getAsDouble());
+        }
+    }
+
+    @Test
+    public void conditionsEqualStreamFilters() {
+        String vatRate = (String) get(VAT_RATE, items[0]);
+        List<String> batches = table.distinctValues("batch").subList(0, 3);
+        Predicate<Item> filter = item -> vatRate.equals(get(VAT_RATE, item))
+                && batches.contains((String) get(BATCH, item))
+                && price(item) >= 10 && price(item) <= 50;
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            ColumnarTable<Item>.Aggregation where = (parallel ? table.aggregate().parallel() : table.aggregate())
+                    .whereEquals("vatRate", vatRate)
+                    .whereIn("batch", batches)
+                    .whereBetween("unitPrice", 10, 50);
+
+            long count = stream(filter).count();
+            assertTrue(count > 0);
+            assertEquals(where.count(), count);
+            assertSum(where.sum("unitPrice"), stream(filter).mapToDouble(this::price).sum());
+            assertEquals(where.min("quantity"), stream(filter).mapToDouble(this::quantity).min().getAsDouble());
+            assertEquals(where.max("unitPrice"), stream(filter).mapToDouble(this::price).max().getAsDouble());
+        }
+
+        ColumnarTable<Item>.Aggregation none = table.aggregate().whereEquals("batch", "no such batch");
+        assertEquals(none.count(), 0);
+        assertEquals(none.sum("unitPrice"), 0.0);
+        assertTrue(Double.isNaN(none.min("unitPrice")));
+        assertEquals(table.aggregate().whereBetween("quantity", 3, 5).count(),
+                stream(item -> quantity(item) >= 3 && quantity(item) <= 5).count());
+    }
+
+    @Test
+    public void groupsEqualStreamGroups() {
+        Predicate<Item> filter = item -> price(item) <= 40;
+        Map<String, List<Item>> expected = group(filter);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            ColumnarTable<Item>.Grouping grouping = (parallel ? table.aggregate().parallel() : table.aggregate())
+                    .whereBetween("unitPrice", Double.NEGATIVE_INFINITY, 40)
+                    .groupBy("batch");
+
+            Map<String, Long> counts = grouping.count();
+            Map<String, Double> sums = grouping.sumProduct("unitPrice", "quantity");
+            Map<String, Double> maxima = grouping.max("unitPrice");
+            assertEquals(new ArrayList<>(counts.keySet()), new ArrayList<>(expected.keySet()));
+            assertEquals(new ArrayList<>(sums.keySet()), new ArrayList<>(expected.keySet()));
+            for (Map.Entry<String, List<Item>> group : expected.entrySet()) {
+                List<Item> rows = group.getValue();
+                assertEquals(counts.get(group.getKey()).longValue(), rows.size());
+                assertSum(sums.get(group.getKey()), rows.stream()
+                        .mapToDouble(item -> price(item) * quantity(item)).sum());
+                assertEquals(maxima.get(group.getKey()), rows.stream().mapToDouble(this::price).max().getAsDouble());
+            }
+        }
+    }
+
+    @Test
+    public void emptyValuesFormTheirOwnGroup() throws IOException {
+        Path file = directory.resolve("empty-batch.csv");
+        Files.write(file, Arrays.asList("Item Name,Unit Price,Quantity,Batch",
+                "Tea,2.00,1,Batch 002", "Cake,1.50,2,", "Pie,3.00,4,", "Bun,0.50,3,Batch 001"));
+        ColumnarTable<Item> small = ColumnarTable.fromCsv(file.toString(), CsvFormat.DEFAULT, Item.class);
+        Item[] records = CsvDataProvider.getCsvData(file.toString(), Item.class, new Item[0]);
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("Batch 002", 1L);
+        expected.put("", 2L);
+        expected.put("Batch 001", 1L);
+        assertEquals(new ArrayList<>(small.aggregate().groupBy("batch").count().entrySet()),
+                new ArrayList<>(expected.entrySet()));
+        assertEquals(small.aggregate().groupBy("batch").sum("quantity").get(""), 6.0);
+        assertEquals(small.aggregate().whereEquals("batch", "").count(), 2);
+        for (int row = 0; row < records.length; row++) {
+            assertEquals(small.get(row).toString(), records[row].toString());
+        }
+    }
+
+    @Test
+    public void rowsWithoutValueAreGroupedUnderNull() throws IOException {
+        Path file = directory.resolve("without-batch.csv");
+        Files.write(file, Arrays.asList("Item Name,Unit Price,Quantity", "Cake,1.50,2", "Tea,2.00,1"));
+        ColumnarTable<Item> small = ColumnarTable.fromCsv(file.toString(), CsvFormat.DEFAULT, Item.class);
+
+        assertEquals(small.aggregate().groupBy("batch").count(), Collections.singletonMap(null, 2L));
+        assertEquals(small.aggregate().groupBy("batch").sum("unitPrice").get(null), 3.5);
+        assertEquals(small.aggregate().whereEquals("batch", null).count(), 2);
+        assertTrue(small.distinctValues("batch").isEmpty());
+    }
+
+    @Test
+    public void excelTableEqualsExcelLoad() throws IOException {
+        String excelFile = directory.resolve("items.xlsx").toString();
+        SyntheticData.of(Item.class, 13).write(excelFile, 500);
+        Item[] expected = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        ColumnarTable<Item> excel = CoreDataProvider.getColumnarTableFromExcel(excelFile, Item.class);
+
+        assertEquals(excel.size(), expected.length);
+        for (int row = 0; row < expected.length; row++) {
+            assertEquals(excel.get(row).toString(), expected[row].toString());
+        }
+        assertSum(excel.aggregate().sumProduct("unitPrice", "quantity"),
+                Arrays.stream(expected).mapToDouble(item -> price(item) * quantity(item)).sum());
+    }
+
+    @Test
+    public void excelWholeNumbersAreReadLikeStreamingLoad() throws IOException {
+        String excelFile = directory.resolve("numbers.xlsx").toString();
+        try (RecordWriter<Record> writer = ExcelRecordWriter.open(excelFile, Record.class)) {
+            writer.write(new Record("negative", -3, -10_000_000_000L, -7));
+            writer.write(new Record("large", 10_000_000, 12_345_678_901L, 20_000_000));
+            writer.write(new Record("negative", 5, 1, 1));
+        }
+        Record[] expected = CoreDataProvider.getDataFromExcel(excelFile, Record.class, new Record[0],
+                ExcelReadMode.STREAMING);
+
+        ColumnarTable<Record> numbers = ColumnarTable.fromExcel(excelFile, Record.class);
+
+        assertEquals(numbers.size(), expected.length);
+        for (int row = 0; row < expected.length; row++) {
+            assertEquals(numbers.get(row).toString(), expected[row].toString());
+        }
+        assertEquals(numbers.get(0).toString(), "negative|-3|-10000000000|-7");
+        assertEquals(numbers.get(1).toString(), "large|10000000|12345678901|20000000");
+        assertEquals(numbers.aggregate().whereEquals("name", "negative").sum("count"), 2.0);
+        assertEquals(numbers.aggregate().max("total"), 12_345_678_901.0);
+    }
+
+    @Test
+    public void fieldsOfTheWrongKindAreRejected() {
+        expectThrows(IllegalArgumentException.class, () -> table.aggregate().sum("batch"));
+        expectThrows(IllegalArgumentException.class, () -> table.aggregate().groupBy("quantity"));
+        expectThrows(IllegalArgumentException.class, () -> table.distinctValues("price"));
+    }
+
+    /**
+     * Compares sums computed in another order, allowing for rounding.
+     */
+    private static void assertSum(double actual, double expected) {
+        assertEquals(actual, expected, Math.abs(expected) * 1e-12);
+    }
+
+    private Stream<Item> stream(Predicate<Item> filter) {
+        return Arrays.stream(items).filter(filter);
+    }
+
+    /**
+     * Groups the matching items by batch in order of first occurrence among all items, with items without a
+     * batch last.
+     */
+    private Map<String, List<Item>> group(Predicate<Item> filter) {
+        Map<String, List<Item>> groups = new LinkedHashMap<>();
+        for (Item item : items) {
+            String batch = (String) get(BATCH, item);
+            if (batch != null) {
+                groups.computeIfAbsent(batch, key -> new ArrayList<>());
+            }
+        }
+        List<Item> withoutBatch = new ArrayList<>();
+        for (Item item : items) {
+            if (filter.test(item)) {
+                String batch = (String) get(BATCH, item);
+                (batch != null ? groups.get(batch) : withoutBatch).add(item);
+            }
+        }
+        groups.values().removeIf(List::isEmpty);
+        if (!withoutBatch.isEmpty()) {
+            groups.put(null, withoutBatch);
+        }
+        return groups;
+    }
+
+    private double price(Item item) {
+        return (Double) get(UNIT_PRICE, item);
+    }
+
+    private double quantity(Item item) {
+        return (Integer) get(QUANTITY, item);
+    }
+
+    private static Object get(Field field, Item item) {
+        try {
+            return field.get(item);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field field(String name) {
+        try {
+            Field field = Item.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Name")
+        String name;
+        @ExcelColumn(names = "Count")
+        int count;
+        @ExcelColumn(names = "Total")
+        long total;
+        @ExcelColumn(names = "Boxed")
+        Integer boxed;
+
+        public Record() {
+        }
+
+        Record(String name, int count, long total, Integer boxed) {
+            this.name = name;
+            this.count = count;
+            this.total = total;
+            this.boxed = boxed;
+        }
+
+        @Override
+        public String toString() {
+            return name + "|" + count + "|" + total + "|" + boxed;
+        }
+    }
+}
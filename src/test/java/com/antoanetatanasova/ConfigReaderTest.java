@@ -0,0 +1,104 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.utls.ConfigReader;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ConfigReaderTest {
+    private static final Path CONFIG_FILE = Paths.get("config/config.properties");
+
+    private byte[] original;
+
+    @BeforeMethod
+    public void saveConfig() throws IOException {
+        original = Files.readAllBytes(CONFIG_FILE);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() throws IOException {
+        System.clearProperty("test.text");
+        System.clearProperty("path");
+        Files.write(CONFIG_FILE, original);
+        ConfigReader.reload();
+    }
+
+    @Test
+    public void reloadReplacesTheSnapshot() throws IOException {
+        assertEquals(ConfigReader.fetchProperty("files.itemCSV"), "src/test/resources/data/items.csv");
+        assertNull(ConfigReader.fetchProperty("test.text"));
+
+        append("test.text =  value with spaces  ");
+        ConfigReader.reload();
+
+        assertEquals(ConfigReader.fetchProperty("test.text"), "value with spaces");
+        assertEquals(ConfigReader.fetchProperty("test.missing", "default"), "default");
+        Map<String, String> files = ConfigReader.fetchProperties("files.");
+        assertEquals(files.size(), 4);
+        assertEquals(files.get("files.itemXLSX"), "src/test/resources/data/items.xlsx");
+        expectThrows(UnsupportedOperationException.class, () -> files.put("files.other", "other.csv"));
+    }
+
+    @Test(timeOut = 30_000)
+    public void changedFileIsReloadedByTheWatcher() throws IOException, InterruptedException {
+        ConfigReader.fetchProperty("files.itemCSV");
+
+        append("test.watched=yes");
+
+        while (!"yes".equals(ConfigReader.fetchProperty("test.watched"))) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void typedValuesAreParsed() throws IOException {
+        append("test.int=42", "test.long=10000000000", "test.boolean=TRUE", "test.text=yes");
+        ConfigReader.reload();
+
+        assertEquals(ConfigReader.fetchInt("test.int", 0), 42);
+        assertEquals(ConfigReader.fetchInt("test.missing", 7), 7);
+        assertEquals(ConfigReader.fetchLong("test.long", 0), 10_000_000_000L);
+        assertEquals(ConfigReader.fetchLong("test.missing", -1), -1);
+        assertTrue(ConfigReader.fetchBoolean("test.boolean", false));
+        assertFalse(ConfigReader.fetchBoolean("test.text", true));
+        assertTrue(ConfigReader.fetchBoolean("test.missing", true));
+        expectThrows(NumberFormatException.class, () -> ConfigReader.fetchInt("test.long", 0));
+        expectThrows(NumberFormatException.class, () -> ConfigReader.fetchLong("test.text", 0));
+    }
+
+    @Test
+    public void systemPropertiesOverrideTheFileAndTheEnvironment() throws IOException {
+        append("test.text=from file");
+        ConfigReader.reload();
+
+        System.setProperty("test.text", " from system property ");
+        assertEquals(ConfigReader.fetchProperty("test.text"), "from system property");
+        assertEquals(ConfigReader.fetchProperties("test.").get("test.text"), "from system property");
+
+        // PATH is set in every environment and is not in the file
+        assertEquals(ConfigReader.fetchProperty("path"), System.getenv("PATH").trim());
+        System.setProperty("path", "from system property");
+        assertEquals(ConfigReader.fetchProperty("path"), "from system property");
+    }
+
+    private static void append(String... lines) throws IOException {
+        StringBuilder content = new StringBuilder(new String(Files.readAllBytes(CONFIG_FILE), StandardCharsets.ISO_8859_1));
+        for (String line : lines) {
+            content.append(System.lineSeparator()).append(line);
+        }
+        Files.write(CONFIG_FILE, content.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,164 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CsvBindingTest {
+    private static final int ROWS = 100_000;
+
+    private Path directory;
+    private String itemFile;
+
+    @BeforeClass
+    public void createFixture() throws IOException {
+        // more than 4 MB, so that the parallel read is split into several chunks
+        directory = Files.createTempDirectory("csv-binding");
+        itemFile = directory.resolve("items.csv").toString();
+        List<String> lines = new ArrayList<>();
+        lines.add("Item Name,Unit Price,Quantity,Unit of Measure,VAT Rate,Account,Batch");
+        for (int row = 0; row < ROWS; row++) {
+            String name = row % 5 == 0 ? "\"Item \"\"" + row + "\"\", boxed\"" : "Item Name " + row;
+            lines.add(name + "," + (row % 1000) / 8.0 + "," + row % 40 + ",pcs,20%," + (700 + row % 4)
+                    + ",Batch " + String.format(Locale.ROOT, "%05d", row / 3));
+        }
+        Files.write(Paths.get(itemFile), lines, StandardCharsets.UTF_8);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixture() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void doublesParsedFromBytesEqualJdkParsing() throws IOException {
+        Random random = new Random(3);
+        StringBuilder content = new StringBuilder();
+        for (int row = 0; row < 10_000; row++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            content.append(String.format(Locale.ROOT, "%." + random.nextInt(7) + "f", value)).append(',')
+                    .append(value).append(',')
+                    .append(" ").append(random.nextInt(1000)).append(".50 ").append(',')
+                    .append("\"").append(random.nextInt()).append("\"\n");
+        }
+        content.append("1e3,-0.0,+7,1.5E-4\n");
+
+        for (String[] record : parseTyped(content.toString(), CsvRecord::getDouble)) {
+            for (String field : record) {
+                String[] parts = field.split("=", 2);
+                assertEquals(Double.compare(Double.parseDouble(parts[0]), Double.parseDouble(parts[1])), 0, field);
+            }
+        }
+    }
+
+    @Test
+    public void integersAndBooleansParsedFromBytes() throws IOException {
+        Path file = write("42, -7 ,\"123\",1.0,9000000000,TRUE, true ,yes,\"true\"\n");
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            CsvRecord record = parser.next();
+
+            assertEquals(record.getInt(0), 42);
+            assertEquals(record.getInt(1), -7);
+            assertEquals(record.getInt(2), 123);
+            assertEquals(record.getInt(3), 1);
+            assertEquals(record.getLong(4), 9_000_000_000L);
+            assertTrue(record.getBoolean(5));
+            assertTrue(record.getBoolean(6));
+            assertFalse(record.getBoolean(7));
+            assertTrue(record.getBoolean(8));
+        }
+    }
+
+    @Test
+    public void itemsBoundFromBytesEqualItemsBoundFromText() throws IOException {
+        String[][] records = CsvDataProvider.getCsvData(itemFile, CsvFormat.DEFAULT);
+        RowBinder<Item> binder = RowBinder.forHeader(Item.class, Arrays.asList(records[0]));
+
+        Item[] items = CsvDataProvider.getCsvData(itemFile, Item.class, new Item[0]);
+
+        assertEquals(items.length, ROWS);
+        for (int row = 0; row < items.length; row++) {
+            String[] record = records[row + 1];
+            assertEquals(items[row].toString(), binder.bind(column -> record[column]).toString());
+        }
+    }
+
+    @Test
+    public void parallelAndSnapshotBindingEqualSequentialBinding() throws IOException {
+        Item[] sequential = CsvDataProvider.getCsvData(itemFile, Item.class, new Item[0], CsvFormat.DEFAULT,
+                CsvReadMode.SEQUENTIAL);
+
+        assertTrue(Files.size(Paths.get(itemFile)) > 4L << 20);
+        for (CsvReadMode mode : new CsvReadMode[]{CsvReadMode.PARALLEL, CsvReadMode.SNAPSHOT, CsvReadMode.SNAPSHOT}) {
+            Item[] items = CsvDataProvider.getCsvData(itemFile, Item.class, new Item[0], CsvFormat.DEFAULT, mode);
+            assertEquals(items.length, ROWS, mode.toString());
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(items[row].toString(), sequential[row].toString());
+            }
+        }
+    }
+
+    @Test
+    public void headerOnlyFileHasNoItems() throws IOException {
+        Path file = write("Item Name,Unit Price,Quantity\r\n");
+
+        for (CsvReadMode mode : new CsvReadMode[]{CsvReadMode.SEQUENTIAL, CsvReadMode.PARALLEL}) {
+            assertEquals(CsvDataProvider.getCsvData(file.toString(), Item.class, new Item[0], CsvFormat.DEFAULT, mode)
+                    .length, 0, mode.toString());
+        }
+    }
+
+    private interface TypedField {
+        Object read(CsvRecord record, int index);
+    }
+
+    /**
+     * Returns {@code "<text>=<typed value>"} for every field of every record.
+     */
+    private List<String[]> parseTyped(String content, TypedField typed) throws IOException {
+        Path file = write(content);
+        List<String[]> records = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                String[] fields = new String[record.size()];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = record.getTrimmedString(i) + "=" + typed.read(record, i);
+                }
+                records.add(fields);
+            }
+        }
+        return records;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "records", ".csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
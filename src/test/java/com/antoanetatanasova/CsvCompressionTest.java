@@ -0,0 +1,212 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvCompression;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class CsvCompressionTest {
+    private static final String ITEMS = "src/test/resources/data/items.csv";
+
+    private Path directory;
+    private byte[] content;
+    private List<List<String>> records;
+
+    @BeforeClass
+    public void createContent() throws IOException {
+        directory = Files.createTempDirectory("csv-compression");
+
+        // larger than the read window of compressed files, with quoted line breaks and quotes in every record
+        StringBuilder text = new StringBuilder("id,note,padding\r\n");
+        for (int row = 0; text.length() < 6 << 20; row++) {
+            text.append(row).append(",\"line ").append(row).append("\r\nsays \"\"").append(row).append("\"\"\",")
+                    .append(padding(row)).append('\n');
+        }
+        content = text.toString().getBytes(StandardCharsets.UTF_8);
+        records = parse(write("plain.csv", content));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void gzipFileParsesLikePlainFile() throws IOException {
+        assertTrue(records.size() > 50_000, String.valueOf(records.size()));
+
+        assertEquals(parse(write("records.csv.gz", gzip(content))), records);
+        assertEquals(parse(write("records.gzip", gzip(content))), records);
+    }
+
+    @Test
+    public void zipFileParsesLikePlainFile() throws IOException {
+        assertEquals(parse(write("records.zip", zip("records.csv", content))), records);
+    }
+
+    @Test
+    public void extensionLessFilesAreDetectedByTheirSignature() throws IOException {
+        String gzip = write("records-gzip", gzip(content));
+        String zip = write("records-zip", zip("records.csv", content));
+        String plain = write("records-plain", content);
+
+        assertEquals(CsvCompression.detect(gzip), CsvCompression.GZIP);
+        assertEquals(CsvCompression.detect(zip), CsvCompression.ZIP);
+        assertEquals(CsvCompression.detect(plain), CsvCompression.NONE);
+        assertEquals(parse(gzip), records);
+        assertEquals(parse(zip), records);
+        assertEquals(parse(plain), records);
+    }
+
+    @Test
+    public void extensionTakesPrecedenceOverSignature() throws IOException {
+        assertEquals(CsvCompression.detect(write("gzip.csv", gzip(content))), CsvCompression.NONE);
+        assertEquals(CsvCompression.detect(write("plain.gz", content)), CsvCompression.GZIP);
+        assertEquals(CsvCompression.detect(write("plain.ZIP", content)), CsvCompression.ZIP);
+    }
+
+    @Test
+    public void shortAndEmptyFilesAreNotCompressed() throws IOException {
+        assertEquals(CsvCompression.detect(write("empty", new byte[0])), CsvCompression.NONE);
+        assertEquals(CsvCompression.detect(write("one-byte", new byte[]{0x1F})), CsvCompression.NONE);
+        assertEquals(CsvCompression.detect(write("zip-prefix", new byte[]{'P', 'K', 3})), CsvCompression.NONE);
+        assertEquals(CsvCompression.detect(write("gzip-prefix", new byte[]{0x1F, (byte) 0x8B})), CsvCompression.GZIP);
+    }
+
+    @Test
+    public void concatenatedGzipMembersAreReadInOrder() throws IOException {
+        byte[] first = "id,note\n1,first\n".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "2,\"second\nmember\"\n3,third\n".getBytes(StandardCharsets.UTF_8);
+        byte[] members = concat(gzip(first), gzip(second));
+
+        List<List<String>> expected = Arrays.asList(Arrays.asList("id", "note"), Arrays.asList("1", "first"),
+                Arrays.asList("2", "second\nmember"), Arrays.asList("3", "third"));
+        assertEquals(parse(write("members.csv.gz", members)), expected);
+        assertEquals(parse(write("members", members)), expected);
+    }
+
+    @Test
+    public void firstFileEntryOfZipIsRead() throws IOException {
+        Path archive = directory.resolve("nested.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("data/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("data/first.csv"));
+            zip.write("a,b\n1,2\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("data/second.csv"));
+            zip.write("c,d\n3,4\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        assertEquals(parse(archive.toString()), Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("1", "2")));
+    }
+
+    @Test
+    public void zipWithoutFileEntryIsRejected() throws IOException {
+        Path archive = directory.resolve("directories.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("data/"));
+            zip.closeEntry();
+        }
+
+        IOException e = expectThrows(IOException.class, () -> parse(archive.toString()));
+        assertEquals(e.getMessage(), "Zip archive has no file entry: " + archive);
+    }
+
+    @Test
+    public void compressedItemsBindLikePlainItems() throws IOException {
+        byte[] items = Files.readAllBytes(Paths.get(ITEMS));
+        List<String> expected = toStrings(CsvDataProvider.getCsvData(ITEMS, Item.class, new Item[0]));
+
+        List<String> filePaths = Arrays.asList(write("items.csv.gz", gzip(items)),
+                write("items.zip", zip("items.csv", items)), write("items", gzip(items)));
+        for (String filePath : filePaths) {
+            for (CsvReadMode mode : CsvReadMode.values()) {
+                Item[] read = CsvDataProvider.getCsvData(filePath, Item.class, new Item[0], CsvFormat.DEFAULT, mode);
+                assertEquals(toStrings(read), expected, filePath + " " + mode);
+            }
+        }
+    }
+
+    private String write(String fileName, byte[] bytes) throws IOException {
+        Path file = directory.resolve(fileName);
+        Files.write(file, bytes);
+        return file.toString();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zip(String entryName, byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(bytes);
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    private static String padding(int row) {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 10 + row % 90; i++) {
+            padding.append((char) ('a' + i % 26));
+        }
+        return padding.toString();
+    }
+
+    private static List<List<String>> parse(String filePath) throws IOException {
+        List<List<String>> parsed = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(filePath)) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                parsed.add(Arrays.asList(record.toArray()));
+            }
+        }
+        return parsed;
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        return Arrays.stream(records).map(Object::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+public class CsvParserTest {
+    private Path directory;
+
+    @BeforeClass
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("csv-parser");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void quotedFieldsKeepLineBreaksAndDelimiters() throws IOException {
+        List<String[]> records = parse("name,note\n\"Cake\",\"first line\nsecond, line\"\nTea,plain\n");
+
+        assertEquals(records.size(), 3);
+        assertEquals(records.get(1), new String[]{"Cake", "first line\nsecond, line"});
+        assertEquals(records.get(2), new String[]{"Tea", "plain"});
+    }
+
+    @Test
+    public void doubledQuotesAreUnescaped() throws IOException {
+        List<String[]> records = parse("\"say \"\"hi\"\"\",\"\"\"\",\"\"\n");
+
+        assertEquals(records.get(0), new String[]{"say \"hi\"", "\"", ""});
+    }
+
+    @Test
+    public void byteOrderMarkIsSkipped() throws IOException {
+        List<String[]> records = parse("\uFEFFItem Name,Quantity\nCake,1\n");
+
+        assertEquals(records.get(0)[0], "Item Name");
+        assertEquals(records.get(1), new String[]{"Cake", "1"});
+    }
+
+    @Test
+    public void lineEndingsAreRecognized() throws IOException {
+        String[][] expected = {{"a", "1"}, {"b", "2"}, {"c", "3"}, {"d", "4"}};
+
+        assertEquals(parse("a,1\nb,2\nc,3\nd,4").toArray(), expected);
+        assertEquals(parse("a,1\r\nb,2\r\nc,3\r\nd,4\r\n").toArray(), expected);
+        assertEquals(parse("a,1\rb,2\rc,3\rd,4\r").toArray(), expected);
+        assertEquals(parse("a,1\r\nb,2\nc,3\rd,4\n\n").toArray(), expected);
+    }
+
+    @Test
+    public void trailingEmptyFieldsAreKept() throws IOException {
+        List<String[]> records = parse("a,,\n,b,\n");
+
+        assertEquals(records.get(0), new String[]{"a", "", ""});
+        assertEquals(records.get(1), new String[]{"", "b", ""});
+    }
+
+    @Test
+    public void recordsCrossingReadWindowsAreParsed() throws IOException {
+        // larger than the 64 MB read window, with quoted line breaks and quotes in every record
+        Path file = directory.resolve("large.csv");
+        int rows = 0;
+        long size = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (size < 70L << 20) {
+                String line = rows + ",\"line " + rows + "\r\nsays \"\"" + rows + "\"\"\"," + padding(rows) + "\n";
+                writer.write(line);
+                size += line.length();
+                rows++;
+            }
+        }
+
+        int count = 0;
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                assertEquals(Integer.parseInt(record.getString(0)), count);
+                assertEquals(record.getString(1), "line " + count + "\r\nsays \"" + count + "\"");
+                assertEquals(record.getString(2), padding(count));
+                count++;
+            }
+        }
+        assertEquals(count, rows);
+    }
+
+    private static String padding(int row) {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 10 + row % 90; i++) {
+            padding.append((char) ('a' + i % 26));
+        }
+        return padding.toString();
+    }
+
+    private List<String[]> parse(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "records", ".csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        List<String[]> records = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                records.add(record.toArray());
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,136 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadListener;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadStats;
+import com.antoanetatanasova.dto.Item;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class DataLoadMetricsTest {
+    private Path directory;
+    private String workbook;
+    private String csv;
+    private final List<DataLoadStats> loads = Collections.synchronizedList(new ArrayList<>());
+    private final DataLoadListener listener = stats -> {
+        if (stats.getSource().startsWith(directory.toString())) {
+            loads.add(stats);
+        }
+    };
+
+    @BeforeMethod
+    public void copySources() throws IOException {
+        directory = Files.createTempDirectory("metrics");
+        workbook = directory.resolve("items.xlsx").toString();
+        csv = directory.resolve("items.csv").toString();
+        Files.copy(Paths.get("src/test/resources/data/items.xlsx"), Paths.get(workbook));
+        Files.copy(Paths.get("src/test/resources/data/items.csv"), Paths.get(csv));
+        loads.clear();
+        DataLoadMetrics.addListener(listener);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteSources() throws IOException {
+        DataLoadMetrics.removeListener(listener);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void everyExcelLoadIsRecordedOnce() throws IOException {
+        for (ExcelReadMode mode : ExcelReadMode.values()) {
+            CoreDataProvider.getDataFromExcel(workbook, Item.class, new Item[0], mode);
+        }
+        // restored from the snapshot compiled by the previous load
+        CoreDataProvider.getDataFromExcel(workbook, Item.class, new Item[0], ExcelReadMode.SNAPSHOT);
+
+        List<String> readers = new ArrayList<>();
+        for (ExcelReadMode mode : ExcelReadMode.values()) {
+            readers.add("CoreDataProvider.getDataFromExcel[" + mode + "]");
+        }
+        readers.add("CoreDataProvider.getDataFromExcel[SNAPSHOT]");
+        assertEquals(readers(), readers);
+        for (DataLoadStats stats : loads) {
+            assertEquals(stats.getRows(), 7, stats.toString());
+            assertEquals(stats.getSource(), workbook);
+            assertEquals(stats.getType(), Item.class);
+        }
+    }
+
+    @Test
+    public void everyCsvLoadIsRecordedOnce() throws IOException {
+        for (CsvReadMode mode : CsvReadMode.values()) {
+            CsvDataProvider.getCsvData(csv, Item.class, new Item[0], CsvFormat.DEFAULT, mode);
+            CsvDataProvider.getCsvData(csv, CsvFormat.DEFAULT, mode);
+        }
+
+        List<String> readers = new ArrayList<>();
+        for (CsvReadMode mode : CsvReadMode.values()) {
+            readers.add("CsvDataProvider.getCsvData[" + mode + "]");
+            readers.add("CsvDataProvider.getCsvData[" + mode + "]");
+        }
+        assertEquals(readers(), readers);
+        for (int i = 0; i < loads.size(); i += 2) {
+            assertEquals(loads.get(i).getRows(), 7, loads.get(i).toString());
+            assertEquals(loads.get(i).getType(), Item.class);
+            // the table includes the header record
+            assertEquals(loads.get(i + 1).getRows(), 8, loads.get(i + 1).toString());
+            assertEquals(loads.get(i + 1).getType(), String[].class);
+        }
+    }
+
+    @Test
+    public void sequentialLoadMeasuresMappingOfEveryRow() throws IOException {
+        CsvDataProvider.getCsvData(csv, Item.class, new Item[0]);
+
+        DataLoadStats stats = loads.get(0);
+        assertEquals(loads.size(), 1);
+        assertEquals(stats.getRowsSkipped(), 0);
+        assertTrue(stats.getTotalTime() > 0, stats.toString());
+        assertTrue(stats.getMappingTime() > 0, stats.toString());
+        assertTrue(stats.getMappingTime() <= stats.getTotalTime(), stats.toString());
+        assertEquals(stats.getBytesRead(), Files.size(Paths.get(csv)));
+    }
+
+    @Test
+    public void recorderIsDisabledWithoutListeners() {
+        DataLoadMetrics.removeListener(listener);
+
+        DataLoadRecorder recorder = DataLoadMetrics.start("reader", csv, Item.class);
+        if (recorder.isEnabled()) {
+            throw new SkipException("The JFR event or another listener, such as the load report, is enabled");
+        }
+        recorder.finish(new Item[0], 0);
+
+        assertSame(DataLoadMetrics.start("other", csv, Item.class), recorder);
+        assertTrue(loads.isEmpty());
+    }
+
+    private List<String> readers() {
+        return loads.stream().map(DataLoadStats::getReader).collect(Collectors.toList());
+    }
+}
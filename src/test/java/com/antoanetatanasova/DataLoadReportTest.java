@@ -0,0 +1,127 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadReport;
+import com.antoanetatanasova.dto.Item;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class DataLoadReportTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("load-report");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void reportListsTheLoadsOfTheSuiteSlowestFirst() throws IOException {
+        run(new DataLoadReport(), Loads.class);
+
+        List<String> lines = readReport();
+        assertEquals(lines.size(), 5, String.join("\n", lines));
+        assertTrue(lines.get(0).startsWith("Data loads of suite 'Metrics': 3 loads, 22 rows, "), lines.get(0));
+        assertTrue(lines.get(1).trim().startsWith("total ms"), lines.get(1));
+
+        double previous = Double.MAX_VALUE;
+        for (String line : lines.subList(2, lines.size())) {
+            double totalMillis = Double.parseDouble(line.trim().split("\\s+")[0]);
+            assertTrue(totalMillis <= previous, String.join("\n", lines));
+            previous = totalMillis;
+        }
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith(
+                "CoreDataProvider.getDataFromExcel[WORKBOOK] src/test/resources/data/items.xlsx (Item)")));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith(
+                "CsvDataProvider.getCsvData[SEQUENTIAL] src/test/resources/data/items.csv (Item)")));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith(
+                "CsvDataProvider.getCsvData[PARALLEL] src/test/resources/data/items.csv (String[])")));
+    }
+
+    @Test
+    public void suiteWithoutLoadsWritesNoReport() throws IOException {
+        run(new DataLoadReport(), NoLoads.class);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertFalse(files.anyMatch(path -> path.endsWith("data-load-report.txt")));
+        }
+    }
+
+    @Test
+    public void everySuiteStartsWithAnEmptyReport() throws IOException {
+        DataLoadReport report = new DataLoadReport();
+        run(report, Loads.class);
+        run(report, CustomerLoad.class);
+
+        List<String> lines = readReport();
+        assertEquals(lines.size(), 3, String.join("\n", lines));
+        assertTrue(lines.get(2).endsWith("src/test/resources/data/customers.csv (String[])"), lines.get(2));
+    }
+
+    private void run(DataLoadReport report, Class<?> testClass) {
+        TestNG testNG = new TestNG(false);
+        testNG.setOutputDirectory(directory.toString());
+        testNG.setDefaultSuiteName("Metrics");
+        testNG.setTestClasses(new Class<?>[]{testClass});
+        testNG.addListener(report);
+        testNG.run();
+        assertFalse(testNG.hasFailure(), testClass.getSimpleName() + " failed");
+    }
+
+    private List<String> readReport() throws IOException {
+        List<Path> reports;
+        try (Stream<Path> files = Files.walk(directory)) {
+            reports = files.filter(path -> path.endsWith("data-load-report.txt")).collect(Collectors.toList());
+        }
+        assertEquals(reports.size(), 1, reports.toString());
+        return Files.readAllLines(reports.get(0), StandardCharsets.UTF_8);
+    }
+
+    public static class Loads {
+        @Test
+        public void load() throws IOException {
+            CoreDataProvider.getDataFromExcel("src/test/resources/data/items.xlsx", Item.class, new Item[0],
+                    ExcelReadMode.WORKBOOK);
+            CsvDataProvider.getCsvData("src/test/resources/data/items.csv", Item.class, new Item[0]);
+            CsvDataProvider.getCsvData("src/test/resources/data/items.csv", CsvFormat.DEFAULT, CsvReadMode.PARALLEL);
+        }
+    }
+
+    public static class CustomerLoad {
+        @Test
+        public void load() throws IOException {
+            CsvDataProvider.getCsvData("src/test/resources/data/customers.csv");
+        }
+    }
+
+    public static class NoLoads {
+        @Test
+        public void load() {
+        }
+    }
+}
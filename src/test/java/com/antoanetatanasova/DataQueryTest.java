@@ -0,0 +1,215 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.DataQuery;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadListener;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadStats;
+import com.antoanetatanasova.dataprovider.writer.SyntheticData;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class DataQueryTest {
+    // large enough for the parallel reader to split the file into several chunks
+    private static final int CSV_ROWS = 60_000;
+    private static final int EXCEL_ROWS = 2_000;
+
+    private Path directory;
+    private String csvFile;
+    private String excelFile;
+    private Record[] csvRecords;
+    private Record[] excelRecords;
+
+    @BeforeClass
+    public void createFixtures() throws IOException {
+        directory = Files.createTempDirectory("query");
+        csvFile = directory.resolve("items.csv").toString();
+        excelFile = directory.resolve("items.xlsx").toString();
+        SyntheticData.of(Item.class, 17).write(csvFile, CSV_ROWS);
+        SyntheticData.of(Item.class, 17).write(excelFile, EXCEL_ROWS);
+        csvRecords = CsvDataProvider.getCsvData(csvFile, Record.class, new Record[0]);
+        excelRecords = CoreDataProvider.getDataFromExcel(excelFile, Record.class, new Record[0], ExcelReadMode.WORKBOOK);
+        assertTrue(Files.size(directory.resolve("items.csv")) > 2 << 20, "the CSV file is too small to be split");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixtures() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void queryWithoutConditionsEqualsPlainLoad() throws IOException {
+        assertQuery(DataQuery.of(Record.class), record -> true, Function.identity());
+    }
+
+    @Test
+    public void projectionLeavesOtherFieldsUnset() throws IOException {
+        assertQuery(DataQuery.of(Record.class).select("name", "price"), record -> true, record -> {
+            Record projected = new Record();
+            projected.name = record.name;
+            projected.price = record.price;
+            return projected;
+        });
+    }
+
+    @Test
+    public void whereEqualsMatchesFormattedCellValue() throws IOException {
+        int matches = assertQuery(DataQuery.of(Record.class).whereEquals("batch", "Batch 7"),
+                record -> "Batch 7".equals(record.batch), Function.identity());
+        assertTrue(matches > 0 && matches < CSV_ROWS, String.valueOf(matches));
+
+        assertQuery(DataQuery.of(Record.class).whereEquals("batch", "Batch 7").whereEquals("quantity", "12"),
+                record -> "Batch 7".equals(record.batch) && record.quantity == 12, Function.identity());
+    }
+
+    @Test
+    public void conditionsOnFieldsThatAreNotSelected() throws IOException {
+        DataQuery<Record> query = DataQuery.of(Record.class)
+                .select("name")
+                .where("quantity", value -> Integer.parseInt(value) > 500)
+                .where("account", value -> value.endsWith("3"));
+
+        int matches = assertQuery(query, record -> record.quantity > 500 && record.account.endsWith("3"), record -> {
+            Record projected = new Record();
+            projected.name = record.name;
+            return projected;
+        });
+        assertTrue(matches > 0, String.valueOf(matches));
+    }
+
+    @Test
+    public void conditionOnColumnMissingFromHeaderTestsEmptyString() throws IOException {
+        List<String> tested = Collections.synchronizedList(new ArrayList<>());
+        DataQuery<Record> query = DataQuery.of(Record.class).where("note", value -> {
+            tested.add(value);
+            return value.isEmpty();
+        });
+
+        assertQuery(query, record -> true, Function.identity());
+        assertEquals(tested.size(), 3 * CSV_ROWS + EXCEL_ROWS);
+        assertTrue(tested.stream().allMatch(String::isEmpty));
+
+        assertQuery(DataQuery.of(Record.class).whereEquals("note", "x"), record -> false, Function.identity());
+    }
+
+    @Test
+    public void unknownFieldsAreRejected() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> DataQuery.of(Record.class).select("name", "vatRate"));
+        assertEquals(e.getMessage(), "Record has no @ExcelColumn field named vatRate");
+
+        expectThrows(IllegalArgumentException.class, () -> DataQuery.of(Record.class).whereEquals("unannotated", ""));
+    }
+
+    @Test
+    public void snapshotModeIsRejected() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> DataQuery.of(Record.class)
+                .fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0], CsvReadMode.SNAPSHOT));
+
+        assertEquals(e.getMessage(), "Queries cannot read CSV snapshots");
+    }
+
+    @Test
+    public void parallelQueryRecordsMappedAndSkippedRowsLikeSequentialQuery() throws IOException {
+        DataQuery<Record> query = DataQuery.of(Record.class).whereEquals("batch", "Batch 3");
+        List<DataLoadStats> loads = new ArrayList<>();
+        DataLoadListener listener = loads::add;
+        DataLoadMetrics.addListener(listener);
+        try {
+            query.fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0], CsvReadMode.SEQUENTIAL);
+            query.fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0], CsvReadMode.PARALLEL);
+        } finally {
+            DataLoadMetrics.removeListener(listener);
+        }
+
+        long matching = Arrays.stream(csvRecords).filter(record -> "Batch 3".equals(record.batch)).count();
+        assertEquals(loads.size(), 2);
+        assertEquals(loads.get(0).getReader(), "DataQuery.fromCsv[SEQUENTIAL]");
+        assertEquals(loads.get(1).getReader(), "DataQuery.fromCsv[PARALLEL]");
+        for (DataLoadStats stats : loads) {
+            assertEquals(stats.getRows(), matching, stats.toString());
+            assertEquals(stats.getRowsSkipped(), CSV_ROWS - matching, stats.toString());
+            assertTrue(stats.getMappingTime() > 0, stats.toString());
+        }
+    }
+
+    /**
+     * Runs the query against the Excel and CSV fixtures and compares the results with the plain loads of the
+     * fixtures, filtered and projected in Java.
+     *
+     * @return the number of matching CSV records
+     */
+    private int assertQuery(DataQuery<Record> query, Predicate<Record> filter, Function<Record, Record> projection)
+            throws IOException {
+        List<String> expectedCsv = expected(csvRecords, filter, projection);
+        List<String> expectedExcel = expected(excelRecords, filter, projection);
+
+        assertEquals(toStrings(query.fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0])), expectedCsv);
+        assertEquals(toStrings(query.fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0], CsvReadMode.SEQUENTIAL)),
+                expectedCsv);
+        assertEquals(toStrings(query.fromCsv(csvFile, CsvFormat.DEFAULT, new Record[0], CsvReadMode.PARALLEL)),
+                expectedCsv);
+        assertEquals(toStrings(query.fromExcel(excelFile, new Record[0])), expectedExcel);
+        return expectedCsv.size();
+    }
+
+    private static List<String> expected(Record[] records, Predicate<Record> filter,
+                                         Function<Record, Record> projection) {
+        return Arrays.stream(records).filter(filter).map(projection).map(Record::toString).collect(Collectors.toList());
+    }
+
+    private static List<String> toStrings(Record[] records) {
+        return Arrays.stream(records).map(Record::toString).collect(Collectors.toList());
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Item Name")
+        String name;
+        @ExcelColumn(names = "Unit Price")
+        double price;
+        @ExcelColumn(names = "Quantity")
+        int quantity;
+        @ExcelColumn(names = "Account")
+        String account;
+        @ExcelColumn(names = "Batch")
+        String batch;
+        // not a column of the fixtures
+        @ExcelColumn(names = "Note")
+        String note;
+        String unannotated;
+
+        public Record() {
+        }
+
+        @Override
+        public String toString() {
+            return name + "|" + price + "|" + quantity + "|" + account + "|" + batch + "|" + note;
+        }
+    }
+}
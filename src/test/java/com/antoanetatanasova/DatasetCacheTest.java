@@ -0,0 +1,173 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.cache.DatasetCache;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class DatasetCacheTest {
+    private Path directory;
+    private String first;
+    private String second;
+    private String third;
+
+    @BeforeMethod
+    public void createFiles() throws IOException {
+        directory = Files.createTempDirectory("dataset-cache");
+        first = write("first.csv", "a,b\n1,2\n");
+        second = write("second.csv", "a,b\n3,4\n");
+        third = write("third.csv", "a,b\n5,6\n");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void concurrentMissesLoadOnce() throws Exception {
+        DatasetCache cache = new DatasetCache(8, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(first, byte[].class, () -> {
+                        loads.incrementAndGet();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200)); // keep the other threads waiting on the load
+                        return new byte[100];
+                    });
+                }));
+            }
+            start.countDown();
+
+            byte[] value = results.get(0).get();
+            for (Future<byte[]> result : results) {
+                assertSame(result.get(), value);
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        DatasetCache cache = new DatasetCache(2, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] firstValue = get(cache, first, loads);
+        get(cache, second, loads);
+        assertSame(get(cache, first, loads), firstValue);
+        get(cache, third, loads);
+
+        assertEquals(loads.get(), 3);
+        assertEquals(cache.size(), 2);
+        assertSame(get(cache, first, loads), firstValue);
+        get(cache, second, loads);
+        assertEquals(loads.get(), 4);
+    }
+
+    @Test
+    public void entriesOverTheByteBudgetAreEvicted() throws IOException {
+        // each value is estimated at 1016 bytes, so only two of them fit
+        DatasetCache cache = new DatasetCache(32, 2500);
+        AtomicInteger loads = new AtomicInteger();
+
+        get(cache, first, loads);
+        get(cache, second, loads);
+        assertEquals(cache.estimatedBytes(), 2032);
+        get(cache, third, loads);
+
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.estimatedBytes(), 2032);
+        get(cache, third, loads);
+        get(cache, second, loads);
+        assertEquals(loads.get(), 3);
+        get(cache, first, loads);
+        assertEquals(loads.get(), 4);
+    }
+
+    @Test
+    public void changedFileIsLoadedAgain() throws IOException {
+        DatasetCache cache = new DatasetCache(8, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        Path file = directory.resolve("first.csv");
+        byte[] original = get(cache, first, loads);
+
+        assertTrue(file.toFile().setLastModified(file.toFile().lastModified() + 2000));
+        byte[] touched = get(cache, first, loads);
+        assertNotSame(touched, original);
+        assertEquals(cache.size(), 1);
+
+        long lastModified = file.toFile().lastModified();
+        Files.write(file, "a,b\n1,2\n7,8\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.toFile().setLastModified(lastModified));
+        byte[] resized = get(cache, first, loads);
+        assertNotSame(resized, touched);
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.estimatedBytes(), 1016);
+
+        assertSame(get(cache, first, loads), resized);
+        assertEquals(loads.get(), 3);
+    }
+
+    @Test
+    public void failedLoadIsNotCached() throws IOException {
+        DatasetCache cache = new DatasetCache(8, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+
+        IOException e = expectThrows(IOException.class, () -> cache.get(first, byte[].class, () -> {
+            loads.incrementAndGet();
+            throw new IOException("broken");
+        }));
+        assertEquals(e.getMessage(), "broken");
+        assertEquals(cache.size(), 0);
+
+        get(cache, first, loads);
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.size(), 1);
+    }
+
+    private static byte[] get(DatasetCache cache, String filePath, AtomicInteger loads) throws IOException {
+        return cache.get(filePath, byte[].class, () -> {
+            loads.incrementAndGet();
+            return new byte[1000];
+        });
+    }
+
+    private String write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.cache.DatasetPrefetcher;
+import com.antoanetatanasova.dataprovider.customer.CustomerExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.ItemDataProvider;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadListener;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class DatasetPrefetcherTest {
+    private static final String[] FILES = {"files.itemXLSX", "files.itemCSV", "files.customerXLSX"};
+
+    private Path directory;
+    private final List<String> loads = Collections.synchronizedList(new ArrayList<>());
+    private final DataLoadListener listener = stats -> {
+        if (stats.getSource().startsWith(directory.toString())) {
+            loads.add(Thread.currentThread().getName() + " " + Paths.get(stats.getSource()).getFileName());
+        }
+    };
+
+    @BeforeMethod
+    public void configureFiles() throws IOException {
+        // fresh copies, so that the data sets are not in the shared cache yet
+        directory = Files.createTempDirectory("prefetch");
+        System.setProperty("files.itemXLSX", copy("items.xlsx"));
+        System.setProperty("files.itemCSV", copy("items.csv"));
+        System.setProperty("files.customerXLSX", copy("customers.xlsx"));
+        loads.clear();
+        DataLoadMetrics.addListener(listener);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreFiles() throws IOException {
+        DataLoadMetrics.removeListener(listener);
+        for (String file : FILES) {
+            System.clearProperty(file);
+        }
+        System.clearProperty(DatasetPrefetcher.ENABLED_PROPERTY);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void configuredFilesAreCachedBeforeTheFirstDataProviderAsks() throws Exception {
+        DatasetPrefetcher prefetcher = new DatasetPrefetcher();
+        prefetcher.onStart(null);
+        try {
+            while (loads.size() < FILES.length) {
+                Thread.sleep(10);
+            }
+            List<String> prefetched = new ArrayList<>(loads);
+
+            assertEquals(ItemDataProvider.itemData().length, 7);
+            assertEquals(ItemDataProvider.itemCsvData().length, 7);
+            assertTrue(CustomerExcelDataProvider.customerData().length > 0);
+
+            assertEquals(loads, prefetched);
+            List<String> files = new ArrayList<>();
+            for (String load : prefetched) {
+                assertTrue(load.startsWith("dataset-prefetch-"), load);
+                files.add(load.substring(load.indexOf(' ') + 1));
+            }
+            Collections.sort(files);
+            assertEquals(files, Arrays.asList("customers.xlsx", "items.csv", "items.xlsx"));
+        } finally {
+            prefetcher.onFinish(null);
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void prefetchIsTurnedOffByProperty() throws Exception {
+        System.setProperty(DatasetPrefetcher.ENABLED_PROPERTY, "false");
+        DatasetPrefetcher prefetcher = new DatasetPrefetcher();
+        prefetcher.onStart(null);
+        try {
+            Thread.sleep(200);
+            assertEquals(loads, Collections.emptyList());
+
+            ItemDataProvider.itemData();
+            ItemDataProvider.itemCsvData();
+            CustomerExcelDataProvider.customerData();
+
+            String thread = Thread.currentThread().getName();
+            assertEquals(loads, Arrays.asList(thread + " items.xlsx", thread + " items.csv",
+                    thread + " customers.xlsx"));
+        } finally {
+            prefetcher.onFinish(null);
+        }
+    }
+
+    private String copy(String fileName) throws IOException {
+        Path copy = directory.resolve(fileName);
+        Files.copy(Paths.get("src/test/resources/data", fileName), copy);
+        return copy.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.ExcelCells;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+
+public class ExcelCellsTest {
+    private static final String[] TEXTS = {
+            "", "0", ".0", "0.0", "1.0", "123.0", "0123.0", "25.00", "12.5", "-1.0", "-0.0", "+1.0", "1.0E10",
+            "1.0E-5", "1.5E10", "1,0.0", "1.0 ", " 1.0", "abc.0", "1.01", "1.10", "NaN", "Infinity", ".", "0."
+    };
+
+    private static final double[] NUMBERS = {
+            0.0, -0.0, 1.0, 25.0, 12.5, -1.0, -3.0, 0.1 + 0.2, 9_999_999.0, 10_000_000.0, 1e10, 1.5e10, 1e-5,
+            123_456_789.0, -123_456_789.0, Long.MAX_VALUE, Double.MAX_VALUE, Double.MIN_VALUE
+    };
+
+    @Test
+    public void formatValueMatchesRegex() {
+        for (String text : TEXTS) {
+            assertEquals(ExcelCells.formatValue(text), regexFormatValue(text), "formatValue(\"" + text + "\")");
+        }
+    }
+
+    @Test
+    public void numericCellsMatchRegexOfToString() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFRow row = workbook.createSheet().createRow(0);
+            for (int i = 0; i < NUMBERS.length; i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(NUMBERS[i]);
+
+                assertEquals(ExcelCells.getFormattedValue(cell), regexFormatValue(cell.toString().trim()),
+                        "number " + NUMBERS[i]);
+            }
+        }
+    }
+
+    @Test
+    public void booleanTextAndMissingCells() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFRow row = workbook.createSheet().createRow(0);
+            row.createCell(0).setCellValue(true);
+            row.createCell(1).setCellValue(false);
+            row.createCell(2).setCellValue(" 7.0 ");
+            row.createCell(3);
+
+            assertEquals(ExcelCells.getFormattedValue(row.getCell(0)), "TRUE");
+            assertEquals(ExcelCells.getFormattedValue(row.getCell(1)), "FALSE");
+            assertEquals(ExcelCells.getFormattedValue(row.getCell(2)), "7");
+            assertEquals(ExcelCells.getFormattedValue(row.getCell(3)), "");
+            assertEquals(ExcelCells.getFormattedValue(null), "");
+        }
+    }
+
+    /**
+     * The regular expression based {@code formatValue} that {@link ExcelCells#formatValue(String)} replaces.
+     */
+    private static String regexFormatValue(String value) {
+        if (value.matches("\\d*\\.0")) {
+            int dotIndex = value.indexOf(".");
+            if (dotIndex != -1) {
+                value = value.substring(0, dotIndex);
+            }
+        }
+        return value;
+    }
+}
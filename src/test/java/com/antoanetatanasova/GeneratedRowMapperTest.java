@@ -0,0 +1,211 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+import com.antoanetatanasova.dataprovider.item.RowMapper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GeneratedRowMapperTest {
+    private static final String PACKAGE = "com.antoanetatanasova.fixture.";
+    private static final String SOURCES = "com/antoanetatanasova/fixture/";
+    private static final String IMPORT = "package com.antoanetatanasova.fixture;\n"
+            + "import com.antoanetatanasova.dataprovider.item.ExcelColumn;\n";
+    private static final List<String> FIXTURES = Arrays.asList("Product", "Account", "Immutable");
+    private static final List<String> HEADER = Arrays.asList("Name", "Quantity", "Total", "Price", "Active");
+    private static final List<String> HEADER_WITHOUT_PRICE = Arrays.asList("Name", "Quantity", "Total", "Active");
+
+    private Path directory;
+    private MapperCompiler compiler;
+    private Path mappers;
+    private String fullFile;
+    private String partialFile;
+
+    @BeforeClass
+    public void compileFixtures() throws IOException {
+        directory = Files.createTempDirectory("generated-mappers");
+        compiler = new MapperCompiler(directory);
+        mappers = directory.resolve("mappers");
+        compile(mappers, true,
+                SOURCES + "Product.java", IMPORT
+                        + "public class Product {\n"
+                        + "    @ExcelColumn(names = {\"Item Name\", \"Name\"}) String name;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") int quantity;\n"
+                        + "    @ExcelColumn(names = \"Total\") Long total;\n"
+                        + "    @ExcelColumn(names = \"Price\") double price;\n"
+                        + "    @ExcelColumn(names = \"Note\") String note;\n"
+                        + "    public String toString() { return name + \"|\" + quantity + \"|\" + total + \"|\" + price"
+                        + " + \"|\" + note; }\n"
+                        + "}\n",
+                SOURCES + "Account.java", IMPORT
+                        + "public class Account {\n"
+                        + "    @ExcelColumn(names = \"Name\", dedup = ExcelColumn.Dedup.ALWAYS) private String name;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") private Integer quantity;\n"
+                        + "    @ExcelColumn(names = \"Active\") boolean active;\n"
+                        + "    public void setName(String name) { this.name = name; }\n"
+                        + "    public void setQuantity(Integer quantity) { this.quantity = quantity; }\n"
+                        + "    public String toString() { return name + \"|\" + quantity + \"|\" + active; }\n"
+                        + "}\n",
+                SOURCES + "Immutable.java", IMPORT
+                        + "public class Immutable {\n"
+                        + "    @ExcelColumn(names = \"Name\") private String name;\n"
+                        + "    @ExcelColumn(names = \"Price\") private double price;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") private int quantity;\n"
+                        + "    private Immutable() { }\n"
+                        + "    public Immutable(String name, double price, int quantity) {\n"
+                        + "        this.name = name; this.price = price; this.quantity = quantity;\n"
+                        + "    }\n"
+                        + "    public String toString() { return name + \"|\" + price + \"|\" + quantity; }\n"
+                        + "}\n");
+
+        fullFile = write("full.csv", String.join(",", HEADER), "Widget,3,10000000000,2.5,true",
+                "\"Bolt, small\",-7,0,0.125,false", "Widget,12,5,100,TRUE");
+        partialFile = write("partial.csv", String.join(",", HEADER_WITHOUT_PRICE), "Widget,3,10000000000,true",
+                "\"Bolt, small\",-7,0,false");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void generatedMappersBindLikeReflectiveBinding() throws Exception {
+        ClassLoader generated = compiler.isolatedLoader(mappers);
+        ClassLoader reflective = reflectiveLoader(mappers);
+
+        for (String fixture : FIXTURES) {
+            assertTrue(usesGeneratedMapper(generated, fixture, HEADER), fixture);
+            assertFalse(usesGeneratedMapper(reflective, fixture, HEADER), fixture);
+            for (String filePath : Arrays.asList(fullFile, partialFile)) {
+                List<String> records = read(generated, fixture, filePath);
+                assertEquals(records, read(reflective, fixture, filePath), fixture + " " + filePath);
+                assertFalse(records.isEmpty(), fixture);
+            }
+        }
+        assertEquals(read(generated, "Account", fullFile),
+                Arrays.asList("Widget|3|true", "Bolt, small|-7|false", "Widget|12|true"));
+    }
+
+    @Test
+    public void constructorMapperIsOnlyUsedWhenEveryFieldHasAColumn() throws Exception {
+        ClassLoader generated = compiler.isolatedLoader(mappers);
+
+        assertTrue(usesGeneratedMapper(generated, "Immutable", HEADER));
+        assertFalse(usesGeneratedMapper(generated, "Immutable", HEADER_WITHOUT_PRICE));
+        assertTrue(usesGeneratedMapper(generated, "Product", HEADER_WITHOUT_PRICE));
+        assertEquals(read(generated, "Immutable", partialFile), Arrays.asList("Widget|0.0|3", "Bolt, small|0.0|-7"));
+    }
+
+    @Test
+    public void mappersAreTurnedOffByProperty() throws Exception {
+        ClassLoader reflective = reflectiveLoader(mappers);
+
+        for (String fixture : FIXTURES) {
+            assertFalse(usesGeneratedMapper(reflective, fixture, HEADER), fixture);
+            assertFalse(usesGeneratedMapper(reflective, fixture, HEADER_WITHOUT_PRICE), fixture);
+        }
+        assertEquals(read(reflective, "Product", fullFile), Arrays.asList("Widget|3|10000000000|2.5|null",
+                "Bolt, small|-7|0|0.125|null", "Widget|12|5|100.0|null"));
+    }
+
+    @Test
+    public void staleMappersAreIgnored() throws Exception {
+        Path stale = directory.resolve("stale");
+        compile(stale, true,
+                SOURCES + "Renamed.java", IMPORT
+                        + "public class Renamed {\n"
+                        + "    @ExcelColumn(names = \"Name\") String name;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") int quantity;\n"
+                        + "}\n",
+                SOURCES + "Current.java", IMPORT
+                        + "public class Current {\n"
+                        + "    @ExcelColumn(names = \"Name\") String name;\n"
+                        + "    public String toString() { return name; }\n"
+                        + "}\n");
+        // the class changes after its mapper was generated, and is compiled again without the processor
+        compile(stale, false,
+                SOURCES + "Renamed.java", IMPORT
+                        + "public class Renamed {\n"
+                        + "    @ExcelColumn(names = \"Name\") String title;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") int quantity;\n"
+                        + "    public String toString() { return title + \"|\" + quantity; }\n"
+                        + "}\n");
+        // a registered mapper whose class was deleted
+        Files.write(stale.resolve("classes/META-INF/services/" + RowMapper.class.getName()),
+                (PACKAGE + "Removed_RowMapper\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ClassLoader loader = compiler.isolatedLoader(stale);
+
+        assertFalse(usesGeneratedMapper(loader, "Renamed", HEADER));
+        assertEquals(read(loader, "Renamed", fullFile), Arrays.asList("Widget|3", "Bolt, small|-7", "Widget|12"));
+        assertTrue(usesGeneratedMapper(loader, "Current", HEADER));
+        assertEquals(read(loader, "Current", fullFile), Arrays.asList("Widget", "Bolt, small", "Widget"));
+    }
+
+    private void compile(Path output, boolean process, String... sources) throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(compiler.compile(output, process, diagnostics, sources), diagnostics.getDiagnostics().toString());
+    }
+
+    private String write(String fileName, String... lines) throws IOException {
+        Path file = directory.resolve(fileName);
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file.toString();
+    }
+
+    /**
+     * Creates a loader of the compiled fixtures whose {@code RowBinder} looks up its mappers with
+     * {@code -Drowbinder.generated=false}.
+     */
+    private ClassLoader reflectiveLoader(Path output) throws Exception {
+        ClassLoader loader = compiler.isolatedLoader(output);
+        System.setProperty("rowbinder.generated", "false");
+        try {
+            usesGeneratedMapper(loader, FIXTURES.get(0), HEADER);
+        } finally {
+            System.clearProperty("rowbinder.generated");
+        }
+        return loader;
+    }
+
+    private static boolean usesGeneratedMapper(ClassLoader loader, String fixture, List<String> header)
+            throws Exception {
+        Class<?> binderClass = loader.loadClass(RowBinder.class.getName());
+        Object binder = binderClass.getMethod("forHeader", Class.class, List.class)
+                .invoke(null, loader.loadClass(PACKAGE + fixture), header);
+        Field generated = binderClass.getDeclaredField("generated");
+        generated.setAccessible(true);
+        return generated.get(binder) != null;
+    }
+
+    private static List<String> read(ClassLoader loader, String fixture, String filePath) throws Exception {
+        Class<?> clazz = loader.loadClass(PACKAGE + fixture);
+        Object[] records = (Object[]) loader.loadClass(CsvDataProvider.class.getName())
+                .getMethod("getCsvData", String.class, Class.class, Object[].class)
+                .invoke(null, filePath, clazz, Array.newInstance(clazz, 0));
+        return Arrays.stream(records).map(Object::toString).collect(Collectors.toList());
+    }
+}
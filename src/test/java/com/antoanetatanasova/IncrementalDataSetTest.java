@@ -0,0 +1,236 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.item.DataSetChange;
+import com.antoanetatanasova.dataprovider.item.IncrementalDataSet;
+import com.antoanetatanasova.dto.Item;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class IncrementalDataSetTest {
+    private Path directory;
+    private Path source;
+    private List<String> lines;
+
+    @BeforeMethod
+    public void copySource() throws IOException {
+        directory = Files.createTempDirectory("incremental");
+        source = directory.resolve("items.csv");
+        Files.copy(Paths.get("src/test/resources/data/items.csv"), source);
+        lines = new ArrayList<>(Files.readAllLines(source, StandardCharsets.UTF_8));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void firstLoadReportsAllRowsAsAddedWithoutNotifying() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<DataSetChange<Item>> notified = new ArrayList<>();
+        dataSet.addListener((file, change) -> notified.add(change));
+
+        DataSetChange<Item> change = dataSet.reload();
+
+        assertEquals(change.getAdded().size(), 7);
+        assertEquals(toStrings(change.getAdded()), toStrings(dataSet.get()));
+        assertTrue(change.getRemoved().isEmpty());
+        assertTrue(change.getModified().isEmpty());
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void unchangedFileHasNoChanges() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<Item> before = dataSet.get();
+        List<DataSetChange<Item>> notified = new ArrayList<>();
+        dataSet.addListener((file, change) -> notified.add(change));
+
+        DataSetChange<Item> change = dataSet.reload();
+
+        assertTrue(change.isEmpty());
+        assertTrue(notified.isEmpty());
+        assertSameRecords(dataSet.get(), before);
+    }
+
+    @Test
+    public void modifiedRowIsReportedWithItsRowNumber() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<Item> before = dataSet.get();
+        List<String> notifiedFiles = new ArrayList<>();
+        dataSet.addListener((file, change) -> notifiedFiles.add(file));
+
+        lines.set(3, "Blueberry Muffins,4.50,2,pcs,20%,701,Batch 003");
+        write();
+        DataSetChange<Item> change = dataSet.reload();
+        List<Item> after = dataSet.get();
+
+        assertTrue(change.getAdded().isEmpty());
+        assertTrue(change.getRemoved().isEmpty());
+        assertEquals(change.getModified().size(), 1);
+        DataSetChange.Modification<Item> modification = change.getModified().get(0);
+        assertEquals(modification.getRowNum(), 3);
+        assertSame(modification.getPrevious(), before.get(2));
+        assertSame(modification.getCurrent(), after.get(2));
+        assertEquals(modification.getCurrent().toString(),
+                new Item("Blueberry Muffins", 4.5, 2, "pcs", "20%", "701", "Batch 003").toString());
+        assertEquals(notifiedFiles, Collections.singletonList(source.toString()));
+
+        for (int row = 0; row < after.size(); row++) {
+            if (row != 2) {
+                assertSame(after.get(row), before.get(row));
+            }
+        }
+    }
+
+    @Test
+    public void insertedRowIsAddedAndMovedRowsAreKept() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<Item> before = dataSet.get();
+
+        lines.add(1, "Apple Pie,6.00,1,pcs,20%,701,Batch 008");
+        write();
+        DataSetChange<Item> change = dataSet.reload();
+        List<Item> after = dataSet.get();
+
+        assertEquals(toStrings(change.getAdded()),
+                toStrings(Collections.singletonList(
+                        new Item("Apple Pie", 6.0, 1, "pcs", "20%", "701", "Batch 008"))));
+        assertSame(change.getAdded().get(0), after.get(0));
+        assertTrue(change.getRemoved().isEmpty());
+        assertTrue(change.getModified().isEmpty());
+        assertSameRecords(after.subList(1, after.size()), before);
+    }
+
+    @Test
+    public void deletedRowIsRemovedAndMovedRowsAreKept() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<Item> before = dataSet.get();
+
+        lines.remove(2);
+        write();
+        DataSetChange<Item> change = dataSet.reload();
+        List<Item> after = dataSet.get();
+
+        assertTrue(change.getAdded().isEmpty());
+        assertEquals(change.getRemoved().size(), 1);
+        assertSame(change.getRemoved().get(0), before.get(1));
+        assertTrue(change.getModified().isEmpty());
+        List<Item> expected = new ArrayList<>(before);
+        expected.remove(1);
+        assertSameRecords(after, expected);
+    }
+
+    @Test
+    public void getReloadsWhenFileChanges() throws IOException {
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofCsv(source.toString(), CsvFormat.DEFAULT, Item.class);
+        List<Item> before = dataSet.get();
+        List<DataSetChange<Item>> notified = new ArrayList<>();
+        dataSet.addListener((file, change) -> notified.add(change));
+
+        lines.add("Eclair,3.00,1,pcs,20%,701,Batch 008");
+        write();
+        List<Item> after = dataSet.get();
+
+        assertEquals(after.size(), 8);
+        assertSameRecords(after.subList(0, 7), before);
+        assertEquals(notified.size(), 1);
+        assertSame(notified.get(0).getAdded().get(0), after.get(7));
+    }
+
+    @Test
+    public void excelRowsAreReloadedIncrementally() throws IOException {
+        Path excel = directory.resolve("items.xlsx");
+        List<String[]> rows = new ArrayList<>();
+        for (int row = 0; row < 20; row++) {
+            rows.add(new String[]{"Item " + row, Integer.toString(row), "1", "pcs", "20%", "701", "Batch " + row});
+        }
+        writeExcel(excel, rows);
+        IncrementalDataSet<Item> dataSet = IncrementalDataSet.ofExcel(excel.toString(), Item.class);
+        List<Item> before = dataSet.get();
+
+        rows.set(5, new String[]{"Item 5", "55", "1", "pcs", "20%", "701", "Batch 5"});
+        rows.remove(10);
+        writeExcel(excel, rows);
+        DataSetChange<Item> change = dataSet.reload();
+        List<Item> after = dataSet.get();
+
+        assertEquals(after.size(), 19);
+        assertEquals(after.get(5).toString(), new Item("Item 5", 55, 1, "pcs", "20%", "701", "Batch 5").toString());
+        assertTrue(change.getAdded().isEmpty());
+        assertEquals(change.getRemoved().size(), 1);
+        assertSame(change.getRemoved().get(0), before.get(10));
+        assertEquals(change.getModified().size(), 1);
+        assertSame(change.getModified().get(0).getPrevious(), before.get(5));
+        assertSame(change.getModified().get(0).getCurrent(), after.get(5));
+        for (int row = 0; row < after.size(); row++) {
+            if (row != 5) {
+                assertSame(after.get(row), before.get(row < 10 ? row : row + 1));
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        // keep the change visible to get() even when the size stays the same
+        long lastModified = source.toFile().lastModified();
+        Files.write(source, lines, StandardCharsets.UTF_8);
+        assertTrue(source.toFile().setLastModified(lastModified + 2000));
+    }
+
+    private static void writeExcel(Path file, List<String[]> rows) throws IOException {
+        long lastModified = Files.exists(file) ? file.toFile().lastModified() : 0;
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            String[] header = {"Item Name", "Unit Price", "Quantity", "Unit of Measure", "VAT Rate", "Account", "Batch"};
+            for (int row = 0; row <= rows.size(); row++) {
+                String[] values = row == 0 ? header : rows.get(row - 1);
+                Row cells = sheet.createRow(row);
+                for (int column = 0; column < values.length; column++) {
+                    cells.createCell(column).setCellValue(values[column]);
+                }
+            }
+            workbook.write(out);
+        }
+        if (lastModified != 0) {
+            assertTrue(file.toFile().setLastModified(lastModified + 2000));
+        }
+    }
+
+    private static void assertSameRecords(List<Item> actual, List<Item> expected) {
+        assertEquals(actual.size(), expected.size());
+        for (int row = 0; row < actual.size(); row++) {
+            assertSame(actual.get(row), expected.get(row), "row " + row);
+        }
+    }
+
+    private static List<String> toStrings(List<Item> items) {
+        List<String> strings = new ArrayList<>();
+        for (Item item : items) {
+            strings.add(item.toString());
+        }
+        return strings;
+    }
+}
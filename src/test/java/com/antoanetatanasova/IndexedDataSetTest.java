@@ -0,0 +1,158 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.IndexedDataSet;
+import com.antoanetatanasova.dataprovider.writer.SyntheticData;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class IndexedDataSetTest {
+    private static final int ROWS = 5000;
+    private static final String ITEMS = "src/test/resources/data/items.csv";
+
+    private Path directory;
+    private String csvFile;
+    private String excelFile;
+    private Item[] items;
+
+    @BeforeClass
+    public void createFixtures() throws IOException {
+        directory = Files.createTempDirectory("indexed");
+        csvFile = directory.resolve("items.csv").toString();
+        excelFile = directory.resolve("items.xlsx").toString();
+        SyntheticData.of(Item.class, 3).write(csvFile, ROWS);
+        SyntheticData.of(Item.class, 3).write(excelFile, 300);
+        items = CsvDataProvider.getCsvData(csvFile, Item.class, new Item[0]);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixtures() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void lookupsEqualLinearScan() throws IOException {
+        IndexedDataSet<Item> dataSet = CoreDataProvider.indexed(Item.class)
+                .uniqueIndex("name")
+                .index("batch")
+                .index("quantity")
+                .fromCsv(csvFile, CsvFormat.DEFAULT);
+        List<Item> records = dataSet.getRecords();
+
+        assertEquals(toStrings(records), toStrings(Arrays.asList(items)));
+        for (String field : new String[]{"name", "batch", "quantity"}) {
+            Map<Object, List<Item>> scanned = new HashMap<>();
+            for (Item record : records) {
+                scanned.computeIfAbsent(value(field, record), key -> new ArrayList<>()).add(record);
+            }
+            assertEquals(dataSet.keys(field), scanned.keySet(), field);
+            for (Map.Entry<Object, List<Item>> entry : scanned.entrySet()) {
+                assertEquals(dataSet.getAll(field, entry.getKey()), entry.getValue(), field + "=" + entry.getKey());
+                assertTrue(dataSet.containsKey(field, entry.getKey()));
+            }
+        }
+        assertTrue(dataSet.keys("batch").size() < ROWS);
+        assertFalse(dataSet.containsKey("batch", "no such batch"));
+        assertTrue(dataSet.getAll("quantity", -1).isEmpty());
+    }
+
+    @Test
+    public void uniqueIndexFindsEachRecord() throws IOException {
+        IndexedDataSet<Item> dataSet = IndexedDataSet.of(Item.class).uniqueIndex("name").fromCsv(csvFile, CsvFormat.DEFAULT);
+
+        assertEquals(dataSet.size(), ROWS);
+        assertEquals(dataSet.keys("name").size(), ROWS);
+        for (Item record : dataSet.getRecords()) {
+            assertSame(dataSet.getUnique("name", value("name", record)), record);
+        }
+        assertNull(dataSet.getUnique("name", "no such item"));
+    }
+
+    @Test
+    public void excelLoadEqualsDataProvider() throws IOException {
+        Item[] expected = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        IndexedDataSet<Item> dataSet = IndexedDataSet.of(Item.class).index("batch").fromExcel(excelFile);
+
+        assertEquals(toStrings(Arrays.asList(dataSet.toArray(new Item[0]))), toStrings(Arrays.asList(expected)));
+        int indexed = 0;
+        for (Object batch : dataSet.keys("batch")) {
+            indexed += dataSet.getAll("batch", batch).size();
+        }
+        assertEquals(indexed, expected.length);
+    }
+
+    @Test
+    public void duplicateKeyInUniqueIndexFails() {
+        IllegalStateException e = expectThrows(IllegalStateException.class,
+                () -> IndexedDataSet.of(Item.class).uniqueIndex("account").fromCsv(ITEMS, CsvFormat.DEFAULT));
+
+        assertTrue(e.getMessage().contains("Duplicate value '701'"), e.getMessage());
+        assertTrue(e.getMessage().contains("Item.account at record 2"), e.getMessage());
+    }
+
+    @Test
+    public void nullKeysAreNotIndexed() throws IOException {
+        Path file = directory.resolve("no-batch.csv");
+        Files.write(file, Arrays.asList("Item Name,Quantity", "Cake,1", "Tea,2"));
+
+        IndexedDataSet<Item> dataSet = IndexedDataSet.of(Item.class).uniqueIndex("batch")
+                .fromCsv(file.toString(), CsvFormat.DEFAULT);
+
+        assertEquals(dataSet.size(), 2);
+        assertTrue(dataSet.keys("batch").isEmpty());
+    }
+
+    @Test
+    public void lookupsOnFieldsWithoutIndexFail() throws IOException {
+        IndexedDataSet<Item> dataSet = IndexedDataSet.of(Item.class).index("batch").fromCsv(ITEMS, CsvFormat.DEFAULT);
+
+        expectThrows(IllegalArgumentException.class, () -> dataSet.getUnique("batch", "Batch 001"));
+        expectThrows(IllegalArgumentException.class, () -> dataSet.getAll("name", "Tiramisu"));
+        expectThrows(IllegalArgumentException.class, () -> dataSet.keys("account"));
+        expectThrows(IllegalArgumentException.class, () -> IndexedDataSet.of(Item.class).index("price"));
+    }
+
+    private static Object value(String fieldName, Item item) {
+        try {
+            Field field = Item.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            return field.get(item);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> toStrings(List<Item> items) {
+        List<String> strings = new ArrayList<>();
+        for (Item item : items) {
+            strings.add(item.toString());
+        }
+        return strings;
+    }
+}
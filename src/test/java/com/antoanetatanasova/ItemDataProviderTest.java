@@ -0,0 +1,52 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.ItemDataProvider;
+import com.antoanetatanasova.dataprovider.item.OffHeapDataSet;
+import com.antoanetatanasova.dto.Item;
+import com.antoanetatanasova.utls.ConfigReader;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class ItemDataProviderTest {
+
+    @Test
+    public void itemCsvDataEqualsItemData() throws IOException {
+        assertEquals(toStrings(ItemDataProvider.itemCsvData()), toStrings(ItemDataProvider.itemData()));
+    }
+
+    @Test
+    public void itemDataOffHeapEqualsItemCsvData() throws IOException {
+        List<String> offHeap = new ArrayList<>();
+        ItemDataProvider.itemDataOffHeap().forEachRemaining(parameters -> offHeap.add(parameters[0].toString()));
+
+        assertEquals(offHeap.toArray(new String[0]), toStrings(ItemDataProvider.itemCsvData()));
+    }
+
+    @Test
+    public void offHeapItemsAreLoadedOncePerFile() throws IOException {
+        String filePath = ConfigReader.fetchProperty("files.itemCSV");
+        Item[] items = ItemDataProvider.cachedCsvItems(filePath);
+
+        OffHeapDataSet<Item> offHeap = ItemDataProvider.cachedOffHeapItems(filePath);
+
+        assertSame(ItemDataProvider.cachedOffHeapItems(filePath), offHeap);
+        assertSame(ItemDataProvider.cachedCsvItems(filePath), items);
+        assertEquals(offHeap.size(), items.length);
+    }
+
+    @Test
+    public void itemDataShardWithoutShardConfigEqualsItemData() throws IOException {
+        assertEquals(toStrings(ItemDataProvider.itemDataShard()), toStrings(ItemDataProvider.itemData()));
+    }
+
+    private static String[] toStrings(Object[] items) {
+        return Arrays.stream(items).map(Object::toString).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,46 @@
+package com.antoanetatanasova;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Writes generated item workbooks for the tests of the streaming and pipelined iterators.
+ */
+final class ItemWorkbooks {
+    private static final String[] HEADER = {"Item Name", "Unit Price", "Quantity", "Unit of Measure", "VAT Rate",
+            "Account", "Batch"};
+
+    private ItemWorkbooks() {
+    }
+
+    /**
+     * Writes a workbook with the item header and the given number of distinct item rows to its first sheet.
+     */
+    static void writeItems(String filePath, int rows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             OutputStream out = Files.newOutputStream(Paths.get(filePath))) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < HEADER.length; i++) {
+                headerRow.createCell(i).setCellValue(HEADER[i]);
+            }
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("Item " + i);
+                row.createCell(1).setCellValue(i * 0.25);
+                row.createCell(2).setCellValue(i % 50);
+                row.createCell(3).setCellValue(i % 2 == 0 ? "pcs" : "kg");
+                row.createCell(4).setCellValue("20%");
+                row.createCell(5).setCellValue("70" + i % 3);
+                row.createCell(6).setCellValue("Batch " + i % 17);
+            }
+            workbook.write(out);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles test fixtures with the annotation processor of the {@code processor} module, which is compiled from
+ * its sources first, and loads the compiled fixtures in class loaders of their own, so that {@code RowBinder}
+ * looks up the generated mappers again.
+ */
+final class MapperCompiler {
+    private static final String PROCESSOR_SOURCES = "processor/src/main/java";
+    private static final String PROCESSOR = "com.antoanetatanasova.processor.RowMapperProcessor";
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final URLClassLoader processorLoader;
+
+    /**
+     * @param directory the directory receiving the compiled processor and all compiler output
+     */
+    MapperCompiler(Path directory) throws IOException {
+        Path processorClasses = Files.createDirectories(directory.resolve("processor"));
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(Paths.get(PROCESSOR_SOURCES))) {
+            sources = files.filter(file -> file.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        if (!compile(sources, processorClasses, Arrays.asList("-proc:none"), null, diagnostics)) {
+            throw new IllegalStateException("Cannot compile the processor: " + diagnostics.getDiagnostics());
+        }
+        processorLoader = new URLClassLoader(new URL[]{processorClasses.toUri().toURL()},
+                MapperCompiler.class.getClassLoader());
+    }
+
+    /**
+     * Writes the given sources and compiles them into the given directory, with or without the processor.
+     *
+     * @param output      the directory receiving the classes, the generated sources and the service file
+     * @param process     whether the processor runs on the sources
+     * @param diagnostics receives the errors, warnings and notes of the compiler
+     * @param sources     the sources, as file name relative to the source root and content pairs
+     * @return {@code true} if the sources compiled without errors
+     */
+    boolean compile(Path output, boolean process, DiagnosticCollector<JavaFileObject> diagnostics, String... sources)
+            throws IOException {
+        Path sourceRoot = Files.createDirectories(output.resolve("src"));
+        Path generated = Files.createDirectories(output.resolve("generated"));
+        Path classes = Files.createDirectories(output.resolve("classes"));
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            Path file = sourceRoot.resolve(sources[i]);
+            Files.createDirectories(file.getParent());
+            Files.write(file, sources[i + 1].getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+
+        List<String> options = new ArrayList<>(Arrays.asList("-classpath", testClasses().toString(),
+                "-s", generated.toString()));
+        Processor processor = null;
+        if (process) {
+            try {
+                processor = (Processor) processorLoader.loadClass(PROCESSOR).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create the processor", e);
+            }
+        } else {
+            options.add("-proc:none");
+        }
+        return compile(files, classes, options, processor, diagnostics);
+    }
+
+    /**
+     * Creates a class loader that loads the project classes itself, before the class path of the tests, so that
+     * its {@code RowBinder} finds the mappers compiled into the given directories.
+     *
+     * @param outputs directories passed to {@link #compile(Path, boolean, DiagnosticCollector, String...)}
+     */
+    ClassLoader isolatedLoader(Path... outputs) throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (Path output : outputs) {
+            urls.add(output.resolve("classes").toUri().toURL());
+        }
+        urls.add(testClasses().toUri().toURL());
+        return new URLClassLoader(urls.toArray(new URL[0]), MapperCompiler.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.startsWith("com.antoanetatanasova.")) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> loaded = findLoadedClass(name);
+                    if (loaded == null) {
+                        loaded = findClass(name);
+                    }
+                    if (resolve) {
+                        resolveClass(loaded);
+                    }
+                    return loaded;
+                }
+            }
+        };
+    }
+
+    private boolean compile(List<Path> sources, Path classes, List<String> options, Processor processor,
+                            DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<String> allOptions = new ArrayList<>(options);
+            allOptions.addAll(Arrays.asList("-d", classes.toString()));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, allOptions, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources.stream().map(Path::toFile)
+                            .collect(Collectors.<File>toList())));
+            if (processor != null) {
+                task.setProcessors(Collections.singletonList(processor));
+            }
+            return task.call();
+        }
+    }
+
+    private static Path testClasses() {
+        try {
+            return Paths.get(RowBinder.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the test classes", e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.StreamingSheetReader;
+import com.antoanetatanasova.dto.Item;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class MultiSheetReaderTest {
+    private static final String[] HEADER = {"Item Name", "Unit Price", "Quantity", "Unit of Measure", "VAT Rate",
+            "Account", "Batch"};
+
+    private Path directory;
+    private String workbook;
+    private String brokenWorkbook;
+
+    @BeforeClass
+    public void createWorkbooks() throws IOException {
+        directory = Files.createTempDirectory("multi-sheet");
+        workbook = directory.resolve("sheets.xlsx").toString();
+        brokenWorkbook = directory.resolve("broken.xlsx").toString();
+
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            for (int sheet = 0; sheet < 6; sheet++) {
+                writeItems(wb.createSheet(sheet == 0 ? "Sheet1" : "Sheet " + (sheet + 1)), sheet, 200 * sheet);
+            }
+            // the same columns in reverse order
+            XSSFSheet reversed = wb.createSheet("Reversed");
+            Row header = reversed.createRow(0);
+            for (int i = 0; i < HEADER.length; i++) {
+                header.createCell(i).setCellValue(HEADER[HEADER.length - 1 - i]);
+            }
+            Row row = reversed.createRow(1);
+            String[] values = {"Batch 9", "709", "9%", "kg", "9", "9.5", "Reversed item"};
+            for (int i = 0; i < values.length; i++) {
+                row.createCell(i).setCellValue(values[i]);
+            }
+            write(wb, workbook);
+        }
+
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            writeItems(wb.createSheet("Sheet1"), 0, 50);
+            XSSFSheet broken = wb.createSheet("Broken");
+            writeItems(broken, 1, 5);
+            broken.getRow(3).getCell(2).setCellValue("many");
+            writeItems(wb.createSheet("After"), 2, 50);
+            write(wb, brokenWorkbook);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbooks() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void everySheetIsReadInWorkbookOrder() throws IOException {
+        Map<String, List<Item>> sheets = CoreDataProvider.getDataFromExcelSheets(workbook, Item.class);
+
+        assertEquals(new ArrayList<>(sheets.keySet()),
+                Arrays.asList("Sheet1", "Sheet 2", "Sheet 3", "Sheet 4", "Sheet 5", "Sheet 6", "Reversed"));
+        assertEquals(toStrings(sheets.get("Sheet1")),
+                toStrings(Arrays.asList(CoreDataProvider.getDataFromExcel(workbook, Item.class, new Item[0]))));
+        for (int sheet = 0; sheet < 6; sheet++) {
+            List<Item> items = sheets.get(sheet == 0 ? "Sheet1" : "Sheet " + (sheet + 1));
+            assertEquals(items.size(), 200 * sheet);
+            for (int i = 0; i < items.size(); i++) {
+                assertEquals(items.get(i).toString(), expectedItem(sheet, i + 1));
+            }
+        }
+        assertEquals(toStrings(sheets.get("Reversed")), Collections.singletonList("Item{name='Reversed item', "
+                + "unitPrice=9.5, quantity=9, unit='kg', vatRate='9%', account='709', batch='Batch 9'}"));
+    }
+
+    @Test
+    public void requestedSheetsKeepWorkbookOrderAndMissingSheetsAreLeftOut() throws IOException {
+        Map<String, List<Item>> sheets = CoreDataProvider.getDataFromExcelSheets(workbook, Item.class,
+                Arrays.asList("Reversed", "Missing", "Sheet 3", "Sheet1"));
+
+        assertEquals(new ArrayList<>(sheets.keySet()), Arrays.asList("Sheet1", "Sheet 3", "Reversed"));
+        assertEquals(sheets.get("Sheet 3").size(), 400);
+
+        assertTrue(CoreDataProvider.getDataFromExcelSheets(workbook, Item.class,
+                Collections.singletonList("Missing")).isEmpty());
+    }
+
+    @Test(timeOut = 30_000)
+    public void sheetsAreParsedConcurrentlyOnTheGivenExecutor() throws IOException {
+        Map<String, List<String>> rows = new ConcurrentHashMap<>();
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            StreamingSheetReader.readSheets(workbook, null, sheetName -> {
+                List<String> sheetRows = new ArrayList<>();
+                rows.put(sheetName, sheetRows);
+                return (rowNum, cells) -> {
+                    threads.put(sheetName, Thread.currentThread().getName());
+                    sheetRows.add(cells[0]);
+                    return true;
+                };
+            }, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(rows.size(), 7);
+        assertEquals(rows.get("Sheet 6").size(), 1001);
+        assertEquals(rows.get("Sheet 6").get(1000), "Item 5-1000");
+        assertFalse(threads.containsValue(Thread.currentThread().getName()));
+    }
+
+    @Test(timeOut = 30_000)
+    public void mappingErrorInOneSheetFailsTheRead() {
+        RuntimeException e = expectThrows(RuntimeException.class,
+                () -> CoreDataProvider.getDataFromExcelSheets(brokenWorkbook, Item.class));
+
+        assertEquals(e.getMessage(), "Failed to map row to Item");
+        assertTrue(e.getCause() instanceof NumberFormatException);
+    }
+
+    @Test(timeOut = 30_000)
+    public void handlerErrorInOneSheetIsRethrownUnchanged() {
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            IllegalStateException e = expectThrows(IllegalStateException.class,
+                    () -> StreamingSheetReader.readSheets(brokenWorkbook, null, sheetName -> (rowNum, cells) -> {
+                        if (rowNum == 0) {
+                            started.add(sheetName);
+                        }
+                        if ("Broken".equals(sheetName) && rowNum == 2) {
+                            throw new IllegalStateException("Cannot read row " + rowNum + " of " + sheetName);
+                        }
+                        return true;
+                    }, executor));
+
+            assertEquals(e.getMessage(), "Cannot read row 2 of Broken");
+            assertEquals(started.subList(0, 2), Arrays.asList("Sheet1", "Broken"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void missingFileIsReported() {
+        String missing = directory.resolve("missing.xlsx").toString();
+
+        IOException e = expectThrows(IOException.class, () -> CoreDataProvider.getDataFromExcelSheets(missing, Item.class));
+        assertTrue(e.getMessage().startsWith("Cannot open Excel file " + missing), e.getMessage());
+    }
+
+    private static void writeItems(XSSFSheet sheet, int sheetIndex, int rows) {
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADER.length; i++) {
+            header.createCell(i).setCellValue(HEADER[i]);
+        }
+        for (int i = 1; i <= rows; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("Item " + sheetIndex + "-" + i);
+            row.createCell(1).setCellValue(i * 0.5);
+            row.createCell(2).setCellValue(i % 10);
+            row.createCell(3).setCellValue("pcs");
+            row.createCell(4).setCellValue("20%");
+            row.createCell(5).setCellValue(700 + sheetIndex);
+            row.createCell(6).setCellValue("Batch " + sheetIndex);
+        }
+    }
+
+    private static String expectedItem(int sheetIndex, int i) {
+        return new Item("Item " + sheetIndex + "-" + i, i * 0.5, i % 10, "pcs", "20%", String.valueOf(700 + sheetIndex),
+                "Batch " + sheetIndex).toString();
+    }
+
+    private static void write(XSSFWorkbook wb, String filePath) throws IOException {
+        try (OutputStream out = Files.newOutputStream(Paths.get(filePath))) {
+            wb.write(out);
+        }
+    }
+
+    private static List<String> toStrings(List<?> records) {
+        return records.stream().map(Object::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,233 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.item.OffHeapDataSet;
+import com.antoanetatanasova.dataprovider.writer.ExcelRecordWriter;
+import com.antoanetatanasova.dataprovider.writer.RecordWriter;
+import com.antoanetatanasova.dto.Item;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class OffHeapDataSetTest {
+    // more than one chunk of 65536 rows and more than one 4 MB string arena chunk
+    private static final int ROWS = 70_000;
+
+    private static final Field UNIT_PRICE = field("unitPrice");
+    private static final Field QUANTITY = field("quantity");
+
+    private Path directory;
+    private String csvFile;
+    private Item[] items;
+
+    @BeforeClass
+    public void createFixture() throws IOException {
+        directory = Files.createTempDirectory("off-heap");
+        csvFile = directory.resolve("items.csv").toString();
+        Files.write(Paths.get(csvFile), itemLines(ROWS), StandardCharsets.UTF_8);
+        items = CsvDataProvider.getCsvData(csvFile, Item.class, new Item[0]);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixture() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void recordsEqualCsvLoad() throws IOException {
+        OffHeapDataSet<Item> dataSet = OffHeapDataSet.fromCsv(csvFile, CsvFormat.DEFAULT, Item.class);
+
+        assertEquals(dataSet.size(), ROWS);
+        assertTrue(dataSet.getOffHeapBytes() > 4L << 20);
+        Iterator<Item> iterator = dataSet.iterator();
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(iterator.next().toString(), items[row].toString());
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(dataSet.get(ROWS - 1).toString(), items[ROWS - 1].toString());
+        assertEquals(dataSet.row().moveTo(65_536).toObject().toString(), items[65_536].toString());
+    }
+
+    @Test
+    public void primitiveFieldsEqualRecordFields() throws IOException, IllegalAccessException {
+        OffHeapDataSet<Item> dataSet = OffHeapDataSet.fromCsv(csvFile, CsvFormat.DEFAULT, Item.class);
+        int price = dataSet.fieldIndex("unitPrice");
+        int quantity = dataSet.fieldIndex("quantity");
+
+        OffHeapDataSet<Item>.Row row = dataSet.row();
+        for (int i = 0; i < ROWS; i++) {
+            row.moveTo(i);
+            assertEquals(row.getDouble(price), UNIT_PRICE.getDouble(items[i]));
+            assertEquals(row.getInt(quantity), QUANTITY.getInt(items[i]));
+            assertEquals(row.getString(quantity), String.valueOf(QUANTITY.getInt(items[i])));
+        }
+    }
+
+    @Test
+    public void excelRecordsEqualExcelLoad() throws IOException {
+        String excelFile = directory.resolve("items.xlsx").toString();
+        writeWorkbook(excelFile, itemLines(500));
+        Item[] expected = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        OffHeapDataSet<Item> dataSet = OffHeapDataSet.fromExcel(excelFile, Item.class);
+
+        assertEquals(dataSet.size(), expected.length);
+        for (int row = 0; row < expected.length; row++) {
+            assertEquals(dataSet.get(row).toString(), expected[row].toString());
+        }
+    }
+
+    @Test
+    public void excelWholeNumbersAreReadLikeStreamingLoad() throws IOException {
+        String excelFile = directory.resolve("numbers.xlsx").toString();
+        try (RecordWriter<Record> writer = ExcelRecordWriter.open(excelFile, Record.class)) {
+            writer.write(record("negative", -3, -10_000_000_000L, -0.5, -7));
+            writer.write(record("large", 10_000_000, 12_345_678_901L, 1e7, 20_000_000));
+        }
+        Record[] expected = CoreDataProvider.getDataFromExcel(excelFile, Record.class, new Record[0],
+                ExcelReadMode.STREAMING);
+
+        OffHeapDataSet<Record> dataSet = OffHeapDataSet.fromExcel(excelFile, Record.class);
+
+        assertEquals(dataSet.size(), 2);
+        OffHeapDataSet<Record>.Row row = dataSet.row().moveTo(0);
+        assertEquals(row.getInt("count"), -3);
+        assertEquals(row.getLong("total"), -10_000_000_000L);
+        assertEquals(row.getInt("boxed"), -7);
+        assertEquals(row.toObject().toString(), expected[0].toString());
+        row.moveTo(1);
+        assertEquals(row.getInt("count"), 10_000_000);
+        assertEquals(row.getLong("total"), 12_345_678_901L);
+        assertEquals(row.getDouble("price"), 1e7);
+        assertEquals(row.getInt("boxed"), 20_000_000);
+        assertEquals(row.toObject().toString(), expected[1].toString());
+    }
+
+    @Test
+    public void allFieldTypesAreStored() throws IOException {
+        Path file = directory.resolve("records.csv");
+        Files.write(file, ("Name,Count,Total,Price,Active,Boxed\n"
+                + "Cr\u00e8me br\u00fbl\u00e9e,1,10000000000,1.5,true,7\n"
+                + ",-2,0,-0.25,false,-7\n").getBytes(StandardCharsets.UTF_8));
+
+        OffHeapDataSet<Record> dataSet = OffHeapDataSet.fromCsv(file.toString(), CsvFormat.DEFAULT, Record.class);
+        OffHeapDataSet<Record>.Row row = dataSet.row().moveTo(0);
+
+        assertEquals(row.getString("name"), "Cr\u00e8me br\u00fbl\u00e9e");
+        assertEquals(row.getInt("count"), 1);
+        assertEquals(row.getLong("total"), 10_000_000_000L);
+        assertEquals(row.getDouble("price"), 1.5);
+        assertTrue(row.getBoolean("active"));
+        assertEquals(row.getString("boxed"), "7");
+        assertNull(row.getString("missing"));
+        assertTrue(row.isEmpty(dataSet.fieldIndex("missing")));
+        assertEquals(row.toObject().toString(), "Cr\u00e8me br\u00fbl\u00e9e|1|10000000000|1.5|true|7|null");
+
+        row.moveTo(1);
+        assertEquals(row.getString("name"), "");
+        assertTrue(row.isEmpty(dataSet.fieldIndex("name")));
+        assertFalse(row.isEmpty(dataSet.fieldIndex("count")));
+        assertEquals(row.toObject().toString(), "|-2|0|-0.25|false|-7|null");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unknownFieldIsRejected() throws IOException {
+        OffHeapDataSet.fromCsv(csvFile, CsvFormat.DEFAULT, Item.class).fieldIndex("price");
+    }
+
+    private static List<String> itemLines(int rows) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Item Name,Unit Price,Quantity,Unit of Measure,VAT Rate,Account,Batch");
+        for (int row = 0; row < rows; row++) {
+            lines.add("Item Name " + row + "," + (row % 400) / 4.0 + "," + row % 25 + ",pcs,20%," + (700 + row % 6)
+                    + ",Batch " + row / 10);
+        }
+        return lines;
+    }
+
+    private static void writeWorkbook(String filePath, List<String> lines) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(Paths.get(filePath))) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            for (int row = 0; row < lines.size(); row++) {
+                String[] values = lines.get(row).split(",");
+                Row cells = sheet.createRow(row);
+                for (int column = 0; column < values.length; column++) {
+                    cells.createCell(column).setCellValue(values[column]);
+                }
+            }
+            workbook.write(out);
+        }
+    }
+
+    private static Record record(String name, int count, long total, double price, int boxed) {
+        Record record = new Record();
+        record.name = name;
+        record.count = count;
+        record.total = total;
+        record.price = price;
+        record.boxed = boxed;
+        return record;
+    }
+
+    private static Field field(String name) {
+        try {
+            Field field = Item.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Name")
+        String name;
+        @ExcelColumn(names = "Count")
+        int count;
+        @ExcelColumn(names = "Total")
+        long total;
+        @ExcelColumn(names = "Price")
+        double price;
+        @ExcelColumn(names = "Active")
+        boolean active;
+        @ExcelColumn(names = "Boxed")
+        Integer boxed;
+        @ExcelColumn(names = "Missing")
+        String missing;
+
+        public Record() {
+        }
+
+        @Override
+        public String toString() {
+            return name + "|" + count + "|" + total + "|" + price + "|" + active + "|" + boxed + "|" + missing;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.csv.ParallelCsvReader;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ParallelCsvReaderTest {
+    private static final int ROWS = 12000;
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public void createFile() throws IOException {
+        // about 8 MB, so that a pool of four threads cuts the file into several 1 MB chunks; most of the bytes
+        // are inside quoted fields that contain line breaks, delimiters and lines looking like records
+        file = Files.createTempFile("parallel", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,note,value\n");
+            for (int row = 0; row < ROWS; row++) {
+                writer.write(row + ",\"" + note(row) + "\"," + row * 3 + (row % 2 == 0 ? "\n" : "\r\n"));
+            }
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void parallelReadEqualsSequentialRead() throws IOException {
+        List<String[]> sequential = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                sequential.add(record.toArray());
+            }
+        }
+
+        List<String[]> parallel = ParallelCsvReader.read(file.toString(), CsvFormat.DEFAULT, CsvRecord::toArray, pool);
+
+        assertTrue(Files.size(file) > 4L << 20);
+        assertEquals(parallel.size(), ROWS + 1);
+        assertEquals(parallel.toArray(), sequential.toArray());
+    }
+
+    @Test
+    public void chunksSplitInsideQuotedFieldsAreJoined() throws IOException {
+        List<String[]> records = ParallelCsvReader.read(file.toString(), CsvFormat.DEFAULT, CsvRecord::toArray, pool);
+
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(records.get(row + 1), new String[]{Integer.toString(row), note(row).replace("\"\"", "\""),
+                    Integer.toString(row * 3)});
+        }
+    }
+
+    @Test
+    public void readStartsAtGivenOffset() throws IOException {
+        long start;
+        try (CsvParser parser = CsvParser.open(file.toString())) {
+            parser.next();
+            start = parser.getPosition();
+        }
+
+        List<Integer> ids = ParallelCsvReader.read(file.toString(), CsvFormat.DEFAULT, start,
+                record -> record.getInt(0), pool);
+
+        assertEquals(ids.size(), ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(ids.get(row).intValue(), row);
+        }
+    }
+
+    private static String note(int row) {
+        StringBuilder note = new StringBuilder();
+        for (int line = 0; line < 20; line++) {
+            note.append(line).append(",").append(row).append(",\"\"quoted\"\" text of row ").append(row)
+                    .append(line % 3 == 0 ? "\r\n" : "\n");
+        }
+        return note.toString();
+    }
+}
@@ -0,0 +1,283 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.customer.CustomerExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ItemDataProvider;
+import com.antoanetatanasova.dataprovider.item.PipelinedDataIterator;
+import com.antoanetatanasova.dataprovider.item.StreamingDataIterator;
+import com.antoanetatanasova.dto.Item;
+import org.testng.TestNG;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class PipelinedDataIteratorTest {
+    // many batches of 64 rows, so that several mapper threads deliver them out of order
+    private static final int ROWS = 3000;
+    private static final int PROVIDED_ROWS = 1000;
+
+    private Path directory;
+    private String excelFile;
+
+    @BeforeClass
+    public void createFixture() throws IOException {
+        directory = Files.createTempDirectory("pipelined");
+        excelFile = directory.resolve("items.xlsx").toString();
+        ItemWorkbooks.writeItems(excelFile, ROWS);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixture() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(timeOut = 60_000)
+    public void pipelinedItemsEqualExcelLoad() throws IOException {
+        Item[] expected = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        List<String> actual = new ArrayList<>();
+        CoreDataProvider.pipelineDataFromExcel(excelFile, Item.class).forEachRemaining(item -> actual.add(item.toString()));
+
+        assertEquals(expected.length, ROWS);
+        assertEquals(sorted(actual), sorted(toStrings(expected)));
+    }
+
+    @Test(timeOut = 60_000)
+    public void parallelDataProvidersEqualLoadedDataProviders() throws IOException {
+        assertEquals(sorted(parameters(ItemDataProvider.itemDataParallel())), sorted(toStrings(ItemDataProvider.itemData())));
+        assertEquals(sorted(parameters(CustomerExcelDataProvider.customerDataParallel())),
+                sorted(toStrings(CustomerExcelDataProvider.customerData())));
+    }
+
+    @Test(timeOut = 60_000)
+    public void parallelDataProviderIsReadToTheEndByTestNG() {
+        assertEquals(peakRecordsHeld(ParallelProvider.class), PROVIDED_ROWS);
+    }
+
+    @Test(timeOut = 60_000)
+    public void sequentialDataProviderHoldsFewRecordsUnderTestNG() {
+        int peak = peakRecordsHeld(SequentialProvider.class);
+
+        assertTrue(peak < PROVIDED_ROWS / 2, peak + " records held");
+    }
+
+    @Test(timeOut = 10_000)
+    public void sharedConsumersReceiveEveryRecordOnce() throws InterruptedException {
+        PipelinedDataIterator<Integer> iterator = new PipelinedDataIterator<>("shared", consumer -> {
+            for (int i = 0; i < 10_000; i++) {
+                consumer.accept(i);
+            }
+        }, (Integer row) -> row, 3, 128);
+        List<Integer> consumed = Collections.synchronizedList(new ArrayList<>());
+        Thread[] consumers = new Thread[4];
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Thread(() -> {
+                while (true) {
+                    Integer next;
+                    synchronized (iterator) {
+                        if (!iterator.hasNext()) {
+                            return;
+                        }
+                        next = iterator.next();
+                    }
+                    consumed.add(next);
+                }
+            });
+            consumers[i].start();
+        }
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add(i);
+        }
+        assertEquals(sorted(consumed), expected);
+    }
+
+    @Test(timeOut = 10_000)
+    public void mapperFailureReachesConsumerWithFullQueues() throws InterruptedException {
+        AtomicReference<Thread> readerThread = new AtomicReference<>();
+        PipelinedDataIterator<Integer> iterator = new PipelinedDataIterator<>("failing-mapper", consumer -> {
+            readerThread.set(Thread.currentThread());
+            for (int i = 0; ; i++) {
+                consumer.accept(i);
+            }
+        }, (Integer row) -> {
+            if (row == 5000) {
+                throw new IllegalArgumentException("Cannot map row " + row);
+            }
+            return row;
+        }, 4, 64);
+
+        // leave the queues full while the mappers reach the failing row
+        assertEquals(iterator.next().intValue(), 0);
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        });
+
+        assertEquals(e.getMessage(), "Cannot map row 5000");
+        expectThrows(IllegalArgumentException.class, iterator::hasNext);
+        readerThread.get().join(5000);
+        assertFalse(readerThread.get().isAlive());
+    }
+
+    @Test(timeOut = 10_000)
+    public void sourceFailureReachesConsumer() {
+        PipelinedDataIterator<Integer> iterator = new PipelinedDataIterator<>("failing-source", consumer -> {
+            for (int i = 0; i < 100; i++) {
+                consumer.accept(i);
+            }
+            throw new IOException("broken");
+        }, (Integer row) -> row, 2, 64);
+
+        UncheckedIOException e = expectThrows(UncheckedIOException.class, () -> {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        });
+        assertEquals(e.getCause().getMessage(), "broken");
+    }
+
+    @Test(timeOut = 10_000)
+    public void closeStopsThePipeline() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        PipelinedDataIterator<Integer> iterator = new PipelinedDataIterator<>("endless", consumer -> {
+            try {
+                for (int i = 0; ; i++) {
+                    consumer.accept(i);
+                }
+            } finally {
+                finished.countDown();
+            }
+        }, (Integer row) -> row, 2, 64);
+
+        assertTrue(iterator.hasNext());
+        iterator.close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Runs the tests of a nested class with the real TestNG runner, and returns the largest number of records
+     * that had been read by the pipeline but not yet passed to a test.
+     */
+    private int peakRecordsHeld(Class<?> testClass) {
+        ProvidedRows.read.set(0);
+        ProvidedRows.consumed.set(0);
+        ProvidedRows.peakHeld.set(0);
+
+        TestNG testNG = new TestNG(false);
+        testNG.setOutputDirectory(directory.resolve(testClass.getSimpleName()).toString());
+        testNG.setDefaultSuiteName("Pipeline");
+        testNG.setTestClasses(new Class<?>[]{testClass});
+        testNG.run();
+
+        assertFalse(testNG.hasFailure(), testClass.getSimpleName() + " failed");
+        assertEquals(ProvidedRows.consumed.get(), PROVIDED_ROWS);
+        return ProvidedRows.peakHeld.get();
+    }
+
+    private static List<String> parameters(Iterator<Object[]> parameters) {
+        List<String> records = new ArrayList<>();
+        parameters.forEachRemaining(values -> {
+            assertEquals(values.length, 1);
+            records.add(values[0].toString());
+        });
+        return records;
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        return Arrays.stream(records).map(Object::toString).collect(Collectors.toList());
+    }
+
+    private static <T extends Comparable<? super T>> List<T> sorted(List<T> values) {
+        List<T> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The rows read by the pipeline of the nested test classes, and the records their tests received.
+     */
+    static final class ProvidedRows {
+        static final AtomicInteger read = new AtomicInteger();
+        static final AtomicInteger consumed = new AtomicInteger();
+        static final AtomicInteger peakHeld = new AtomicInteger();
+
+        static Iterator<Object[]> parameters() {
+            return StreamingDataIterator.asParameters(new PipelinedDataIterator<>("provided", consumer -> {
+                for (int i = 0; i < PROVIDED_ROWS; i++) {
+                    read.incrementAndGet();
+                    consumer.accept(i);
+                }
+            }, (Integer row) -> row, 2, 64));
+        }
+
+        static void consume() {
+            int held = read.get() - consumed.getAndIncrement();
+            peakHeld.accumulateAndGet(held, Math::max);
+        }
+    }
+
+    public static class ParallelProvider {
+        @DataProvider(parallel = true)
+        public static Iterator<Object[]> rows() {
+            return ProvidedRows.parameters();
+        }
+
+        /**
+         * Waits until the pipeline has read every row, which only happens if TestNG keeps pulling records
+         * while none of the tests it started has finished.
+         */
+        @Test(dataProvider = "rows")
+        public void consume(Integer row) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (ProvidedRows.read.get() < PROVIDED_ROWS && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            ProvidedRows.consume();
+        }
+    }
+
+    public static class SequentialProvider {
+        @DataProvider
+        public static Iterator<Object[]> rows() {
+            return ProvidedRows.parameters();
+        }
+
+        @Test(dataProvider = "rows")
+        public void consume(Integer row) {
+            ProvidedRows.consume();
+        }
+    }
+}
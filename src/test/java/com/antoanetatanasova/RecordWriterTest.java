@@ -0,0 +1,204 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.writer.CsvRecordWriter;
+import com.antoanetatanasova.dataprovider.writer.ExcelRecordWriter;
+import com.antoanetatanasova.dataprovider.writer.RecordWriter;
+import com.antoanetatanasova.dataprovider.writer.SyntheticData;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+public class RecordWriterTest {
+    private static final String[] TEXTS = {
+            "plain", "a,b", "a;b", "say \"hi\"", "\"", "line\nbreak", "cr\r\nlf", "  padded  ", "", null,
+            "café €", "é,\"é\"", "007", "12.0", "trailing,"
+    };
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("writer");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void csvFieldsAreQuotedOnlyWhenNeeded() throws IOException {
+        String filePath = directory.resolve("quoted.csv").toString();
+        write(CsvRecordWriter.open(filePath, CsvFormat.DEFAULT, Record.class),
+                new Record("a,b", "say \"hi\"", 1, 2, 0.5, true),
+                new Record("line\nbreak", " padded", -1, 10_000_000_000L, 25.0, false),
+                new Record("plain", null, 0, 0, -0.25, false));
+
+        assertEquals(new String(Files.readAllBytes(directory.resolve("quoted.csv")), StandardCharsets.UTF_8),
+                "Text,Note,Count,Total,Amount,Active\r\n"
+                        + "\"a,b\",\"say \"\"hi\"\"\",1,2,0.5,true\r\n"
+                        + "\"line\nbreak\",\" padded\",-1,10000000000,25,false\r\n"
+                        + "plain,,0,0,-0.25,false\r\n");
+    }
+
+    @Test
+    public void csvFieldsSurviveWriteAndParse() throws IOException {
+        for (CsvFormat format : new CsvFormat[]{CsvFormat.DEFAULT, CsvFormat.DEFAULT.withDelimiter(';')}) {
+            String filePath = directory.resolve("fields.csv").toString();
+            write(CsvRecordWriter.open(filePath, format, Record.class), records());
+
+            List<String> parsed = new ArrayList<>();
+            try (CsvParser parser = CsvParser.open(filePath, format)) {
+                parser.next();
+                CsvRecord record;
+                while ((record = parser.next()) != null) {
+                    parsed.add(record.getString(0));
+                }
+            }
+
+            List<String> expected = Arrays.stream(TEXTS).map(text -> text == null ? "" : text)
+                    .collect(Collectors.toList());
+            assertEquals(parsed, expected, "delimiter " + format.getDelimiter());
+        }
+    }
+
+    @Test
+    public void csvRecordsSurviveWriteAndRead() throws IOException {
+        String filePath = directory.resolve("records.csv").toString();
+        write(CsvRecordWriter.open(filePath, CsvFormat.DEFAULT, Record.class), records());
+
+        Record[] read = CsvDataProvider.getCsvData(filePath, Record.class, new Record[0]);
+
+        assertEquals(toStrings(read), expected(records()));
+    }
+
+    @Test
+    public void excelRecordsSurviveWriteAndRead() throws IOException {
+        String filePath = directory.resolve("records.xlsx").toString();
+        write(ExcelRecordWriter.open(filePath, Record.class), records());
+
+        for (ExcelReadMode mode : new ExcelReadMode[]{ExcelReadMode.WORKBOOK, ExcelReadMode.STREAMING}) {
+            Record[] read = CoreDataProvider.getDataFromExcel(filePath, Record.class, new Record[0], mode);
+            assertEquals(toStrings(read), expected(records()), mode.toString());
+        }
+    }
+
+    @Test
+    public void syntheticFixturesReadBackAsGeneratedRecords() throws IOException {
+        String csvFile = directory.resolve("items.csv").toString();
+        String excelFile = directory.resolve("items.xlsx").toString();
+        SyntheticData<Item> items = SyntheticData.of(Item.class, 42);
+        items.write(csvFile, 1000);
+        items.write(excelFile, 300);
+
+        List<String> generated = items.stream(1000).map(Item::toString).collect(Collectors.toList());
+        assertEquals(toStrings(CsvDataProvider.getCsvData(csvFile, Item.class, new Item[0])), generated);
+        assertEquals(toStrings(CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0])),
+                generated.subList(0, 300));
+
+        SyntheticData<Record> records = SyntheticData.of(Record.class, 7);
+        String recordFile = directory.resolve("records.csv").toString();
+        records.write(recordFile, 500);
+        assertEquals(toStrings(CsvDataProvider.getCsvData(recordFile, Record.class, new Record[0])),
+                records.stream(500).map(Record::toString).collect(Collectors.toList()));
+    }
+
+    private static Record[] records() {
+        Record[] records = new Record[TEXTS.length];
+        for (int i = 0; i < TEXTS.length; i++) {
+            records[i] = new Record(TEXTS[i], TEXTS[TEXTS.length - 1 - i], i - 7, (i - 7) * 1_000_000_007L,
+                    i * 1.25 - 3, i % 2 == 0);
+        }
+        return records;
+    }
+
+    /**
+     * The records as the data providers read them back: text is trimmed and formatted like a cell value, and
+     * a {@code null} text is read as an empty string.
+     */
+    private static List<String> expected(Record[] records) {
+        List<String> expected = new ArrayList<>();
+        for (Record record : records) {
+            expected.add(new Record(readBack(record.text), readBack(record.note), record.count, record.total,
+                    record.amount, record.active).toString());
+        }
+        return expected;
+    }
+
+    private static String readBack(String text) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.trim();
+        return trimmed.matches("\\d*\\.0") ? trimmed.substring(0, trimmed.indexOf('.')) : trimmed;
+    }
+
+    @SafeVarargs
+    private static <T> void write(RecordWriter<T> writer, T... records) throws IOException {
+        try (RecordWriter<T> out = writer) {
+            for (T record : records) {
+                out.write(record);
+            }
+            assertEquals(out.getRowCount(), records.length);
+        }
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        return Arrays.stream(records).map(Object::toString).collect(Collectors.toList());
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Text", dedup = ExcelColumn.Dedup.NEVER)
+        String text;
+        @ExcelColumn(names = "Note")
+        String note;
+        @ExcelColumn(names = "Count")
+        int count;
+        @ExcelColumn(names = "Total")
+        long total;
+        @ExcelColumn(names = "Amount")
+        double amount;
+        @ExcelColumn(names = "Active")
+        boolean active;
+
+        public Record() {
+        }
+
+        Record(String text, String note, int count, long total, double amount, boolean active) {
+            this.text = text;
+            this.note = note;
+            this.count = count;
+            this.total = total;
+            this.amount = amount;
+            this.active = active;
+        }
+
+        @Override
+        public String toString() {
+            return text + "|" + note + "|" + count + "|" + total + "|" + amount + "|" + active;
+        }
+    }
+}
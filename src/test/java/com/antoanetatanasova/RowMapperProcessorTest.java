@@ -0,0 +1,195 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.RowMapper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class RowMapperProcessorTest {
+    private static final String PACKAGE = "com/antoanetatanasova/fixture/";
+    private static final String IMPORT = "package com.antoanetatanasova.fixture;\n"
+            + "import com.antoanetatanasova.dataprovider.item.ExcelColumn;\n";
+
+    private Path directory;
+    private Path output;
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    private boolean compiled;
+
+    @BeforeClass
+    public void compileFixtures() throws IOException {
+        directory = Files.createTempDirectory("processor");
+        output = directory.resolve("fixtures");
+        compiled = new MapperCompiler(directory).compile(output, true, diagnostics,
+                PACKAGE + "Fields.java", IMPORT
+                        + "public class Fields {\n"
+                        + "    @ExcelColumn(names = {\"Name\", \"Item Name\"}, dedup = ExcelColumn.Dedup.NEVER) String name;\n"
+                        + "    @ExcelColumn(names = \"Quantity\") protected int quantity;\n"
+                        + "    @ExcelColumn(names = \"Total\") public Long total;\n"
+                        + "    @ExcelColumn(names = \"Caf\\u00e9 \\\"Note\\\"\") String note;\n"
+                        + "    String unannotated;\n"
+                        + "}\n",
+                PACKAGE + "Setters.java", IMPORT
+                        + "public class Setters {\n"
+                        + "    @ExcelColumn(names = \"Name\") private String name;\n"
+                        + "    @ExcelColumn(names = \"Active\") boolean active;\n"
+                        + "    public void setName(String name) { this.name = name; }\n"
+                        + "}\n",
+                PACKAGE + "Immutable.java", IMPORT
+                        + "public class Immutable {\n"
+                        + "    @ExcelColumn(names = \"Name\") private final String name;\n"
+                        + "    @ExcelColumn(names = \"Price\") private final double price;\n"
+                        + "    public Immutable(String name, double price) { this.name = name; this.price = price; }\n"
+                        + "}\n",
+                PACKAGE + "Outer.java", IMPORT
+                        + "public class Outer {\n"
+                        + "    public static class Nested {\n"
+                        + "        @ExcelColumn(names = \"Name\") String name;\n"
+                        + "    }\n"
+                        + "    public class Inner {\n"
+                        + "        @ExcelColumn(names = \"Name\") String name;\n"
+                        + "    }\n"
+                        + "}\n",
+                PACKAGE + "Unsupported.java", IMPORT
+                        + "public class Unsupported {\n"
+                        + "    @ExcelColumn(names = \"Name\") String name;\n"
+                        + "    @ExcelColumn(names = \"Price\") java.math.BigDecimal price;\n"
+                        + "}\n",
+                PACKAGE + "Abstract.java", IMPORT
+                        + "public abstract class Abstract {\n"
+                        + "    @ExcelColumn(names = \"Name\") String name;\n"
+                        + "}\n",
+                PACKAGE + "Inaccessible.java", IMPORT
+                        + "public class Inaccessible {\n"
+                        + "    @ExcelColumn(names = \"Name\") private String name;\n"
+                        + "    @ExcelColumn(names = \"Price\") private double price;\n"
+                        + "    public Inaccessible(double price, String name) { this.name = name; this.price = price; }\n"
+                        + "}\n");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void fixturesCompileWithGeneratedMappers() {
+        assertTrue(compiled, diagnostics.getDiagnostics().toString());
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            assertFalse(diagnostic.getKind() == Diagnostic.Kind.ERROR || diagnostic.getKind() == Diagnostic.Kind.WARNING,
+                    diagnostic.toString());
+        }
+    }
+
+    @Test
+    public void mappersAreRegisteredAsServices() throws IOException {
+        Path serviceFile = output.resolve("classes/META-INF/services/" + RowMapper.class.getName());
+
+        assertEquals(Files.readAllLines(serviceFile, StandardCharsets.UTF_8), Arrays.asList(
+                "com.antoanetatanasova.fixture.Fields_RowMapper",
+                "com.antoanetatanasova.fixture.Setters_RowMapper",
+                "com.antoanetatanasova.fixture.Immutable_RowMapper",
+                "com.antoanetatanasova.fixture.Outer_Nested_RowMapper"));
+        for (String mapper : Arrays.asList("Fields", "Setters", "Immutable", "Outer_Nested")) {
+            assertTrue(Files.exists(output.resolve("classes/" + PACKAGE + mapper + "_RowMapper.class")), mapper);
+        }
+    }
+
+    @Test
+    public void accessibleFieldsAreAssigned() throws IOException {
+        String source = generated("Fields");
+
+        assertTrue(source.contains("public final class Fields_RowMapper implements "
+                + "RowMapper<com.antoanetatanasova.fixture.Fields>"), source);
+        assertTrue(source.contains("Arrays.asList(\"name\", \"quantity\", \"total\", \"note\")"), source);
+        assertTrue(source.contains("column(columns, \"Name\", \"Item Name\")"), source);
+        assertTrue(source.contains("column(columns, \"Caf\\u00E9 \\\"Note\\\"\")"), source);
+        assertTrue(source.contains("StringDictionary.forMode(ExcelColumn.Dedup.NEVER)"), source);
+        assertTrue(source.contains("record.name = text(cells.getString(column), dictionaries[0]);"), source);
+        assertTrue(source.contains("record.quantity = cells.getInt(column);"), source);
+        assertTrue(source.contains("record.total = Long.valueOf(cells.getLong(column));"), source);
+        assertFalse(source.contains("unannotated"), source);
+        assertFalse(source.contains("supportsMissingColumns"), source);
+    }
+
+    @Test
+    public void privateFieldsAreSetThroughSetters() throws IOException {
+        String source = generated("Setters");
+
+        assertTrue(source.contains("record.setName(text(cells.getString(column), dictionaries[0]));"), source);
+        assertTrue(source.contains("record.active = cells.getBoolean(column);"), source);
+        assertFalse(source.contains("supportsMissingColumns"), source);
+    }
+
+    @Test
+    public void finalFieldsArePassedToConstructor() throws IOException {
+        String source = generated("Immutable");
+
+        assertTrue(source.contains("return new com.antoanetatanasova.fixture.Immutable(value0, value1);"), source);
+        assertTrue(source.contains("double value1 = column < 0 ? 0.0 : cells.getDouble(column);"), source);
+        assertTrue(source.contains("public boolean supportsMissingColumns() {\n        return false;"), source);
+    }
+
+    @Test
+    public void nestedClassesAreNamedAfterEnclosingClasses() throws IOException {
+        assertTrue(generated("Outer_Nested").contains("record.name = "));
+        assertNull(generatedFile("Outer_Inner"));
+        assertNull(generatedFile("Inner"));
+    }
+
+    @Test
+    public void classesWithoutMapperAreExplained() {
+        List<String> notes = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+                notes.add(diagnostic.getMessage(Locale.ROOT));
+            }
+        }
+
+        assertTrue(notes.contains("No row mapper generated for com.antoanetatanasova.fixture.Outer.Inner because"
+                + " the class is private, abstract or not static; it is bound reflectively"), notes.toString());
+        assertTrue(notes.contains("No row mapper generated for com.antoanetatanasova.fixture.Abstract because"
+                + " the class is private, abstract or not static; it is bound reflectively"), notes.toString());
+        assertTrue(notes.contains("No row mapper generated for com.antoanetatanasova.fixture.Unsupported because"
+                + " field price has unsupported type java.math.BigDecimal; it is bound reflectively"), notes.toString());
+        assertTrue(notes.contains("No row mapper generated for com.antoanetatanasova.fixture.Inaccessible because"
+                + " it has no accessible constructor taking the annotated fields, and no accessible no-argument"
+                + " constructor with accessible fields or setters; it is bound reflectively"), notes.toString());
+        for (String skipped : Arrays.asList("Abstract", "Unsupported", "Inaccessible")) {
+            assertNull(generatedFile(skipped), skipped);
+        }
+    }
+
+    private String generated(String mapper) throws IOException {
+        Path file = generatedFile(mapper);
+        assertNotNull(file, mapper);
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream().collect(Collectors.joining("\n"));
+    }
+
+    private Path generatedFile(String mapper) {
+        Path file = output.resolve("generated/" + PACKAGE + mapper + "_RowMapper.java");
+        return Files.exists(file) ? file : null;
+    }
+}
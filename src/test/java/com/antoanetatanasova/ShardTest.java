@@ -0,0 +1,269 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvRowIndex;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.shard.Shard;
+import com.antoanetatanasova.dataprovider.writer.ExcelRecordWriter;
+import com.antoanetatanasova.dto.Item;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ShardTest {
+    private static final int ROWS = 2003;
+    private static final int SHARDS = 4;
+
+    private static final Field NAME = nameField();
+
+    private Path directory;
+    private String csvFile;
+    private String excelFile;
+
+    @BeforeClass
+    public void createFixtures() throws IOException {
+        directory = Files.createTempDirectory("shard");
+        csvFile = directory.resolve("items.csv").toString();
+        excelFile = directory.resolve("items.xlsx").toString();
+        writeFixtures(csvFile, excelFile);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixtures() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void csvRangeShardsCoverEveryRowOnce() throws IOException {
+        String[][] all = CsvDataProvider.getCsvData(csvFile, CsvFormat.DEFAULT);
+
+        List<String> joined = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            String[][] shard = CsvDataProvider.getCsvData(csvFile, CsvFormat.DEFAULT, Shard.range(index, SHARDS));
+            assertEquals(shard[0], all[0]);
+            for (int row = 1; row < shard.length; row++) {
+                joined.add(Arrays.toString(shard[row]));
+            }
+        }
+
+        assertEquals(joined, toStrings(Arrays.copyOfRange(all, 1, all.length)));
+    }
+
+    @Test
+    public void concurrentRangeShardsBuildOneValidIndex() throws Exception {
+        Path copy = directory.resolve("concurrent.csv");
+        Files.copy(Paths.get(csvFile), copy);
+        String[][] all = CsvDataProvider.getCsvData(copy.toString(), CsvFormat.DEFAULT);
+
+        int workers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String[][]>> shards = new ArrayList<>();
+            for (int index = 0; index < workers; index++) {
+                Shard shard = Shard.range(index, workers);
+                shards.add(pool.submit(() -> {
+                    start.await();
+                    return CsvDataProvider.getCsvData(copy.toString(), CsvFormat.DEFAULT, shard);
+                }));
+            }
+            start.countDown();
+
+            List<String> joined = new ArrayList<>();
+            for (Future<String[][]> shard : shards) {
+                String[][] records = shard.get();
+                joined.addAll(toStrings(Arrays.copyOfRange(records, 1, records.length)));
+            }
+            assertEquals(joined, toStrings(Arrays.copyOfRange(all, 1, all.length)));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(Files.isRegularFile(CsvRowIndex.sidecarPath(copy.toString())));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.anyMatch(path -> path.toString().endsWith(".tmp")));
+        }
+        assertEquals(CsvRowIndex.load(copy.toString(), CsvFormat.DEFAULT).getRecordCount(), ROWS + 1);
+    }
+
+    @Test
+    public void compressedRangeShardsWriteNoIndex() throws IOException {
+        Path compressed = directory.resolve("items.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(Paths.get(csvFile), out);
+        }
+        String[][] all = CsvDataProvider.getCsvData(csvFile, CsvFormat.DEFAULT);
+
+        List<String> joined = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            String[][] shard = CsvDataProvider.getCsvData(compressed.toString(), CsvFormat.DEFAULT,
+                    Shard.range(index, SHARDS));
+            joined.addAll(toStrings(Arrays.copyOfRange(shard, 1, shard.length)));
+        }
+
+        assertEquals(joined, toStrings(Arrays.copyOfRange(all, 1, all.length)));
+        assertFalse(Files.exists(CsvRowIndex.sidecarPath(compressed.toString())));
+    }
+
+    @Test
+    public void csvHashShardsPartitionRowsByKey() throws IOException {
+        String[][] all = CsvDataProvider.getCsvData(csvFile, CsvFormat.DEFAULT);
+        int batch = Arrays.asList(all[0]).indexOf("Batch");
+
+        List<String> joined = new ArrayList<>();
+        Set<String> seenKeys = new HashSet<>();
+        for (int index = 0; index < SHARDS; index++) {
+            String[][] shard = CsvDataProvider.getCsvData(csvFile, CsvFormat.DEFAULT, Shard.hash(index, SHARDS, "Batch"));
+            Set<String> keys = new HashSet<>();
+            for (int row = 1; row < shard.length; row++) {
+                joined.add(Arrays.toString(shard[row]));
+                keys.add(shard[row][batch]);
+            }
+            for (String key : keys) {
+                assertTrue(seenKeys.add(key), "key " + key + " in more than one shard");
+            }
+        }
+
+        List<String> expected = toStrings(Arrays.copyOfRange(all, 1, all.length));
+        expected.sort(null);
+        joined.sort(null);
+        assertEquals(joined, expected);
+    }
+
+    @Test
+    public void excelRangeShardsCoverEveryRowOnce() throws IOException {
+        Item[] all = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        List<String> joined = new ArrayList<>();
+        for (int index = 0; index < SHARDS; index++) {
+            joined.addAll(toStrings(CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0],
+                    Shard.range(index, SHARDS))));
+        }
+
+        assertEquals(all.length, ROWS);
+        assertEquals(joined, toStrings(all));
+    }
+
+    @Test
+    public void csvAndExcelHashShardsAgreeOnNumericKeys() throws IOException, IllegalAccessException {
+        // whole prices are written as 12.0 to the CSV file and read as 12 from the numeric xlsx cells
+        Path csv = directory.resolve("prices.csv");
+        Path excel = directory.resolve("prices.xlsx");
+        List<String> lines = new ArrayList<>();
+        lines.add("Item Name,Unit Price");
+        try (ExcelRecordWriter<Item> writer = ExcelRecordWriter.open(excel.toString(), Item.class)) {
+            for (int row = 0; row < 200; row++) {
+                Item item = new Item("Item " + row, row, 1, "pcs", "20%", "701", "Batch 001");
+                writer.write(item);
+                lines.add("Item " + row + "," + (double) row);
+            }
+        }
+        Files.write(csv, lines);
+
+        int total = 0;
+        for (int index = 0; index < SHARDS; index++) {
+            Shard shard = Shard.hash(index, SHARDS, "Unit Price");
+            String[][] csvRecords = CsvDataProvider.getCsvData(csv.toString(), CsvFormat.DEFAULT, shard);
+            Item[] excelItems = CoreDataProvider.getDataFromExcel(excel.toString(), Item.class, new Item[0], shard);
+
+            List<String> csvNames = new ArrayList<>();
+            for (int row = 1; row < csvRecords.length; row++) {
+                csvNames.add(csvRecords[row][0]);
+            }
+            List<String> excelNames = new ArrayList<>();
+            for (Item item : excelItems) {
+                excelNames.add((String) NAME.get(item));
+            }
+            assertEquals(excelNames, csvNames);
+            total += excelItems.length;
+        }
+        assertEquals(total, 200);
+    }
+
+    @Test
+    public void hashKeysAreNormalized() {
+        int shards = 0;
+        for (int index = 0; index < SHARDS; index++) {
+            Shard shard = Shard.hash(index, SHARDS, "Quantity");
+            assertEquals(shard.containsKey("12.0"), shard.containsKey("12"));
+            assertEquals(shard.containsKey(" 12 "), shard.containsKey("12"));
+            assertEquals(shard.containsKey(null), shard.containsKey(""));
+            shards += shard.containsKey("12") ? 1 : 0;
+        }
+        assertEquals(shards, 1);
+    }
+
+    private static Field nameField() {
+        try {
+            Field field = Item.class.getDeclaredField("name");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the same items to a CSV file and to the first sheet of a workbook.
+     */
+    private static void writeFixtures(String csvFile, String excelFile) throws IOException {
+        String[] header = {"Item Name", "Unit Price", "Quantity", "Unit of Measure", "VAT Rate", "Account", "Batch"};
+        List<String> lines = new ArrayList<>();
+        lines.add(String.join(",", header));
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(Paths.get(excelFile))) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            Row headerRow = sheet.createRow(0);
+            for (int column = 0; column < header.length; column++) {
+                headerRow.createCell(column).setCellValue(header[column]);
+            }
+            for (int row = 1; row <= ROWS; row++) {
+                String[] values = {"Item Name " + row, (row % 50) + ".25", Integer.toString(row % 9 + 1), "pcs",
+                        "20%", Integer.toString(700 + row % 3), "Batch " + (row % 37)};
+                lines.add(String.join(",", values));
+                Row cells = sheet.createRow(row);
+                for (int column = 0; column < values.length; column++) {
+                    cells.createCell(column).setCellValue(values[column]);
+                }
+            }
+            workbook.write(out);
+        }
+        Files.write(Paths.get(csvFile), lines);
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        List<String> strings = new ArrayList<>();
+        for (Object record : records) {
+            strings.add(record instanceof Object[] ? Arrays.toString((Object[]) record) : record.toString());
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,134 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.customer.CustomerExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ItemDataProvider;
+import com.antoanetatanasova.dataprovider.item.StreamingDataIterator;
+import com.antoanetatanasova.dto.Item;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class StreamingDataIteratorTest {
+    // several times the default queue capacity, so that the reader blocks on the consumer
+    private static final int ROWS = 2000;
+
+    private Path directory;
+    private String excelFile;
+
+    @BeforeClass
+    public void createFixture() throws IOException {
+        directory = Files.createTempDirectory("streaming");
+        excelFile = directory.resolve("items.xlsx").toString();
+        ItemWorkbooks.writeItems(excelFile, ROWS);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFixture() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void iteratedItemsEqualExcelLoadInOrder() throws IOException {
+        Item[] expected = CoreDataProvider.getDataFromExcel(excelFile, Item.class, new Item[0]);
+
+        List<String> actual = new ArrayList<>();
+        CoreDataProvider.iterateDataFromExcel(excelFile, Item.class).forEachRemaining(item -> actual.add(item.toString()));
+
+        assertEquals(expected.length, ROWS);
+        assertEquals(actual, toStrings(expected));
+    }
+
+    @Test
+    public void streamingDataProvidersEqualLoadedDataProviders() throws IOException {
+        assertEquals(parameters(ItemDataProvider.itemDataStream()), toStrings(ItemDataProvider.itemData()));
+        assertEquals(parameters(CustomerExcelDataProvider.customerDataStream()),
+                toStrings(CustomerExcelDataProvider.customerData()));
+    }
+
+    @Test(timeOut = 10_000)
+    public void readerFailureIsRethrownAfterEarlierRecords() {
+        StreamingDataIterator<String> iterator = new StreamingDataIterator<>("failing", consumer -> {
+            consumer.accept("first");
+            consumer.accept("second");
+            throw new IOException("broken");
+        });
+
+        assertEquals(iterator.next(), "first");
+        assertEquals(iterator.next(), "second");
+        UncheckedIOException e = expectThrows(UncheckedIOException.class, iterator::hasNext);
+        assertEquals(e.getCause().getMessage(), "broken");
+
+        StreamingDataIterator<String> unchecked = new StreamingDataIterator<>("unchecked", consumer -> {
+            throw new IllegalArgumentException("unknown column");
+        });
+        expectThrows(IllegalArgumentException.class, unchecked::hasNext);
+    }
+
+    @Test(timeOut = 10_000)
+    public void closeStopsTheReader() throws InterruptedException {
+        AtomicReference<Thread> readerThread = new AtomicReference<>();
+        AtomicReference<Throwable> stopped = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        StreamingDataIterator<Integer> iterator = new StreamingDataIterator<>("endless", consumer -> {
+            readerThread.set(Thread.currentThread());
+            try {
+                for (int i = 0; ; i++) {
+                    consumer.accept(i);
+                }
+            } catch (CancellationException e) {
+                stopped.set(e);
+                throw e;
+            } finally {
+                finished.countDown();
+            }
+        }, 1);
+
+        assertEquals(iterator.next().intValue(), 0);
+        assertEquals(iterator.next().intValue(), 1);
+        iterator.close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        readerThread.get().join(5000);
+        assertFalse(readerThread.get().isAlive());
+        assertTrue(stopped.get() instanceof CancellationException);
+        assertEquals(readerThread.get().getName(), "data-reader-endless");
+        assertFalse(iterator.hasNext());
+    }
+
+    private static List<String> parameters(Iterator<Object[]> parameters) {
+        List<String> records = new ArrayList<>();
+        parameters.forEachRemaining(values -> {
+            assertEquals(values.length, 1);
+            records.add(values[0].toString());
+        });
+        return records;
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        return Arrays.stream(records).map(Object::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,189 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.item.StreamingSheetReader;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class StreamingSheetReaderTest {
+    private static final String[] HEADER = {"Text", "Number", "Amount", "Count", "Total", "Active", "Flag", "Note"};
+
+    private Path workbook;
+
+    @BeforeClass
+    public void createWorkbook() throws IOException {
+        workbook = Files.createTempFile("streaming", ".xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            XSSFSheet sheet = wb.createSheet("Sheet1");
+            CellStyle bordered = wb.createCellStyle();
+            bordered.setBorderBottom(BorderStyle.THIN);
+            CellStyle date = wb.createCellStyle();
+            date.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADER.length; i++) {
+                header.createCell(i).setCellValue(HEADER[i]);
+            }
+
+            Row numbers = sheet.createRow(1);
+            numbers.createCell(0).setCellValue("plain");
+            numbers.createCell(1).setCellValue(25);
+            numbers.createCell(2).setCellValue(12.5);
+            numbers.createCell(3).setCellValue(-3);
+            numbers.createCell(4).setCellValue(1e10);
+            numbers.createCell(5).setCellValue(true);
+            numbers.createCell(6).setCellValue(false);
+            numbers.createCell(7).setCellValue(0.1 + 0.2);
+
+            // a blank styled cell, a missing cell and blank trailing cells
+            Row gaps = sheet.createRow(2);
+            gaps.createCell(0).setCellValue("007");
+            gaps.createCell(1).setCellStyle(bordered);
+            gaps.createCell(2).setCellValue(-0.5);
+            gaps.createCell(3).setCellValue(7);
+            gaps.createCell(4).setCellValue(1234567890123.0);
+            gaps.createCell(6).setCellStyle(bordered);
+            gaps.createCell(7).setCellStyle(bordered);
+
+            // a row whose text cells are all blank
+            Row blank = sheet.createRow(3);
+            blank.createCell(0).setCellStyle(bordered);
+            blank.createCell(2).setCellValue(0);
+            blank.createCell(3).setCellValue(0);
+            blank.createCell(4).setCellValue(0);
+            blank.createCell(5).setCellStyle(bordered);
+
+            Row text = sheet.createRow(4);
+            text.createCell(0).setCellValue("  padded  ");
+            text.createCell(1).setCellValue("1.0E7");
+            text.createCell(2).setCellValue(9999999);
+            text.createCell(3).setCellValue(0);
+            text.createCell(4).setCellValue(-1);
+            text.createCell(5).setCellValue("TRUE");
+            text.createCell(6).setCellValue("-0.0");
+            Cell day = text.createCell(7);
+            day.setCellValue(45292); // 2024-01-01
+            day.setCellStyle(date);
+
+            wb.write(out);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbook() throws IOException {
+        Files.deleteIfExists(workbook);
+    }
+
+    @Test
+    public void streamingRecordsEqualWorkbookRecords() throws IOException {
+        Record[] fromWorkbook = CoreDataProvider.getDataFromExcel(workbook.toString(), Record.class, new Record[0],
+                ExcelReadMode.WORKBOOK);
+        Record[] streamed = CoreDataProvider.getDataFromExcel(workbook.toString(), Record.class, new Record[0],
+                ExcelReadMode.STREAMING);
+
+        assertEquals(fromWorkbook.length, 4);
+        assertEquals(toStrings(streamed), toStrings(fromWorkbook));
+        assertEquals(fromWorkbook[0].toString(), "plain|25|12.5|-3|10000000000|true|FALSE|0.30000000000000004");
+        assertEquals(fromWorkbook[1].toString(), "007||-0.5|7|1234567890123|false||");
+        assertEquals(fromWorkbook[2].toString(), "||0.0|0|0|false||");
+        assertEquals(fromWorkbook[3].toString(), "padded|1.0E7|9999999.0|0|-1|true|-0.0|01-Jan-2024");
+    }
+
+    @Test
+    public void streamedCellsMatchCellToString() throws IOException {
+        List<List<String>> expected = new ArrayList<>();
+        try (FileInputStream in = new FileInputStream(workbook.toFile()); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            for (Row row : wb.getSheet("Sheet1")) {
+                String[] cells = new String[row.getLastCellNum()];
+                for (Cell cell : row) {
+                    cells[cell.getColumnIndex()] = cell.toString();
+                }
+                expected.add(normalize(cells));
+            }
+        }
+
+        List<List<String>> streamed = new ArrayList<>();
+        StreamingSheetReader.read(workbook.toString(), "Sheet1", (rowNum, cells) -> {
+            assertEquals(rowNum, streamed.size());
+            streamed.add(normalize(cells));
+            return true;
+        });
+
+        assertEquals(streamed, expected);
+        assertEquals(streamed.get(1), Arrays.asList("plain", "25.0", "12.5", "-3.0", "1.0E10", "TRUE", "FALSE",
+                "0.30000000000000004"));
+        assertEquals(streamed.get(2), Arrays.asList("007", "", "-0.5", "7.0", "1.234567890123E12"));
+        assertEquals(streamed.get(3), Arrays.asList("", "", "0.0", "0.0", "0.0"));
+        assertEquals(streamed.get(4).get(7), "01-Jan-2024");
+    }
+
+    /**
+     * Treats missing and blank cells alike and drops the empty cells at the end of a row, which the streaming
+     * reader does not report.
+     */
+    private static List<String> normalize(String[] cells) {
+        List<String> values = new ArrayList<>();
+        for (String cell : cells) {
+            values.add(cell == null ? "" : cell);
+        }
+        while (!values.isEmpty() && values.get(values.size() - 1).isEmpty()) {
+            values.remove(values.size() - 1);
+        }
+        return values;
+    }
+
+    private static List<String> toStrings(Object[] records) {
+        List<String> strings = new ArrayList<>();
+        for (Object record : records) {
+            strings.add(record.toString());
+        }
+        return strings;
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Text")
+        String text;
+        @ExcelColumn(names = "Number")
+        String number;
+        @ExcelColumn(names = "Amount")
+        double amount;
+        @ExcelColumn(names = "Count")
+        int count;
+        @ExcelColumn(names = "Total")
+        long total;
+        @ExcelColumn(names = "Active")
+        boolean active;
+        @ExcelColumn(names = "Flag")
+        String flag;
+        @ExcelColumn(names = "Note")
+        String note;
+
+        public Record() {
+        }
+
+        @Override
+        public String toString() {
+            return text + "|" + number + "|" + amount + "|" + count + "|" + total + "|" + active + "|" + flag + "|" + note;
+        }
+    }
+}
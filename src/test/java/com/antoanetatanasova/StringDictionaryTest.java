@@ -0,0 +1,176 @@
+package com.antoanetatanasova;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.StringDictionary;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class StringDictionaryTest {
+    private static final int ROWS = 3000;
+    // more distinct values than half of the sample of an adaptive dictionary, fewer than its capacity
+    private static final int MANY_VALUES = 2000;
+
+    private Path csvFile;
+    private Record[] records;
+
+    @BeforeClass
+    public void loadRecords() throws IOException {
+        csvFile = Files.createTempFile("dedup", ".csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("Unit,Unique,Few,Many,Many Always");
+        for (int i = 0; i < ROWS; i++) {
+            lines.add("pcs," + "unit " + (i % 2) + ",rate " + (i % 3) + ",value " + (i % MANY_VALUES) + ",value "
+                    + (i % MANY_VALUES));
+        }
+        Files.write(csvFile, lines, StandardCharsets.UTF_8);
+        records = CsvDataProvider.getCsvData(csvFile.toString(), Record.class, new Record[0]);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Test
+    public void alwaysSharesEqualValuesOfDifferentRows() {
+        assertEquals(records.length, ROWS);
+        for (int i = 1; i < ROWS; i++) {
+            assertSame(records[i].unit, records[0].unit, "row " + i);
+        }
+        // more distinct values than an adaptive dictionary accepts
+        assertSame(records[ROWS - 1].manyAlways, records[ROWS - 1 - MANY_VALUES].manyAlways);
+    }
+
+    @Test
+    public void neverLeavesEqualValuesAlone() {
+        assertEquals(records[2].unique, records[0].unique);
+        assertNotSame(records[2].unique, records[0].unique);
+    }
+
+    @Test
+    public void autoSharesValuesOfLowCardinalityColumn() {
+        assertSame(records[ROWS - 1].few, records[ROWS - 1 - 3 * 300].few);
+        assertSame(records[3].few, records[0].few);
+    }
+
+    @Test
+    public void autoTurnsOffForHighCardinalityColumn() {
+        assertEquals(records[ROWS - 1].many, records[ROWS - 1 - MANY_VALUES].many);
+        assertNotSame(records[ROWS - 1].many, records[ROWS - 1 - MANY_VALUES].many);
+    }
+
+    @Test
+    public void loadsWithTheSameHeaderHaveTheirOwnDictionaries() throws IOException {
+        // the first file fills the dictionaries, the second one has few values in the same columns
+        Path manyFile = Files.createTempFile("dedup-many", ".csv");
+        Path fewFile = Files.createTempFile("dedup-few", ".csv");
+        try {
+            List<String> many = new ArrayList<>();
+            List<String> few = new ArrayList<>();
+            many.add("Unit,Unique,Few,Many,Many Always");
+            few.add("Unit,Unique,Few,Many,Many Always");
+            for (int i = 0; i < 5000; i++) {
+                many.add("pcs,unit,rate " + i + ",value " + i + ",value " + i);
+                few.add("box,unit,other " + (i % 3) + ",value " + (i % 3) + ",other " + (i % 3));
+            }
+            Files.write(manyFile, many, StandardCharsets.UTF_8);
+            Files.write(fewFile, few, StandardCharsets.UTF_8);
+
+            Record[] first = CsvDataProvider.getCsvData(manyFile.toString(), Record.class, new Record[0]);
+            Record[] second = CsvDataProvider.getCsvData(fewFile.toString(), Record.class, new Record[0]);
+
+            assertNotSame(first[4999].few, first[0].few);
+            assertSame(second[4998].few, second[0].few);
+            assertSame(second[4998].many, second[0].many);
+            assertSame(second[4998].manyAlways, second[0].manyAlways);
+            assertNotSame(second[0].many, first[0].many);
+            assertNotSame(second[0].unit, first[0].unit);
+        } finally {
+            Files.deleteIfExists(manyFile);
+            Files.deleteIfExists(fewFile);
+        }
+    }
+
+    @Test
+    public void neverCreatesNoDictionary() {
+        assertNull(StringDictionary.forMode(ExcelColumn.Dedup.NEVER));
+    }
+
+    @Test
+    public void adaptiveDictionaryIsDisabledByItsSample() {
+        StringDictionary dictionary = StringDictionary.forMode(ExcelColumn.Dedup.AUTO);
+        for (int i = 0; i < 1024; i++) {
+            String value = "value " + i;
+            assertSame(dictionary.canonical(value), value);
+        }
+
+        assertFalse(dictionary.isEnabled());
+        assertEquals(dictionary.size(), 0);
+        String value = new String("value 1");
+        assertSame(dictionary.canonical(value), value);
+    }
+
+    @Test
+    public void adaptiveDictionaryIsDisabledWhenFull() {
+        StringDictionary dictionary = StringDictionary.forMode(ExcelColumn.Dedup.AUTO);
+        // a sample with few distinct values keeps the dictionary enabled
+        for (int i = 0; i < 2048; i++) {
+            dictionary.canonical("value " + i % 10);
+        }
+        assertTrue(dictionary.isEnabled());
+
+        for (int i = 0; dictionary.isEnabled(); i++) {
+            dictionary.canonical("other " + i);
+            assertTrue(i < 5000, "the dictionary is never disabled");
+        }
+        assertEquals(dictionary.size(), 0);
+    }
+
+    @Test
+    public void fullDictionaryKeepsSharingItsValues() {
+        StringDictionary dictionary = StringDictionary.forMode(ExcelColumn.Dedup.ALWAYS);
+        String first = dictionary.canonical("value 0");
+        for (int i = 1; i < 10_000; i++) {
+            dictionary.canonical("value " + i);
+        }
+
+        assertTrue(dictionary.isEnabled());
+        assertEquals(dictionary.size(), 4096);
+        assertSame(dictionary.canonical(new String("value 0")), first);
+        String late = new String("value 9999");
+        assertSame(dictionary.canonical(late), late);
+        assertNull(dictionary.canonical(null));
+    }
+
+    public static class Record {
+        @ExcelColumn(names = "Unit", dedup = ExcelColumn.Dedup.ALWAYS)
+        String unit;
+        @ExcelColumn(names = "Unique", dedup = ExcelColumn.Dedup.NEVER)
+        String unique;
+        @ExcelColumn(names = "Few")
+        String few;
+        @ExcelColumn(names = "Many")
+        String many;
+        @ExcelColumn(names = "Many Always", dedup = ExcelColumn.Dedup.ALWAYS)
+        String manyAlways;
+
+        public Record() {
+        }
+    }
+}
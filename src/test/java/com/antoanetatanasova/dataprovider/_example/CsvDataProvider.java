@@ -1,11 +1,23 @@
 package com.antoanetatanasova.dataprovider._example;
 
+import com.antoanetatanasova.dataprovider.csv.CsvCells;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.csv.CsvRowIndex;
+import com.antoanetatanasova.dataprovider.csv.ParallelCsvReader;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+import com.antoanetatanasova.dataprovider.shard.Shard;
+import com.antoanetatanasova.dataprovider.snapshot.ColumnarSnapshot;
 import org.testng.annotations.DataProvider;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class CsvDataProvider {
@@ -15,20 +27,265 @@ public class CsvDataProvider {
     }
 
     public static String[][] getCsvData(String filePath) throws IOException {
+        return getCsvData(filePath, CsvFormat.DEFAULT);
+    }
+
+    public static String[][] getCsvData(String filePath, CsvFormat format) throws IOException {
+        return getCsvData(filePath, format, CsvReadMode.SEQUENTIAL);
+    }
+
+    public static String[][] getCsvData(String filePath, CsvFormat format, CsvReadMode mode) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("CsvDataProvider.getCsvData[" + mode + "]", filePath, String[].class);
+        if (mode == CsvReadMode.SNAPSHOT) {
+            // a compile is part of this load, so it is recorded here and not as a PARALLEL load of its own
+            String[][] result = ColumnarSnapshot.loadTable(filePath, snapshotVariant(format),
+                    () -> readParallel(filePath, format));
+            recorder.finish(result, result.length);
+            return result;
+        }
+
+        if (mode == CsvReadMode.PARALLEL) {
+            String[][] result = readParallel(filePath, format);
+            recorder.finish(result, result.length);
+            return result;
+        }
+
         List<String[]> records = new ArrayList<>();
-        try (BufferedReader file = new BufferedReader(new FileReader(filePath))) {
-            String line = file.readLine();
-            while (line != null) {
-                String[] fields = line.split(",");
-                records.add(fields);
-                line = file.readLine();
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord record = parser.next();
+            while (record != null) {
+                long mappingStart = recorder.now();
+                records.add(record.toArray());
+                recorder.mapped(mappingStart);
+                record = parser.next();
             }
         } catch (IOException e) {
             System.err.println("Error reading CSV file: " + e.getMessage());
             throw e;
         }
 
-        return records.toArray(new String[records.size()][]);
+        String[][] result = records.toArray(new String[records.size()][]);
+        recorder.finish(result, result.length);
+        return result;
     }
-}
 
+    /**
+     * Creates records of the specified type from a CSV file whose first record is the header.
+     *
+     * @param filePath      the path to the CSV file
+     * @param clazz         the target class type to which each record will be mapped
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @param <T>           the generic type of the objects to be created
+     * @return the mapped objects in file order
+     * @throws IOException if an error occurs while reading the CSV file
+     * @see #getCsvData(String, Class, Object[], CsvFormat, CsvReadMode)
+     */
+    public static <T> T[] getCsvData(String filePath, Class<T> clazz, T[] arrayTemplate) throws IOException {
+        return getCsvData(filePath, clazz, arrayTemplate, CsvFormat.DEFAULT, CsvReadMode.SEQUENTIAL);
+    }
+
+    /**
+     * Creates records of the specified type from a CSV file whose first record is the header.
+     * <p>
+     * The header names are matched against the {@link ExcelColumn} annotations of {@code clazz} in the same way
+     * as the header row of an Excel sheet. Numeric and boolean fields are parsed straight from the bytes of each
+     * record and only {@code String} fields are decoded, see {@link CsvCells}. With {@link CsvReadMode#SNAPSHOT}
+     * the objects are restored from an up-to-date columnar snapshot of the file when one exists.
+     *
+     * @param filePath      the path to the CSV file
+     * @param clazz         the target class type to which each record will be mapped
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @param format        the dialect of the file
+     * @param mode          the strategy used to read the CSV file
+     * @param <T>           the generic type of the objects to be created
+     * @return the mapped objects in file order
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    public static <T> T[] getCsvData(String filePath, Class<T> clazz, T[] arrayTemplate, CsvFormat format, CsvReadMode mode)
+            throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("CsvDataProvider.getCsvData[" + mode + "]", filePath, clazz);
+        if (mode == CsvReadMode.SNAPSHOT) {
+            T[] result = ColumnarSnapshot.load(filePath, snapshotVariant(format), clazz, arrayTemplate,
+                    () -> readParallel(filePath, clazz, arrayTemplate, format, recorder));
+            recorder.finish(result, result.length);
+            return result;
+        }
+
+        if (mode == CsvReadMode.PARALLEL) {
+            T[] result = readParallel(filePath, clazz, arrayTemplate, format, recorder);
+            recorder.finish(result, result.length);
+            return result;
+        }
+
+        List<T> records = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord header = parser.next();
+            if (header == null) {
+                T[] result = records.toArray(arrayTemplate);
+                recorder.finish(result, 0);
+                return result;
+            }
+            RowBinder<T> binder = createBinder(header, clazz);
+
+            CsvCells cells = new CsvCells();
+            CsvRecord record = parser.next();
+            while (record != null) {
+                long mappingStart = recorder.now();
+                records.add(binder.bind(cells.reset(record)));
+                recorder.mapped(mappingStart);
+                record = parser.next();
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+
+        T[] result = records.toArray(arrayTemplate);
+        recorder.finish(result, -1);
+        return result;
+    }
+
+    private static String[][] readParallel(String filePath, CsvFormat format) throws IOException {
+        try {
+            List<String[]> records = ParallelCsvReader.read(filePath, format, CsvRecord::toArray);
+            return records.toArray(new String[records.size()][]);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static <T> T[] readParallel(String filePath, Class<T> clazz, T[] arrayTemplate, CsvFormat format,
+                                        DataLoadRecorder recorder) throws IOException {
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord header = parser.next();
+            if (header == null) {
+                return Arrays.copyOf(arrayTemplate, 0);
+            }
+            RowBinder<T> binder = createBinder(header, clazz);
+            List<T> mapped = ParallelCsvReader.read(filePath, format, parser.getPosition(),
+                    record -> binder.bind(new CsvCells().reset(record)));
+            return mapped.toArray(arrayTemplate);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static <T> RowBinder<T> createBinder(CsvRecord header, Class<T> clazz) {
+        List<String> headers = new ArrayList<>(header.size());
+        for (int i = 0; i < header.size(); i++) {
+            headers.add(header.getTrimmedString(i));
+        }
+        return RowBinder.forHeader(clazz, headers);
+    }
+
+    /**
+     * Describes the dialect of a file, so that a snapshot compiled with another dialect is not reused.
+     */
+    private static String snapshotVariant(CsvFormat format) {
+        return "delimiter=" + format.getDelimiter() + ",quote=" + format.getQuote();
+    }
+
+    /**
+     * Reads the header record and the records of one shard of a CSV file.
+     * <p>
+     * Range shards open the file at the first record of the shard using the {@link CsvRowIndex} of the file,
+     * building the index on first use, and stop after the last record of the shard, so every worker only
+     * parses its own slice. Hash shards parse every record but only decode the key field of the records
+     * of other shards.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param shard    the shard to read
+     * @return the header record followed by the records of the shard, in file order
+     * @throws IOException              if an error occurs while reading the CSV file or its index
+     * @throws IllegalArgumentException if the key column of a hash shard is not in the header
+     */
+    public static String[][] getCsvData(String filePath, CsvFormat format, Shard shard) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("CsvDataProvider.getCsvData[" + shard + "]", filePath, String[].class);
+        List<String[]> records = new ArrayList<>();
+        try {
+            if (shard.isHashed()) {
+                readHashShard(filePath, format, shard, records, recorder);
+            } else {
+                readRangeShard(filePath, format, shard, records, recorder);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+
+        String[][] result = records.toArray(new String[records.size()][]);
+        recorder.finish(result, result.length);
+        return result;
+    }
+
+    private static void readRangeShard(String filePath, CsvFormat format, Shard shard, List<String[]> records,
+                                       DataLoadRecorder recorder) throws IOException {
+        CsvRowIndex index = CsvRowIndex.load(filePath, format);
+        long rowCount = Math.max(0, index.getRecordCount() - 1);
+        long first = 1 + shard.rangeStart(rowCount);
+        long end = 1 + shard.rangeEnd(rowCount);
+
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            CsvRecord header = parser.next();
+            if (header == null) {
+                return;
+            }
+            records.add(header.toArray());
+        }
+
+        try (CsvParser parser = index.open(filePath, format, first)) {
+            recorder.opened();
+            for (long i = first; i < end; i++) {
+                CsvRecord record = parser.next();
+                if (record == null) {
+                    break;
+                }
+                long mappingStart = recorder.now();
+                records.add(record.toArray());
+                recorder.mapped(mappingStart);
+            }
+        }
+    }
+
+    private static void readHashShard(String filePath, CsvFormat format, Shard shard, List<String[]> records,
+                                      DataLoadRecorder recorder) throws IOException {
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord record = parser.next();
+            if (record == null) {
+                return;
+            }
+            String[] header = record.toArray();
+            records.add(header);
+
+            int keyColumn = -1;
+            for (int i = 0; i < header.length && keyColumn < 0; i++) {
+                if (header[i].trim().equals(shard.getKeyColumn())) {
+                    keyColumn = i;
+                }
+            }
+            if (keyColumn < 0) {
+                throw new IllegalArgumentException("Key column " + shard.getKeyColumn() + " not found in "
+                        + Arrays.toString(header));
+            }
+
+            record = parser.next();
+            while (record != null) {
+                if (shard.containsKey(record.getString(keyColumn))) {
+                    long mappingStart = recorder.now();
+                    records.add(record.toArray());
+                    recorder.mapped(mappingStart);
+                } else {
+                    recorder.skipped();
+                }
+                record = parser.next();
+            }
+        }
+    }
+}
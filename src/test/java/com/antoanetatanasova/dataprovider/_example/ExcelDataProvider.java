@@ -1,5 +1,8 @@
 package com.antoanetatanasova.dataprovider._example;
 
+import com.antoanetatanasova.dataprovider.cache.DatasetCache;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.item.StreamingSheetReader;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -15,11 +18,45 @@ import java.util.List;
 public class ExcelDataProvider {
     @DataProvider
     public static Object[][] excelData() throws IOException {
-        return getExcelData(ConfigReader.fetchProperty("files.customerCSV"));
+        String[][] cached = cachedExcelData(ConfigReader.fetchProperty("files.customerCSV"));
+        //copy the rows as well, so tests modifying them don't change the cached data
+        String[][] rows = new String[cached.length][];
+        for (int i = 0; i < cached.length; i++) {
+            rows[i] = cached[i].clone();
+        }
+        return rows;
+    }
+
+    public static String[][] cachedExcelData(String filePath) throws IOException {
+        return DatasetCache.shared().get(filePath, String[].class, () -> getExcelData(filePath));
     }
 
     public static String[][] getExcelData(String filePath) throws IOException {
+        return getExcelData(filePath, ExcelReadMode.WORKBOOK);
+    }
+
+    public static String[][] getExcelData(String filePath, ExcelReadMode mode) throws IOException {
         List<String[]> records = new ArrayList<>();
+        if (mode == ExcelReadMode.STREAMING) {
+            try {
+                //parse the first sheet row by row instead of loading the whole workbook
+                StreamingSheetReader.read(filePath, 0, (rowNum, cells) -> {
+                    if (rowNum > 0) { // skip header row
+                        String[] fields = new String[cells.length];
+                        for (int j = 0; j < cells.length; j++) {
+                            fields[j] = cells[j] == null ? "" : cells[j];
+                        }
+                        records.add(fields);
+                    }
+                    return true;
+                });
+            } catch (IOException e) {
+                System.err.println("Error reading Excel file: " + e.getMessage());
+                throw e;
+            }
+            return records.toArray(new String[0][]);
+        }
+
         //Create an object of FileInputStream class to read Excel file
         try (FileInputStream inputStream = new FileInputStream(filePath);
              //creating workbook instance that refers to .xls file
@@ -0,0 +1,242 @@
+package com.antoanetatanasova.dataprovider.cache;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Process-wide cache of parsed data sets, shared by all data providers of a test suite.
+ * <p>
+ * Entries are keyed by the canonical path, size and last-modified time of the source file together with the
+ * target DTO class, so an edited file is parsed again on its next use and the outdated entry is dropped.
+ * The cache is bounded by a number of entries and by an estimated heap size (see {@link FootprintEstimator});
+ * when either budget is exceeded the least recently used entries are evicted.
+ * <p>
+ * The cache is safe to use from parallel tests. When several threads request the same data set at the same
+ * time, only the first one parses the file while the others wait for its result. The cached values are
+ * shared between callers and must not be modified.
+ */
+public final class DatasetCache {
+    /**
+     * System property holding the maximum number of cached data sets of the shared cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "dataset.cache.maxEntries";
+
+    /**
+     * System property holding the maximum estimated heap size, in megabytes, of the shared cache.
+     */
+    public static final String MAX_MEGABYTES_PROPERTY = "dataset.cache.maxMegabytes";
+
+    private static final DatasetCache SHARED = new DatasetCache(
+            Integer.getInteger(MAX_ENTRIES_PROPERTY, 32),
+            Long.getLong(MAX_MEGABYTES_PROPERTY, 512L) << 20);
+
+    /**
+     * Loads a data set on a cache miss.
+     *
+     * @param <T> the type of the data set
+     */
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Creates a cache with the given budgets.
+     *
+     * @param maxEntries the maximum number of cached data sets
+     * @param maxBytes   the maximum estimated heap size of all cached data sets, in bytes
+     */
+    public DatasetCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the process-wide cache, configured through the {@value #MAX_ENTRIES_PROPERTY} and
+     * {@value #MAX_MEGABYTES_PROPERTY} system properties.
+     *
+     * @return the shared cache
+     */
+    public static DatasetCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached data set for a file and target class, loading it with the given loader on a miss.
+     *
+     * @param filePath the path to the source file of the data set
+     * @param type     the DTO class the file is mapped to
+     * @param loader   parses the file when the data set is not cached
+     * @param <T>      the type of the data set
+     * @return the cached or newly loaded data set
+     * @throws IOException if the file does not exist or the loader fails
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String filePath, Class<?> type, Loader<T> loader) throws IOException {
+        Key key = Key.of(filePath, type);
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                removeOutdated(key);
+                entry = new Entry();
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            load(key, entry, loader);
+        }
+
+        try {
+            return (T) entry.value.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + filePath);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException("Failed to load " + filePath, cause);
+        }
+    }
+
+    /**
+     * Removes all cached data sets.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    /**
+     * Returns the number of cached data sets, including data sets that are being loaded.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the estimated heap size of all loaded data sets.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    private <T> void load(Key key, Entry entry, Loader<T> loader) {
+        T value;
+        try {
+            value = loader.load();
+        } catch (Throwable e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.value.completeExceptionally(e);
+            return;
+        }
+
+        long bytes = FootprintEstimator.estimate(value);
+        synchronized (entries) {
+            if (entries.get(key) == entry) {
+                entry.bytes = bytes;
+                totalBytes += bytes;
+                evict();
+            }
+        }
+        entry.value.complete(value);
+    }
+
+    private void removeOutdated(Key key) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> next = iterator.next();
+            if (next.getKey().sameSource(key)) {
+                totalBytes -= next.getValue().bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || totalBytes > maxBytes)) {
+            Entry eldest = iterator.next();
+            if (!eldest.value.isDone() && eldest.bytes == 0) {
+                continue; // still loading; its size is not known yet
+            }
+            totalBytes -= eldest.bytes;
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        long bytes;
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final Class<?> type;
+
+        private Key(String path, long size, long lastModified, Class<?> type) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.type = type;
+        }
+
+        static Key of(String filePath, Class<?> type) throws IOException {
+            File file = new File(filePath).getCanonicalFile();
+            if (!file.isFile()) {
+                throw new FileNotFoundException(filePath);
+            }
+            return new Key(file.getPath(), file.length(), file.lastModified(), type);
+        }
+
+        boolean sameSource(Key other) {
+            return path.equals(other.path) && type == other.type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return size == key.size && lastModified == key.lastModified
+                    && path.equals(key.path) && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified, type);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.antoanetatanasova.dataprovider.cache;
+
+import com.antoanetatanasova.dataprovider.customer.CustomerExcelDataProvider;
+import com.antoanetatanasova.dataprovider.item.ItemDataProvider;
+import com.antoanetatanasova.utls.ConfigReader;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TestNG suite listener that starts parsing every data set listed in the {@code files.*} configuration
+ * properties into the shared {@link DatasetCache} when a suite starts.
+ * <p>
+ * The data sets are parsed concurrently by a pool of daemon threads while the suite is being set up and the
+ * first tests run. A data provider asking for a data set that is still being parsed waits for that parse
+ * only, and one asking for a data set that is ready gets it at once, so the first test no longer pays for
+ * all fixtures one after another. Each property is loaded by the cached loader of the data provider that
+ * reads it, so the prefetched entries are exactly the ones the data providers look up. Properties without a
+ * data provider reading them into the cache, such as {@code files.customerCSV}, are not prefetched.
+ * <p>
+ * Prefetching is turned off with the {@value #ENABLED_PROPERTY} property set to {@code false}. Errors are not
+ * reported here: a failed load is not cached, so the data provider that needs the data set loads it again
+ * and reports the error in the test that uses it.
+ * <p>
+ * The listener is opt-in: register it on a suite with {@code <listener class-name="...DatasetPrefetcher"/>}
+ * or {@code @Listeners(DatasetPrefetcher.class)}, or for a whole Maven run with {@code -Pprefetch}.
+ */
+public class DatasetPrefetcher implements ISuiteListener {
+    /**
+     * Configuration property enabling the prefetch, {@code true} by default.
+     */
+    public static final String ENABLED_PROPERTY = "dataset.prefetch";
+
+    private static final String FILES_PREFIX = "files.";
+
+    /**
+     * Loads the data set of a configured file into the shared cache.
+     */
+    interface Loader {
+        Object load(String filePath) throws IOException;
+    }
+
+    private static final Map<String, Loader> LOADERS;
+
+    static {
+        Map<String, Loader> loaders = new LinkedHashMap<>();
+        loaders.put("files.itemXLSX", ItemDataProvider::cachedItems);
+        loaders.put("files.itemCSV", ItemDataProvider::cachedCsvItems);
+        loaders.put("files.customerXLSX", CustomerExcelDataProvider::cachedData);
+        LOADERS = Collections.unmodifiableMap(loaders);
+    }
+
+    private ExecutorService executor;
+
+    @Override
+    public void onStart(ISuite suite) {
+        Map<String, String> files;
+        try {
+            if (!ConfigReader.fetchBoolean(ENABLED_PROPERTY, true)) {
+                return;
+            }
+            files = ConfigReader.fetchProperties(FILES_PREFIX);
+        } catch (IOException e) {
+            System.err.println("Data sets will not be prefetched: " + e.getMessage());
+            return;
+        }
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            Loader loader = LOADERS.get(file.getKey());
+            if (loader != null && file.getValue() != null) {
+                String filePath = file.getValue().trim();
+                tasks.add(() -> prefetch(loader, filePath));
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.min(tasks.size(), Math.max(2, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dataset-prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Runnable task : tasks) {
+            executor.execute(task);
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void prefetch(Loader loader, String filePath) {
+        try {
+            loader.load(filePath);
+        } catch (Exception e) {
+            // not cached; reported by the data provider that needs the data set
+        }
+    }
+}
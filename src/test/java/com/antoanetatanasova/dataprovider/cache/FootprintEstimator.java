@@ -0,0 +1,121 @@
+package com.antoanetatanasova.dataprovider.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Estimates the retained heap size of a loaded data set.
+ * <p>
+ * The estimate assumes a 64-bit JVM with compressed references. For arrays and collections, a sample of
+ * the elements is measured and the result is extrapolated to all elements; for each sampled object the
+ * declared fields are counted, and {@code String} fields include their character data. The estimate is
+ * meant for cache budgets and reports, not as an exact measurement.
+ */
+public final class FootprintEstimator {
+    private static final int OBJECT_HEADER = 16;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int SAMPLE_SIZE = 32;
+
+    private FootprintEstimator() {
+    }
+
+    /**
+     * Estimates the number of bytes retained by the given data set.
+     *
+     * @param dataSet an array, a collection or a single object
+     * @return the estimated size in bytes
+     */
+    public static long estimate(Object dataSet) {
+        if (dataSet == null) {
+            return 0;
+        }
+        if (dataSet.getClass().isArray()) {
+            int length = Array.getLength(dataSet);
+            if (dataSet.getClass().getComponentType().isPrimitive()) {
+                return ARRAY_HEADER + (long) length * primitiveSize(dataSet.getClass().getComponentType());
+            }
+            long sampled = 0;
+            int count = Math.min(length, SAMPLE_SIZE);
+            for (int i = 0; i < count; i++) {
+                sampled += estimateObject(Array.get(dataSet, i));
+            }
+            return ARRAY_HEADER + (long) length * REFERENCE + extrapolate(sampled, count, length);
+        }
+        if (dataSet instanceof Collection) {
+            Collection<?> collection = (Collection<?>) dataSet;
+            long sampled = 0;
+            int count = 0;
+            Iterator<?> iterator = collection.iterator();
+            while (iterator.hasNext() && count < SAMPLE_SIZE) {
+                sampled += estimateObject(iterator.next());
+                count++;
+            }
+            return OBJECT_HEADER + ARRAY_HEADER + (long) collection.size() * REFERENCE
+                    + extrapolate(sampled, count, collection.size());
+        }
+        return estimateObject(dataSet);
+    }
+
+    private static long extrapolate(long sampled, int count, int total) {
+        return count == 0 ? 0 : sampled * total / count;
+    }
+
+    private static long estimateObject(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING_OVERHEAD + ((String) value).length();
+        }
+        if (value.getClass().isArray()) {
+            if (value instanceof Object[]) {
+                long size = ARRAY_HEADER + (long) ((Object[]) value).length * REFERENCE;
+                for (Object element : (Object[]) value) {
+                    if (element instanceof String) {
+                        size += estimateObject(element);
+                    }
+                }
+                return size;
+            }
+            return ARRAY_HEADER + (long) Array.getLength(value) * primitiveSize(value.getClass().getComponentType());
+        }
+
+        long size = OBJECT_HEADER;
+        for (Class<?> type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive()) {
+                    size += primitiveSize(fieldType);
+                } else {
+                    size += REFERENCE;
+                    if (fieldType == String.class) {
+                        size += stringField(field, value);
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long stringField(Field field, Object owner) {
+        try {
+            field.setAccessible(true);
+            return estimateObject(field.get(owner));
+        } catch (RuntimeException | IllegalAccessException e) {
+            return STRING_OVERHEAD;
+        }
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import com.antoanetatanasova.dataprovider.item.CellSource;
+import com.antoanetatanasova.dataprovider.item.ExcelCells;
+
+/**
+ * {@link CellSource} over the fields of a {@link CsvRecord}, so CSV records can be bound to
+ * {@link com.antoanetatanasova.dataprovider.item.ExcelColumn} annotated classes by a
+ * {@link com.antoanetatanasova.dataprovider.item.RowBinder}.
+ * <p>
+ * Numeric and boolean fields are parsed straight from the bytes of the record; only text fields are decoded
+ * to strings. Values are trimmed, and text values are formatted like the cells of an Excel sheet, so a CSV
+ * file and its .xlsx twin produce the same objects.
+ * <p>
+ * A source is reused for every record of a file and is not thread-safe.
+ */
+public final class CsvCells implements CellSource {
+    private CsvRecord record;
+
+    /**
+     * Points this source at the next record.
+     *
+     * @param record the record to read
+     * @return this source
+     */
+    public CsvCells reset(CsvRecord record) {
+        this.record = record;
+        return this;
+    }
+
+    @Override
+    public String getString(int column) {
+        return ExcelCells.formatValue(record.getTrimmedString(column));
+    }
+
+    @Override
+    public int getInt(int column) {
+        return record.getInt(column);
+    }
+
+    @Override
+    public long getLong(int column) {
+        return record.getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        return record.getDouble(column);
+    }
+
+    @Override
+    public boolean getBoolean(int column) {
+        return record.getBoolean(column);
+    }
+}
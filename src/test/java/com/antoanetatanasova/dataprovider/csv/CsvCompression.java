@@ -0,0 +1,106 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression of a CSV file, detected from its extension or, failing that, from its first bytes.
+ * <p>
+ * Compressed files are decompressed while they are parsed, see {@link CsvParser#open(String, CsvFormat)}, so
+ * they never have to be extracted to disk. They can only be read from the start: readers that seek to byte
+ * offsets, such as {@link ParallelCsvReader} and {@link CsvRowIndex}, parse them sequentially instead.
+ */
+public enum CsvCompression {
+    /**
+     * Plain CSV text.
+     */
+    NONE,
+    /**
+     * A gzip stream ({@code .gz}), possibly of several concatenated members.
+     */
+    GZIP,
+    /**
+     * A zip archive ({@code .zip}); its first file entry is read.
+     */
+    ZIP;
+
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Detects the compression of a file: {@code .gz} and {@code .gzip} files are gzip streams and {@code .zip}
+     * files zip archives; files with other extensions are recognized by the gzip or zip signature at their
+     * start.
+     *
+     * @param filePath the path to the file
+     * @return the compression of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static CsvCompression detect(String filePath) throws IOException {
+        return detect(Paths.get(filePath));
+    }
+
+    static CsvCompression detect(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+            return GZIP;
+        }
+        if (name.endsWith(".zip")) {
+            return ZIP;
+        }
+        if (name.endsWith(".csv")) {
+            return NONE;
+        }
+
+        byte[] magic = new byte[4];
+        int length;
+        try (InputStream in = Files.newInputStream(path)) {
+            length = in.read(magic);
+        }
+        if (length >= 2 && magic[0] == (byte) 0x1F && magic[1] == (byte) 0x8B) {
+            return GZIP;
+        }
+        if (length == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4) {
+            return ZIP;
+        }
+        return NONE;
+    }
+
+    /**
+     * Opens a stream of the decompressed content of a file.
+     *
+     * @param path the path to the file
+     * @return the decompressed stream
+     * @throws IOException if the file cannot be opened, or a zip archive has no file entry
+     */
+    InputStream open(Path path) throws IOException {
+        InputStream file = Files.newInputStream(path);
+        try {
+            switch (this) {
+                case GZIP:
+                    return new GZIPInputStream(file, INPUT_BUFFER_SIZE);
+                case ZIP: {
+                    ZipInputStream zip = new ZipInputStream(new BufferedInputStream(file, INPUT_BUFFER_SIZE));
+                    for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                        if (!entry.isDirectory()) {
+                            return zip;
+                        }
+                    }
+                    throw new IOException("Zip archive has no file entry: " + path);
+                }
+                default:
+                    return file;
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+/**
+ * Describes the dialect of a CSV file read by {@link CsvParser}.
+ * <p>
+ * The default format follows RFC 4180: fields are separated by commas and may be enclosed in double quotes,
+ * with a doubled quote standing for a literal quote inside a quoted field. Delimiter and quote characters
+ * must be single-byte (ASCII) characters. Instances are immutable.
+ */
+public final class CsvFormat {
+    /**
+     * Comma separated values with double quotes, as described in RFC 4180.
+     */
+    public static final CsvFormat DEFAULT = new CsvFormat(',', '"');
+
+    private final char delimiter;
+    private final char quote;
+
+    private CsvFormat(char delimiter, char quote) {
+        if (delimiter > 0x7F || quote > 0x7F) {
+            throw new IllegalArgumentException("Delimiter and quote must be ASCII characters");
+        }
+        if (delimiter == quote || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        this.quote = quote;
+    }
+
+    /**
+     * Returns a copy of this format with the given field delimiter, for example {@code ';'} or {@code '\t'}.
+     *
+     * @param delimiter the character separating the fields of a record
+     * @return the new format
+     * @throws IllegalArgumentException if the delimiter is not a valid single-byte delimiter
+     */
+    public CsvFormat withDelimiter(char delimiter) {
+        return new CsvFormat(delimiter, quote);
+    }
+
+    /**
+     * Returns a copy of this format with the given quote character.
+     *
+     * @param quote the character used to enclose fields
+     * @return the new format
+     * @throws IllegalArgumentException if the quote is not a single-byte character
+     */
+    public CsvFormat withQuote(char quote) {
+        return new CsvFormat(delimiter, quote);
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public char getQuote() {
+        return quote;
+    }
+}
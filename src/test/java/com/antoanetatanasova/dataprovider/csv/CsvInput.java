@@ -0,0 +1,225 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Source of the bytes parsed by {@link CsvParser}, exposed as a sequence of buffer windows.
+ * <p>
+ * The parser always asks for a window starting at the first byte of the record it is parsing, so a record
+ * that crosses the end of a window is parsed again from a window that starts at the record.
+ */
+abstract class CsvInput implements Closeable {
+
+    /**
+     * Returns a buffer with the bytes of the input starting at the given absolute offset.
+     * Index {@code 0} of the returned buffer corresponds to {@code offset}; its limit is the number of
+     * bytes available. Offsets passed to consecutive calls never decrease.
+     *
+     * @param offset the absolute offset of the first byte of the window
+     * @return the window, with a limit of {@code 0} when the offset is at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    abstract ByteBuffer window(long offset) throws IOException;
+
+    /**
+     * Returns whether the last window returned by {@link #window(long)} reaches the end of the input.
+     *
+     * @return {@code true} if no bytes follow the last window
+     */
+    abstract boolean isLastWindow();
+
+    /**
+     * Memory-maps a file in windows of a fixed maximum size.
+     */
+    static final class Mapped extends CsvInput {
+        private final FileChannel channel;
+        private final long size;
+        private final int windowSize;
+        private boolean lastWindow;
+
+        Mapped(Path path, int windowSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        ByteBuffer window(long offset) throws IOException {
+            long length = Math.max(0, Math.min(size - offset, windowSize));
+            lastWindow = offset + length >= size;
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+
+        @Override
+        boolean isLastWindow() {
+            return lastWindow;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the decompressed content of a gzip or zip file, inflated by a background thread while the
+     * previous bytes are being parsed.
+     * <p>
+     * The thread fills a small ring of {@value #CHUNK_SIZE} byte chunks, handed over through bounded queues
+     * and reused, so decompression runs at most {@value #CHUNK_COUNT} chunks ahead of the parser. Windows
+     * are served from one reusable heap array: every window moves the unparsed tail of the previous one to
+     * the front of the array and fills the rest from the chunks. The array grows when a single record does
+     * not fit into it.
+     */
+    static final class Decompressing extends CsvInput {
+        static final int CHUNK_SIZE = 1 << 20;
+        static final int CHUNK_COUNT = 4;
+
+        private static final Chunk END = new Chunk(0);
+
+        private final InputStream in;
+        private final BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(CHUNK_COUNT + 1);
+        private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(CHUNK_COUNT);
+        private final Thread thread;
+
+        private byte[] window;
+        private long windowOffset;
+        private int windowLength;
+        private Chunk chunk;
+        private int chunkPosition;
+        private boolean ended;
+        private volatile IOException failure;
+
+        Decompressing(Path path, CsvCompression compression, int windowSize) throws IOException {
+            this.in = compression.open(path);
+            this.window = new byte[windowSize];
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                free.add(new Chunk(CHUNK_SIZE));
+            }
+            this.thread = new Thread(this::inflate, "csv-decompress-" + path.getFileName());
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void inflate() {
+            try {
+                while (true) {
+                    Chunk next = free.take();
+                    next.length = readFully(next.data);
+                    if (next.length > 0) {
+                        filled.put(next);
+                    }
+                    if (next.length < next.data.length) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                failure = e;
+            }
+            filled.offer(END);
+        }
+
+        private int readFully(byte[] data) throws IOException {
+            int length = 0;
+            while (length < data.length) {
+                int read = in.read(data, length, data.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+            return length;
+        }
+
+        @Override
+        ByteBuffer window(long offset) throws IOException {
+            int shift = (int) Math.min(offset - windowOffset, windowLength);
+            int kept = windowLength - shift;
+            if (kept == window.length) {
+                window = Arrays.copyOf(window, window.length * 2);
+            }
+            System.arraycopy(window, shift, window, 0, kept);
+            windowOffset = offset;
+            windowLength = kept;
+
+            while (windowLength < window.length && nextChunk()) {
+                int length = Math.min(chunk.length - chunkPosition, window.length - windowLength);
+                System.arraycopy(chunk.data, chunkPosition, window, windowLength, length);
+                chunkPosition += length;
+                windowLength += length;
+            }
+            return ByteBuffer.wrap(window, 0, windowLength);
+        }
+
+        /**
+         * Makes {@link #chunk} a chunk with unread bytes, recycling the exhausted one.
+         *
+         * @return {@code false} at the end of the input
+         */
+        private boolean nextChunk() throws IOException {
+            if (chunk != null && chunkPosition < chunk.length) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            if (chunk != null) {
+                free.add(chunk);
+                chunk = null;
+            }
+            try {
+                Chunk next = filled.take();
+                if (next == END) {
+                    ended = true;
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return false;
+                }
+                chunk = next;
+                chunkPosition = 0;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+            }
+        }
+
+        @Override
+        boolean isLastWindow() {
+            return ended && (chunk == null || chunkPosition >= chunk.length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            in.close();
+        }
+
+        private static final class Chunk {
+            final byte[] data;
+            int length;
+
+            Chunk(int size) {
+                this.data = new byte[size];
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Byte-level RFC 4180 CSV parser reading a memory-mapped file, or a gzip or zip compressed file that is
+ * decompressed while it is parsed (see {@link CsvCompression}).
+ * <p>
+ * The parser scans the raw bytes of the file for delimiters, quotes and line breaks and records the byte
+ * range of every field in a reusable {@link CsvRecord}; no {@code String} is created unless a field value
+ * is requested. It supports:
+ * <ul>
+ *   <li>fields enclosed in quotes, including delimiters, line breaks and doubled (escaped) quotes</li>
+ *   <li>{@code LF}, {@code CRLF} and {@code CR} line endings</li>
+ *   <li>a UTF-8 byte order mark at the start of the file</li>
+ *   <li>any single-byte delimiter and quote character, see {@link CsvFormat}</li>
+ * </ul>
+ * Blank lines are skipped, and trailing empty fields are kept (unlike {@code String.split}).
+ * <p>
+ * Large files are mapped in windows, so the file size is not limited by the size of a single
+ * {@code MappedByteBuffer}. Compressed files are inflated by a background thread into a reused buffer, so
+ * decompression overlaps with parsing and nothing is extracted to disk. A parser is not thread-safe.
+ */
+public final class CsvParser implements Closeable {
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+    static final int STREAM_WINDOW_SIZE = 4 << 20;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final CsvInput input;
+    private final byte delimiter;
+    private final byte quote;
+    private final long end;
+    private final CsvRecord record;
+
+    private ByteBuffer buffer;
+    private long bufferOffset;
+    private int position;
+    private int limit;
+    private boolean lastWindow;
+
+    CsvParser(CsvInput input, CsvFormat format, long start, long end) throws IOException {
+        this.input = input;
+        this.delimiter = (byte) format.getDelimiter();
+        this.quote = (byte) format.getQuote();
+        this.end = end;
+        this.record = new CsvRecord(quote);
+
+        load(start);
+        if (start == 0 && limit >= 3
+                && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    /**
+     * Opens a CSV file in the {@linkplain CsvFormat#DEFAULT default} format.
+     *
+     * @param filePath the path to the CSV file
+     * @return a parser positioned before the first record
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvParser open(String filePath) throws IOException {
+        return open(filePath, CsvFormat.DEFAULT);
+    }
+
+    /**
+     * Opens a CSV file in the given format.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @return a parser positioned before the first record
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvParser open(String filePath, CsvFormat format) throws IOException {
+        return new CsvParser(input(Paths.get(filePath)), format, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens the input of a file from its start: plain files are memory-mapped, gzip and zip files are
+     * decompressed by a background thread while they are parsed.
+     */
+    static CsvInput input(Path path) throws IOException {
+        CsvCompression compression = CsvCompression.detect(path);
+        if (compression == CsvCompression.NONE) {
+            return new CsvInput.Mapped(path, DEFAULT_WINDOW_SIZE);
+        }
+        return new CsvInput.Decompressing(path, compression, STREAM_WINDOW_SIZE);
+    }
+
+    /**
+     * Reads the next record.
+     * <p>
+     * The returned record is reused by this parser and is only valid until the next call.
+     *
+     * @return the next record, or {@code null} if there are no more records
+     * @throws IOException if the file cannot be read or a record does not fit into a read window
+     */
+    public CsvRecord next() throws IOException {
+        while (bufferOffset + position < end) {
+            if (position >= limit) {
+                if (lastWindow) {
+                    return null;
+                }
+                load(bufferOffset + position);
+                continue;
+            }
+
+            int recordEnd = parseRecord(position);
+            if (recordEnd < 0) {
+                load(bufferOffset + position);
+                continue;
+            }
+
+            byte first = buffer.get(position);
+            position = recordEnd;
+            if (first != LF && first != CR) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the absolute byte offset at which the record following the last one read starts, for example
+     * to parse the records after the header on other threads with
+     * {@link ParallelCsvReader#read(String, CsvFormat, long, ParallelCsvReader.RecordMapper)}.
+     *
+     * @return the offset following the line break of the last record read
+     */
+    public long getPosition() {
+        return bufferOffset + position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void load(long offset) throws IOException {
+        int available = limit - position;
+        buffer = input.window(offset);
+        bufferOffset = offset;
+        position = 0;
+        limit = buffer.limit();
+        lastWindow = input.isLastWindow();
+        if (!lastWindow && limit <= available) {
+            throw new IOException("CSV record at offset " + offset + " does not fit into the read buffer");
+        }
+    }
+
+    /**
+     * Parses the record starting at the given buffer index into {@link #record}.
+     *
+     * @param start the buffer index of the first byte of the record
+     * @return the buffer index following the record and its line break, or {@code -1} if the record
+     * continues beyond the current window
+     */
+    private int parseRecord(int start) {
+        ByteBuffer b = buffer;
+        int lim = limit;
+        boolean last = lastWindow;
+
+        record.reset(b, bufferOffset + start);
+        int i = start;
+        while (true) {
+            if (i < lim && b.get(i) == quote) {
+                int contentStart = ++i;
+                boolean escapedQuotes = false;
+                while (i < lim) {
+                    if (b.get(i) == quote) {
+                        if (i + 1 >= lim && !last) return -1;
+                        if (i + 1 < lim && b.get(i + 1) == quote) {
+                            escapedQuotes = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                if (i >= lim && !last) return -1;
+
+                record.addField(contentStart, Math.min(i, lim), escapedQuotes);
+                i++; // closing quote
+                // characters between the closing quote and the next delimiter are ignored
+                while (i < lim && !isFieldEnd(b.get(i))) {
+                    i++;
+                }
+            } else {
+                int contentStart = i;
+                while (i < lim && !isFieldEnd(b.get(i))) {
+                    i++;
+                }
+                record.addField(contentStart, i, false);
+            }
+
+            if (i >= lim) {
+                return last ? lim : -1;
+            }
+
+            byte c = b.get(i);
+            if (c == delimiter) {
+                i++;
+                continue;
+            }
+            if (c == CR) {
+                if (i + 1 >= lim && !last) return -1;
+                return i + 1 < lim && b.get(i + 1) == LF ? i + 2 : i + 1;
+            }
+            return i + 1;
+        }
+    }
+
+    private boolean isFieldEnd(byte c) {
+        return c == delimiter || c == LF || c == CR;
+    }
+}
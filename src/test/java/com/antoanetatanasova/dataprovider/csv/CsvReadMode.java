@@ -0,0 +1,27 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+/**
+ * Strategy used to read a CSV file.
+ */
+public enum CsvReadMode {
+    /**
+     * Parses the file from start to end on the calling thread.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Splits the file into byte ranges aligned to record boundaries and parses them concurrently on a
+     * {@code ForkJoinPool}. The records are returned in file order.
+     *
+     * @see ParallelCsvReader
+     */
+    PARALLEL,
+
+    /**
+     * Loads the records from a binary columnar snapshot stored next to the file, compiling the snapshot
+     * with a parallel read first if it is missing or outdated.
+     *
+     * @see com.antoanetatanasova.dataprovider.snapshot.ColumnarSnapshot
+     */
+    SNAPSHOT
+}
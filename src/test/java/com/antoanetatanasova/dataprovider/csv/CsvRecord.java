@@ -0,0 +1,354 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single record of a CSV file, exposed as a view over the bytes of the file.
+ * <p>
+ * Field values are located by their byte offsets only; a field is decoded to a {@code String} when
+ * {@link #getString(int)} is called for it, so fields that are never read cost nothing. A record is
+ * reused by its {@link CsvParser} and is only valid until the next record is read.
+ */
+public final class CsvRecord {
+    private static final long NOT_PLAIN = Long.MIN_VALUE;
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte quote;
+
+    private ByteBuffer buffer;
+    private long offset;
+    private int size;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private byte[] scratch = new byte[256];
+
+    CsvRecord(byte quote) {
+        this.quote = quote;
+    }
+
+    void reset(ByteBuffer buffer, long offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = 0;
+    }
+
+    void addField(int start, int end, boolean hasEscapedQuotes) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            escaped = Arrays.copyOf(escaped, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        escaped[size] = hasEscapedQuotes;
+        size++;
+    }
+
+    /**
+     * Returns the absolute byte offset of this record in the file.
+     *
+     * @return the offset of the first byte of the record
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of fields in this record.
+     *
+     * @return the field count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the field at the given index has no content.
+     *
+     * @param index the zero-based field index
+     * @return {@code true} if the field is empty or does not exist
+     */
+    public boolean isEmpty(int index) {
+        return index >= size || starts[index] == ends[index];
+    }
+
+    /**
+     * Decodes the field at the given index as UTF-8 text.
+     * <p>
+     * Enclosing quotes are removed and doubled quotes inside quoted fields are unescaped.
+     * Fields beyond the end of the record are returned as an empty string.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     */
+    public String getString(int index) {
+        if (index >= size) {
+            return "";
+        }
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (length == 0) {
+            return "";
+        }
+        if (buffer.hasArray() && !escaped[index]) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = scratch(length);
+        if (!escaped[index]) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(start);
+            view.get(bytes, 0, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int count = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = buffer.get(i);
+            bytes[count++] = b;
+            if (b == quote) {
+                i++; // skip the second quote of an escaped pair
+            }
+        }
+        return new String(bytes, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the field at the given index as UTF-8 text without leading and trailing whitespace, as
+     * {@code getString(index).trim()} would, but without creating the untrimmed string.
+     *
+     * @param index the zero-based field index
+     * @return the trimmed field value
+     */
+    public String getTrimmedString(int index) {
+        if (index >= size) {
+            return "";
+        }
+        if (escaped[index] || !buffer.hasArray()) {
+            return getString(index).trim();
+        }
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index, start);
+        return start == end ? "" : new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the field at the given index as an {@code int} directly from its bytes, ignoring leading and
+     * trailing whitespace. Fields in other forms than plain digits, such as {@code "1.0"}, are parsed from
+     * their formatted text like {@link com.antoanetatanasova.dataprovider.item.CellSource#getInt(int)}.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     * @throws NumberFormatException if the field does not hold an integer
+     */
+    public int getInt(int index) {
+        long value = parseDigits(index, 9);
+        return value != NOT_PLAIN ? (int) value : Integer.parseInt(formattedNumber(index));
+    }
+
+    /**
+     * Parses the field at the given index as a {@code long} directly from its bytes, ignoring leading and
+     * trailing whitespace.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     * @throws NumberFormatException if the field does not hold an integer
+     * @see #getInt(int)
+     */
+    public long getLong(int index) {
+        long value = parseDigits(index, 18);
+        return value != NOT_PLAIN ? value : Long.parseLong(formattedNumber(index));
+    }
+
+    /**
+     * Parses the field at the given index as a {@code double} directly from its bytes, ignoring leading and
+     * trailing whitespace.
+     * <p>
+     * Plain decimals with at most 15 significant digits, such as {@code "-12.50"}, are computed exactly as
+     * {@code Double.parseDouble} would compute them; other forms, such as exponents, fall back to it.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     * @throws NumberFormatException if the field does not hold a number
+     */
+    public double getDouble(int index) {
+        if (index >= size || escaped[index]) {
+            return Double.parseDouble(getTrimmedString(index));
+        }
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index, start);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean hasDigits = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                hasDigits = true;
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0 && ++digits > MAX_EXACT_DIGITS) {
+                    break;
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+
+        if (i != end || !hasDigits || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(getTrimmedString(index));
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the field at the given index as a {@code boolean}: {@code true} only for {@code "true"},
+     * ignoring case and surrounding whitespace, like {@code Boolean.parseBoolean}.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     */
+    public boolean getBoolean(int index) {
+        if (index >= size || escaped[index]) {
+            return Boolean.parseBoolean(getTrimmedString(index));
+        }
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index, start);
+        if (end - start != 4) {
+            return false;
+        }
+        return (buffer.get(start) | 0x20) == 't' && (buffer.get(start + 1) | 0x20) == 'r'
+                && (buffer.get(start + 2) | 0x20) == 'u' && (buffer.get(start + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the raw bytes of all fields, without decoding them. Records with the
+     * same fields have the same hash; records that differ in any field almost certainly do not.
+     *
+     * @return the content hash of the record
+     */
+    public long contentHash() {
+        long hash = 0xcbf29ce484222325L;
+        for (int field = 0; field < size; field++) {
+            for (int i = starts[field]; i < ends[field]; i++) {
+                hash ^= buffer.get(i) & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= 0x100; // field separator, outside the byte range
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Parses a field of plain decimal digits with an optional sign.
+     *
+     * @return the value, or {@link #NOT_PLAIN} if the field is not in that form or has more digits than allowed
+     */
+    private long parseDigits(int index, int maxDigits) {
+        if (index >= size || escaped[index]) {
+            return NOT_PLAIN;
+        }
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index, start);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > maxDigits) {
+            return NOT_PLAIN;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return NOT_PLAIN;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns the trimmed text of a field with a trailing {@code ".0"} of whole numbers removed, the form in
+     * which numbers are parsed by the string based readers.
+     */
+    private String formattedNumber(int index) {
+        String value = getTrimmedString(index);
+        int length = value.length();
+        if (length > 2 && value.endsWith(".0")) {
+            for (int i = 0; i < length - 2; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return value;
+                }
+            }
+            return value.substring(0, length - 2);
+        }
+        return value;
+    }
+
+    private int trimmedStart(int index) {
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimmedEnd(int index, int trimmedStart) {
+        int end = ends[index];
+        while (end > trimmedStart && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Decodes all fields of this record.
+     *
+     * @return the field values in record order
+     */
+    public String[] toArray() {
+        String[] fields = new String[size];
+        for (int i = 0; i < size; i++) {
+            fields[i] = getString(i);
+        }
+        return fields;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,228 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte offsets of the records of a CSV file, stored in a sidecar file next to it, so a reader can seek
+ * straight to any record instead of parsing the file from the start.
+ * <p>
+ * The index holds the number of records of the file and the offset of every {@value #STRIDE}th record;
+ * opening the file at a record parses at most {@code STRIDE - 1} records before it. The header records the
+ * size and last-modified time of the CSV file and its format, so an outdated index is detected and built
+ * again with a single sequential pass over the file.
+ * <p>
+ * Sidecar files are named {@code <source>.rowidx}, for example {@code items.csv.rowidx}. They are written to a
+ * temporary file that is then moved into place, so workers building the index of the same file at the same
+ * time never see a partly written index.
+ * <p>
+ * Compressed files cannot be opened at an offset, so no sidecar is written for them: their index only holds
+ * the record count, counted with a pass over the file on every load.
+ */
+public final class CsvRowIndex {
+    static final int STRIDE = 1024;
+
+    private static final long MAGIC = 0x4452524F57495831L; // "DRROWIX1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private final long recordCount;
+    private final long[] offsets;
+
+    private CsvRowIndex(long recordCount, long[] offsets) {
+        this.recordCount = recordCount;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Builds the index of a CSV file in the {@linkplain CsvFormat#DEFAULT default} format, for example as a
+     * setup step before the workers of a sharded suite start. An up-to-date index is left unchanged.
+     *
+     * @param args the path to the CSV file
+     * @throws IOException if the file cannot be read or the index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CsvRowIndex <source.csv>");
+            return;
+        }
+        long start = System.nanoTime();
+        CsvRowIndex index = load(args[0], CsvFormat.DEFAULT);
+        System.out.println("Row index of " + args[0] + " with " + index.getRecordCount() + " records ready in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Returns the index of a CSV file, building and storing it first if it is missing or outdated. The index of
+     * a compressed file is counted and not stored.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @return the index
+     * @throws IOException if the file cannot be read or the index cannot be written
+     */
+    public static CsvRowIndex load(String filePath, CsvFormat format) throws IOException {
+        if (CsvCompression.detect(filePath) != CsvCompression.NONE) {
+            return new CsvRowIndex(count(filePath, format), new long[0]);
+        }
+        Path sidecar = sidecarPath(filePath);
+        CsvRowIndex index = open(sidecar, filePath, format);
+        if (index == null) {
+            index = build(filePath, format);
+            index.write(sidecar, filePath, format);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the path of the sidecar file of a CSV file.
+     *
+     * @param filePath the path to the CSV file
+     * @return the sidecar path
+     */
+    public static Path sidecarPath(String filePath) {
+        return Paths.get(filePath + ".rowidx");
+    }
+
+    /**
+     * Returns the number of records of the file, including the header record.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Opens the CSV file with a parser positioned before the given record.
+     * <p>
+     * Compressed files cannot be opened at an offset, so their parser reads from the start and skips the
+     * records before the given one.
+     *
+     * @param filePath the path to the indexed CSV file
+     * @param format   the dialect of the file
+     * @param record   the zero-based index of the first record to read
+     * @return the parser; reading past the last record of the file returns {@code null} as usual
+     * @throws IOException if the file cannot be opened or read
+     */
+    public CsvParser open(String filePath, CsvFormat format, long record) throws IOException {
+        if (CsvCompression.detect(filePath) != CsvCompression.NONE) {
+            return skipTo(CsvParser.open(filePath, format), record);
+        }
+        if (record >= recordCount) {
+            return new CsvParser(new CsvInput.Mapped(Paths.get(filePath), CsvParser.DEFAULT_WINDOW_SIZE),
+                    format, new File(filePath).length(), Long.MAX_VALUE);
+        }
+
+        int block = (int) (record / STRIDE);
+        CsvParser parser = new CsvParser(new CsvInput.Mapped(Paths.get(filePath), CsvParser.DEFAULT_WINDOW_SIZE),
+                format, offsets[block], Long.MAX_VALUE);
+        return skipTo(parser, record - (long) block * STRIDE);
+    }
+
+    private static CsvParser skipTo(CsvParser parser, long skip) throws IOException {
+        try {
+            for (; skip > 0; skip--) {
+                parser.next();
+            }
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+        return parser;
+    }
+
+    private static CsvRowIndex build(String filePath, CsvFormat format) throws IOException {
+        long[] offsets = new long[64];
+        long count = 0;
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            CsvRecord record = parser.next();
+            while (record != null) {
+                if (count % STRIDE == 0) {
+                    int block = (int) (count / STRIDE);
+                    if (block == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, block * 2);
+                    }
+                    offsets[block] = record.getOffset();
+                }
+                count++;
+                record = parser.next();
+            }
+        }
+        return new CsvRowIndex(count, Arrays.copyOf(offsets, (int) ((count + STRIDE - 1) / STRIDE)));
+    }
+
+    private static long count(String filePath, CsvFormat format) throws IOException {
+        long count = 0;
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            while (parser.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static CsvRowIndex open(Path sidecar, String filePath, CsvFormat format) throws IOException {
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+        File sourceFile = new File(filePath);
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getLong() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != sourceFile.length() || buffer.getLong() != sourceFile.lastModified()
+                    || buffer.getChar() != format.getDelimiter() || buffer.getChar() != format.getQuote()) {
+                return null;
+            }
+            long recordCount = buffer.getLong();
+            long[] offsets = new long[(int) ((recordCount + STRIDE - 1) / STRIDE)];
+            if (buffer.remaining() < offsets.length * 8L) {
+                return null;
+            }
+            buffer.asLongBuffer().get(offsets);
+            return new CsvRowIndex(recordCount, offsets);
+        }
+    }
+
+    private void write(Path sidecar, String filePath, CsvFormat format) throws IOException {
+        Path temp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName() + ".", ".tmp");
+        try {
+            writeOffsets(temp, new File(filePath), format);
+            try {
+                Files.move(temp, sidecar, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeOffsets(Path temp, File sourceFile, CsvFormat format) throws IOException {
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceFile.length());
+            out.writeLong(sourceFile.lastModified());
+            out.writeChar(format.getDelimiter());
+            out.writeChar(format.getQuote());
+            out.writeLong(recordCount);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.antoanetatanasova.dataprovider.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reads a CSV file by parsing and mapping byte ranges of the file concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * The file is cut into chunks of roughly equal size, and each chunk is moved forward to the start of the
+ * next record. Line breaks inside quoted fields are not record boundaries, so the split points are found in
+ * two passes: first every chunk is scanned in parallel for its quote parity and for the first line break
+ * reached with an even and with an odd number of quotes; then the parity of all preceding chunks tells
+ * which of the two line breaks actually ends a record. Finally every chunk is parsed with its own
+ * {@link CsvParser} and the mapped records are concatenated in file order.
+ * <p>
+ * The mapper is called concurrently from several threads and must be thread-safe.
+ * <p>
+ * Compressed files cannot be split at byte offsets. They are parsed and mapped on the calling thread, while
+ * the decompression of the file still runs on its own thread (see {@link CsvCompression}).
+ */
+public final class ParallelCsvReader {
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelCsvReader() {
+    }
+
+    /**
+     * Maps a parsed record to a value; called once for every record of the file.
+     *
+     * @param <T> the type of the mapped values
+     */
+    public interface RecordMapper<T> {
+        T map(CsvRecord record);
+    }
+
+    /**
+     * Reads and maps all records of a CSV file using the common {@code ForkJoinPool}.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param mapper   the thread-safe mapper applied to every record, including the header
+     * @param <T>      the type of the mapped values
+     * @return the mapped records in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static <T> List<T> read(String filePath, CsvFormat format, RecordMapper<T> mapper) throws IOException {
+        return read(filePath, format, mapper, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads and maps the records of a CSV file starting at a given offset using the common {@code ForkJoinPool}.
+     * <p>
+     * The offset must be the start of a record, usually the {@linkplain CsvParser#getPosition() position} of a
+     * parser that has read the header, so that the header is not passed to the mapper.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param start    the byte offset of the first record to read
+     * @param mapper   the thread-safe mapper applied to every record from {@code start} on
+     * @param <T>      the type of the mapped values
+     * @return the mapped records in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static <T> List<T> read(String filePath, CsvFormat format, long start, RecordMapper<T> mapper)
+            throws IOException {
+        return read(filePath, format, start, mapper, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads and maps all records of a CSV file using the given pool.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param mapper   the thread-safe mapper applied to every record, including the header
+     * @param pool     the pool running the chunk tasks
+     * @param <T>      the type of the mapped values
+     * @return the mapped records in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static <T> List<T> read(String filePath, CsvFormat format, RecordMapper<T> mapper, ForkJoinPool pool)
+            throws IOException {
+        return read(filePath, format, 0, mapper, pool);
+    }
+
+    /**
+     * Reads and maps the records of a CSV file starting at a given offset using the given pool.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param start    the byte offset of the first record to read, which must be the start of a record
+     * @param mapper   the thread-safe mapper applied to every record from {@code start} on
+     * @param pool     the pool running the chunk tasks
+     * @param <T>      the type of the mapped values
+     * @return the mapped records in file order
+     * @throws IOException if the file cannot be read
+     * @see #read(String, CsvFormat, long, RecordMapper)
+     */
+    public static <T> List<T> read(String filePath, CsvFormat format, long start, RecordMapper<T> mapper,
+                                   ForkJoinPool pool) throws IOException {
+        Path path = Paths.get(filePath);
+        if (CsvCompression.detect(path) != CsvCompression.NONE) {
+            return readSequentially(path, format, start, mapper);
+        }
+        try {
+            long[] boundaries = findChunkBoundaries(path, format, start, pool);
+            int chunkCount = boundaries.length - 1;
+            if (chunkCount == 0) {
+                return new ArrayList<>();
+            }
+
+            AtomicReferenceArray<List<T>> results = new AtomicReferenceArray<>(chunkCount);
+            pool.invoke(new ParseTask<>(path, format, mapper, boundaries, results, 0, chunkCount));
+
+            int total = 0;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                total += results.get(chunk).size();
+            }
+            List<T> records = new ArrayList<>(total);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                records.addAll(results.get(chunk));
+            }
+            return records;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses a compressed file on the calling thread. The decompressed stream cannot be opened at an offset,
+     * so the records before {@code start} are parsed and skipped.
+     */
+    private static <T> List<T> readSequentially(Path path, CsvFormat format, long start, RecordMapper<T> mapper)
+            throws IOException {
+        List<T> records = new ArrayList<>();
+        try (CsvParser parser = new CsvParser(CsvParser.input(path), format, 0, Long.MAX_VALUE)) {
+            for (CsvRecord record = parser.next(); record != null; record = parser.next()) {
+                if (record.getOffset() >= start) {
+                    records.add(mapper.map(record));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Splits the file into chunks and aligns every chunk start to the start of a record. Chunks are cut from
+     * the start of the file, because the quote parity is only known there; the boundaries before
+     * {@code start} are then dropped and the first chunk begins at {@code start}.
+     *
+     * @return the sorted start offsets of the chunks followed by the file size
+     */
+    private static long[] findChunkBoundaries(Path path, CsvFormat format, long start, ForkJoinPool pool)
+            throws IOException {
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+        }
+
+        long targetChunks = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, (size + targetChunks - 1) / targetChunks));
+        int chunkCount = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        if (start >= size) {
+            return new long[]{size};
+        }
+        if (chunkCount == 1) {
+            return new long[]{start, size};
+        }
+
+        ChunkScan[] scans = new ChunkScan[chunkCount];
+        pool.invoke(new ScanTask(path, (byte) format.getQuote(), chunkSize, size, scans, 0, chunkCount));
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        int parity = scans[0].parity;
+        for (int i = 1; i < chunkCount; i++) {
+            long recordStart = scans[i].recordStart[parity];
+            if (recordStart > start && recordStart < size) {
+                boundaries.add(recordStart);
+            }
+            parity ^= scans[i].parity;
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Quote parity and candidate record starts of a single chunk.
+     */
+    private static final class ChunkScan {
+        /**
+         * Number of quotes in the chunk modulo 2.
+         */
+        int parity;
+
+        /**
+         * Offset following the first line break reached outside quotes, assuming the chunk starts outside
+         * ({@code [0]}) or inside ({@code [1]}) a quoted field; {@code -1} if there is none.
+         */
+        final long[] recordStart = {-1, -1};
+    }
+
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+        private final byte quote;
+        private final long chunkSize;
+        private final long size;
+        private final ChunkScan[] scans;
+        private final int from;
+        private final int to;
+
+        ScanTask(Path path, byte quote, long chunkSize, long size, ChunkScan[] scans, int from, int to) {
+            this.path = path;
+            this.quote = quote;
+            this.chunkSize = chunkSize;
+            this.size = size;
+            this.scans = scans;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ScanTask(path, quote, chunkSize, size, scans, from, middle),
+                        new ScanTask(path, quote, chunkSize, size, scans, middle, to));
+                return;
+            }
+
+            long start = from * chunkSize;
+            long length = Math.min(chunkSize, size - start);
+            // one extra byte so that a CRLF split across chunks is recognized
+            long mapped = Math.min(length + 1, size - start);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, mapped);
+                ChunkScan scan = new ChunkScan();
+                int parity = 0;
+                for (int i = 0; i < length; i++) {
+                    byte c = buffer.get(i);
+                    if (c == quote) {
+                        parity ^= 1;
+                    } else if ((c == '\n' || c == '\r') && scan.recordStart[parity] < 0) {
+                        int next = c == '\r' && i + 1 < mapped && buffer.get(i + 1) == '\n' ? i + 2 : i + 1;
+                        scan.recordStart[parity] = start + next;
+                    }
+                }
+                scan.parity = parity;
+                scans[from] = scan;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class ParseTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+        private final CsvFormat format;
+        private final RecordMapper<T> mapper;
+        private final long[] boundaries;
+        private final AtomicReferenceArray<List<T>> results;
+        private final int from;
+        private final int to;
+
+        ParseTask(Path path, CsvFormat format, RecordMapper<T> mapper, long[] boundaries,
+                  AtomicReferenceArray<List<T>> results, int from, int to) {
+            this.path = path;
+            this.format = format;
+            this.mapper = mapper;
+            this.boundaries = boundaries;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask<>(path, format, mapper, boundaries, results, from, middle),
+                        new ParseTask<>(path, format, mapper, boundaries, results, middle, to));
+                return;
+            }
+
+            List<T> records = new ArrayList<>();
+            try (CsvInput input = new CsvInput.Mapped(path, CsvParser.DEFAULT_WINDOW_SIZE);
+                 CsvParser parser = new CsvParser(input, format, boundaries[from], boundaries[from + 1])) {
+                CsvRecord record = parser.next();
+                while (record != null) {
+                    records.add(mapper.map(record));
+                    record = parser.next();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            results.set(from, records);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.antoanetatanasova.dataprovider.customer;
 
+import com.antoanetatanasova.dataprovider.item.ExcelCells;
 import com.antoanetatanasova.dto.Customer;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -67,6 +68,19 @@ public class BaseDataProvider {
         return (cell != null) ? cell.toString().trim() : "";
     }
 
+    /**
+     * Returns the formatted value of a cell, as {@code formatValue(getCellStringValue(cell))} would.
+     * <p>
+     * Numeric and boolean cells are formatted from their native value, without the intermediate strings
+     * created by {@code toString()} and {@code formatValue()}.
+     *
+     * @param cell the Excel {@link Cell} to extract the value from
+     * @return the formatted value of the cell, or an empty string if the cell is {@code null}
+     */
+    protected static String getCellFormattedValue(Cell cell) {
+        return ExcelCells.getFormattedValue(cell);
+    }
+
     /**
      * Formats a string value by removing a trailing decimal part if it's ".0".
      * <p>
@@ -77,13 +91,7 @@ public class BaseDataProvider {
      * @return the formatted string with ".0" removed if present; otherwise, the original value
      */
     protected static String formatValue(String value) {
-        if (value.matches("\\d*\\.0")) {
-            int dotIndex = value.indexOf(".");
-            if (dotIndex != -1) {
-                value = value.substring(0, dotIndex);
-            }
-        }
-        return value;
+        return ExcelCells.formatValue(value);
     }
 
     /**
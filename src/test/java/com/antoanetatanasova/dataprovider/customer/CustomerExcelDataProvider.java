@@ -1,5 +1,12 @@
 package com.antoanetatanasova.dataprovider.customer;
 
+import com.antoanetatanasova.dataprovider.cache.DatasetCache;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+import com.antoanetatanasova.dataprovider.item.PipelinedDataIterator;
+import com.antoanetatanasova.dataprovider.item.StreamingDataIterator;
+import com.antoanetatanasova.dataprovider.item.StreamingSheetReader;
 import com.antoanetatanasova.dto.Customer;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -11,39 +18,221 @@ import com.antoanetatanasova.utls.ConfigReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class CustomerExcelDataProvider extends BaseDataProvider {
+    /**
+     * Provides the customers of the Excel file specified in the configuration property
+     * {@code files.customerXLSX}.
+     * <p>
+     * The customers are parsed once into the shared {@link DatasetCache}. {@link Customer} has setters, so
+     * every call returns copies of the cached records that tests can modify freely.
+     *
+     * @return an array of {@link Customer} objects loaded from the Excel file
+     * @throws IOException if an error occurs while reading the Excel file
+     */
     @DataProvider
     public static Object[] customerData() throws IOException {
-        return getData(ConfigReader.fetchProperty("files.customerXLSX"));
+        Customer[] cached = cachedData(ConfigReader.fetchProperty("files.customerXLSX"));
+        Object[] customers = new Object[cached.length];
+        for (int i = 0; i < cached.length; i++) {
+            Customer customer = cached[i];
+            customers[i] = new Customer(customer.getName(), customer.getAddress(), customer.getCity());
+        }
+        return customers;
+    }
+
+    /**
+     * Returns the customers of an Excel file from the shared {@link DatasetCache}, parsing the file on a miss.
+     *
+     * @param filePath the path to the Excel file
+     * @return the cached customers, which must not be modified
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static Customer[] cachedData(String filePath) throws IOException {
+        return DatasetCache.shared().get(filePath, Customer.class, () -> getData(filePath));
+    }
+
+    /**
+     * Provides the customers of the Excel file specified in the configuration property
+     * {@code files.customerXLSX} as a lazily evaluated stream of test parameters.
+     * <p>
+     * Unlike {@link #customerData()}, the rows are parsed by a background thread while the tests are running,
+     * so the first test starts as soon as the first row is mapped and consumed customers can be garbage collected.
+     *
+     * @return an iterator of parameter arrays, each containing a single {@link Customer}
+     * @throws IOException if an error occurs while reading the configuration
+     */
+    @DataProvider
+    public static Iterator<Object[]> customerDataStream() throws IOException {
+        String filePath = ConfigReader.fetchProperty("files.customerXLSX");
+        return StreamingDataIterator.asParameters(
+                new StreamingDataIterator<Customer>("Customer", consumer -> streamData(filePath, consumer)));
+    }
+
+    /**
+     * Provides customers to parallel tests, read and mapped by a pipeline of threads: one thread parses the
+     * rows and a pool of threads maps them. TestNG reads all parameters of a parallel data provider without
+     * waiting for the tests, so the pipeline shortens the load but all customers may be held in memory, as with
+     * {@link #customerData()}; use {@link #customerDataStream()} to keep memory bounded.
+     *
+     * @return an iterator of parameter arrays, each containing a single {@link Customer}
+     * @throws IOException if an error occurs while reading the configuration
+     */
+    @DataProvider(parallel = true)
+    public static Iterator<Object[]> customerDataParallel() throws IOException {
+        String filePath = ConfigReader.fetchProperty("files.customerXLSX");
+        return StreamingDataIterator.asParameters(new PipelinedDataIterator<Customer>("Customer",
+                (Consumer<? super String[][]> rows) -> streamRows(filePath, rows),
+                (String[][] row) -> createCustomerFromValues(row[0], row[1])));
     }
 
     public static Customer[] getData(String filePath) throws IOException {
+        return getData(filePath, ExcelReadMode.WORKBOOK);
+    }
+
+    public static Customer[] getData(String filePath, ExcelReadMode mode) throws IOException {
         List<Customer> records = new ArrayList<>();
-        try (FileInputStream inputStream = new FileInputStream(filePath);
-             XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheet(EXCEL_SHEET);
-            if (sheet != null) {
-                processItemSheet(sheet, records);
+        DataLoadRecorder recorder = DataLoadMetrics.start("CustomerExcelDataProvider.getData[" + mode + "]", filePath, Customer.class);
+        if (mode == ExcelReadMode.STREAMING) {
+            streamData(filePath, records::add, recorder);
+            Customer[] result = records.toArray(new Customer[0]);
+            recorder.finish(result, -1);
+            return result;
+        }
+
+        try (FileInputStream inputStream = new FileInputStream(filePath)) {
+            recorder.opened();
+            try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
+                recorder.parsed();
+                XSSFSheet sheet = workbook.getSheet(EXCEL_SHEET);
+                if (sheet != null) {
+                    processItemSheet(sheet, records, recorder);
+                }
             }
         } catch (IOException e) {
             System.err.println("Error reading Excel file: " + e.getMessage());
             throw e;
         }
-        return records.toArray(new Customer[0]);
+        Customer[] result = records.toArray(new Customer[0]);
+        recorder.finish(result, -1);
+        return result;
     }
 
-    private static void processItemSheet(XSSFSheet sheet, List<Customer> records) {
+    /**
+     * Streams customers from an Excel file to the given consumer without loading the whole workbook.
+     * <p>
+     * The first row of the sheet provides the column titles; every following row is mapped to a
+     * {@link Customer} and passed to the consumer as soon as it has been parsed.
+     *
+     * @param filePath the path to the Excel document
+     * @param consumer the consumer receiving the customers in sheet order
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static void streamData(String filePath, Consumer<? super Customer> consumer) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("CustomerExcelDataProvider.streamData", filePath, Customer.class);
+        streamData(filePath, consumer, recorder);
+        recorder.finish(null, -1);
+    }
+
+    private static void streamData(String filePath, Consumer<? super Customer> consumer, DataLoadRecorder recorder) throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, EXCEL_SHEET, rowHandler(consumer, recorder));
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Reads customers from several sheets of an Excel file in one pass, parsing the sheets concurrently.
+     * <p>
+     * The first row of each sheet provides the column titles of that sheet. Requested sheets that do not
+     * exist in the file are left out of the result.
+     *
+     * @param filePath   the path to the Excel document
+     * @param sheetNames the names of the sheets to read, or {@code null} to read all sheets
+     * @return the customers of each sheet, keyed by sheet name in workbook order
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static Map<String, List<Customer>> getDataBySheet(String filePath, Collection<String> sheetNames) throws IOException {
+        Map<String, List<Customer>> records = new LinkedHashMap<>();
+        try {
+            StreamingSheetReader.readSheets(filePath, sheetNames, sheetName -> {
+                List<Customer> sheetRecords = new ArrayList<>();
+                records.put(sheetName, sheetRecords);
+                return rowHandler(sheetRecords::add, DataLoadRecorder.disabled());
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+        return records;
+    }
+
+    /**
+     * Streams the unmapped rows of an Excel file, each paired with the column titles of the sheet.
+     */
+    private static void streamRows(String filePath, Consumer<? super String[][]> rows) throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, EXCEL_SHEET, new StreamingSheetReader.RowHandler() {
+                private String[] columnTitles;
+
+                @Override
+                public boolean onRow(int rowNum, String[] cells) {
+                    if (columnTitles == null) {
+                        columnTitles = cells;
+                    } else {
+                        rows.accept(new String[][]{columnTitles, cells});
+                    }
+                    return true;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static StreamingSheetReader.RowHandler rowHandler(Consumer<? super Customer> consumer, DataLoadRecorder recorder) {
+        return new StreamingSheetReader.RowHandler() {
+            private String[] columnTitles;
+
+            @Override
+            public boolean onRow(int rowNum, String[] cells) {
+                if (columnTitles == null) {
+                    recorder.opened();
+                    columnTitles = cells;
+                    return true;
+                }
+
+                long mappingStart = recorder.now();
+                Customer customer = createCustomerFromValues(columnTitles, cells);
+                recorder.mapped(mappingStart);
+                consumer.accept(customer);
+                return true;
+            }
+        };
+    }
+
+    private static void processItemSheet(XSSFSheet sheet, List<Customer> records, DataLoadRecorder recorder) {
         int rowCount = sheet.getLastRowNum() - sheet.getFirstRowNum();
 
         for (int i = 1; i <= rowCount; i++) { // Start from 1 to skip header row
             Row row = sheet.getRow(i);
             if (row == null) {
+                recorder.skipped();
                 continue;
             }
 
+            long mappingStart = recorder.now();
             Customer customer = createItemFromRow(sheet, row);
+            recorder.mapped(mappingStart);
             records.add(customer);
         }
     }
@@ -55,7 +244,7 @@ public class CustomerExcelDataProvider extends BaseDataProvider {
         for (int j = 0; j < cellCount; j++) {
             Cell currCell = row.getCell(j);
             if (!isCellEmpty(currCell)) {
-                String currValue = getCellStringValue(currCell);
+                String currValue = getCellFormattedValue(currCell);
                 String columnTitle = getColumnTitle(sheet, j);
                 setCellValue(customer, columnTitle, currValue);
             }
@@ -63,4 +252,18 @@ public class CustomerExcelDataProvider extends BaseDataProvider {
 
         return customer;
     }
+
+    private static Customer createCustomerFromValues(String[] columnTitles, String[] cells) {
+        Customer customer = new Customer();
+
+        for (int j = 0; j < cells.length; j++) {
+            String currValue = cells[j] != null ? cells[j].trim() : "";
+            if (!currValue.isEmpty()) {
+                String columnTitle = j < columnTitles.length && columnTitles[j] != null ? columnTitles[j].trim() : "";
+                setCellValue(customer, columnTitle, currValue);
+            }
+        }
+
+        return customer;
+    }
 }
@@ -0,0 +1,63 @@
+package com.antoanetatanasova.dataprovider.item;
+
+/**
+ * Provides the cell values of a single row to a {@link RowBinder}, indexed by column.
+ * <p>
+ * Only {@link #getString(int)} has to be implemented; the typed getters parse the formatted string by default.
+ * Sources backed by typed cells, such as POI rows, override them to return numeric and boolean values
+ * directly, so those cells are never turned into strings.
+ */
+@FunctionalInterface
+public interface CellSource {
+    /**
+     * Returns the formatted value of a cell, with a trailing {@code ".0"} of whole numbers removed.
+     *
+     * @param column the zero-based column index
+     * @return the formatted value, or an empty string for a missing cell
+     */
+    String getString(int column);
+
+    /**
+     * Returns the value of a cell as an {@code int}.
+     *
+     * @param column the zero-based column index
+     * @return the cell value
+     * @throws NumberFormatException if the cell does not hold an integer
+     */
+    default int getInt(int column) {
+        return Integer.parseInt(getString(column));
+    }
+
+    /**
+     * Returns the value of a cell as a {@code long}.
+     *
+     * @param column the zero-based column index
+     * @return the cell value
+     * @throws NumberFormatException if the cell does not hold an integer
+     */
+    default long getLong(int column) {
+        return Long.parseLong(getString(column));
+    }
+
+    /**
+     * Returns the value of a cell as a {@code double}.
+     *
+     * @param column the zero-based column index
+     * @return the cell value
+     * @throws NumberFormatException if the cell does not hold a number
+     */
+    default double getDouble(int column) {
+        return Double.parseDouble(getString(column));
+    }
+
+    /**
+     * Returns the value of a cell as a {@code boolean}; text cells are {@code true} only for {@code "true"},
+     * ignoring case.
+     *
+     * @param column the zero-based column index
+     * @return the cell value
+     */
+    default boolean getBoolean(int column) {
+        return Boolean.parseBoolean(getString(column));
+    }
+}
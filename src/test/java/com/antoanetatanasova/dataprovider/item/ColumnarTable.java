@@ -0,0 +1,786 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory, column-oriented copy of a data set, for aggregations over millions of rows.
+ * <p>
+ * Every {@link ExcelColumn} annotated field is stored as one array indexed by row: {@code int}, {@code long},
+ * {@code double} and {@code boolean} fields as arrays of their type, and all other fields as dictionary
+ * encoded text, an {@code int[]} of codes into the distinct values of the column. Aggregations filter, group
+ * and reduce these arrays without creating any record:
+ * <pre>
+ * {@code
+ * ColumnarTable<Item> items = CoreDataProvider.getColumnarTableFromExcel(filePath, Item.class);
+ * Map<String, Double> totals = items.aggregate()
+ *         .whereEquals("vatRate", "20%")
+ *         .groupBy("batch")
+ *         .sumProduct("unitPrice", "quantity");
+ * }
+ * </pre>
+ * Rows are processed in blocks of {@value #BLOCK_SIZE}. Each condition narrows the selected rows of a block
+ * in a loop over a single column, then the values of the selected rows are gathered into a buffer and added
+ * to accumulators indexed by the dictionary code of their group. Conditions on text fields compare codes, so
+ * their values are looked up in the dictionary once per aggregation instead of once per row. A
+ * {@link Aggregation#parallel() parallel} aggregation reduces ranges of rows on the common fork-join pool
+ * and merges their accumulators.
+ * <p>
+ * A loaded table is immutable and can be shared by tests running in parallel.
+ *
+ * @param <T> the type of the records
+ */
+public final class ColumnarTable<T> {
+    /**
+     * Number of rows filtered and reduced at a time.
+     */
+    public static final int BLOCK_SIZE = 4096;
+
+    private static final String EXCEL_SHEET = "Sheet1";
+    private static final int ROWS_PER_TASK = BLOCK_SIZE * 64;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte STRING = FieldColumns.STRING;
+    private static final byte INT = FieldColumns.INT;
+    private static final byte LONG = FieldColumns.LONG;
+    private static final byte DOUBLE = FieldColumns.DOUBLE;
+    private static final byte BOOLEAN = FieldColumns.BOOLEAN;
+
+    private static final byte COUNT = 0;
+    private static final byte SUM = 1;
+    private static final byte MIN = 2;
+    private static final byte MAX = 3;
+
+    private final FieldColumns<T> fields;
+    private final Class<T> clazz;
+    private final String[] names;
+    private final byte[] types;
+    private final Object[] columns;
+    private final String[][] dictionaries;
+    private final int size;
+
+    private ColumnarTable(Loader<T> loader) {
+        this.fields = loader.fields;
+        this.clazz = fields.getRecordClass();
+        this.names = fields.getNames();
+        this.types = fields.getTypes();
+        this.size = loader.size;
+        this.columns = new Object[names.length];
+        this.dictionaries = new String[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = resize(loader.columns[i], types[i], size);
+            if (types[i] == STRING) {
+                dictionaries[i] = loader.values.get(i).toArray(new String[0]);
+            }
+        }
+    }
+
+    /**
+     * Reads the predefined sheet of an Excel document into columns.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the class whose {@link ExcelColumn} annotated fields define the columns
+     * @param <T>      the generic type of the records
+     * @return the loaded table
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static <T> ColumnarTable<T> fromExcel(String filePath, Class<T> clazz) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("ColumnarTable.fromExcel", filePath, clazz);
+        Loader<T> loader = new Loader<>(clazz);
+        loader.fields.readExcel(filePath, EXCEL_SHEET, recorder, loader::append);
+        ColumnarTable<T> table = new ColumnarTable<>(loader);
+        recorder.finish(table.columns, table.size);
+        return table;
+    }
+
+    /**
+     * Reads a CSV file whose first record is the header into columns.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param clazz    the class whose {@link ExcelColumn} annotated fields define the columns
+     * @param <T>      the generic type of the records
+     * @return the loaded table
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    public static <T> ColumnarTable<T> fromCsv(String filePath, CsvFormat format, Class<T> clazz) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("ColumnarTable.fromCsv", filePath, clazz);
+        Loader<T> loader = new Loader<>(clazz);
+        loader.fields.readCsv(filePath, format, recorder, loader::append);
+        ColumnarTable<T> table = new ColumnarTable<>(loader);
+        recorder.finish(table.columns, table.size);
+        return table;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    public Class<T> getRecordClass() {
+        return clazz;
+    }
+
+    /**
+     * Returns the distinct values of a text field, in order of first occurrence.
+     *
+     * @param fieldName the name of a text field
+     * @return the values, as an unmodifiable list; {@code null} values are not included
+     * @throws IllegalArgumentException if the record class has no such text field
+     */
+    public List<String> distinctValues(String fieldName) {
+        return Collections.unmodifiableList(Arrays.asList(dictionaries[textField(fieldName)]));
+    }
+
+    /**
+     * Creates the record of a row.
+     *
+     * @param rowNum the zero-based row index, header excluded
+     * @return a new instance of {@code T}
+     * @throws IndexOutOfBoundsException if the index is not a row of the table
+     */
+    public T get(int rowNum) {
+        if (rowNum < 0 || rowNum >= size) {
+            throw new IndexOutOfBoundsException("Row " + rowNum + " of " + size);
+        }
+        return fields.getBinder().bind((FieldColumns.StoredRow) field -> getString(field, rowNum));
+    }
+
+    /**
+     * Starts an aggregation over all rows.
+     *
+     * @return an aggregation without conditions
+     */
+    public Aggregation aggregate() {
+        return new Aggregation(Collections.emptyList(), false);
+    }
+
+    private String getString(int field, int rowNum) {
+        switch (types[field]) {
+            case INT:
+                return String.valueOf(((int[]) columns[field])[rowNum]);
+            case LONG:
+                return String.valueOf(((long[]) columns[field])[rowNum]);
+            case DOUBLE:
+                return String.valueOf(((double[]) columns[field])[rowNum]);
+            case BOOLEAN:
+                return String.valueOf(((boolean[]) columns[field])[rowNum]);
+            default:
+                int code = ((int[]) columns[field])[rowNum];
+                return code < 0 ? null : dictionaries[field][code];
+        }
+    }
+
+    private int fieldIndex(String fieldName) {
+        return fields.indexOf(fieldName);
+    }
+
+    private int textField(String fieldName) {
+        int field = fieldIndex(fieldName);
+        if (types[field] != STRING) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' of " + clazz.getSimpleName() + " is not text");
+        }
+        return field;
+    }
+
+    private int numericField(String fieldName) {
+        int field = fieldIndex(fieldName);
+        if (types[field] == STRING || types[field] == BOOLEAN) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' of " + clazz.getSimpleName() + " is not numeric");
+        }
+        return field;
+    }
+
+    /**
+     * Copies the values of a numeric field of the selected rows into a buffer.
+     */
+    private void gather(int field, int[] rows, int count, double[] values) {
+        switch (types[field]) {
+            case INT: {
+                int[] column = (int[]) columns[field];
+                for (int i = 0; i < count; i++) {
+                    values[i] = column[rows[i]];
+                }
+                break;
+            }
+            case LONG: {
+                long[] column = (long[]) columns[field];
+                for (int i = 0; i < count; i++) {
+                    values[i] = column[rows[i]];
+                }
+                break;
+            }
+            default: {
+                double[] column = (double[]) columns[field];
+                for (int i = 0; i < count; i++) {
+                    values[i] = column[rows[i]];
+                }
+            }
+        }
+    }
+
+    private Accumulator execute(List<Condition> conditions, boolean parallel, Supplier<Accumulator> accumulators) {
+        if (!parallel || size <= ROWS_PER_TASK) {
+            Accumulator accumulator = accumulators.get();
+            accumulator.reduce(conditions, 0, size);
+            return accumulator;
+        }
+        int tasks = (size + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        return IntStream.range(0, tasks).parallel()
+                .mapToObj(task -> {
+                    Accumulator accumulator = accumulators.get();
+                    accumulator.reduce(conditions, task * ROWS_PER_TASK, Math.min(size, (task + 1) * ROWS_PER_TASK));
+                    return accumulator;
+                })
+                .reduce(Accumulator::merge)
+                .get();
+    }
+
+    private static Object resize(Object column, byte type, int length) {
+        switch (type) {
+            case LONG:
+                return Arrays.copyOf((long[]) column, length);
+            case DOUBLE:
+                return Arrays.copyOf((double[]) column, length);
+            case BOOLEAN:
+                return Arrays.copyOf((boolean[]) column, length);
+            default:
+                return Arrays.copyOf((int[]) column, length);
+        }
+    }
+
+    /**
+     * Condition narrowing the selected rows of a block.
+     */
+    private interface Condition {
+        /**
+         * Keeps the rows that match, in order, at the start of the array.
+         *
+         * @return the number of rows kept
+         */
+        int select(int[] rows, int count);
+    }
+
+    /**
+     * Aggregation over the rows of the table that match all of its conditions. Aggregations are immutable;
+     * every builder method returns a new aggregation, so one can be shared between threads.
+     */
+    public final class Aggregation {
+        private final List<Condition> conditions;
+        private final boolean parallel;
+
+        private Aggregation(List<Condition> conditions, boolean parallel) {
+            this.conditions = conditions;
+            this.parallel = parallel;
+        }
+
+        /**
+         * Keeps the rows whose text field has the given value.
+         *
+         * @param fieldName the name of a text field
+         * @param value     the value to match; {@code null} matches rows without a value
+         * @return the new aggregation
+         * @throws IllegalArgumentException if the record class has no such text field
+         */
+        public Aggregation whereEquals(String fieldName, String value) {
+            return whereIn(fieldName, Collections.singleton(value));
+        }
+
+        /**
+         * Keeps the rows whose text field has one of the given values.
+         *
+         * @param fieldName the name of a text field
+         * @param values    the values to match
+         * @return the new aggregation
+         * @throws IllegalArgumentException if the record class has no such text field
+         */
+        public Aggregation whereIn(String fieldName, Collection<String> values) {
+            int field = textField(fieldName);
+            int[] codes = (int[]) columns[field];
+            String[] dictionary = dictionaries[field];
+            // indexed by code + 1, so that rows without a value use index 0
+            boolean[] accepted = new boolean[dictionary.length + 1];
+            accepted[0] = values.contains(null);
+            for (int code = 0; code < dictionary.length; code++) {
+                accepted[code + 1] = values.contains(dictionary[code]);
+            }
+            return where((rows, count) -> {
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int row = rows[i];
+                    if (accepted[codes[row] + 1]) {
+                        rows[kept++] = row;
+                    }
+                }
+                return kept;
+            });
+        }
+
+        /**
+         * Keeps the rows whose numeric field lies within a range.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @param min       the lowest value to keep
+         * @param max       the highest value to keep
+         * @return the new aggregation
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public Aggregation whereBetween(String fieldName, double min, double max) {
+            int field = numericField(fieldName);
+            switch (types[field]) {
+                case INT: {
+                    int[] column = (int[]) columns[field];
+                    return where((rows, count) -> {
+                        int kept = 0;
+                        for (int i = 0; i < count; i++) {
+                            int row = rows[i];
+                            int value = column[row];
+                            if (value >= min && value <= max) {
+                                rows[kept++] = row;
+                            }
+                        }
+                        return kept;
+                    });
+                }
+                case LONG: {
+                    long[] column = (long[]) columns[field];
+                    return where((rows, count) -> {
+                        int kept = 0;
+                        for (int i = 0; i < count; i++) {
+                            int row = rows[i];
+                            long value = column[row];
+                            if (value >= min && value <= max) {
+                                rows[kept++] = row;
+                            }
+                        }
+                        return kept;
+                    });
+                }
+                default: {
+                    double[] column = (double[]) columns[field];
+                    return where((rows, count) -> {
+                        int kept = 0;
+                        for (int i = 0; i < count; i++) {
+                            int row = rows[i];
+                            double value = column[row];
+                            if (value >= min && value <= max) {
+                                rows[kept++] = row;
+                            }
+                        }
+                        return kept;
+                    });
+                }
+            }
+        }
+
+        /**
+         * Splits the rows into ranges that are reduced in parallel on the common fork-join pool. Each range
+         * holds 64 blocks, so small tables are still reduced by the calling thread.
+         *
+         * @return the new aggregation
+         */
+        public Aggregation parallel() {
+            return new Aggregation(conditions, true);
+        }
+
+        /**
+         * Groups the matching rows by the value of a text field.
+         *
+         * @param fieldName the name of a text field
+         * @return the grouping
+         * @throws IllegalArgumentException if the record class has no such text field
+         */
+        public Grouping groupBy(String fieldName) {
+            return new Grouping(this, textField(fieldName));
+        }
+
+        /**
+         * Counts the matching rows.
+         *
+         * @return the number of rows
+         */
+        public long count() {
+            return run(COUNT, -1, -1, -1).counts[0];
+        }
+
+        /**
+         * Sums a numeric field over the matching rows.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the sum, {@code 0} if no row matches
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public double sum(String fieldName) {
+            return run(SUM, -1, numericField(fieldName), -1).values[0];
+        }
+
+        /**
+         * Sums the product of two numeric fields over the matching rows, such as a price times a quantity.
+         *
+         * @param fieldName       the name of an {@code int}, {@code long} or {@code double} field
+         * @param factorFieldName the name of another numeric field
+         * @return the sum, {@code 0} if no row matches
+         * @throws IllegalArgumentException if the record class has no such numeric fields
+         */
+        public double sumProduct(String fieldName, String factorFieldName) {
+            return run(SUM, -1, numericField(fieldName), numericField(factorFieldName)).values[0];
+        }
+
+        /**
+         * Finds the lowest value of a numeric field among the matching rows.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the lowest value, {@code NaN} if no row matches
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public double min(String fieldName) {
+            Accumulator result = run(MIN, -1, numericField(fieldName), -1);
+            return result.counts[0] == 0 ? Double.NaN : result.values[0];
+        }
+
+        /**
+         * Finds the highest value of a numeric field among the matching rows.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the highest value, {@code NaN} if no row matches
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public double max(String fieldName) {
+            Accumulator result = run(MAX, -1, numericField(fieldName), -1);
+            return result.counts[0] == 0 ? Double.NaN : result.values[0];
+        }
+
+        private Aggregation where(Condition condition) {
+            List<Condition> extended = new ArrayList<>(conditions);
+            extended.add(condition);
+            return new Aggregation(Collections.unmodifiableList(extended), parallel);
+        }
+
+        private Accumulator run(byte operation, int groupField, int valueField, int factorField) {
+            return execute(conditions, parallel, () -> new Accumulator(operation, groupField, valueField, factorField));
+        }
+    }
+
+    /**
+     * Aggregation of the matching rows per value of a text field. Results map every value that occurs in a
+     * matching row to its aggregate, in order of first occurrence in the table; rows without a value are
+     * grouped under a {@code null} key, last.
+     */
+    public final class Grouping {
+        private final Aggregation aggregation;
+        private final int groupField;
+
+        private Grouping(Aggregation aggregation, int groupField) {
+            this.aggregation = aggregation;
+            this.groupField = groupField;
+        }
+
+        /**
+         * Splits the rows into ranges that are reduced in parallel, see {@link Aggregation#parallel()}.
+         *
+         * @return the new grouping
+         */
+        public Grouping parallel() {
+            return new Grouping(aggregation.parallel(), groupField);
+        }
+
+        /**
+         * Counts the matching rows of each group.
+         *
+         * @return the number of rows per group
+         */
+        public Map<String, Long> count() {
+            Accumulator result = aggregation.run(COUNT, groupField, -1, -1);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int group : groups(result)) {
+                counts.put(key(group), result.counts[group]);
+            }
+            return counts;
+        }
+
+        /**
+         * Sums a numeric field over the matching rows of each group.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the sum per group
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public Map<String, Double> sum(String fieldName) {
+            return values(aggregation.run(SUM, groupField, numericField(fieldName), -1));
+        }
+
+        /**
+         * Sums the product of two numeric fields over the matching rows of each group.
+         *
+         * @param fieldName       the name of an {@code int}, {@code long} or {@code double} field
+         * @param factorFieldName the name of another numeric field
+         * @return the sum per group
+         * @throws IllegalArgumentException if the record class has no such numeric fields
+         */
+        public Map<String, Double> sumProduct(String fieldName, String factorFieldName) {
+            return values(aggregation.run(SUM, groupField, numericField(fieldName), numericField(factorFieldName)));
+        }
+
+        /**
+         * Finds the lowest value of a numeric field among the matching rows of each group.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the lowest value per group
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public Map<String, Double> min(String fieldName) {
+            return values(aggregation.run(MIN, groupField, numericField(fieldName), -1));
+        }
+
+        /**
+         * Finds the highest value of a numeric field among the matching rows of each group.
+         *
+         * @param fieldName the name of an {@code int}, {@code long} or {@code double} field
+         * @return the highest value per group
+         * @throws IllegalArgumentException if the record class has no such numeric field
+         */
+        public Map<String, Double> max(String fieldName) {
+            return values(aggregation.run(MAX, groupField, numericField(fieldName), -1));
+        }
+
+        private Map<String, Double> values(Accumulator result) {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (int group : groups(result)) {
+                values.put(key(group), result.values[group]);
+            }
+            return values;
+        }
+
+        private int[] groups(Accumulator result) {
+            int[] groups = new int[result.counts.length];
+            int count = 0;
+            for (int group = 1; group < result.counts.length; group++) {
+                if (result.counts[group] > 0) {
+                    groups[count++] = group;
+                }
+            }
+            if (result.counts[0] > 0) {
+                groups[count++] = 0;
+            }
+            return Arrays.copyOf(groups, count);
+        }
+
+        private String key(int group) {
+            return group == 0 ? null : dictionaries[groupField][group - 1];
+        }
+    }
+
+    /**
+     * Row count and aggregate value per group of one range of rows. Group {@code 0} holds rows without a
+     * group value, group {@code code + 1} the rows of a dictionary code; ungrouped aggregations only use
+     * group {@code 0}.
+     */
+    private final class Accumulator {
+        private final byte operation;
+        private final int[] groupCodes;
+        private final int valueField;
+        private final int factorField;
+        private final long[] counts;
+        private final double[] values;
+
+        private final int[] rows = new int[BLOCK_SIZE];
+        private final int[] groups = new int[BLOCK_SIZE];
+        private final double[] buffer;
+        private final double[] factors;
+
+        Accumulator(byte operation, int groupField, int valueField, int factorField) {
+            this.operation = operation;
+            this.groupCodes = groupField < 0 ? null : (int[]) columns[groupField];
+            this.valueField = valueField;
+            this.factorField = factorField;
+            int groupCount = groupField < 0 ? 1 : dictionaries[groupField].length + 1;
+            this.counts = new long[groupCount];
+            this.values = new double[groupCount];
+            if (operation == MIN) {
+                Arrays.fill(values, Double.POSITIVE_INFINITY);
+            } else if (operation == MAX) {
+                Arrays.fill(values, Double.NEGATIVE_INFINITY);
+            }
+            this.buffer = valueField < 0 ? null : new double[BLOCK_SIZE];
+            this.factors = factorField < 0 ? null : new double[BLOCK_SIZE];
+        }
+
+        void reduce(List<Condition> conditions, int from, int to) {
+            for (int start = from; start < to; start += BLOCK_SIZE) {
+                int count = Math.min(BLOCK_SIZE, to - start);
+                for (int i = 0; i < count; i++) {
+                    rows[i] = start + i;
+                }
+                for (int i = 0; i < conditions.size() && count > 0; i++) {
+                    count = conditions.get(i).select(rows, count);
+                }
+                if (count > 0) {
+                    add(count);
+                }
+            }
+        }
+
+        private void add(int count) {
+            if (groupCodes != null) {
+                for (int i = 0; i < count; i++) {
+                    groups[i] = groupCodes[rows[i]] + 1;
+                }
+            }
+            if (valueField >= 0) {
+                gather(valueField, rows, count, buffer);
+            }
+            if (factorField >= 0) {
+                gather(factorField, rows, count, factors);
+                for (int i = 0; i < count; i++) {
+                    buffer[i] *= factors[i];
+                }
+            }
+
+            switch (operation) {
+                case COUNT:
+                    for (int i = 0; i < count; i++) {
+                        counts[groups[i]]++;
+                    }
+                    break;
+                case SUM:
+                    for (int i = 0; i < count; i++) {
+                        int group = groups[i];
+                        counts[group]++;
+                        values[group] += buffer[i];
+                    }
+                    break;
+                case MIN:
+                    for (int i = 0; i < count; i++) {
+                        int group = groups[i];
+                        counts[group]++;
+                        values[group] = Math.min(values[group], buffer[i]);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        int group = groups[i];
+                        counts[group]++;
+                        values[group] = Math.max(values[group], buffer[i]);
+                    }
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int group = 0; group < counts.length; group++) {
+                counts[group] += other.counts[group];
+                switch (operation) {
+                    case SUM:
+                        values[group] += other.values[group];
+                        break;
+                    case MIN:
+                        values[group] = Math.min(values[group], other.values[group]);
+                        break;
+                    case MAX:
+                        values[group] = Math.max(values[group], other.values[group]);
+                        break;
+                    default:
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Appends parsed rows to growing column arrays and encodes text values.
+     */
+    private static final class Loader<T> {
+        private final FieldColumns<T> fields;
+        private final byte[] types;
+        private final Object[] columns;
+        private final List<Map<String, Integer>> codes = new ArrayList<>();
+        private final List<List<String>> values = new ArrayList<>();
+        private int capacity = INITIAL_CAPACITY;
+        private int size;
+
+        Loader(Class<T> clazz) {
+            fields = new FieldColumns<>(clazz);
+            types = fields.getTypes();
+            columns = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                columns[i] = newColumn(types[i], capacity);
+                codes.add(types[i] == STRING ? new HashMap<>() : null);
+                values.add(types[i] == STRING ? new ArrayList<>() : null);
+            }
+        }
+
+        void append(CellSource cells) {
+            if (size == capacity) {
+                capacity += capacity >> 1;
+                for (int i = 0; i < types.length; i++) {
+                    columns[i] = resize(columns[i], types[i], capacity);
+                }
+            }
+            int[] columnOfField = fields.getColumns();
+            for (int i = 0; i < types.length; i++) {
+                int column = columnOfField[i];
+                switch (types[i]) {
+                    case INT:
+                        ((int[]) columns[i])[size] = column < 0 ? 0 : cells.getInt(column);
+                        break;
+                    case LONG:
+                        ((long[]) columns[i])[size] = column < 0 ? 0L : cells.getLong(column);
+                        break;
+                    case DOUBLE:
+                        ((double[]) columns[i])[size] = column < 0 ? 0.0 : cells.getDouble(column);
+                        break;
+                    case BOOLEAN:
+                        ((boolean[]) columns[i])[size] = column >= 0 && cells.getBoolean(column);
+                        break;
+                    default:
+                        ((int[]) columns[i])[size] = column < 0 ? -1 : encode(i, cells.getString(column));
+                }
+            }
+            size++;
+        }
+
+        private int encode(int field, String value) {
+            if (value == null) {
+                return -1;
+            }
+            Map<String, Integer> dictionary = codes.get(field);
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(value, code);
+                values.get(field).add(value);
+            }
+            return code;
+        }
+
+        private static Object newColumn(byte type, int capacity) {
+            switch (type) {
+                case LONG:
+                    return new long[capacity];
+                case DOUBLE:
+                    return new double[capacity];
+                case BOOLEAN:
+                    return new boolean[capacity];
+                default:
+                    return new int[capacity];
+            }
+        }
+
+    }
+}
@@ -1,5 +1,9 @@
 package com.antoanetatanasova.dataprovider.item;
 
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+import com.antoanetatanasova.dataprovider.shard.Shard;
+import com.antoanetatanasova.dataprovider.snapshot.ColumnarSnapshot;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -7,12 +11,13 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.function.Consumer;
 
 public class CoreDataProvider {
     private static final String EXCEL_SHEET = "Sheet1";
@@ -32,21 +37,69 @@ public class CoreDataProvider {
      * @throws IOException if an I/O error occurs when reading the Excel file
      */
     public static <T> T[] getDataFromExcel(String filePath, Class<T> clazz, T[] arrayTemplate) throws IOException {
+        return getDataFromExcel(filePath, clazz, arrayTemplate, ExcelReadMode.WORKBOOK);
+    }
+
+    /**
+     * Creates records of the specified type from an Excel document using the given read mode.
+     * <p>
+     * With {@link ExcelReadMode#STREAMING} the sheet is parsed row by row without building the workbook
+     * in memory; the resulting objects are the same as with {@link ExcelReadMode#WORKBOOK}.
+     * With {@link ExcelReadMode#SNAPSHOT} the objects are restored from an up-to-date columnar snapshot
+     * of the document when one exists.
+     *
+     * @param filePath      the path to the Excel document
+     * @param clazz         the target class type to which each row of the Excel sheet will be mapped
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @param mode          the strategy used to read the Excel document
+     * @param <T>           the generic type of the object to be created from the Excel rows
+     * @return an array of objects of type {@code T} populated with the data from the Excel file
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     */
+    public static <T> T[] getDataFromExcel(String filePath, Class<T> clazz, T[] arrayTemplate, ExcelReadMode mode) throws IOException {
         List<T> records = new ArrayList<>();
+        DataLoadRecorder recorder = DataLoadMetrics.start("CoreDataProvider.getDataFromExcel[" + mode + "]", filePath, clazz);
 
-        try (FileInputStream inputStream = new FileInputStream(filePath);
-             XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
+        if (mode == ExcelReadMode.SNAPSHOT) {
+            // a compile is part of this load, so it is recorded here and not as a STREAMING load of its own
+            T[] result = ColumnarSnapshot.load(filePath, "sheet=" + EXCEL_SHEET, clazz, arrayTemplate, () -> {
+                streamDataFromExcel(filePath, clazz, records::add, recorder);
+                return records.toArray(arrayTemplate);
+            });
+            recorder.finish(result, result.length);
+            return result;
+        }
 
-            XSSFSheet sheet = workbook.getSheet(EXCEL_SHEET);
-            if (sheet != null) {
-                int rowCount = sheet.getLastRowNum() - sheet.getFirstRowNum();
+        if (mode == ExcelReadMode.STREAMING) {
+            streamDataFromExcel(filePath, clazz, records::add, recorder);
+            T[] result = records.toArray(arrayTemplate);
+            recorder.finish(result, -1);
+            return result;
+        }
+
+        try (FileInputStream inputStream = new FileInputStream(filePath)) {
+            recorder.opened();
+            try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
+                recorder.parsed();
 
-                for (int i = 1; i <= rowCount; i++) {
-                    Row row = sheet.getRow(i);
-                    if (row == null) continue;
+                XSSFSheet sheet = workbook.getSheet(EXCEL_SHEET);
+                if (sheet != null) {
+                    int rowCount = sheet.getLastRowNum() - sheet.getFirstRowNum();
+                    RowBinder<T> binder = createBinder(sheet, clazz);
+                    ExcelCells.RowSource cells = new ExcelCells.RowSource();
 
-                    T obj = mapRowToObject(sheet, row, clazz);
-                    records.add(obj);
+                    for (int i = 1; i <= rowCount; i++) {
+                        Row row = sheet.getRow(i);
+                        if (row == null) {
+                            recorder.skipped();
+                            continue;
+                        }
+
+                        long mappingStart = recorder.now();
+                        T obj = mapRowToObject(binder, cells.reset(row));
+                        recorder.mapped(mappingStart);
+                        records.add(obj);
+                    }
                 }
             }
 
@@ -55,114 +108,400 @@ public class CoreDataProvider {
             throw e;
         }
 
-        return records.toArray(arrayTemplate);
+        T[] result = records.toArray(arrayTemplate);
+        recorder.finish(result, -1);
+        return result;
     }
 
     /**
-     * Maps a row from an Excel sheet to an instance of the specified class using {@link ExcelColumn} annotations.
+     * Creates the records of one shard of an Excel document.
      * <p>
-     * The method reads the header row to determine column names and maps the cell values in the given row
-     * to fields in the target class that are annotated with {@code @ExcelColumn}. The mapping supports multiple
-     * possible names for each column, as defined in the annotation.
+     * The predefined sheet is always read with {@link StreamingSheetReader}. For range shards the rows before
+     * the shard are skipped without decoding their cells and the parse stops after the last row of the shard;
+     * the rows are split by their row number, using the last row number stored in the sheet. Hash shards
+     * parse every row but only map the rows of the shard.
      *
-     * @param sheet the Excel sheet containing the data
-     * @param row   the specific row to map to an object
-     * @param clazz the class type to which the row should be mapped
-     * @param <T>   the generic type of the object to be created
-     * @return an instance of {@code T} populated with values from the row
-     * @throws RuntimeException if any reflection or type conversion error occurs during mapping
+     * @param filePath      the path to the Excel document
+     * @param clazz         the target class type to which each row of the Excel sheet will be mapped
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @param shard         the shard to read
+     * @param <T>           the generic type of the object to be created from the Excel rows
+     * @return the objects of the shard, in sheet order
+     * @throws IOException              if an I/O error occurs when reading the Excel file
+     * @throws IllegalArgumentException if the key column of a hash shard is not in the header
      */
-    private static <T> T mapRowToObject(XSSFSheet sheet, Row row, Class<T> clazz) {
+    public static <T> T[] getDataFromExcel(String filePath, Class<T> clazz, T[] arrayTemplate, Shard shard) throws IOException {
+        List<T> records = new ArrayList<>();
+        DataLoadRecorder recorder = DataLoadMetrics.start("CoreDataProvider.getDataFromExcel[" + shard + "]", filePath, clazz);
         try {
-            T instance = clazz.getDeclaredConstructor().newInstance();
-            Row headerRow = sheet.getRow(sheet.getFirstRowNum());
+            int lastRowNum = shard.isHashed() ? -1 : StreamingSheetReader.lastRowNum(filePath, EXCEL_SHEET);
+            StreamingSheetReader.read(filePath, EXCEL_SHEET,
+                    new ShardRowHandler<>(clazz, shard, lastRowNum, records::add, recorder));
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
 
-            if (headerRow == null) return instance;
+        T[] result = records.toArray(arrayTemplate);
+        recorder.finish(result, -1);
+        return result;
+    }
 
-            Map<String, Integer> headerIndexMap = new HashMap<>();
-            IntStream.range(0, headerRow.getLastCellNum()).forEach(i -> {
-                String header = getCellStringValue(headerRow.getCell(i));
-                headerIndexMap.put(header, i);
-            });
+    /**
+     * Streams records of the specified type from an Excel document to the given consumer.
+     * <p>
+     * The predefined sheet is parsed row by row with {@link StreamingSheetReader}. The first row is used as
+     * the header, and every following row is mapped to an instance of {@code clazz} and passed to the
+     * consumer before the next row is read, so no more than one row is held in memory at a time.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the target class type to which each row of the Excel sheet will be mapped
+     * @param consumer the consumer receiving the mapped objects in sheet order
+     * @param <T>      the generic type of the object to be created from the Excel rows
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     */
+    public static <T> void streamDataFromExcel(String filePath, Class<T> clazz, Consumer<? super T> consumer) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("CoreDataProvider.streamDataFromExcel", filePath, clazz);
+        streamDataFromExcel(filePath, clazz, consumer, recorder);
+        recorder.finish(null, -1);
+    }
+
+    static <T> void streamDataFromExcel(String filePath, Class<T> clazz, Consumer<? super T> consumer,
+                                        DataLoadRecorder recorder) throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, EXCEL_SHEET, new BindingRowHandler<>(clazz, consumer, recorder));
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
 
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.isAnnotationPresent(ExcelColumn.class)) {
-                    ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
-                    String[] columnNames = annotation.names();
-                    Integer cellIndex = null;
+    /**
+     * Returns an iterator over records of the specified type that are read and mapped concurrently.
+     * <p>
+     * The predefined sheet is parsed by a single reader thread, which only splits it into rows. The rows are
+     * bound to {@code clazz} by a pool of mapper threads, one per available processor, and handed to the
+     * iterator through bounded queues; see {@link PipelinedDataIterator} for the ordering guarantees.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the target class type to which each row of the Excel sheet will be mapped
+     * @param <T>      the generic type of the object to be created from the Excel rows
+     * @return an iterator over the mapped objects
+     */
+    public static <T> PipelinedDataIterator<T> pipelineDataFromExcel(String filePath, Class<T> clazz) {
+        return new PipelinedDataIterator<T>(clazz.getSimpleName(), (Consumer<? super UnboundRow<T>> rows) -> {
+            try {
+                StreamingSheetReader.read(filePath, EXCEL_SHEET, new StreamingSheetReader.RowHandler() {
+                    private RowBinder<T> binder;
 
-                    for (String possibleName : columnNames) {
-                        cellIndex = headerIndexMap.get(possibleName);
-                        if (cellIndex != null) break;
+                    @Override
+                    public boolean onRow(int rowNum, String[] cells) {
+                        if (binder == null) {
+                            binder = createBinder(cells, clazz);
+                        } else {
+                            rows.accept(new UnboundRow<>(binder, cells));
+                        }
+                        return true;
                     }
+                });
+            } catch (IOException e) {
+                System.err.println("Error reading Excel file: " + e.getMessage());
+                throw e;
+            }
+        }, (UnboundRow<T> row) -> row.bind());
+    }
+
+    /**
+     * Creates records of the specified type from all sheets of an Excel document.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the target class type to which each row of the sheets will be mapped
+     * @param <T>      the generic type of the object to be created from the Excel rows
+     * @return the records of each sheet, keyed by sheet name in workbook order
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     * @see #getDataFromExcelSheets(String, Class, Collection)
+     */
+    public static <T> Map<String, List<T>> getDataFromExcelSheets(String filePath, Class<T> clazz) throws IOException {
+        return getDataFromExcelSheets(filePath, clazz, null);
+    }
 
-                    if (cellIndex != null) {
-                        Cell cell = row.getCell(cellIndex);
-                        String cellValue = getCellStringValue(cell);
-                        cellValue = formatValue(cellValue);
+    /**
+     * Creates records of the specified type from several sheets of an Excel document in one pass.
+     * <p>
+     * The document is opened once and the sheets are parsed concurrently with
+     * {@link StreamingSheetReader#readSheets(String, Collection, StreamingSheetReader.SheetHandlerFactory)}.
+     * The first row of each sheet is its own header, so sheets may order their columns differently.
+     * Requested sheets that do not exist in the document are left out of the result.
+     *
+     * @param filePath   the path to the Excel document
+     * @param clazz      the target class type to which each row of the sheets will be mapped
+     * @param sheetNames the names of the sheets to read, or {@code null} to read all sheets
+     * @param <T>        the generic type of the object to be created from the Excel rows
+     * @return the records of each sheet, keyed by sheet name in workbook order
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     */
+    public static <T> Map<String, List<T>> getDataFromExcelSheets(String filePath, Class<T> clazz, Collection<String> sheetNames) throws IOException {
+        Map<String, List<T>> records = new LinkedHashMap<>();
+        try {
+            StreamingSheetReader.readSheets(filePath, sheetNames, sheetName -> {
+                List<T> sheetRecords = new ArrayList<>();
+                records.put(sheetName, sheetRecords);
+                return new BindingRowHandler<>(clazz, sheetRecords::add, DataLoadRecorder.disabled());
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+        return records;
+    }
 
-                        field.setAccessible(true);
-                        Object value = convertToFieldType(field.getType(), cellValue);
-                        field.set(instance, value);
-                    }
+    /**
+     * Returns an iterator over records of the specified type read lazily from an Excel document.
+     * <p>
+     * The predefined sheet is parsed by a background thread using {@link #streamDataFromExcel(String, Class, Consumer)},
+     * and the records become available to the iterator as soon as they are mapped. Read errors are rethrown
+     * from the iterator as unchecked exceptions.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the target class type to which each row of the Excel sheet will be mapped
+     * @param <T>      the generic type of the object to be created from the Excel rows
+     * @return an iterator over the mapped objects in sheet order
+     */
+    public static <T> StreamingDataIterator<T> iterateDataFromExcel(String filePath, Class<T> clazz) {
+        return new StreamingDataIterator<>(clazz.getSimpleName(),
+                consumer -> streamDataFromExcel(filePath, clazz, consumer));
+    }
+
+    /**
+     * Starts a query that reads only the selected fields of the rows matching its conditions.
+     *
+     * @param clazz the target class type to which the matching rows will be mapped
+     * @param <T>   the generic type of the object to be created from the rows
+     * @return a query returning all fields of all rows until it is narrowed down
+     * @see DataQuery
+     */
+    public static <T> DataQuery<T> query(Class<T> clazz) {
+        return DataQuery.of(clazz);
+    }
+
+    /**
+     * Starts the definition of a data set whose records can be looked up by the values of indexed fields.
+     *
+     * @param clazz the target class type to which the rows will be mapped
+     * @param <T>   the generic type of the object to be created from the rows
+     * @return a loader without indexes until they are declared
+     * @see IndexedDataSet
+     */
+    public static <T> IndexedDataSet.Loader<T> indexed(Class<T> clazz) {
+        return IndexedDataSet.of(clazz);
+    }
+
+    /**
+     * Reads the predefined sheet of an Excel document into a column-oriented table for aggregations.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the class whose {@link ExcelColumn} annotated fields define the columns
+     * @param <T>      the generic type of the records
+     * @return the loaded table
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     * @see ColumnarTable
+     */
+    public static <T> ColumnarTable<T> getColumnarTableFromExcel(String filePath, Class<T> clazz) throws IOException {
+        return ColumnarTable.fromExcel(filePath, clazz);
+    }
+
+    /**
+     * Streaming row handler that uses the first row of a sheet as its header and maps every following row
+     * with the {@link RowBinder} for that header.
+     *
+     * @param <T> the generic type of the object to be created from the Excel rows
+     */
+    private static final class BindingRowHandler<T> implements StreamingSheetReader.RowHandler {
+        private final Class<T> clazz;
+        private final Consumer<? super T> consumer;
+        private final DataLoadRecorder recorder;
+        private RowBinder<T> binder;
+
+        BindingRowHandler(Class<T> clazz, Consumer<? super T> consumer, DataLoadRecorder recorder) {
+            this.clazz = clazz;
+            this.consumer = consumer;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean onRow(int rowNum, String[] cells) {
+            if (binder == null) {
+                recorder.opened();
+                binder = createBinder(cells, clazz);
+                return true;
+            }
+
+            long mappingStart = recorder.now();
+            T record = bindCells(binder, cells);
+            recorder.mapped(mappingStart);
+            consumer.accept(record);
+            return true;
+        }
+    }
+
+    /**
+     * Streaming row handler that maps only the rows of one shard of a sheet.
+     *
+     * @param <T> the generic type of the object to be created from the Excel rows
+     */
+    private static final class ShardRowHandler<T> implements StreamingSheetReader.RowHandler {
+        private final Class<T> clazz;
+        private final Shard shard;
+        private final int lastRowNum;
+        private final Consumer<? super T> consumer;
+        private final DataLoadRecorder recorder;
+        private RowBinder<T> binder;
+        private long firstRowNum;
+        private long endRowNum;
+        private int keyColumn = -1;
+
+        ShardRowHandler(Class<T> clazz, Shard shard, int lastRowNum, Consumer<? super T> consumer, DataLoadRecorder recorder) {
+            this.clazz = clazz;
+            this.shard = shard;
+            this.lastRowNum = lastRowNum;
+            this.consumer = consumer;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean wantsRow(int rowNum) {
+            return binder == null || shard.isHashed() || rowNum >= firstRowNum;
+        }
+
+        @Override
+        public boolean onRow(int rowNum, String[] cells) {
+            if (binder == null) {
+                recorder.opened();
+                binder = createBinder(cells, clazz);
+                if (shard.isHashed()) {
+                    keyColumn = keyColumn(cells);
+                } else {
+                    long rowCount = Math.max(0, lastRowNum - rowNum);
+                    firstRowNum = rowNum + 1 + shard.rangeStart(rowCount);
+                    endRowNum = rowNum + 1 + shard.rangeEnd(rowCount);
                 }
+                return true;
+            }
+
+            if (!shard.isHashed() && rowNum >= endRowNum) {
+                return false;
             }
+            if (shard.isHashed()) {
+                if (!shard.containsKey(keyColumn < cells.length ? cells[keyColumn] : null)) {
+                    recorder.skipped();
+                    return true;
+                }
+            }
+
+            long mappingStart = recorder.now();
+            T record = bindCells(binder, cells);
+            recorder.mapped(mappingStart);
+            consumer.accept(record);
+            return true;
+        }
 
-            return instance;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to map row to " + clazz.getSimpleName(), e);
+        private int keyColumn(String[] header) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != null && header[i].trim().equals(shard.getKeyColumn())) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Key column " + shard.getKeyColumn() + " not found in "
+                    + Arrays.toString(header));
         }
     }
 
     /**
-     * Converts a string value to the specified field type.
-     * <p>
-     * This method supports common types including {@code String}, {@code int}/{@code Integer},
-     * {@code double}/{@code Double}, {@code boolean}/{@code Boolean}, and {@code long}/{@code Long}.
-     * If the type is not recognized, the original string value is returned.
+     * A streamed row waiting to be mapped by one of the mapper threads of a {@link PipelinedDataIterator}.
      *
-     * @param type  the target field type to convert the value to
-     * @param value the string representation of the value
-     * @return the converted value as an {@code Object} of the specified type
-     * @throws NumberFormatException if the value cannot be parsed into a numeric type
+     * @param <T> the generic type of the object to be created from the row
      */
-    private static Object convertToFieldType(Class<?> type, String value) {
-        if (type == String.class) return value;
-        if (type == int.class || type == Integer.class) return Integer.parseInt(value);
-        if (type == double.class || type == Double.class) return Double.parseDouble(value);
-        if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
-        if (type == long.class || type == Long.class) return Long.parseLong(value);
-        return value;
+    private static final class UnboundRow<T> {
+        private final RowBinder<T> binder;
+        private final String[] cells;
+
+        UnboundRow(RowBinder<T> binder, String[] cells) {
+            this.binder = binder;
+            this.cells = cells;
+        }
+
+        T bind() {
+            return bindCells(binder, cells);
+        }
     }
 
     /**
-     * Retrieves the string value of a cell, trimmed of leading and trailing whitespace.
-     * <p>
-     * If the cell is {@code null}, an empty string is returned.
+     * Creates the {@link RowBinder} for a header row read by {@link StreamingSheetReader}.
+     *
+     * @param cells the cell values of the header row
+     * @param clazz the class type to which the rows should be mapped
+     * @param <T>   the generic type of the object to be created
+     * @return the binder for the header layout
+     */
+    static <T> RowBinder<T> createBinder(String[] cells, Class<T> clazz) {
+        List<String> headers = new ArrayList<>(cells.length);
+        for (String cell : cells) {
+            headers.add(cell != null ? cell.trim() : "");
+        }
+        return RowBinder.forHeader(clazz, headers);
+    }
+
+    /**
+     * Maps the cell values of a row read by {@link StreamingSheetReader} with the given binder.
      *
-     * @param cell the Excel cell to extract the value from
-     * @return the trimmed string value of the cell, or an empty string if the cell is {@code null}
+     * @param binder the binder created for the header row of the sheet
+     * @param cells  the cell values of the row
+     * @param <T>    the generic type of the object to be created
+     * @return an instance of {@code T} populated with values from the row
      */
-    private static String getCellStringValue(Cell cell) {
-        return (cell != null) ? cell.toString().trim() : "";
+    static <T> T bindCells(RowBinder<T> binder, String[] cells) {
+        return binder.bind(new ExcelCells.TextSource(cells));
     }
 
     /**
-     * Formats a string value by removing a trailing decimal part if it's ".0".
+     * Creates the {@link RowBinder} for the header row of an Excel sheet.
      * <p>
-     * For example, a value like "123.0" will be converted to "123".
-     * If the value does not match this pattern, it is returned unchanged.
+     * The header row is the first row of the sheet. Its trimmed cell values are matched once against the
+     * {@link ExcelColumn} annotations of the target class, so the resulting binder can map every data row
+     * of the sheet without looking at the header again.
      *
-     * @param value the input string value to format
-     * @return the formatted string with ".0" removed if present; otherwise, the original value
+     * @param sheet the Excel sheet containing the data
+     * @param clazz the class type to which the rows should be mapped
+     * @param <T>   the generic type of the object to be created
+     * @return the binder for the header layout of the sheet
      */
-    private static String formatValue(String value) {
-        if (value.matches("\\d*\\.0")) {
-            int dotIndex = value.indexOf(".");
-            if (dotIndex != -1) {
-                value = value.substring(0, dotIndex);
+    private static <T> RowBinder<T> createBinder(XSSFSheet sheet, Class<T> clazz) {
+        Row headerRow = sheet.getRow(sheet.getFirstRowNum());
+
+        List<String> headers = new ArrayList<>();
+        if (headerRow != null) {
+            for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+                Cell cell = headerRow.getCell(i);
+                headers.add(cell != null ? cell.toString().trim() : "");
             }
         }
-        return value;
+
+        return RowBinder.forHeader(clazz, headers);
+    }
+
+    /**
+     * Maps a row from an Excel sheet to an instance of the binder's target class.
+     * <p>
+     * Only the columns resolved by the binder are read. Numeric and boolean cells are stored in primitive
+     * fields from their native value; text cells are formatted and parsed.
+     *
+     * @param binder the binder created for the header row of the sheet
+     * @param row    the cells of the row to map to an object
+     * @param <T>    the generic type of the object to be created
+     * @return an instance of {@code T} populated with values from the row
+     * @throws RuntimeException if any type conversion error occurs during mapping
+     */
+    private static <T> T mapRowToObject(RowBinder<T> binder, ExcelCells.RowSource row) {
+        return binder.bind(row);
     }
 }
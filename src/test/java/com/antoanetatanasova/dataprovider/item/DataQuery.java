@@ -0,0 +1,365 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvCells;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.csv.ParallelCsvReader;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Query over the rows of an Excel or CSV data set that only decodes the columns it needs.
+ * <p>
+ * A query selects a subset of the {@link ExcelColumn} annotated fields of a class and filters the rows with
+ * conditions on field values, for example:
+ * <pre>
+ * {@code
+ * Item[] items = CoreDataProvider.query(Item.class)
+ *         .select("name", "unitPrice")
+ *         .whereEquals("batch", "B-42")
+ *         .fromExcel(filePath, new Item[0]);
+ * }
+ * </pre>
+ * Conditions are evaluated on the raw cell values before any object is created, and rows that do not match
+ * are dropped by the parser. Cells of columns that are neither selected nor used by a condition are skipped
+ * without being decoded; fields that are not selected keep their default values.
+ * <p>
+ * Conditions receive the trimmed cell value, formatted in the same way as for binding. Cells that are empty
+ * or missing, and fields without a column in the header, are passed as an empty string. Several conditions
+ * must all match.
+ * <p>
+ * Queries are immutable; every builder method returns a new query, so a query can be shared between threads.
+ *
+ * @param <T> the type of the records
+ */
+public final class DataQuery<T> {
+    private static final String EXCEL_SHEET = "Sheet1";
+
+    private final Class<T> clazz;
+    private final List<String> fields;
+    private final List<Condition> conditions;
+
+    private DataQuery(Class<T> clazz, List<String> fields, List<Condition> conditions) {
+        this.clazz = clazz;
+        this.fields = fields;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Creates a query returning all fields of all rows.
+     *
+     * @param clazz the target class type to which the matching rows will be mapped
+     * @param <T>   the generic type of the records
+     * @return the query
+     */
+    public static <T> DataQuery<T> of(Class<T> clazz) {
+        return new DataQuery<>(clazz, null, Collections.emptyList());
+    }
+
+    /**
+     * Restricts the populated fields to the given ones; the other fields keep their default values.
+     *
+     * @param fieldNames the names of {@link ExcelColumn} annotated fields
+     * @return the new query
+     * @throws IllegalArgumentException if a name is not an annotated field of the target class
+     */
+    public DataQuery<T> select(String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            checkField(fieldName);
+        }
+        return new DataQuery<>(clazz, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(fieldNames))), conditions);
+    }
+
+    /**
+     * Adds a condition on the value of a field. The field does not need to be selected.
+     *
+     * @param fieldName the name of an {@link ExcelColumn} annotated field
+     * @param predicate tested against the trimmed, formatted cell value of the field
+     * @return the new query
+     * @throws IllegalArgumentException if the name is not an annotated field of the target class
+     */
+    public DataQuery<T> where(String fieldName, Predicate<? super String> predicate) {
+        checkField(fieldName);
+        List<Condition> extended = new ArrayList<>(conditions);
+        extended.add(new Condition(fieldName, predicate));
+        return new DataQuery<>(clazz, fields, Collections.unmodifiableList(extended));
+    }
+
+    /**
+     * Adds a condition requiring the value of a field to be equal to the given text.
+     *
+     * @param fieldName the name of an {@link ExcelColumn} annotated field
+     * @param value     the expected cell value
+     * @return the new query
+     * @throws IllegalArgumentException if the name is not an annotated field of the target class
+     */
+    public DataQuery<T> whereEquals(String fieldName, String value) {
+        return where(fieldName, value::equals);
+    }
+
+    /**
+     * Runs the query against the predefined sheet of an Excel document.
+     * <p>
+     * The sheet is always parsed with {@link StreamingSheetReader}, so only the matching rows are kept in memory.
+     *
+     * @param filePath      the path to the Excel document
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @return the matching records in sheet order
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     */
+    public T[] fromExcel(String filePath, T[] arrayTemplate) throws IOException {
+        List<T> records = new ArrayList<>();
+        DataLoadRecorder recorder = DataLoadMetrics.start("DataQuery.fromExcel", filePath, clazz);
+        streamExcel(filePath, records::add, recorder);
+        T[] result = records.toArray(arrayTemplate);
+        recorder.finish(result, -1);
+        return result;
+    }
+
+    /**
+     * Runs the query against the predefined sheet of an Excel document and passes every matching record to
+     * the consumer as soon as its row has been parsed.
+     *
+     * @param filePath the path to the Excel document
+     * @param consumer the consumer receiving the matching records in sheet order
+     * @throws IOException if an I/O error occurs when reading the Excel file
+     */
+    public void streamExcel(String filePath, Consumer<? super T> consumer) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("DataQuery.streamExcel", filePath, clazz);
+        streamExcel(filePath, consumer, recorder);
+        recorder.finish(null, -1);
+    }
+
+    private void streamExcel(String filePath, Consumer<? super T> consumer, DataLoadRecorder recorder) throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, EXCEL_SHEET, new QueryRowHandler(consumer, recorder));
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the query against a CSV file whose first record is the header, parsing it on the calling thread.
+     *
+     * @param filePath      the path to the CSV file
+     * @param format        the dialect of the file
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @return the matching records in file order
+     * @throws IOException if an I/O error occurs when reading the CSV file
+     */
+    public T[] fromCsv(String filePath, CsvFormat format, T[] arrayTemplate) throws IOException {
+        return fromCsv(filePath, format, arrayTemplate, CsvReadMode.SEQUENTIAL);
+    }
+
+    /**
+     * Runs the query against a CSV file whose first record is the header.
+     * <p>
+     * Only {@link CsvReadMode#SEQUENTIAL} and {@link CsvReadMode#PARALLEL} are supported: a snapshot holds
+     * decoded rows already, so there is no parsing work left to save.
+     *
+     * @param filePath      the path to the CSV file
+     * @param format        the dialect of the file
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @param mode          the strategy used to read the CSV file
+     * @return the matching records in file order
+     * @throws IOException              if an I/O error occurs when reading the CSV file
+     * @throws IllegalArgumentException if the mode is {@link CsvReadMode#SNAPSHOT}
+     */
+    public T[] fromCsv(String filePath, CsvFormat format, T[] arrayTemplate, CsvReadMode mode) throws IOException {
+        if (mode == CsvReadMode.SNAPSHOT) {
+            throw new IllegalArgumentException("Queries cannot read CSV snapshots");
+        }
+
+        DataLoadRecorder recorder = DataLoadMetrics.start("DataQuery.fromCsv[" + mode + "]", filePath, clazz);
+        List<T> records = new ArrayList<>();
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord header = parser.next();
+            if (header == null) {
+                T[] result = records.toArray(arrayTemplate);
+                recorder.finish(result, 0);
+                return result;
+            }
+            Plan<T> plan = plan(CoreDataProvider.createBinder(header.toArray(), clazz));
+
+            if (mode == CsvReadMode.PARALLEL) {
+                // the recorder is not thread-safe, so the workers only sum up their mapping time
+                LongAdder mappingTime = new LongAdder();
+                List<T> mapped = ParallelCsvReader.read(filePath, format, parser.getPosition(), record -> {
+                    CellSource cells = new CsvCells().reset(record);
+                    if (!plan.matches(cells)) {
+                        return null;
+                    }
+                    long mappingStart = recorder.now();
+                    T bound = plan.binder.bind(cells);
+                    mappingTime.add(recorder.now() - mappingStart);
+                    return bound;
+                });
+                for (T record : mapped) {
+                    if (record != null) {
+                        records.add(record);
+                    } else {
+                        recorder.skipped();
+                    }
+                }
+                recorder.mapped(records.size(), mappingTime.sum());
+                T[] result = records.toArray(arrayTemplate);
+                recorder.finish(result, -1);
+                return result;
+            }
+
+            CsvCells cells = new CsvCells();
+            CsvRecord record = parser.next();
+            while (record != null) {
+                cells.reset(record);
+                if (plan.matches(cells)) {
+                    long mappingStart = recorder.now();
+                    records.add(plan.binder.bind(cells));
+                    recorder.mapped(mappingStart);
+                } else {
+                    recorder.skipped();
+                }
+                record = parser.next();
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+
+        T[] result = records.toArray(arrayTemplate);
+        recorder.finish(result, -1);
+        return result;
+    }
+
+    private void checkField(String fieldName) {
+        try {
+            Field field = clazz.getDeclaredField(fieldName);
+            if (field.isAnnotationPresent(ExcelColumn.class)) {
+                return;
+            }
+        } catch (NoSuchFieldException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(clazz.getSimpleName() + " has no @ExcelColumn field named " + fieldName);
+    }
+
+    /**
+     * Resolves the query against the binder created for a header row.
+     */
+    private Plan<T> plan(RowBinder<T> binder) {
+        RowBinder<T> projected = fields != null ? binder.project(fields) : binder;
+        Condition[] resolved = conditions.toArray(new Condition[0]);
+        int[] conditionColumns = new int[resolved.length];
+        for (int i = 0; i < conditionColumns.length; i++) {
+            conditionColumns[i] = binder.columnOf(resolved[i].fieldName);
+        }
+
+        int[] bound = projected.getColumns();
+        int width = 0;
+        for (int column : bound) width = Math.max(width, column + 1);
+        for (int column : conditionColumns) width = Math.max(width, column + 1);
+        boolean[] wanted = new boolean[width];
+        for (int column : bound) wanted[column] = true;
+        for (int column : conditionColumns) if (column >= 0) wanted[column] = true;
+
+        return new Plan<>(projected, conditionColumns, resolved, wanted);
+    }
+
+    private static final class Condition {
+        private final String fieldName;
+        private final Predicate<? super String> predicate;
+
+        Condition(String fieldName, Predicate<? super String> predicate) {
+            this.fieldName = fieldName;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * A query resolved against a header layout: the projected binder, the columns tested by the conditions
+     * and the set of columns that have to be decoded.
+     *
+     * @param <T> the type of the records
+     */
+    private static final class Plan<T> {
+        private final RowBinder<T> binder;
+        private final int[] conditionColumns;
+        private final Condition[] conditions;
+        private final boolean[] wanted;
+
+        Plan(RowBinder<T> binder, int[] conditionColumns, Condition[] conditions, boolean[] wanted) {
+            this.binder = binder;
+            this.conditionColumns = conditionColumns;
+            this.conditions = conditions;
+            this.wanted = wanted;
+        }
+
+        boolean wantsColumn(int column) {
+            return column < wanted.length && wanted[column];
+        }
+
+        boolean matches(CellSource cells) {
+            for (int i = 0; i < conditions.length; i++) {
+                int column = conditionColumns[i];
+                if (!conditions[i].predicate.test(column >= 0 ? cells.getString(column) : "")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Streaming row handler that resolves the query against the first row of the sheet and only decodes the
+     * cells of the selected and tested columns of every following row.
+     */
+    private final class QueryRowHandler implements StreamingSheetReader.RowHandler {
+        private final Consumer<? super T> consumer;
+        private final DataLoadRecorder recorder;
+        private Plan<T> plan;
+
+        QueryRowHandler(Consumer<? super T> consumer, DataLoadRecorder recorder) {
+            this.consumer = consumer;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public boolean wantsColumn(int column) {
+            return plan == null || plan.wantsColumn(column);
+        }
+
+        @Override
+        public boolean onRow(int rowNum, String[] cells) {
+            if (plan == null) {
+                recorder.opened();
+                plan = plan(CoreDataProvider.createBinder(cells, clazz));
+                return true;
+            }
+
+            CellSource source = new ExcelCells.TextSource(cells);
+            if (!plan.matches(source)) {
+                recorder.skipped();
+                return true;
+            }
+
+            long mappingStart = recorder.now();
+            T record = plan.binder.bind(source);
+            recorder.mapped(mappingStart);
+            consumer.accept(record);
+            return true;
+        }
+    }
+}
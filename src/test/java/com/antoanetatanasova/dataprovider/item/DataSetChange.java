@@ -0,0 +1,100 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The rows added, removed and modified between two loads of an {@link IncrementalDataSet}.
+ * <p>
+ * A row counts as modified when the row number it was read from holds different content than in the previous
+ * load. Content that moved to another row number is not a change, and its record is reused as is.
+ *
+ * @param <T> the type of the records
+ */
+public final class DataSetChange<T> {
+    private final List<T> added;
+    private final List<T> removed;
+    private final List<Modification<T>> modified;
+
+    DataSetChange(List<T> added, List<T> removed, List<Modification<T>> modified) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.modified = Collections.unmodifiableList(modified);
+    }
+
+    /**
+     * Returns the records of rows whose content is new and whose row number did not exist before.
+     *
+     * @return the added records, in data set order
+     */
+    public List<T> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the records of the previous load whose content and row number no longer exist.
+     *
+     * @return the removed records, in previous data set order
+     */
+    public List<T> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the rows whose content changed.
+     *
+     * @return the modifications, in data set order
+     */
+    public List<Modification<T>> getModified() {
+        return modified;
+    }
+
+    /**
+     * Checks whether the data set is unchanged.
+     *
+     * @return {@code true} if no row was added, removed or modified
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "DataSetChange{added=" + added.size() + ", removed=" + removed.size() + ", modified=" + modified.size() + '}';
+    }
+
+    /**
+     * A row whose content changed, with its record before and after the change.
+     *
+     * @param <T> the type of the records
+     */
+    public static final class Modification<T> {
+        private final int rowNum;
+        private final T previous;
+        private final T current;
+
+        Modification(int rowNum, T previous, T current) {
+            this.rowNum = rowNum;
+            this.previous = previous;
+            this.current = current;
+        }
+
+        /**
+         * Returns the row number of the modified row: the zero-based sheet row for Excel documents, the
+         * zero-based record number, header included, for CSV files.
+         *
+         * @return the row number
+         */
+        public int getRowNum() {
+            return rowNum;
+        }
+
+        public T getPrevious() {
+            return previous;
+        }
+
+        public T getCurrent() {
+            return current;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Typed access to the values of POI cells.
+ * <p>
+ * The formatted values are the same as {@code formatValue(cell.toString().trim())}, but numeric and boolean
+ * cells are formatted directly from their native value instead of going through {@code toString()}, a regular
+ * expression and {@code substring}. The typed getters of {@link RowSource} read numbers and booleans without
+ * creating any string at all, and fall back to parsing the formatted value for text cells.
+ */
+public final class ExcelCells {
+    private static final double MAX_PLAIN_NUMBER = 1e7; // Double.toString switches to scientific notation here
+
+    private ExcelCells() {
+    }
+
+    /**
+     * Returns the formatted, trimmed value of a cell.
+     *
+     * @param cell the cell, may be {@code null}
+     * @return the formatted value, or an empty string if the cell is {@code null}
+     */
+    public static String getFormattedValue(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        CellType type = cell.getCellType();
+        if (type == CellType.NUMERIC && !DateUtil.isCellDateFormatted(cell)) {
+            return formatNumber(cell.getNumericCellValue());
+        }
+        if (type == CellType.BOOLEAN) {
+            return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+        }
+        return formatValue(cell.toString().trim());
+    }
+
+    /**
+     * Formats a string value by removing a trailing decimal part if it's ".0".
+     * <p>
+     * For example, a value like "123.0" will be converted to "123".
+     * If the value does not match this pattern, it is returned unchanged.
+     *
+     * @param value the input string value to format
+     * @return the formatted string with ".0" removed if present; otherwise, the original value
+     */
+    public static String formatValue(String value) {
+        int length = value.length();
+        if (length < 2 || value.charAt(length - 1) != '0' || value.charAt(length - 2) != '.') {
+            return value;
+        }
+        for (int i = 0; i < length - 2; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return value;
+            }
+        }
+        return value.substring(0, length - 2);
+    }
+
+    /**
+     * Returns the same text as {@code formatValue(Double.toString(value))}.
+     */
+    private static String formatNumber(double value) {
+        if (Double.compare(value, 0.0) >= 0 && value < MAX_PLAIN_NUMBER && value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Checks whether a cell holds a number, directly or as the cached result of a formula.
+     */
+    private static boolean isNumeric(Cell cell) {
+        if (cell == null) {
+            return false;
+        }
+        CellType type = cell.getCellType();
+        return type == CellType.NUMERIC
+                || type == CellType.FORMULA && cell.getCachedFormulaResultType() == CellType.NUMERIC;
+    }
+
+    private static boolean isBoolean(Cell cell) {
+        if (cell == null) {
+            return false;
+        }
+        CellType type = cell.getCellType();
+        return type == CellType.BOOLEAN
+                || type == CellType.FORMULA && cell.getCachedFormulaResultType() == CellType.BOOLEAN;
+    }
+
+    /**
+     * Parses an {@code int} from the text of a cell, accepting whole numbers in the {@code Cell.toString()}
+     * form of numeric cells, such as {@code "-3.0"} or {@code "1.0E7"}.
+     *
+     * @throws NumberFormatException if the text is not a whole number in the range of {@code int}
+     */
+    static int parseWholeInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            double number = parseNumber(value, e);
+            int intValue = (int) number;
+            if (intValue != number) {
+                throw e;
+            }
+            return intValue;
+        }
+    }
+
+    /**
+     * Parses a {@code long} like {@link #parseWholeInt(String)}.
+     *
+     * @throws NumberFormatException if the text is not a whole number in the range of {@code long}
+     */
+    static long parseWholeLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            double number = parseNumber(value, e);
+            long longValue = (long) number;
+            if (longValue != number || longValue == Long.MAX_VALUE) {
+                throw e;
+            }
+            return longValue;
+        }
+    }
+
+    private static double parseNumber(String value, NumberFormatException failure) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw failure;
+        }
+    }
+
+    /**
+     * {@link CellSource} over the cells of a POI row. A single instance can be reused for all rows of a sheet
+     * by calling {@link #reset(Row)} before each row.
+     */
+    public static final class RowSource implements CellSource {
+        private Row row;
+
+        /**
+         * Points this source to another row.
+         *
+         * @param row the row to read
+         * @return this source
+         */
+        public RowSource reset(Row row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public String getString(int column) {
+            return getFormattedValue(row.getCell(column));
+        }
+
+        @Override
+        public int getInt(int column) {
+            Cell cell = row.getCell(column);
+            if (isNumeric(cell)) {
+                double value = cell.getNumericCellValue();
+                int intValue = (int) value;
+                if (intValue == value) {
+                    return intValue;
+                }
+            }
+            return Integer.parseInt(getFormattedValue(cell));
+        }
+
+        @Override
+        public long getLong(int column) {
+            Cell cell = row.getCell(column);
+            if (isNumeric(cell)) {
+                double value = cell.getNumericCellValue();
+                long longValue = (long) value;
+                if (longValue == value && longValue != Long.MAX_VALUE) {
+                    return longValue;
+                }
+            }
+            return Long.parseLong(getFormattedValue(cell));
+        }
+
+        @Override
+        public double getDouble(int column) {
+            Cell cell = row.getCell(column);
+            return isNumeric(cell) ? cell.getNumericCellValue() : Double.parseDouble(getFormattedValue(cell));
+        }
+
+        @Override
+        public boolean getBoolean(int column) {
+            Cell cell = row.getCell(column);
+            return isBoolean(cell) ? cell.getBooleanCellValue() : Boolean.parseBoolean(getFormattedValue(cell));
+        }
+    }
+
+    /**
+     * {@link CellSource} over the cell values of a row read by {@link StreamingSheetReader}. The reader reports
+     * numbers in their {@code Cell.toString()} form, so the integer getters also accept whole numbers such as
+     * {@code "-3.0"}, as {@link RowSource} does for numeric cells.
+     */
+    static final class TextSource implements CellSource {
+        private final String[] cells;
+
+        TextSource(String[] cells) {
+            this.cells = cells;
+        }
+
+        @Override
+        public String getString(int column) {
+            String value = column < cells.length && cells[column] != null ? cells[column].trim() : "";
+            return formatValue(value);
+        }
+
+        @Override
+        public int getInt(int column) {
+            return parseWholeInt(getString(column));
+        }
+
+        @Override
+        public long getLong(int column) {
+            return parseWholeLong(getString(column));
+        }
+    }
+}
@@ -27,4 +27,30 @@ public @interface ExcelColumn {
      * One or more possible header names that map to this field.
      */
     String[] names();
+
+    /**
+     * Whether repeated values of a {@code String} field share one instance, see {@link StringDictionary}.
+     * Ignored for fields of other types.
+     */
+    Dedup dedup() default Dedup.AUTO;
+
+    /**
+     * Deduplication mode of a {@code String} field.
+     */
+    enum Dedup {
+        /**
+         * Share repeated values while the column turns out to have few distinct values.
+         */
+        AUTO,
+
+        /**
+         * Always share repeated values, for columns known to have few distinct values.
+         */
+        ALWAYS,
+
+        /**
+         * Never share values, for columns known to be unique, such as names or identifiers.
+         */
+        NEVER
+    }
 }
@@ -0,0 +1,28 @@
+package com.antoanetatanasova.dataprovider.item;
+
+/**
+ * Strategy used to read an Excel (.xlsx) document.
+ */
+public enum ExcelReadMode {
+    /**
+     * Loads the whole document into an {@code XSSFWorkbook} before reading any row.
+     * Convenient for small files, but memory usage grows with the size of the document.
+     */
+    WORKBOOK,
+
+    /**
+     * Parses the sheet XML with SAX and processes the rows one by one as they are read.
+     * Memory usage stays flat regardless of the number of rows.
+     *
+     * @see StreamingSheetReader
+     */
+    STREAMING,
+
+    /**
+     * Loads the data from a binary columnar snapshot stored next to the document, compiling the snapshot
+     * with a streaming read first if it is missing or outdated.
+     *
+     * @see com.antoanetatanasova.dataprovider.snapshot.ColumnarSnapshot
+     */
+    SNAPSHOT
+}
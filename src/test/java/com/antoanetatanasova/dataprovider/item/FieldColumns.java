@@ -0,0 +1,210 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvCells;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The {@link ExcelColumn} annotated fields of a record class and the columns of a file they are read from, for
+ * the data sets that store a file field by field, {@link OffHeapDataSet} and {@link ColumnarTable}.
+ * <p>
+ * Fields are numbered in declaration order. Reading a file resolves the column of every field from its header
+ * and passes each data row to the store, which copies the value of field {@code i} from the column of field
+ * {@code i}. Records are created later by {@link #getBinder()}, which reads field {@code i} of a stored row as
+ * column {@code i}; fields without a column keep their default values.
+ *
+ * @param <T> the type of the records
+ */
+final class FieldColumns<T> {
+    static final byte STRING = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+
+    private final Class<T> clazz;
+    private final String[] names;
+    private final String[] firstNames;
+    private final byte[] types;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    private int[] columns;
+    private RowBinder<T> binder;
+
+    FieldColumns(Class<T> clazz) {
+        this.clazz = clazz;
+        List<Field> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(ExcelColumn.class)) {
+                fields.add(field);
+            }
+        }
+
+        names = new String[fields.size()];
+        firstNames = new String[fields.size()];
+        types = new byte[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            names[i] = fields.get(i).getName();
+            firstNames[i] = fields.get(i).getAnnotation(ExcelColumn.class).names()[0];
+            types[i] = typeOf(fields.get(i).getType());
+            indexes.put(names[i], i);
+        }
+    }
+
+    Class<T> getRecordClass() {
+        return clazz;
+    }
+
+    /**
+     * Returns the field names, indexed by field. The array is shared and must not be modified.
+     */
+    String[] getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the storage type of every field: {@link #INT}, {@link #LONG}, {@link #DOUBLE} and {@link #BOOLEAN}
+     * for fields of these primitive types and {@link #STRING} for all others, which are stored as text. The
+     * array is shared and must not be modified.
+     */
+    byte[] getTypes() {
+        return types;
+    }
+
+    /**
+     * Returns the index of a field.
+     *
+     * @throws IllegalArgumentException if the record class has no such field
+     */
+    int indexOf(String fieldName) {
+        Integer index = indexes.get(fieldName);
+        if (index == null) {
+            throw new IllegalArgumentException("No @ExcelColumn field '" + fieldName + "' in " + clazz.getSimpleName());
+        }
+        return index;
+    }
+
+    /**
+     * Returns the column of every field in the file that was read, {@code -1} for fields without a column.
+     * The array is shared and must not be modified.
+     */
+    int[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the binder creating records from stored rows, or {@code null} if no header was read.
+     */
+    RowBinder<T> getBinder() {
+        return binder;
+    }
+
+    /**
+     * Reads the header of a sheet and passes every data row to the given consumer.
+     *
+     * @param rows receives a cell source over each data row, valid only during the call
+     */
+    void readExcel(String filePath, String sheetName, DataLoadRecorder recorder, Consumer<CellSource> rows)
+            throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, sheetName, (rowNum, cells) -> {
+                if (columns == null) {
+                    recorder.opened();
+                    bindHeader(CoreDataProvider.createBinder(cells, clazz));
+                    return true;
+                }
+                long mappingStart = recorder.now();
+                rows.accept(new ExcelCells.TextSource(cells));
+                recorder.mapped(mappingStart);
+                return true;
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the header record of a CSV file and passes every data record to the given consumer.
+     *
+     * @param rows receives a cell source over each data record, valid only during the call
+     */
+    void readCsv(String filePath, CsvFormat format, DataLoadRecorder recorder, Consumer<CellSource> rows)
+            throws IOException {
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord record = parser.next();
+            if (record != null) {
+                List<String> headers = new ArrayList<>(record.size());
+                for (int i = 0; i < record.size(); i++) {
+                    headers.add(record.getTrimmedString(i));
+                }
+                bindHeader(RowBinder.forHeader(clazz, headers));
+
+                CsvCells cells = new CsvCells();
+                while ((record = parser.next()) != null) {
+                    long mappingStart = recorder.now();
+                    rows.accept(cells.reset(record));
+                    recorder.mapped(mappingStart);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Resolves the column of every field from the binder created for the header row, and creates the binder
+     * of the stored rows, which only populates the fields that have a column.
+     */
+    private void bindHeader(RowBinder<T> headerBinder) {
+        columns = new int[names.length];
+        List<String> fieldHeaders = new ArrayList<>(names.length);
+        List<String> present = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = headerBinder.columnOf(names[i]);
+            fieldHeaders.add(firstNames[i]);
+            if (columns[i] >= 0) {
+                present.add(names[i]);
+            }
+        }
+        binder = RowBinder.forHeader(clazz, fieldHeaders).project(present);
+    }
+
+    private static byte typeOf(Class<?> type) {
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == double.class) return DOUBLE;
+        if (type == boolean.class) return BOOLEAN;
+        return STRING;
+    }
+
+    /**
+     * Cell source over the stored values of one row, indexed by field. Fields stored as text may hold numbers
+     * in the {@code Cell.toString()} form of numeric Excel cells, so the integer getters also accept whole
+     * numbers such as {@code "-3.0"}.
+     */
+    @FunctionalInterface
+    interface StoredRow extends CellSource {
+        @Override
+        default int getInt(int field) {
+            return ExcelCells.parseWholeInt(getString(field));
+        }
+
+        @Override
+        default long getLong(int field) {
+            return ExcelCells.parseWholeLong(getString(field));
+        }
+    }
+}
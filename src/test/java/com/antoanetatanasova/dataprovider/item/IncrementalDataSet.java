@@ -0,0 +1,374 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvCells;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Data set of a fixture file that is reloaded incrementally when the file changes, for example by a local test
+ * watcher reloading its fixtures on every save.
+ * <p>
+ * Every load keeps a 64-bit content hash of each row next to its record. A reload still parses the whole file,
+ * but a row whose hash matches a row of the previous load reuses that row's record instead of being mapped
+ * again, so editing a few rows of a large file only maps those rows. Rows are matched by content, so rows
+ * that merely moved, for example after an insertion, keep their records. When the header row changes, all
+ * rows are mapped again.
+ * <p>
+ * After each reload the registered {@link ChangeListener}s are told which rows were added, removed or
+ * modified, see {@link DataSetChange}. Records are reused between loads and must not be modified.
+ * <p>
+ * The data set is safe to use from several threads; loads are serialized.
+ *
+ * @param <T> the type of the records
+ */
+public final class IncrementalDataSet<T> {
+    private static final String EXCEL_SHEET = "Sheet1";
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Receives the changes found by each reload of a data set.
+     *
+     * @param <T> the type of the records
+     */
+    public interface ChangeListener<T> {
+        /**
+         * Called after a reload that found at least one change, on the thread that reloaded the data set.
+         *
+         * @param filePath the path to the reloaded file
+         * @param change   the added, removed and modified rows
+         */
+        void onChange(String filePath, DataSetChange<T> change);
+    }
+
+    private interface RowReader<T> {
+        void read(IncrementalDataSet<T>.Load load, DataLoadRecorder recorder) throws IOException;
+    }
+
+    private final String filePath;
+    private final Class<T> clazz;
+    private final RowReader<T> reader;
+    private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private State<T> state;
+
+    private IncrementalDataSet(String filePath, Class<T> clazz, RowReader<T> reader) {
+        this.filePath = filePath;
+        this.clazz = clazz;
+        this.reader = reader;
+    }
+
+    /**
+     * Creates an incremental data set over the predefined sheet of an Excel document. The file is read when
+     * the records are first requested.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the target class type to which each row will be mapped
+     * @param <T>      the generic type of the records
+     * @return the data set
+     */
+    public static <T> IncrementalDataSet<T> ofExcel(String filePath, Class<T> clazz) {
+        return new IncrementalDataSet<>(filePath, clazz, (load, recorder) -> readExcel(filePath, clazz, load, recorder));
+    }
+
+    /**
+     * Creates an incremental data set over a CSV file whose first record is the header. The file is read when
+     * the records are first requested.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param clazz    the target class type to which each record will be mapped
+     * @param <T>      the generic type of the records
+     * @return the data set
+     */
+    public static <T> IncrementalDataSet<T> ofCsv(String filePath, CsvFormat format, Class<T> clazz) {
+        return new IncrementalDataSet<>(filePath, clazz, (load, recorder) -> readCsv(filePath, format, clazz, load, recorder));
+    }
+
+    public void addListener(ChangeListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current records, loading the file first if it has not been loaded yet or has changed since
+     * the last load.
+     *
+     * @return the records in file order, as an unmodifiable list
+     * @throws IOException if an error occurs while reading the file
+     */
+    public synchronized List<T> get() throws IOException {
+        File file = new File(filePath);
+        if (state == null || state.size != file.length() || state.modified != file.lastModified()) {
+            reload();
+        }
+        return state.records;
+    }
+
+    /**
+     * Reads the file again, mapping only the rows whose content is not in the previous load, and notifies the
+     * listeners if anything changed. The first load reports all rows as added and notifies no one.
+     *
+     * @return the changes since the previous load
+     * @throws IOException if an error occurs while reading the file
+     */
+    public synchronized DataSetChange<T> reload() throws IOException {
+        File file = new File(filePath);
+        long size = file.length();
+        long modified = file.lastModified();
+
+        DataLoadRecorder recorder = DataLoadMetrics.start("IncrementalDataSet.reload", filePath, clazz);
+        Load load = new Load(state);
+        reader.read(load, recorder);
+        State<T> previous = state;
+        state = load.toState(size, modified);
+        DataSetChange<T> change = load.change();
+        recorder.finish(state.records, state.records.size());
+
+        if (previous != null && !change.isEmpty()) {
+            for (ChangeListener<T> listener : listeners) {
+                listener.onChange(filePath, change);
+            }
+        }
+        return change;
+    }
+
+    private static <T> void readExcel(String filePath, Class<T> clazz, IncrementalDataSet<T>.Load load,
+                                      DataLoadRecorder recorder) throws IOException {
+        try {
+            StreamingSheetReader.read(filePath, EXCEL_SHEET, new StreamingSheetReader.RowHandler() {
+                private RowBinder<T> binder;
+
+                @Override
+                public boolean onRow(int rowNum, String[] cells) {
+                    long hash = hash(cells);
+                    if (binder == null) {
+                        recorder.opened();
+                        binder = CoreDataProvider.createBinder(cells, clazz);
+                        load.header(hash);
+                        return true;
+                    }
+
+                    T record = load.reuse(hash);
+                    if (record != null) {
+                        load.add(rowNum, hash, record, true);
+                        return true;
+                    }
+                    long mappingStart = recorder.now();
+                    record = CoreDataProvider.bindCells(binder, cells);
+                    recorder.mapped(mappingStart);
+                    load.add(rowNum, hash, record, false);
+                    return true;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static <T> void readCsv(String filePath, CsvFormat format, Class<T> clazz, IncrementalDataSet<T>.Load load,
+                                    DataLoadRecorder recorder) throws IOException {
+        try (CsvParser parser = CsvParser.open(filePath, format)) {
+            recorder.opened();
+            CsvRecord record = parser.next();
+            if (record == null) {
+                return;
+            }
+            List<String> headers = new ArrayList<>(record.size());
+            for (int i = 0; i < record.size(); i++) {
+                headers.add(record.getTrimmedString(i));
+            }
+            RowBinder<T> binder = RowBinder.forHeader(clazz, headers);
+            load.header(record.contentHash());
+
+            CsvCells cells = new CsvCells();
+            int rowNum = 1;
+            for (record = parser.next(); record != null; record = parser.next(), rowNum++) {
+                long hash = record.contentHash();
+                T value = load.reuse(hash);
+                if (value != null) {
+                    load.add(rowNum, hash, value, true);
+                    continue;
+                }
+                long mappingStart = recorder.now();
+                value = binder.bind(cells.reset(record));
+                recorder.mapped(mappingStart);
+                load.add(rowNum, hash, value, false);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the cell values of a row, including the position of empty cells.
+     */
+    private static long hash(String[] cells) {
+        long hash = FNV_OFFSET;
+        for (String cell : cells) {
+            if (cell != null) {
+                for (int i = 0; i < cell.length(); i++) {
+                    hash ^= cell.charAt(i);
+                    hash *= FNV_PRIME;
+                }
+            }
+            hash ^= 0x10000; // cell separator, outside the char range
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Records, row hashes and row numbers of one load, together with the size and last-modified time of the
+     * file it was read from.
+     */
+    private static final class State<T> {
+        final long size;
+        final long modified;
+        final long headerHash;
+        final List<T> records;
+        final long[] hashes;
+        final int[] rowNums;
+
+        State(long size, long modified, long headerHash, List<T> records, long[] hashes, int[] rowNums) {
+            this.size = size;
+            this.modified = modified;
+            this.headerHash = headerHash;
+            this.records = records;
+            this.hashes = hashes;
+            this.rowNums = rowNums;
+        }
+    }
+
+    /**
+     * A load in progress: collects the rows of the new load and matches their hashes against the previous one.
+     */
+    final class Load {
+        private final State<T> previous;
+        private final List<T> records = new ArrayList<>();
+        private long[] hashes = new long[1024];
+        private int[] rowNums = new int[1024];
+        private final List<Integer> mapped = new ArrayList<>();
+        private long headerHash;
+
+        // previous rows by hash; rows with equal hashes are chained through next, in row order
+        private Map<Long, Integer> firstByHash;
+        private int[] next;
+        private boolean[] reused;
+
+        Load(State<T> previous) {
+            this.previous = previous;
+        }
+
+        void header(long hash) {
+            headerHash = hash;
+            if (previous == null || previous.headerHash != hash) {
+                return;
+            }
+            int count = previous.records.size();
+            firstByHash = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            next = new int[count];
+            reused = new boolean[count];
+            for (int i = count - 1; i >= 0; i--) {
+                Integer first = firstByHash.put(previous.hashes[i], i);
+                next[i] = first != null ? first : -1;
+            }
+        }
+
+        /**
+         * Returns the record of the first unused previous row with the given hash, or {@code null}.
+         */
+        T reuse(long hash) {
+            if (firstByHash == null) {
+                return null;
+            }
+            Integer position = firstByHash.get(hash);
+            if (position == null) {
+                return null;
+            }
+            if (next[position] >= 0) {
+                firstByHash.put(hash, next[position]);
+            } else {
+                firstByHash.remove(hash);
+            }
+            reused[position] = true;
+            return previous.records.get(position);
+        }
+
+        void add(int rowNum, long hash, T record, boolean wasReused) {
+            int index = records.size();
+            if (index == hashes.length) {
+                hashes = Arrays.copyOf(hashes, index * 2);
+                rowNums = Arrays.copyOf(rowNums, index * 2);
+            }
+            records.add(record);
+            hashes[index] = hash;
+            rowNums[index] = rowNum;
+            if (!wasReused) {
+                mapped.add(index);
+            }
+        }
+
+        State<T> toState(long size, long modified) {
+            int count = records.size();
+            return new State<>(size, modified, headerHash, Collections.unmodifiableList(records),
+                    Arrays.copyOf(hashes, count), Arrays.copyOf(rowNums, count));
+        }
+
+        /**
+         * Pairs the rows mapped by this load with the unused rows of the previous load that had the same row
+         * number; unpaired rows are added or removed.
+         */
+        DataSetChange<T> change() {
+            List<T> added = new ArrayList<>();
+            List<T> removed = new ArrayList<>();
+            List<DataSetChange.Modification<T>> modified = new ArrayList<>();
+
+            Map<Integer, Integer> unusedByRowNum = new HashMap<>();
+            if (previous != null) {
+                for (int i = 0; i < previous.records.size(); i++) {
+                    if (reused == null || !reused[i]) {
+                        unusedByRowNum.put(previous.rowNums[i], i);
+                    }
+                }
+            }
+
+            for (int index : mapped) {
+                Integer old = unusedByRowNum.remove(rowNums[index]);
+                if (old != null) {
+                    modified.add(new DataSetChange.Modification<>(rowNums[index], previous.records.get(old), records.get(index)));
+                } else {
+                    added.add(records.get(index));
+                }
+            }
+
+            if (!unusedByRowNum.isEmpty()) {
+                for (int i = 0; i < previous.records.size(); i++) {
+                    Integer old = unusedByRowNum.get(previous.rowNums[i]);
+                    if (old != null && old == i) {
+                        removed.add(previous.records.get(i));
+                    }
+                }
+            }
+            return new DataSetChange<>(added, removed, modified);
+        }
+    }
+}
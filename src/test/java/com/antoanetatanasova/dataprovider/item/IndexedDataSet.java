@@ -0,0 +1,361 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvCells;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvParser;
+import com.antoanetatanasova.dataprovider.csv.CsvRecord;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Loaded data set with hash indexes on {@link ExcelColumn} annotated fields, for tests that look records up
+ * by a key instead of scanning the whole data set:
+ * <pre>
+ * {@code
+ * IndexedDataSet<Customer> customers = CoreDataProvider.indexed(Customer.class)
+ *         .uniqueIndex("name")
+ *         .index("city")
+ *         .fromExcel(filePath);
+ * Customer maria = customers.getUnique("name", "Maria Georgieva");
+ * List<Customer> inSofia = customers.getAll("city", "Sofia");
+ * }
+ * </pre>
+ * The indexes are declared before the file is read and filled while it is parsed, as each record is mapped,
+ * so loading needs no second pass over the records. Keys are the field values of the mapped records, with
+ * primitive values boxed: look up an {@code int} field with an {@code Integer}. Records whose key is
+ * {@code null} are not indexed.
+ * <p>
+ * A loaded data set is immutable, so it can be shared by tests running in parallel. Its records must not be
+ * modified, since that would make them disagree with the indexes.
+ *
+ * @param <T> the type of the records
+ */
+public final class IndexedDataSet<T> {
+    private static final String EXCEL_SHEET = "Sheet1";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<T> clazz;
+    private final List<T> records;
+    private final Map<String, Map<Object, T>> uniqueIndexes;
+    private final Map<String, Map<Object, List<T>>> indexes;
+
+    private IndexedDataSet(Class<T> clazz, List<T> records, Map<String, Map<Object, T>> uniqueIndexes,
+                           Map<String, Map<Object, List<T>>> indexes) {
+        this.clazz = clazz;
+        this.records = records;
+        this.uniqueIndexes = uniqueIndexes;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Creates a loader of records of the given class without indexes.
+     *
+     * @param clazz the target class type to which the rows will be mapped
+     * @param <T>   the generic type of the records
+     * @return the loader
+     */
+    public static <T> Loader<T> of(Class<T> clazz) {
+        return new Loader<>(clazz, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Returns all records.
+     *
+     * @return the records in file order, as an unmodifiable list
+     */
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Copies the records into an array, as returned by the data providers.
+     *
+     * @param arrayTemplate an array of the target type used as a template for the result conversion
+     * @return the records in file order
+     */
+    public T[] toArray(T[] arrayTemplate) {
+        return records.toArray(arrayTemplate);
+    }
+
+    /**
+     * Looks a record up in a unique index.
+     *
+     * @param fieldName the name of a field with a unique index
+     * @param key       the field value
+     * @return the record with the given value, or {@code null} if there is none
+     * @throws IllegalArgumentException if the field has no unique index
+     */
+    public T getUnique(String fieldName, Object key) {
+        Map<Object, T> index = uniqueIndexes.get(fieldName);
+        if (index == null) {
+            throw new IllegalArgumentException("No unique index on " + clazz.getSimpleName() + "." + fieldName);
+        }
+        return index.get(key);
+    }
+
+    /**
+     * Looks all records with a field value up in an index of either kind.
+     *
+     * @param fieldName the name of an indexed field
+     * @param key       the field value
+     * @return the records with the given value in file order, as an unmodifiable list; empty if there are none
+     * @throws IllegalArgumentException if the field has no index
+     */
+    public List<T> getAll(String fieldName, Object key) {
+        Map<Object, List<T>> index = indexes.get(fieldName);
+        if (index != null) {
+            List<T> matches = index.get(key);
+            return matches != null ? matches : Collections.emptyList();
+        }
+        T match = getUnique(fieldName, key);
+        return match != null ? Collections.singletonList(match) : Collections.emptyList();
+    }
+
+    /**
+     * Checks whether any record has the given value of an indexed field.
+     *
+     * @param fieldName the name of an indexed field
+     * @param key       the field value
+     * @return {@code true} if at least one record has the value
+     * @throws IllegalArgumentException if the field has no index
+     */
+    public boolean containsKey(String fieldName, Object key) {
+        return !getAll(fieldName, key).isEmpty();
+    }
+
+    /**
+     * Returns the distinct values of an indexed field.
+     *
+     * @param fieldName the name of an indexed field
+     * @return the values, as an unmodifiable set
+     * @throws IllegalArgumentException if the field has no index
+     */
+    public Set<Object> keys(String fieldName) {
+        Map<Object, List<T>> index = indexes.get(fieldName);
+        if (index != null) {
+            return index.keySet();
+        }
+        Map<Object, T> unique = uniqueIndexes.get(fieldName);
+        if (unique == null) {
+            throw new IllegalArgumentException("No index on " + clazz.getSimpleName() + "." + fieldName);
+        }
+        return unique.keySet();
+    }
+
+    /**
+     * Declares the indexes of a data set and loads it. Loaders are immutable; every method declaring an
+     * index returns a new loader, so a loader can be shared and reused.
+     *
+     * @param <T> the type of the records
+     */
+    public static final class Loader<T> {
+        private final Class<T> clazz;
+        private final List<String> uniqueFields;
+        private final List<String> fields;
+
+        private Loader(Class<T> clazz, List<String> uniqueFields, List<String> fields) {
+            this.clazz = clazz;
+            this.uniqueFields = uniqueFields;
+            this.fields = fields;
+        }
+
+        /**
+         * Adds a unique index: every value of the field may occur in at most one record.
+         *
+         * @param fieldName the name of an {@link ExcelColumn} annotated field
+         * @return the new loader
+         * @throws IllegalArgumentException if the name is not an annotated field of the target class
+         */
+        public Loader<T> uniqueIndex(String fieldName) {
+            checkField(fieldName);
+            return new Loader<>(clazz, append(uniqueFields, fieldName), fields);
+        }
+
+        /**
+         * Adds a non-unique index, mapping every value of the field to the records that have it.
+         *
+         * @param fieldName the name of an {@link ExcelColumn} annotated field
+         * @return the new loader
+         * @throws IllegalArgumentException if the name is not an annotated field of the target class
+         */
+        public Loader<T> index(String fieldName) {
+            checkField(fieldName);
+            return new Loader<>(clazz, uniqueFields, append(fields, fieldName));
+        }
+
+        /**
+         * Reads the predefined sheet of an Excel document, indexing every record as it is mapped.
+         *
+         * @param filePath the path to the Excel document
+         * @return the loaded data set
+         * @throws IOException           if an I/O error occurs when reading the Excel file
+         * @throws IllegalStateException if a value of a unique index occurs in more than one row
+         */
+        public IndexedDataSet<T> fromExcel(String filePath) throws IOException {
+            DataLoadRecorder recorder = DataLoadMetrics.start("IndexedDataSet.fromExcel", filePath, clazz);
+            Builder<T> builder = new Builder<>(this);
+            CoreDataProvider.streamDataFromExcel(filePath, clazz, builder, recorder);
+            IndexedDataSet<T> dataSet = builder.build();
+            recorder.finish(dataSet.records, dataSet.size());
+            return dataSet;
+        }
+
+        /**
+         * Reads a CSV file whose first record is the header, indexing every record as it is mapped.
+         *
+         * @param filePath the path to the CSV file
+         * @param format   the dialect of the file
+         * @return the loaded data set
+         * @throws IOException           if an I/O error occurs when reading the CSV file
+         * @throws IllegalStateException if a value of a unique index occurs in more than one record
+         */
+        public IndexedDataSet<T> fromCsv(String filePath, CsvFormat format) throws IOException {
+            DataLoadRecorder recorder = DataLoadMetrics.start("IndexedDataSet.fromCsv", filePath, clazz);
+            Builder<T> builder = new Builder<>(this);
+            try (CsvParser parser = CsvParser.open(filePath, format)) {
+                recorder.opened();
+                CsvRecord record = parser.next();
+                if (record != null) {
+                    List<String> headers = new ArrayList<>(record.size());
+                    for (int i = 0; i < record.size(); i++) {
+                        headers.add(record.getTrimmedString(i));
+                    }
+                    RowBinder<T> binder = RowBinder.forHeader(clazz, headers);
+                    CsvCells cells = new CsvCells();
+                    while ((record = parser.next()) != null) {
+                        long mappingStart = recorder.now();
+                        builder.accept(binder.bind(cells.reset(record)));
+                        recorder.mapped(mappingStart);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading CSV file: " + e.getMessage());
+                throw e;
+            }
+            IndexedDataSet<T> dataSet = builder.build();
+            recorder.finish(dataSet.records, dataSet.size());
+            return dataSet;
+        }
+
+        private void checkField(String fieldName) {
+            try {
+                Field field = clazz.getDeclaredField(fieldName);
+                if (field.isAnnotationPresent(ExcelColumn.class)) {
+                    return;
+                }
+            } catch (NoSuchFieldException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException(clazz.getSimpleName() + " has no @ExcelColumn field named " + fieldName);
+        }
+
+        private static List<String> append(List<String> names, String name) {
+            List<String> extended = new ArrayList<>(names);
+            if (!extended.contains(name)) {
+                extended.add(name);
+            }
+            return Collections.unmodifiableList(extended);
+        }
+    }
+
+    /**
+     * Collects the records of a load and adds each of them to the indexes as it arrives.
+     */
+    private static final class Builder<T> implements Consumer<T> {
+        private final Class<T> clazz;
+        private final List<T> records = new ArrayList<>();
+        private final String[] uniqueFields;
+        private final MethodHandle[] uniqueGetters;
+        private final List<Map<Object, T>> uniqueIndexes = new ArrayList<>();
+        private final String[] fields;
+        private final MethodHandle[] getters;
+        private final List<Map<Object, List<T>>> indexes = new ArrayList<>();
+
+        Builder(Loader<T> loader) {
+            this.clazz = loader.clazz;
+            this.uniqueFields = loader.uniqueFields.toArray(new String[0]);
+            this.uniqueGetters = new MethodHandle[uniqueFields.length];
+            for (int i = 0; i < uniqueFields.length; i++) {
+                uniqueGetters[i] = getter(uniqueFields[i]);
+                uniqueIndexes.add(new HashMap<>());
+            }
+            this.fields = loader.fields.toArray(new String[0]);
+            this.getters = new MethodHandle[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                getters[i] = getter(fields[i]);
+                indexes.add(new HashMap<>());
+            }
+        }
+
+        @Override
+        public void accept(T record) {
+            for (int i = 0; i < uniqueGetters.length; i++) {
+                Object key = key(uniqueGetters[i], uniqueFields[i], record);
+                if (key != null && uniqueIndexes.get(i).putIfAbsent(key, record) != null) {
+                    throw new IllegalStateException("Duplicate value '" + key + "' in unique index "
+                            + clazz.getSimpleName() + "." + uniqueFields[i] + " at record " + (records.size() + 1));
+                }
+            }
+            for (int i = 0; i < getters.length; i++) {
+                Object key = key(getters[i], fields[i], record);
+                if (key != null) {
+                    indexes.get(i).computeIfAbsent(key, k -> new ArrayList<>(2)).add(record);
+                }
+            }
+            records.add(record);
+        }
+
+        IndexedDataSet<T> build() {
+            Map<String, Map<Object, T>> unique = new LinkedHashMap<>();
+            for (int i = 0; i < uniqueFields.length; i++) {
+                unique.put(uniqueFields[i], Collections.unmodifiableMap(uniqueIndexes.get(i)));
+            }
+            Map<String, Map<Object, List<T>>> nonUnique = new LinkedHashMap<>();
+            for (int i = 0; i < fields.length; i++) {
+                Map<Object, List<T>> index = indexes.get(i);
+                for (Map.Entry<Object, List<T>> entry : index.entrySet()) {
+                    entry.setValue(Collections.unmodifiableList(entry.getValue()));
+                }
+                nonUnique.put(fields[i], Collections.unmodifiableMap(index));
+            }
+            return new IndexedDataSet<>(clazz, Collections.unmodifiableList(records),
+                    Collections.unmodifiableMap(unique), Collections.unmodifiableMap(nonUnique));
+        }
+
+        private MethodHandle getter(String fieldName) {
+            try {
+                Field field = clazz.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Failed to create index on " + clazz.getSimpleName() + "." + fieldName, e);
+            }
+        }
+
+        private Object key(MethodHandle getter, String fieldName, T record) {
+            try {
+                return getter.invokeExact((Object) record);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read " + clazz.getSimpleName() + "." + fieldName, e);
+            }
+        }
+    }
+}
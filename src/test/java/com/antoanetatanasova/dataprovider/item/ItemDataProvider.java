@@ -1,10 +1,15 @@
 package com.antoanetatanasova.dataprovider.item;
 
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.cache.DatasetCache;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.shard.Shard;
 import com.antoanetatanasova.dto.Item;
 import org.testng.annotations.DataProvider;
 import com.antoanetatanasova.utls.ConfigReader;
 
 import java.io.IOException;
+import java.util.Iterator;
 
 public class ItemDataProvider extends CoreDataProvider {
     /**
@@ -13,12 +18,131 @@ public class ItemDataProvider extends CoreDataProvider {
      * This method reads item records from the Excel file specified in the configuration
      * property {@code files.itemXLSX}, maps each row to an {@link Item} object, and returns
      * the data as an {@code Object[]} for use with a test framework like TestNG.
+     * <p>
+     * The parsed items are kept in the shared {@link DatasetCache}, so the file is parsed only once
+     * per suite no matter how many test classes use this data provider. The returned array is a copy, but
+     * the items in it are the cached instances; {@link Item} has no setters, so they are read-only.
      *
      * @return an array of {@link Item} objects loaded from the Excel file
      * @throws IOException if an error occurs while reading the Excel file
      */
     @DataProvider
     public static Object[] itemData() throws IOException {
-        return getDataFromExcel(ConfigReader.fetchProperty("files.itemXLSX"), Item.class, new Item[0]);
+        return cachedItems(ConfigReader.fetchProperty("files.itemXLSX")).clone();
+    }
+
+    /**
+     * Returns the items of an Excel file from the shared {@link DatasetCache}, parsing the file on a miss.
+     *
+     * @param filePath the path to the Excel file
+     * @return the cached items, which must not be modified
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static Item[] cachedItems(String filePath) throws IOException {
+        return DatasetCache.shared().get(filePath, Item.class, () -> getDataFromExcel(filePath, Item.class, new Item[0]));
+    }
+
+    /**
+     * Provides item data from the CSV file specified in the configuration property {@code files.itemCSV}.
+     * <p>
+     * The records are bound to {@link Item} objects through the same {@link ExcelColumn} annotations as the
+     * Excel rows, parsing numeric fields straight from the bytes of the file. As with {@link #itemData()},
+     * the cached items are shared between calls.
+     *
+     * @return an array of {@link Item} objects loaded from the CSV file
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    @DataProvider
+    public static Object[] itemCsvData() throws IOException {
+        return cachedCsvItems(ConfigReader.fetchProperty("files.itemCSV")).clone();
+    }
+
+    /**
+     * Returns the items of a CSV file from the shared {@link DatasetCache}, parsing the file on a miss.
+     *
+     * @param filePath the path to the CSV file
+     * @return the cached items, which must not be modified
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    public static Item[] cachedCsvItems(String filePath) throws IOException {
+        return DatasetCache.shared().get(filePath, Item.class, () -> CsvDataProvider.getCsvData(filePath, Item.class, new Item[0]));
+    }
+
+    /**
+     * Provides the items of the CSV file specified in the configuration property {@code files.itemCSV} from
+     * off-heap storage.
+     * <p>
+     * The rows are loaded into an {@link OffHeapDataSet} and an {@link Item} is created for each test only
+     * when TestNG asks for it, so long soak suites over millions of rows keep their fixture outside the heap.
+     * The data set is kept in the shared {@link DatasetCache}, so its native memory is allocated only once
+     * per suite no matter how many test classes use this data provider.
+     *
+     * @return an iterator of parameter arrays, each containing a single {@link Item}
+     * @throws IOException if an error occurs while reading the configuration or the CSV file
+     */
+    @DataProvider
+    public static Iterator<Object[]> itemDataOffHeap() throws IOException {
+        return StreamingDataIterator.asParameters(
+                cachedOffHeapItems(ConfigReader.fetchProperty("files.itemCSV")).iterator());
+    }
+
+    /**
+     * Returns the off-heap items of a CSV file from the shared {@link DatasetCache}, loading the file on a miss.
+     *
+     * @param filePath the path to the CSV file
+     * @return the cached data set, which is immutable
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    public static OffHeapDataSet<Item> cachedOffHeapItems(String filePath) throws IOException {
+        // keyed by the data set class, so that it does not replace the on-heap items of the same file
+        return DatasetCache.shared().get(filePath, OffHeapDataSet.class,
+                () -> OffHeapDataSet.fromCsv(filePath, CsvFormat.DEFAULT, Item.class));
+    }
+
+    /**
+     * Provides item data from an Excel file as a lazily evaluated stream of test parameters.
+     * <p>
+     * Unlike {@link #itemData()}, the rows are parsed by a background thread while the tests are running,
+     * so the first test starts as soon as the first row is mapped and consumed items can be garbage collected.
+     *
+     * @return an iterator of parameter arrays, each containing a single {@link Item}
+     * @throws IOException if an error occurs while reading the configuration
+     */
+    @DataProvider
+    public static Iterator<Object[]> itemDataStream() throws IOException {
+        return StreamingDataIterator.asParameters(
+                iterateDataFromExcel(ConfigReader.fetchProperty("files.itemXLSX"), Item.class));
+    }
+
+    /**
+     * Provides item data from an Excel file to parallel tests, read and mapped by a pipeline of threads.
+     * <p>
+     * One thread parses the rows and a pool of threads maps them to {@link Item} objects, so the items are
+     * loaded faster than by {@link #itemData()}. TestNG reads all parameters of a parallel data provider
+     * without waiting for the tests, so all items may be held in memory as with {@link #itemData()}; use
+     * {@link #itemDataStream()} to keep memory bounded. The items may reach the tests out of sheet order.
+     *
+     * @return an iterator of parameter arrays, each containing a single {@link Item}
+     * @throws IOException if an error occurs while reading the configuration
+     */
+    @DataProvider(parallel = true)
+    public static Iterator<Object[]> itemDataParallel() throws IOException {
+        return StreamingDataIterator.asParameters(
+                pipelineDataFromExcel(ConfigReader.fetchProperty("files.itemXLSX"), Item.class));
+    }
+
+    /**
+     * Provides the items of the shard assigned to this worker when a data-driven suite is split across
+     * several machines.
+     * <p>
+     * The shard is configured with the {@code shard.index}, {@code shard.count} and optional {@code shard.key}
+     * properties (see {@link Shard#fromConfig()}); without them all items are provided.
+     *
+     * @return an array of the {@link Item} objects of this worker's shard
+     * @throws IOException if an error occurs while reading the configuration or the Excel file
+     */
+    @DataProvider
+    public static Object[] itemDataShard() throws IOException {
+        return getDataFromExcel(ConfigReader.fetchProperty("files.itemXLSX"), Item.class, new Item[0], Shard.fromConfig());
     }
 }
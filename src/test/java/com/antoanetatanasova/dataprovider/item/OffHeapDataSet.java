@@ -0,0 +1,446 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadMetrics;
+import com.antoanetatanasova.dataprovider.metrics.DataLoadRecorder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Data set whose rows are stored outside the Java heap, for suites that keep millions of rows around.
+ * <p>
+ * Every {@link ExcelColumn} annotated field of the record class gets a fixed-width slot in a row:
+ * {@code int}, {@code long}, {@code double} and {@code boolean} fields hold their raw value, and all other
+ * fields hold a reference to their UTF-8 text in a string arena. Rows and arena live in direct
+ * {@code ByteBuffer}s allocated in chunks, so a loaded data set is a handful of objects to the garbage
+ * collector regardless of its size. Fields of other types than the four primitives, such as {@code Integer},
+ * are stored as text and converted when a record is created.
+ * <p>
+ * Rows are read through a reusable {@link Row} flyweight:
+ * <pre>
+ * {@code
+ * OffHeapDataSet<Item> items = OffHeapDataSet.fromCsv(filePath, CsvFormat.DEFAULT, Item.class);
+ * int price = items.fieldIndex("unitPrice");
+ * int quantity = items.fieldIndex("quantity");
+ * double total = 0;
+ * OffHeapDataSet.Row row = items.row();
+ * for (int i = 0; i < items.size(); i++) {
+ *     row.moveTo(i);
+ *     total += row.getDouble(price) * row.getInt(quantity);
+ * }
+ * }
+ * </pre>
+ * Reading primitive fields allocates nothing; {@link Row#getString(int)} decodes a new string and
+ * {@link Row#toObject()} creates a record, for code that needs the DTO itself.
+ * <p>
+ * The native memory is released when the data set is garbage collected. A loaded data set is immutable and
+ * can be read by several threads, each through its own {@code Row}. Direct memory is limited by
+ * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ *
+ * @param <T> the type of the records
+ */
+public final class OffHeapDataSet<T> {
+    private static final String EXCEL_SHEET = "Sheet1";
+
+    private static final byte STRING = FieldColumns.STRING;
+    private static final byte INT = FieldColumns.INT;
+    private static final byte LONG = FieldColumns.LONG;
+    private static final byte DOUBLE = FieldColumns.DOUBLE;
+    private static final byte BOOLEAN = FieldColumns.BOOLEAN;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int ROWS_PER_CHUNK = 1 << CHUNK_BITS;
+    private static final int ARENA_CHUNK_SIZE = 1 << 22;
+    private static final long NULL_STRING = -1L;
+    private static final long EMPTY_STRING = -2L;
+
+    private final FieldColumns<T> fields;
+    private final Class<T> clazz;
+    private final String[] names;
+    private final byte[] types;
+    private final int[] offsets;
+    private final int rowWidth;
+
+    private final List<ByteBuffer> rowChunks = new ArrayList<>();
+    private final List<ByteBuffer> arena = new ArrayList<>();
+    private ByteBuffer arenaChunk;
+    private int size;
+
+    private OffHeapDataSet(Class<T> clazz) {
+        this.fields = new FieldColumns<>(clazz);
+        this.clazz = clazz;
+        this.names = fields.getNames();
+        this.types = fields.getTypes();
+        offsets = new int[names.length];
+        int width = 0;
+        for (int i = 0; i < names.length; i++) {
+            offsets[i] = width;
+            width += slotWidth(types[i]);
+        }
+        rowWidth = Math.max(width, 1);
+    }
+
+    /**
+     * Reads the predefined sheet of an Excel document into off-heap storage.
+     *
+     * @param filePath the path to the Excel document
+     * @param clazz    the class whose {@link ExcelColumn} annotated fields define the stored columns
+     * @param <T>      the generic type of the records
+     * @return the loaded data set
+     * @throws IOException if an error occurs while reading the Excel file
+     */
+    public static <T> OffHeapDataSet<T> fromExcel(String filePath, Class<T> clazz) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("OffHeapDataSet.fromExcel", filePath, clazz);
+        OffHeapDataSet<T> dataSet = new OffHeapDataSet<>(clazz);
+        dataSet.fields.readExcel(filePath, EXCEL_SHEET, recorder, dataSet::append);
+        recorder.finish(dataSet, dataSet.size);
+        return dataSet;
+    }
+
+    /**
+     * Reads a CSV file whose first record is the header into off-heap storage.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the dialect of the file
+     * @param clazz    the class whose {@link ExcelColumn} annotated fields define the stored columns
+     * @param <T>      the generic type of the records
+     * @return the loaded data set
+     * @throws IOException if an error occurs while reading the CSV file
+     */
+    public static <T> OffHeapDataSet<T> fromCsv(String filePath, CsvFormat format, Class<T> clazz) throws IOException {
+        DataLoadRecorder recorder = DataLoadMetrics.start("OffHeapDataSet.fromCsv", filePath, clazz);
+        OffHeapDataSet<T> dataSet = new OffHeapDataSet<>(clazz);
+        dataSet.fields.readCsv(filePath, format, recorder, dataSet::append);
+        recorder.finish(dataSet, dataSet.size);
+        return dataSet;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    public Class<T> getRecordClass() {
+        return clazz;
+    }
+
+    /**
+     * Returns the index of a field, to be passed to the getters of {@link Row}.
+     *
+     * @param fieldName the name of an {@link ExcelColumn} annotated field of the record class
+     * @return the zero-based field index
+     * @throws IllegalArgumentException if the record class has no such field
+     */
+    public int fieldIndex(String fieldName) {
+        return fields.indexOf(fieldName);
+    }
+
+    /**
+     * Returns the number of bytes of native memory allocated for rows and strings.
+     *
+     * @return the off-heap size in bytes
+     */
+    public long getOffHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : rowChunks) {
+            bytes += chunk.capacity();
+        }
+        for (ByteBuffer chunk : arena) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Creates a flyweight positioned on the first row. A row is not thread-safe; every thread reading the
+     * data set needs its own.
+     *
+     * @return a new row view
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * Passes every row, in file order, to the given action through a single reused flyweight, which must not
+     * be kept by the action.
+     *
+     * @param action the action to perform on each row
+     */
+    public void forEach(Consumer<? super Row> action) {
+        Row row = new Row();
+        for (int i = 0; i < size; i++) {
+            action.accept(row.moveTo(i));
+        }
+    }
+
+    /**
+     * Creates the record of a row.
+     *
+     * @param rowNum the zero-based row index, header excluded
+     * @return a new instance of {@code T}
+     */
+    public T get(int rowNum) {
+        return new Row().moveTo(rowNum).toObject();
+    }
+
+    /**
+     * Returns an iterator creating the record of each row only when it is requested, so a data provider
+     * can feed a large data set to its tests without holding all records on the heap.
+     *
+     * @return an iterator over new records, in file order
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Row row = new Row();
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return row.moveTo(next++).toObject();
+            }
+        };
+    }
+
+    private void append(CellSource cells) {
+        if ((size & (ROWS_PER_CHUNK - 1)) == 0) {
+            rowChunks.add(ByteBuffer.allocateDirect(ROWS_PER_CHUNK * rowWidth).order(ByteOrder.nativeOrder()));
+        }
+        ByteBuffer chunk = rowChunks.get(size >>> CHUNK_BITS);
+        int base = (size & (ROWS_PER_CHUNK - 1)) * rowWidth;
+        int[] columns = fields.getColumns();
+        for (int i = 0; i < names.length; i++) {
+            int column = columns[i];
+            int at = base + offsets[i];
+            switch (types[i]) {
+                case INT:
+                    chunk.putInt(at, column < 0 ? 0 : cells.getInt(column));
+                    break;
+                case LONG:
+                    chunk.putLong(at, column < 0 ? 0L : cells.getLong(column));
+                    break;
+                case DOUBLE:
+                    chunk.putDouble(at, column < 0 ? 0.0 : cells.getDouble(column));
+                    break;
+                case BOOLEAN:
+                    chunk.put(at, (byte) (column >= 0 && cells.getBoolean(column) ? 1 : 0));
+                    break;
+                default:
+                    chunk.putLong(at, column < 0 ? NULL_STRING : putString(cells.getString(column)));
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Copies a string into the arena, prefixed by its UTF-8 length.
+     *
+     * @return the arena chunk index in the upper and the position in the lower 32 bits
+     */
+    private long putString(String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        if (value.isEmpty()) {
+            return EMPTY_STRING;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        if (arenaChunk == null || arenaChunk.remaining() < length) {
+            arenaChunk = ByteBuffer.allocateDirect(Math.max(ARENA_CHUNK_SIZE, length)).order(ByteOrder.nativeOrder());
+            arena.add(arenaChunk);
+        }
+        int position = arenaChunk.position();
+        arenaChunk.putInt(bytes.length).put(bytes);
+        return (long) (arena.size() - 1) << 32 | position;
+    }
+
+    private static int slotWidth(byte type) {
+        switch (type) {
+            case INT:
+                return Integer.BYTES;
+            case BOOLEAN:
+                return 1;
+            default:
+                return Long.BYTES;
+        }
+    }
+
+    /**
+     * Reusable view of one row of the data set. Moving it to another row only changes two offsets.
+     * <p>
+     * The typed getters return the stored value of fields of their type. For fields of other types they
+     * parse the field's text like {@link CellSource} does, which lets a row serve as the cell source from
+     * which {@link #toObject()} creates records. The integer getters also accept whole numbers such as
+     * {@code "-3.0"}, which is how numeric Excel cells of boxed fields are stored.
+     */
+    public final class Row implements CellSource {
+        private ByteBuffer chunk;
+        private int base;
+        private int rowNum;
+        private byte[] scratch = new byte[64];
+
+        private Row() {
+            if (size > 0) {
+                moveTo(0);
+            }
+        }
+
+        /**
+         * Points this view at another row.
+         *
+         * @param rowNum the zero-based row index, header excluded
+         * @return this view
+         * @throws IndexOutOfBoundsException if the index is not a row of the data set
+         */
+        public Row moveTo(int rowNum) {
+            if (rowNum < 0 || rowNum >= size) {
+                throw new IndexOutOfBoundsException("Row " + rowNum + " of " + size);
+            }
+            this.rowNum = rowNum;
+            this.chunk = rowChunks.get(rowNum >>> CHUNK_BITS);
+            this.base = (rowNum & (ROWS_PER_CHUNK - 1)) * rowWidth;
+            return this;
+        }
+
+        public int getRowNum() {
+            return rowNum;
+        }
+
+        @Override
+        public int getInt(int field) {
+            return types[field] == INT ? chunk.getInt(base + offsets[field]) : ExcelCells.parseWholeInt(getString(field));
+        }
+
+        @Override
+        public long getLong(int field) {
+            return types[field] == LONG ? chunk.getLong(base + offsets[field]) : ExcelCells.parseWholeLong(getString(field));
+        }
+
+        @Override
+        public double getDouble(int field) {
+            return types[field] == DOUBLE ? chunk.getDouble(base + offsets[field]) : Double.parseDouble(getString(field));
+        }
+
+        @Override
+        public boolean getBoolean(int field) {
+            return types[field] == BOOLEAN ? chunk.get(base + offsets[field]) != 0 : Boolean.parseBoolean(getString(field));
+        }
+
+        /**
+         * Returns the value of a field as text; primitive fields are formatted with {@code String.valueOf}.
+         *
+         * @param field the field index, see {@link OffHeapDataSet#fieldIndex(String)}
+         * @return the value, or {@code null} if the file has no column for a text field
+         */
+        @Override
+        public String getString(int field) {
+            int at = base + offsets[field];
+            switch (types[field]) {
+                case INT:
+                    return String.valueOf(chunk.getInt(at));
+                case LONG:
+                    return String.valueOf(chunk.getLong(at));
+                case DOUBLE:
+                    return String.valueOf(chunk.getDouble(at));
+                case BOOLEAN:
+                    return String.valueOf(chunk.get(at) != 0);
+                default:
+                    return readString(chunk.getLong(at));
+            }
+        }
+
+        /**
+         * Checks whether a field holds no text, without decoding it.
+         *
+         * @param field the field index, see {@link OffHeapDataSet#fieldIndex(String)}
+         * @return {@code true} for empty text fields and text fields without a column; {@code false} for
+         * primitive fields
+         */
+        public boolean isEmpty(int field) {
+            if (types[field] != STRING) {
+                return false;
+            }
+            long reference = chunk.getLong(base + offsets[field]);
+            return reference == NULL_STRING || reference == EMPTY_STRING;
+        }
+
+        public int getInt(String fieldName) {
+            return getInt(fieldIndex(fieldName));
+        }
+
+        public long getLong(String fieldName) {
+            return getLong(fieldIndex(fieldName));
+        }
+
+        public double getDouble(String fieldName) {
+            return getDouble(fieldIndex(fieldName));
+        }
+
+        public boolean getBoolean(String fieldName) {
+            return getBoolean(fieldIndex(fieldName));
+        }
+
+        public String getString(String fieldName) {
+            return getString(fieldIndex(fieldName));
+        }
+
+        /**
+         * Creates the record of the current row.
+         *
+         * @return a new instance of {@code T}
+         */
+        public T toObject() {
+            return fields.getBinder().bind(this);
+        }
+
+        private String readString(long reference) {
+            if (reference == NULL_STRING) {
+                return null;
+            }
+            if (reference == EMPTY_STRING) {
+                return "";
+            }
+            ByteBuffer strings = arena.get((int) (reference >>> 32));
+            int position = (int) reference;
+            int length = strings.getInt(position);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            position += Integer.BYTES;
+            for (int i = 0; i < length; i++) {
+                scratch[i] = strings.get(position + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(clazz.getSimpleName()).append('[').append(rowNum).append("]{");
+            for (int i = 0; i < names.length; i++) {
+                builder.append(i == 0 ? "" : ", ").append(names[i]).append('=').append(getString(i));
+            }
+            return builder.append('}').toString();
+        }
+    }
+}
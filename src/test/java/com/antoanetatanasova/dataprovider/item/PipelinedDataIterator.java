@@ -0,0 +1,242 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Iterator over records that are read and mapped by a pipeline of background threads while they are being
+ * consumed.
+ * <p>
+ * A single reader thread pulls raw rows from a {@link StreamingDataIterator.Source} and hands them in small
+ * batches to a pool of mapper threads through a bounded queue. The mapper threads turn the rows into records
+ * and pass them on through a second bounded queue to the consumer, so reading, mapping and consuming overlap
+ * and the total time approaches that of the slowest stage. Both queues are bounded, so no stage gets more
+ * than the configured capacity ahead of the next one. The number of records held at once is only bounded if
+ * the consumer pulls them as it uses them, as TestNG does for a sequential {@code @DataProvider}. TestNG
+ * reads a {@code @DataProvider(parallel = true)} to the end without waiting for the tests it has started, so
+ * there the pipeline only shortens the load and all records may be held in memory, as with a full load.
+ * <p>
+ * Records within a batch keep the order of the source, but batches mapped by different threads may be
+ * returned out of order. The iterator can be shared by several consuming threads.
+ * <p>
+ * Errors raised by the source or by the mapper stop the whole pipeline and are rethrown from {@link #hasNext()};
+ * records that have not been consumed at that point are discarded. Calling {@link #close()} stops the
+ * pipeline early.
+ *
+ * @param <T> the type of the records
+ */
+public final class PipelinedDataIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> rows;
+    private final BlockingQueue<Object> records;
+    private final Thread reader;
+    private final Thread[] mappers;
+    private final AtomicInteger runningMappers;
+    private volatile Failure failure;
+
+    private Object batch;
+    private int position;
+
+    /**
+     * Starts the pipeline with one mapper thread per available processor and the default capacity.
+     *
+     * @param name   a name describing the source, used for the pipeline threads
+     * @param source the source producing the raw rows
+     * @param mapper maps a raw row to a record; called concurrently from the mapper threads
+     * @param <R>    the type of the raw rows
+     */
+    public <R> PipelinedDataIterator(String name, StreamingDataIterator.Source<R> source, Function<? super R, ? extends T> mapper) {
+        this(name, source, mapper, Runtime.getRuntime().availableProcessors(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Starts the pipeline.
+     *
+     * @param name          a name describing the source, used for the pipeline threads
+     * @param source        the source producing the raw rows
+     * @param mapper        maps a raw row to a record; called concurrently from the mapper threads
+     * @param mapperThreads the number of mapper threads
+     * @param capacity      the maximum number of rows buffered between two stages
+     * @param <R>           the type of the raw rows
+     */
+    public <R> PipelinedDataIterator(String name, StreamingDataIterator.Source<R> source, Function<? super R, ? extends T> mapper,
+                                     int mapperThreads, int capacity) {
+        int batches = Math.max(1, capacity / BATCH_SIZE);
+        this.rows = new ArrayBlockingQueue<>(batches);
+        this.records = new ArrayBlockingQueue<>(batches);
+        this.mappers = new Thread[Math.max(1, mapperThreads)];
+        this.runningMappers = new AtomicInteger(mappers.length);
+
+        for (int i = 0; i < mappers.length; i++) {
+            String threadName = "data-mapper-" + name + "-" + (i + 1);
+            mappers[i] = new Thread(() -> map(mapper), threadName);
+            mappers[i].setDaemon(true);
+        }
+        this.reader = new Thread(() -> produce(source), "data-reader-" + name);
+        this.reader.setDaemon(true);
+
+        for (Thread thread : mappers) {
+            thread.start();
+        }
+        this.reader.start();
+    }
+
+    private <R> void produce(StreamingDataIterator.Source<R> source) {
+        List<List<R>> pending = new ArrayList<>(1);
+        pending.add(new ArrayList<>(BATCH_SIZE));
+        try {
+            source.read(row -> {
+                List<R> current = pending.get(0);
+                current.add(row);
+                if (current.size() == BATCH_SIZE) {
+                    put(rows, current);
+                    pending.set(0, new ArrayList<>(BATCH_SIZE));
+                }
+            });
+            if (!pending.get(0).isEmpty()) {
+                put(rows, pending.get(0));
+            }
+        } catch (CancellationException e) {
+            return;
+        } catch (Throwable e) {
+            fail(e);
+            return;
+        }
+
+        try {
+            for (int i = 0; i < mappers.length; i++) {
+                rows.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> void map(Function<? super R, ? extends T> mapper) {
+        try {
+            while (true) {
+                Object next = rows.take();
+                if (next == END) {
+                    break;
+                }
+
+                List<R> batchRows = (List<R>) next;
+                Object[] mapped = new Object[batchRows.size()];
+                for (int i = 0; i < mapped.length; i++) {
+                    mapped[i] = mapper.apply(batchRows.get(i));
+                }
+                records.put(mapped);
+            }
+
+            if (runningMappers.decrementAndGet() == 0) {
+                records.put(END);
+            }
+        } catch (InterruptedException e) {
+            // stopped by close() or by a failure in another stage
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Reading cancelled");
+        }
+    }
+
+    /**
+     * Stops the other pipeline threads and reports the error to the consumer.
+     */
+    private void fail(Throwable cause) {
+        Thread current = Thread.currentThread();
+        if (reader != current) {
+            reader.interrupt();
+        }
+        for (Thread mapper : mappers) {
+            if (mapper != current) {
+                mapper.interrupt();
+            }
+        }
+        failure = new Failure(cause);
+        rows.clear();
+        while (!records.offer(failure)) {
+            records.clear();
+        }
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        while (batch == null || batch instanceof Object[] && position == ((Object[]) batch).length) {
+            if (failure != null) {
+                batch = failure;
+                break;
+            }
+            try {
+                batch = records.take();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next record", e);
+            }
+        }
+
+        if (batch instanceof Failure) {
+            Throwable cause = ((Failure) batch).cause;
+            if (cause instanceof IOException) throw new UncheckedIOException((IOException) cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Failed to read records", cause);
+        }
+
+        return batch != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] current = (Object[]) batch;
+        T record = (T) current[position];
+        current[position++] = null;
+        return record;
+    }
+
+    /**
+     * Stops the pipeline threads and discards any records that have not been consumed yet.
+     */
+    @Override
+    public synchronized void close() {
+        reader.interrupt();
+        for (Thread mapper : mappers) {
+            mapper.interrupt();
+        }
+        rows.clear();
+        records.clear();
+        batch = END;
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled binding plan that maps the columns of a sheet to the {@link ExcelColumn} annotated fields of a class.
+ * <p>
+ * The plan is built once per target class and header layout: the header names are matched against the
+ * possible column names of each annotated field, and every matched field gets a setter {@link MethodHandle}
+ * together with a converter specialized for its type. Binding a row then only reads the cell value of each
+ * resolved column and stores it in the field, without any per-row reflection, header lookups or boxing of
+ * primitive values. Primitive fields are read through the typed getters of {@link CellSource}, so sources
+ * holding native numbers never format them as strings.
+ * <p>
+ * When the annotation processor of the {@code processor} module has generated a {@link RowMapper} for the
+ * class, the plan delegates to it instead: the mapper resolves the columns and creates records with plain
+ * bytecode, which avoids reflection and the warm-up of the method handles. A mapper that creates records
+ * through a constructor is only used when the header has a column for every field, so that fields without
+ * a column keep their default values as in the reflective plan. Generated mappers are looked up once with
+ * {@link ServiceLoader}; set {@code -Drowbinder.generated=false} to always bind reflectively.
+ * <p>
+ * Plans are immutable and cached, so they can be shared between threads. The string dictionaries of the
+ * {@link ExcelColumn#dedup() deduplicated} fields are not part of the cached plan: every binder returned by
+ * {@link #forHeader(Class, List)} gets dictionaries of its own, so what one load learns about the cardinality
+ * of a column and the values it holds are not carried over to the next file with the same header.
+ *
+ * @param <T> the type of the objects created by this binder
+ */
+public final class RowBinder<T> {
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<List<String>, RowBinder<?>>> CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<T> clazz;
+    private final MethodHandle constructor;
+    private final FieldBinding[] bindings;
+    private final GeneratedBinding<T> generated;
+
+    private RowBinder(Class<T> clazz, MethodHandle constructor, FieldBinding[] bindings) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+        this.bindings = bindings;
+        this.generated = null;
+    }
+
+    private RowBinder(Class<T> clazz, GeneratedBinding<T> generated) {
+        this.clazz = clazz;
+        this.constructor = null;
+        this.bindings = null;
+        this.generated = generated;
+    }
+
+    /**
+     * Returns a binder for one load of rows with the given header, building and caching the binding plan of
+     * the class and header on first use. The binder has new string dictionaries, so it should be created once
+     * per load and shared by all rows of that load.
+     * <p>
+     * When the same header name occurs in more than one column, the last column wins.
+     *
+     * @param clazz   the class type to which the rows should be mapped
+     * @param headers the trimmed header names, indexed by column
+     * @param <T>     the generic type of the objects to be created
+     * @return the binding plan for the class and header layout
+     * @throws RuntimeException if the class has no accessible no-argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowBinder<T> forHeader(Class<T> clazz, List<String> headers) {
+        ConcurrentMap<List<String>, RowBinder<?>> layouts = CACHE.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        RowBinder<?> binder = layouts.get(headers);
+        if (binder == null) {
+            List<String> key = Collections.unmodifiableList(new ArrayList<>(headers));
+            binder = layouts.computeIfAbsent(key, k -> build(clazz, k));
+        }
+        return ((RowBinder<T>) binder).forLoad();
+    }
+
+    /**
+     * Returns the class type of the objects created by this binder.
+     *
+     * @return the target class type
+     */
+    public Class<T> getTargetClass() {
+        return clazz;
+    }
+
+    /**
+     * Returns the column bound to the given field.
+     *
+     * @param fieldName the name of an {@link ExcelColumn} annotated field of the target class
+     * @return the zero-based column index, or {@code -1} if the header has no column for the field
+     */
+    public int columnOf(String fieldName) {
+        if (generated != null) {
+            return generated.columnOf(fieldName);
+        }
+        for (FieldBinding binding : bindings) {
+            if (binding.name.equals(fieldName)) {
+                return binding.column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the columns read by this binder, in field declaration order.
+     *
+     * @return the zero-based column indexes
+     */
+    public int[] getColumns() {
+        if (generated != null) {
+            return generated.getColumns();
+        }
+        int[] columns = new int[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            columns[i] = bindings[i].column;
+        }
+        return columns;
+    }
+
+    /**
+     * Returns a binder that only populates the given fields; all other fields keep their default values.
+     * Projected binders are not cached.
+     *
+     * @param fieldNames the names of the fields to populate
+     * @return the projected binder
+     */
+    public RowBinder<T> project(Collection<String> fieldNames) {
+        if (generated != null && generated.mapper.supportsMissingColumns()) {
+            return new RowBinder<>(clazz, generated.project(fieldNames));
+        }
+        if (generated != null) {
+            Map<String, Integer> fieldColumns = new HashMap<>();
+            for (String fieldName : fieldNames) {
+                int column = generated.columnOf(fieldName);
+                if (column >= 0) {
+                    fieldColumns.put(fieldName, column);
+                }
+            }
+            return reflective(clazz, fieldColumns);
+        }
+        List<FieldBinding> projected = new ArrayList<>();
+        for (FieldBinding binding : bindings) {
+            if (fieldNames.contains(binding.name)) {
+                projected.add(binding);
+            }
+        }
+        return new RowBinder<>(clazz, constructor, projected.toArray(new FieldBinding[0]));
+    }
+
+    /**
+     * Creates an instance of the target class and populates its bound fields, reading primitive and boxed
+     * fields through the typed getters of the source.
+     *
+     * @param cells provides the cell values of the row; a lambda returning the formatted string value of a
+     *              column is enough for sources that only hold strings
+     * @return an instance of {@code T} populated with the given values
+     * @throws RuntimeException if the instance cannot be created or a value cannot be converted
+     */
+    @SuppressWarnings("unchecked")
+    public T bind(CellSource cells) {
+        if (generated != null) {
+            try {
+                return generated.bind(cells);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Failed to map row to " + clazz.getSimpleName(), e);
+            }
+        }
+        try {
+            Object instance = constructor.invokeExact();
+            for (FieldBinding binding : bindings) {
+                binding.set(instance, cells);
+            }
+            return (T) instance;
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to map row to " + clazz.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Returns a binder with the plan of this binder and new string dictionaries.
+     */
+    private RowBinder<T> forLoad() {
+        if (generated != null) {
+            return new RowBinder<>(clazz, generated.forLoad());
+        }
+        FieldBinding[] copies = new FieldBinding[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            copies[i] = bindings[i].forLoad();
+        }
+        return new RowBinder<>(clazz, constructor, copies);
+    }
+
+    private static <T> RowBinder<T> build(Class<T> clazz, List<String> headers) {
+        RowMapper<T> mapper = GeneratedMappers.find(clazz);
+        if (mapper != null) {
+            int[] columns = mapper.resolve(headers);
+            if (mapper.supportsMissingColumns() || Arrays.stream(columns).allMatch(column -> column >= 0)) {
+                return new RowBinder<>(clazz, new GeneratedBinding<>(mapper, columns, mapper.createDictionaries()));
+            }
+        }
+
+        Map<String, Integer> headerIndexMap = new HashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            headerIndexMap.put(headers.get(i), i);
+        }
+
+        Map<String, Integer> fieldColumns = new HashMap<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+            if (annotation == null) continue;
+
+            for (String possibleName : annotation.names()) {
+                Integer cellIndex = headerIndexMap.get(possibleName);
+                if (cellIndex != null) {
+                    fieldColumns.put(field.getName(), cellIndex);
+                    break;
+                }
+            }
+        }
+        return reflective(clazz, fieldColumns);
+    }
+
+    /**
+     * Builds a reflective plan binding the given fields to the given columns.
+     */
+    private static <T> RowBinder<T> reflective(Class<T> clazz, Map<String, Integer> fieldColumns) {
+        try {
+            Constructor<T> ctor = clazz.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            MethodHandle constructor = LOOKUP.unreflectConstructor(ctor)
+                    .asType(MethodType.methodType(Object.class));
+
+            List<FieldBinding> bindings = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                Integer column = fieldColumns.get(field.getName());
+                if (column != null && field.isAnnotationPresent(ExcelColumn.class)) {
+                    field.setAccessible(true);
+                    bindings.add(FieldBinding.of(field, column));
+                }
+            }
+
+            return new RowBinder<>(clazz, constructor, bindings.toArray(new FieldBinding[0]));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create row binder for " + clazz.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Binding plan of a class with a generated {@link RowMapper}: the column of every field of the mapper,
+     * {@code -1} for fields that are not bound, and the dictionaries shared by all rows of the plan.
+     */
+    private static final class GeneratedBinding<T> {
+        private final RowMapper<T> mapper;
+        private final int[] columns;
+        private final StringDictionary[] dictionaries;
+
+        GeneratedBinding(RowMapper<T> mapper, int[] columns, StringDictionary[] dictionaries) {
+            this.mapper = mapper;
+            this.columns = columns;
+            this.dictionaries = dictionaries;
+        }
+
+        int columnOf(String fieldName) {
+            int field = mapper.getFieldNames().indexOf(fieldName);
+            return field < 0 ? -1 : columns[field];
+        }
+
+        int[] getColumns() {
+            int[] bound = new int[columns.length];
+            int count = 0;
+            for (int column : columns) {
+                if (column >= 0) {
+                    bound[count++] = column;
+                }
+            }
+            return Arrays.copyOf(bound, count);
+        }
+
+        GeneratedBinding<T> forLoad() {
+            return new GeneratedBinding<>(mapper, columns, mapper.createDictionaries());
+        }
+
+        GeneratedBinding<T> project(Collection<String> fieldNames) {
+            int[] projected = columns.clone();
+            List<String> names = mapper.getFieldNames();
+            for (int i = 0; i < projected.length; i++) {
+                if (!fieldNames.contains(names.get(i))) {
+                    projected[i] = -1;
+                }
+            }
+            return new GeneratedBinding<>(mapper, projected, dictionaries);
+        }
+
+        T bind(CellSource cells) {
+            return mapper.map(cells, columns, dictionaries);
+        }
+    }
+
+    /**
+     * Registry of the generated mappers found on the class path, loaded on first use. A mapper whose fields
+     * no longer match the annotated fields of its class, for instance after the class was compiled again
+     * without the annotation processor, is ignored.
+     */
+    private static final class GeneratedMappers {
+        private static final Map<Class<?>, RowMapper<?>> MAPPERS = load();
+
+        @SuppressWarnings("unchecked")
+        static <T> RowMapper<T> find(Class<T> clazz) {
+            return (RowMapper<T>) MAPPERS.get(clazz);
+        }
+
+        @SuppressWarnings("rawtypes")
+        private static Map<Class<?>, RowMapper<?>> load() {
+            Map<Class<?>, RowMapper<?>> mappers = new HashMap<>();
+            if (!Boolean.parseBoolean(System.getProperty("rowbinder.generated", "true"))) {
+                return mappers;
+            }
+            Iterator<RowMapper> providers = ServiceLoader.load(RowMapper.class, RowBinder.class.getClassLoader()).iterator();
+            while (true) {
+                try {
+                    if (!providers.hasNext()) {
+                        break;
+                    }
+                    RowMapper<?> mapper = providers.next();
+                    if (matchesFields(mapper)) {
+                        mappers.put(mapper.getTargetClass(), mapper);
+                    }
+                } catch (ServiceConfigurationError e) {
+                    // a stale registration must not keep the other mappers from loading
+                    System.err.println("Error loading generated row mapper: " + e.getMessage());
+                }
+            }
+            return mappers;
+        }
+
+        private static boolean matchesFields(RowMapper<?> mapper) {
+            Set<String> annotated = new HashSet<>();
+            for (Field field : mapper.getTargetClass().getDeclaredFields()) {
+                if (field.isAnnotationPresent(ExcelColumn.class)) {
+                    annotated.add(field.getName());
+                }
+            }
+            return annotated.size() == mapper.getFieldNames().size() && annotated.containsAll(mapper.getFieldNames());
+        }
+    }
+
+    /**
+     * Reads a cell value and stores it in a single field.
+     * <p>
+     * Supported field types are {@code String}, {@code int}/{@code Integer}, {@code double}/{@code Double},
+     * {@code boolean}/{@code Boolean} and {@code long}/{@code Long}; fields of any other type receive the
+     * string value as is. Values of {@code String} fields are passed through the {@link StringDictionary} of
+     * the binding unless deduplication is turned off for the field; {@link #forLoad()} creates a new
+     * dictionary for every load.
+     */
+    private abstract static class FieldBinding {
+        final String name;
+        final int column;
+        final MethodHandle setter;
+
+        FieldBinding(String name, int column, MethodHandle setter) {
+            this.name = name;
+            this.column = column;
+            this.setter = setter;
+        }
+
+        abstract void set(Object instance, CellSource cells) throws Throwable;
+
+        /**
+         * Returns the binding to use for one load: a copy for bindings with a dictionary, this binding
+         * otherwise.
+         */
+        FieldBinding forLoad() {
+            return this;
+        }
+
+        static FieldBinding of(Field field, int column) throws IllegalAccessException {
+            String name = field.getName();
+            Class<?> type = field.getType();
+            MethodHandle setter = LOOKUP.unreflectSetter(field);
+
+            if (type == int.class) {
+                return new IntBinding(name, column, setter.asType(MethodType.methodType(void.class, Object.class, int.class)));
+            }
+            if (type == double.class) {
+                return new DoubleBinding(name, column, setter.asType(MethodType.methodType(void.class, Object.class, double.class)));
+            }
+            if (type == long.class) {
+                return new LongBinding(name, column, setter.asType(MethodType.methodType(void.class, Object.class, long.class)));
+            }
+            if (type == boolean.class) {
+                return new BooleanBinding(name, column, setter.asType(MethodType.methodType(void.class, Object.class, boolean.class)));
+            }
+
+            MethodHandle objectSetter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            if (type == Integer.class) return new ObjectBinding(name, column, objectSetter, CellSource::getInt);
+            if (type == Double.class) return new ObjectBinding(name, column, objectSetter, CellSource::getDouble);
+            if (type == Long.class) return new ObjectBinding(name, column, objectSetter, CellSource::getLong);
+            if (type == Boolean.class) return new ObjectBinding(name, column, objectSetter, CellSource::getBoolean);
+            ExcelColumn.Dedup dedup = field.getAnnotation(ExcelColumn.class).dedup();
+            if (type == String.class && dedup != ExcelColumn.Dedup.NEVER) {
+                return new StringBinding(name, column, objectSetter, dedup);
+            }
+            return new ObjectBinding(name, column, objectSetter, CellSource::getString);
+        }
+    }
+
+    private static final class IntBinding extends FieldBinding {
+        IntBinding(String name, int column, MethodHandle setter) {
+            super(name, column, setter);
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, cells.getInt(column));
+        }
+    }
+
+    private static final class DoubleBinding extends FieldBinding {
+        DoubleBinding(String name, int column, MethodHandle setter) {
+            super(name, column, setter);
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, cells.getDouble(column));
+        }
+    }
+
+    private static final class LongBinding extends FieldBinding {
+        LongBinding(String name, int column, MethodHandle setter) {
+            super(name, column, setter);
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, cells.getLong(column));
+        }
+    }
+
+    private static final class BooleanBinding extends FieldBinding {
+        BooleanBinding(String name, int column, MethodHandle setter) {
+            super(name, column, setter);
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, cells.getBoolean(column));
+        }
+    }
+
+    private interface CellReader {
+        Object read(CellSource cells, int column);
+    }
+
+    private static final class ObjectBinding extends FieldBinding {
+        private final CellReader converter;
+
+        ObjectBinding(String name, int column, MethodHandle setter, CellReader converter) {
+            super(name, column, setter);
+            this.converter = converter;
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, converter.read(cells, column));
+        }
+    }
+
+    private static final class StringBinding extends FieldBinding {
+        private final ExcelColumn.Dedup dedup;
+        private final StringDictionary dictionary;
+
+        StringBinding(String name, int column, MethodHandle setter, ExcelColumn.Dedup dedup) {
+            super(name, column, setter);
+            this.dedup = dedup;
+            this.dictionary = StringDictionary.forMode(dedup);
+        }
+
+        @Override
+        FieldBinding forLoad() {
+            return new StringBinding(name, column, setter, dedup);
+        }
+
+        @Override
+        void set(Object instance, CellSource cells) throws Throwable {
+            setter.invokeExact(instance, (Object) dictionary.canonical(cells.getString(column)));
+        }
+    }
+}
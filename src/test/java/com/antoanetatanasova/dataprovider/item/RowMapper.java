@@ -0,0 +1,78 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.util.List;
+
+/**
+ * Mapper of rows to the records of one class, generated at compile time by the annotation processor of the
+ * {@code processor} module for every class with {@link ExcelColumn} annotated fields.
+ * <p>
+ * A generated mapper resolves the header aliases of the fields with string constants and creates records
+ * with plain constructor calls, field assignments or setter calls, so binding a row needs no reflection and
+ * no {@code setAccessible}, and its code is compiled like any other method instead of going through method
+ * handles. Mappers are registered as {@link java.util.ServiceLoader} services; {@link RowBinder} uses the
+ * mapper of a class when one is registered and binds reflectively otherwise.
+ * <p>
+ * Implementations are stateless and thread-safe.
+ *
+ * @param <T> the type of the records
+ */
+public interface RowMapper<T> {
+    /**
+     * Returns the class of the records created by this mapper.
+     *
+     * @return the target class type
+     */
+    Class<T> getTargetClass();
+
+    /**
+     * Returns the names of the {@link ExcelColumn} annotated fields of the target class, in declaration
+     * order. Field {@code i} of the other methods is the field at index {@code i} of this list.
+     *
+     * @return the field names, as an unmodifiable list
+     */
+    List<String> getFieldNames();
+
+    /**
+     * Creates the string dictionaries of the fields, as configured by {@link ExcelColumn#dedup()}.
+     *
+     * @return a new dictionary for every {@code String} field that is deduplicated and {@code null} for all
+     * other fields, indexed by field
+     */
+    StringDictionary[] createDictionaries();
+
+    /**
+     * Resolves the column of every field from a header row. The first possible column name of a field that
+     * occurs in the header wins; when a header name occurs in more than one column, the last column wins.
+     *
+     * @param headers the trimmed header names, indexed by column
+     * @return the zero-based column of every field, or {@code -1} for fields without a column, indexed by
+     * field
+     */
+    int[] resolve(List<String> headers);
+
+    /**
+     * Checks whether records created by this mapper keep the default values of fields without a column.
+     * Mappers that assign fields or call setters do; mappers that call a constructor taking every field
+     * cannot, so {@link RowBinder} binds rows reflectively when the header has no column for one of the
+     * fields.
+     *
+     * @return {@code true} if {@link #map(CellSource, int[], StringDictionary[])} leaves fields without a
+     * column untouched
+     */
+    default boolean supportsMissingColumns() {
+        return true;
+    }
+
+    /**
+     * Creates the record of a row. Fields without a column keep their default values when
+     * {@link #supportsMissingColumns()} is {@code true}, and are passed to the constructor as {@code null},
+     * zero or {@code false} otherwise.
+     *
+     * @param cells        provides the cell values of the row
+     * @param columns      the column of every field as returned by {@link #resolve(List)}; fields may be
+     *                     left out with {@code -1}
+     * @param dictionaries the dictionaries created by {@link #createDictionaries()}
+     * @return a new instance of {@code T}
+     */
+    T map(CellSource cells, int[] columns, StringDictionary[] dictionaries);
+}
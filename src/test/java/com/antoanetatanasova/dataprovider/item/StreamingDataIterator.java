@@ -0,0 +1,163 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Iterator over records that are read by a background thread while they are being consumed.
+ * <p>
+ * The records produced by a {@link Source} are handed over through a bounded queue, so the consumer can
+ * start working on the first record while later rows are still being parsed, and the reader never gets
+ * more than the queue capacity ahead of the consumer. Records are not retained once they have been
+ * returned by {@link #next()}, which keeps memory usage constant regardless of the size of the data set.
+ * <p>
+ * Errors raised by the source are rethrown from {@link #hasNext()} once all records produced before the
+ * error have been consumed. Calling {@link #close()} stops the background reader early.
+ *
+ * @param <T> the type of the records
+ */
+public final class StreamingDataIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final Object END = new Object();
+
+    /**
+     * Produces records by pushing them to a consumer, for example
+     * {@link CoreDataProvider#streamDataFromExcel(String, Class, Consumer)}.
+     *
+     * @param <T> the type of the records
+     */
+    public interface Source<T> {
+        void read(Consumer<? super T> consumer) throws IOException;
+    }
+
+    private final BlockingQueue<Object> queue;
+    private final Thread reader;
+    private Object next;
+
+    /**
+     * Starts reading the source in the background with the default queue capacity.
+     *
+     * @param name   a name describing the source, used for the reader thread
+     * @param source the source producing the records
+     */
+    public StreamingDataIterator(String name, Source<T> source) {
+        this(name, source, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Starts reading the source in the background.
+     *
+     * @param name     a name describing the source, used for the reader thread
+     * @param source   the source producing the records
+     * @param capacity the maximum number of records read ahead of the consumer
+     */
+    public StreamingDataIterator(String name, Source<T> source, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.reader = new Thread(() -> produce(source), "data-reader-" + name);
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    /**
+     * Adapts an iterator of records to the {@code Iterator<Object[]>} form expected by TestNG data providers,
+     * passing each record as the single test method parameter.
+     *
+     * @param records the records to pass to the test method
+     * @return an iterator of single-element parameter arrays
+     */
+    public static Iterator<Object[]> asParameters(Iterator<?> records) {
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{records.next()};
+            }
+        };
+    }
+
+    private void produce(Source<T> source) {
+        Object last = END;
+        try {
+            source.read(record -> put(record));
+        } catch (CancellationException e) {
+            return;
+        } catch (Throwable e) {
+            last = new Failure(e);
+        }
+
+        try {
+            queue.put(last);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void put(Object record) {
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Reading cancelled");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next record", e);
+            }
+        }
+
+        if (next instanceof Failure) {
+            Throwable cause = ((Failure) next).cause;
+            if (cause instanceof IOException) throw new UncheckedIOException((IOException) cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Failed to read records", cause);
+        }
+
+        return next != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T record = (T) next;
+        next = null;
+        return record;
+    }
+
+    /**
+     * Stops the background reader and discards any records that have not been consumed yet.
+     */
+    @Override
+    public void close() {
+        reader.interrupt();
+        queue.clear();
+        next = END;
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,587 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads an Excel (.xlsx) sheet row by row using the OOXML event model.
+ * <p>
+ * Instead of building a full {@code XSSFWorkbook} in memory, the sheet XML is parsed with SAX and each row
+ * is handed to a {@link RowHandler} as soon as it has been read. Only the shared strings table and the
+ * current row are kept in memory, so memory usage does not grow with the number of rows in the sheet.
+ * <p>
+ * Cell values are reported in the same textual form that {@code Cell.toString()} produces for the
+ * workbook based readers (for example numeric cells as {@code "25.0"} and date formatted cells as
+ * {@code "01-Jan-2024"}), so the existing value formatting and mapping logic can be reused unchanged. Formula
+ * cells are reported with their cached result.
+ */
+public final class StreamingSheetReader {
+
+    private StreamingSheetReader() {
+    }
+
+    /**
+     * Callback receiving the rows of a sheet in document order.
+     */
+    public interface RowHandler {
+        /**
+         * Handles a single row of the sheet.
+         *
+         * @param rowNum the zero-based row number as stored in the sheet
+         * @param cells  the cell values of the row indexed by column; missing cells are {@code null}
+         * @return {@code true} to continue reading, {@code false} to stop reading the sheet
+         */
+        boolean onRow(int rowNum, String[] cells);
+
+        /**
+         * Tells the reader whether the value of a column is needed. Cells of columns that are not needed are
+         * skipped without being decoded and are reported as {@code null}. Called for every cell, so it must
+         * be cheap; by default every column is read.
+         *
+         * @param column the zero-based column index
+         * @return {@code true} to read the column
+         */
+        default boolean wantsColumn(int column) {
+            return true;
+        }
+
+        /**
+         * Tells the reader whether a row is needed. Rows that are not needed are skipped without decoding
+         * any of their cells, and {@link #onRow(int, String[])} is not called for them; by default every row
+         * is read.
+         *
+         * @param rowNum the zero-based row number as stored in the sheet
+         * @return {@code true} to read the row
+         */
+        default boolean wantsRow(int rowNum) {
+            return true;
+        }
+    }
+
+    /**
+     * Creates the {@link RowHandler} for each sheet of a multi-sheet read.
+     */
+    public interface SheetHandlerFactory {
+        /**
+         * Returns the handler for the rows of the given sheet. The handler is only called from the thread
+         * parsing that sheet, so it does not need to be thread-safe.
+         *
+         * @param sheetName the name of the sheet
+         * @return the handler receiving each row of the sheet
+         */
+        RowHandler forSheet(String sheetName);
+    }
+
+    /**
+     * Streams the rows of the sheet with the given name to the provided handler.
+     * <p>
+     * If the workbook does not contain a sheet with the given name, the handler is never called.
+     *
+     * @param filePath  the path to the Excel document
+     * @param sheetName the name of the sheet to read
+     * @param handler   the handler receiving each row
+     * @throws IOException if the file cannot be opened or is not a valid Excel document
+     */
+    public static void read(String filePath, String sheetName, RowHandler handler) throws IOException {
+        read(filePath, sheetName, -1, handler);
+    }
+
+    /**
+     * Streams the rows of the sheet at the given zero-based position to the provided handler.
+     *
+     * @param filePath   the path to the Excel document
+     * @param sheetIndex the zero-based position of the sheet in the workbook
+     * @param handler    the handler receiving each row
+     * @throws IOException if the file cannot be opened or is not a valid Excel document
+     */
+    public static void read(String filePath, int sheetIndex, RowHandler handler) throws IOException {
+        read(filePath, null, sheetIndex, handler);
+    }
+
+    /**
+     * Returns the number of the last row of a sheet without reading its cells.
+     * <p>
+     * The row number is taken from the dimension stored at the start of the sheet, so usually only the first
+     * bytes of the sheet are parsed. Sheets without a dimension are scanned for their last row.
+     *
+     * @param filePath  the path to the Excel document
+     * @param sheetName the name of the sheet
+     * @return the zero-based number of the last row, or {@code -1} if the sheet is empty or does not exist
+     * @throws IOException if the file cannot be opened or is not a valid Excel document
+     */
+    public static int lastRowNum(String filePath, String sheetName) throws IOException {
+        try (OPCPackage pkg = openPackage(filePath)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheetStream = sheets.next()) {
+                    if (sheetName.equals(sheets.getSheetName())) {
+                        DimensionHandler handler = new DimensionHandler();
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(handler);
+                        try {
+                            parser.parse(new InputSource(sheetStream));
+                        } catch (StopReadingException ignored) {
+                            // the dimension has been read
+                        }
+                        return handler.lastRowNum;
+                    }
+                }
+            }
+            return -1;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Excel file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the names of all sheets of a workbook in workbook order.
+     *
+     * @param filePath the path to the Excel document
+     * @return the sheet names
+     * @throws IOException if the file cannot be opened or is not a valid Excel document
+     */
+    public static List<String> sheetNames(String filePath) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (OPCPackage pkg = openPackage(filePath)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                names.add(sheets.getSheetName());
+                sheet.close();
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("Invalid Excel file " + filePath + ": " + e.getMessage(), e);
+        }
+        return names;
+    }
+
+    /**
+     * Streams the rows of several sheets concurrently, using one thread per sheet up to the number of
+     * available processors.
+     *
+     * @param filePath   the path to the Excel document
+     * @param sheetNames the names of the sheets to read, or {@code null} to read all sheets
+     * @param factory    creates the handler for each sheet
+     * @throws IOException if the file cannot be opened, is not a valid Excel document, or a sheet fails to parse
+     * @see #readSheets(String, Collection, SheetHandlerFactory, ExecutorService)
+     */
+    public static void readSheets(String filePath, Collection<String> sheetNames, SheetHandlerFactory factory) throws IOException {
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                sheetNames != null ? sheetNames.size() : Integer.MAX_VALUE));
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sheet-reader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            readSheets(filePath, sheetNames, factory, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Streams the rows of several sheets concurrently on the given executor.
+     * <p>
+     * The workbook package and its shared strings table are opened once and shared by all sheets; every
+     * sheet is then parsed by its own task from its own entry of the zip package, so the total time tracks
+     * the largest sheet rather than the sum of all sheets when the executor has enough threads. Requested
+     * sheets that do not exist in the workbook are ignored. If a sheet fails to parse, the sheets that have
+     * not started yet are cancelled and the error is rethrown.
+     *
+     * @param filePath   the path to the Excel document
+     * @param sheetNames the names of the sheets to read, or {@code null} to read all sheets
+     * @param factory    creates the handler for each sheet
+     * @param executor   the executor parsing the sheets; its size bounds the number of sheets parsed at once
+     * @throws IOException if the file cannot be opened, is not a valid Excel document, or a sheet fails to parse
+     */
+    public static void readSheets(String filePath, Collection<String> sheetNames, SheetHandlerFactory factory,
+                                  ExecutorService executor) throws IOException {
+        try (OPCPackage pkg = openPackage(filePath)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new SharedStrings(new ReadOnlySharedStringsTable(pkg, false));
+            DateStyles dateStyles = new DateStyles(reader.getStylesTable());
+
+            List<Future<?>> tasks = new ArrayList<>();
+            try {
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    InputStream sheetStream = sheets.next();
+                    String name = sheets.getSheetName();
+                    if (sheetNames != null && !sheetNames.contains(name)) {
+                        sheetStream.close();
+                        continue;
+                    }
+
+                    RowHandler handler = factory.forSheet(name);
+                    tasks.add(executor.submit(() -> {
+                        try (InputStream in = sheetStream) {
+                            parseSheet(in, sharedStrings, dateStyles, handler);
+                        } catch (SAXException | ParserConfigurationException e) {
+                            throw new IOException("Invalid sheet " + name + ": " + e.getMessage(), e);
+                        }
+                        return null;
+                    }));
+                }
+                awaitAll(tasks);
+            } finally {
+                for (Future<?> task : tasks) {
+                    task.cancel(true);
+                }
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Invalid Excel file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> tasks) throws IOException {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading sheets");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) throw (IOException) cause;
+                if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Opens the package of a workbook for reading. POI reports a missing or unreadable file with an unchecked
+     * exception, which is turned into an {@link IOException} here.
+     */
+    private static OPCPackage openPackage(String filePath) throws IOException, InvalidFormatException {
+        try {
+            return OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (InvalidOperationException e) {
+            throw new IOException("Cannot open Excel file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void read(String filePath, String sheetName, int sheetIndex, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = openPackage(filePath)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new SharedStrings(new ReadOnlySharedStringsTable(pkg, false));
+            DateStyles dateStyles = new DateStyles(reader.getStylesTable());
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            int index = 0;
+            while (sheets.hasNext()) {
+                try (InputStream sheetStream = sheets.next()) {
+                    boolean matches = sheetName != null
+                            ? sheetName.equals(sheets.getSheetName())
+                            : index == sheetIndex;
+                    if (matches) {
+                        parseSheet(sheetStream, sharedStrings, dateStyles, handler);
+                        return;
+                    }
+                }
+                index++;
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Excel file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void parseSheet(InputStream sheetStream, SharedStrings sharedStrings, DateStyles dateStyles,
+                                   RowHandler handler) throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetHandler(sharedStrings, dateStyles, handler));
+        try {
+            parser.parse(new InputSource(sheetStream));
+        } catch (StopReadingException ignored) {
+            // the handler asked to stop before the end of the sheet
+        }
+    }
+
+    /**
+     * Converts a cell reference such as {@code "AB12"} to its zero-based column index.
+     *
+     * @param cellRef the cell reference
+     * @return the zero-based column index, or {@code -1} if the reference has no column part
+     */
+    static int columnIndex(String cellRef) {
+        int column = 0;
+        int i = 0;
+        for (; i < cellRef.length(); i++) {
+            char ch = cellRef.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return i == 0 ? -1 : column - 1;
+    }
+
+    /**
+     * Shared strings table of a workbook that decodes every entry once.
+     * <p>
+     * All cells referring to the same entry of the table get the same {@code String} instance, so repeated
+     * text values of a sheet are deduplicated for free. The cache may be filled concurrently by the threads of
+     * a multi-sheet read; a race only decodes an entry twice, and strings are safe to publish without locking.
+     */
+    private static final class SharedStrings {
+        private final ReadOnlySharedStringsTable table;
+        private final String[] decoded;
+
+        SharedStrings(ReadOnlySharedStringsTable table) {
+            this.table = table;
+            this.decoded = new String[Math.max(0, table.getUniqueCount())];
+        }
+
+        String get(int index) {
+            if (index >= decoded.length) {
+                return table.getItemAt(index).getString();
+            }
+            String value = decoded[index];
+            if (value == null) {
+                value = table.getItemAt(index).getString();
+                decoded[index] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Cell styles of a workbook, telling which of them format numbers as dates. Each style is checked once; the
+     * cache may be filled concurrently by the threads of a multi-sheet read, where a race only checks a style
+     * twice.
+     */
+    private static final class DateStyles {
+        private static final byte UNKNOWN = 0;
+        private static final byte DATE = 1;
+        private static final byte NUMBER = 2;
+
+        private final StylesTable styles;
+        private final byte[] kinds;
+
+        DateStyles(StylesTable styles) {
+            this.styles = styles;
+            this.kinds = new byte[styles != null ? styles.getNumCellStyles() : 0];
+        }
+
+        boolean isDate(int styleIndex) {
+            if (styleIndex <= 0 || styleIndex >= kinds.length) {
+                return false;
+            }
+            byte kind = kinds[styleIndex];
+            if (kind == UNKNOWN) {
+                XSSFCellStyle style = styles.getStyleAt(styleIndex);
+                kind = style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())
+                        ? DATE : NUMBER;
+                kinds[styleIndex] = kind;
+            }
+            return kind == DATE;
+        }
+    }
+
+    private static final class StopReadingException extends SAXException {
+        private static final long serialVersionUID = 1L;
+
+        StopReadingException() {
+            super("Reading stopped by row handler");
+        }
+    }
+
+    /**
+     * SAX handler reading the last row number of a worksheet from its {@code dimension} element, or from its
+     * last row when the dimension is missing or only names a single cell.
+     */
+    private static final class DimensionHandler extends DefaultHandler {
+        private int lastRowNum = -1;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = attributes.getValue("ref");
+                int separator = ref != null ? ref.indexOf(':') : -1;
+                if (separator >= 0) {
+                    lastRowNum = rowIndex(ref.substring(separator + 1));
+                    throw new StopReadingException();
+                }
+            } else if ("row".equals(localName)) {
+                String ref = attributes.getValue("r");
+                lastRowNum = ref != null ? Integer.parseInt(ref) - 1 : lastRowNum + 1;
+            }
+        }
+
+        private static int rowIndex(String cellRef) {
+            int i = 0;
+            while (i < cellRef.length() && cellRef.charAt(i) >= 'A' && cellRef.charAt(i) <= 'Z') {
+                i++;
+            }
+            return Integer.parseInt(cellRef.substring(i)) - 1;
+        }
+    }
+
+    /**
+     * SAX handler for the {@code sheetData} part of a worksheet.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final SharedStrings sharedStrings;
+        private final DateStyles dateStyles;
+        private final RowHandler rowHandler;
+
+        private final List<String> rowCells = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private int rowNum = -1;
+        private int column = -1;
+        private String cellType;
+        private int cellStyle;
+        private DateFormat dateFormat;
+        private boolean collecting;
+        private boolean skipping;
+        private boolean skippingRow;
+
+        SheetHandler(SharedStrings sharedStrings, DateStyles dateStyles, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.dateStyles = dateStyles;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row": {
+                    String ref = attributes.getValue("r");
+                    rowNum = ref != null ? Integer.parseInt(ref) - 1 : rowNum + 1;
+                    column = -1;
+                    rowCells.clear();
+                    skippingRow = !rowHandler.wantsRow(rowNum);
+                    break;
+                }
+                case "c": {
+                    String ref = attributes.getValue("r");
+                    int refColumn = ref != null ? columnIndex(ref) : -1;
+                    column = refColumn >= 0 ? refColumn : column + 1;
+                    skipping = skippingRow || !rowHandler.wantsColumn(column);
+                    cellType = skipping ? null : attributes.getValue("t");
+                    String style = skipping ? null : attributes.getValue("s");
+                    cellStyle = style != null ? Integer.parseInt(style) : 0;
+                    text.setLength(0);
+                    break;
+                }
+                case "v":
+                case "t": {
+                    collecting = !skipping;
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                case "t": {
+                    collecting = false;
+                    break;
+                }
+                case "c": {
+                    String value = skipping ? null : cellValue();
+                    if (value != null) {
+                        while (rowCells.size() <= column) {
+                            rowCells.add(null);
+                        }
+                        rowCells.set(column, value);
+                    }
+                    break;
+                }
+                case "row": {
+                    if (!skippingRow && !rowHandler.onRow(rowNum, rowCells.toArray(new String[0]))) {
+                        throw new StopReadingException();
+                    }
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        /**
+         * Returns the value of the current cell in the same form as {@code Cell.toString()}.
+         */
+        private String cellValue() {
+            if (text.length() == 0) {
+                return null;
+            }
+            String raw = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                double value = Double.parseDouble(raw);
+                if (dateStyles.isDate(cellStyle) && DateUtil.isValidExcelDate(value)) {
+                    return formatDate(value);
+                }
+                return Double.toString(value);
+            }
+            switch (cellType) {
+                case "s":
+                    return sharedStrings.get(Integer.parseInt(raw));
+                case "b":
+                    return "1".equals(raw) ? "TRUE" : "FALSE";
+                default:
+                    return raw;
+            }
+        }
+
+        /**
+         * Formats a date cell like {@code XSSFCell.toString()}; workbooks using the 1904 date system are not
+         * detected and are read with the 1900 system.
+         */
+        private String formatDate(double value) {
+            if (dateFormat == null) {
+                dateFormat = new SimpleDateFormat("dd-MMM-yyyy", LocaleUtil.getUserLocale());
+                dateFormat.setTimeZone(LocaleUtil.getUserTimeZone());
+            }
+            return dateFormat.format(DateUtil.getJavaDate(value, false));
+        }
+    }
+}
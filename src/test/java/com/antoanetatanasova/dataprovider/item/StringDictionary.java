@@ -0,0 +1,110 @@
+package com.antoanetatanasova.dataprovider.item;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dictionary of canonical {@code String} instances for the values of a single column.
+ * <p>
+ * Columns such as a VAT rate, an account or a unit of measure repeat a handful of values over millions of
+ * rows. Passing every value through {@link #canonical(String)} makes all rows share one instance per
+ * distinct value, so the retained size of the column no longer grows with the number of rows.
+ * <p>
+ * The dictionary holds at most {@link #MAX_SIZE} values. In {@link ExcelColumn.Dedup#AUTO} mode it samples
+ * the first {@link #SAMPLE_SIZE} values and turns itself off when more than half of them are distinct, or
+ * when it fills up, since a high-cardinality column gains nothing but lookup cost. In
+ * {@link ExcelColumn.Dedup#ALWAYS} mode it keeps returning the values it holds once it is full.
+ * <p>
+ * Dictionaries are thread-safe.
+ */
+public final class StringDictionary {
+    static final int MAX_SIZE = 4096;
+    static final int SAMPLE_SIZE = 1024;
+
+    private final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+    private final boolean adaptive;
+    private final AtomicInteger sampled;
+    private volatile boolean enabled = true;
+
+    private StringDictionary(boolean adaptive) {
+        this.adaptive = adaptive;
+        this.sampled = adaptive ? new AtomicInteger() : null;
+    }
+
+    /**
+     * Creates a dictionary for the given mode.
+     *
+     * @param mode the deduplication mode of the column
+     * @return the dictionary, or {@code null} for {@link ExcelColumn.Dedup#NEVER}
+     */
+    public static StringDictionary forMode(ExcelColumn.Dedup mode) {
+        switch (mode) {
+            case NEVER:
+                return null;
+            case ALWAYS:
+                return new StringDictionary(false);
+            default:
+                return new StringDictionary(true);
+        }
+    }
+
+    /**
+     * Returns the canonical instance of a value, adding the value to the dictionary if it is new.
+     *
+     * @param value the value read from a cell; may be {@code null}
+     * @return an equal, shared instance, or {@code value} itself when it is new and the dictionary is full
+     * or turned off
+     */
+    public String canonical(String value) {
+        if (value == null || !enabled) {
+            return value;
+        }
+
+        String existing = values.get(value);
+        if (existing != null) {
+            sample();
+            return existing;
+        }
+
+        if (values.size() >= MAX_SIZE) {
+            if (adaptive) {
+                disable();
+            }
+            return value;
+        }
+        existing = values.putIfAbsent(value, value);
+        sample();
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Returns whether values are still deduplicated.
+     *
+     * @return {@code false} once an adaptive dictionary has found its column to be of high cardinality
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of distinct values held by the dictionary.
+     *
+     * @return the dictionary size
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private void sample() {
+        if (adaptive && sampled.get() < SAMPLE_SIZE && sampled.incrementAndGet() == SAMPLE_SIZE
+                && values.size() > SAMPLE_SIZE / 2) {
+            disable();
+        }
+    }
+
+    private void disable() {
+        enabled = false;
+        values.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event recorded for every data set loaded by a data provider. The event duration is the total load time;
+ * the phase times break it down.
+ */
+@Name("com.antoanetatanasova.DataLoad")
+@Label("Data Load")
+@Category("Data Reader")
+@Description("Reading and mapping of a data set by a data provider")
+@StackTrace(false)
+final class DataLoadEvent extends Event {
+    @Label("Reader")
+    String reader;
+
+    @Label("Source")
+    String source;
+
+    @Label("Type")
+    Class<?> type;
+
+    @Label("Open Time")
+    @Description("Time until the file was opened and its first rows could be read")
+    @Timespan
+    long openTime;
+
+    @Label("Parse Time")
+    @Description("Time spent decompressing and parsing the file")
+    @Timespan
+    long parseTime;
+
+    @Label("Mapping Time")
+    @Description("Time spent converting cell values and binding rows to objects")
+    @Timespan
+    long mappingTime;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Rows Skipped")
+    long rowsSkipped;
+
+    @Label("Rows per Second")
+    double rowsPerSecond;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Footprint")
+    @Description("Estimated heap size of the loaded data set")
+    @DataAmount
+    long footprint;
+}
@@ -0,0 +1,16 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+/**
+ * Receives the statistics of every data set loaded by a data provider.
+ * <p>
+ * Listeners are registered with {@link DataLoadMetrics#addListener(DataLoadListener)} and are called on the
+ * thread that loaded the data set, so they must be thread-safe when tests run in parallel.
+ */
+public interface DataLoadListener {
+    /**
+     * Called once a data set has been loaded.
+     *
+     * @param stats the statistics of the load
+     */
+    void onLoad(DataLoadStats stats);
+}
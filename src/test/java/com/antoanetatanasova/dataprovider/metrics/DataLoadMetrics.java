@@ -0,0 +1,62 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Entry point of the data load instrumentation.
+ * <p>
+ * Every data provider load is measured with a {@link DataLoadRecorder} obtained from {@link #start}. The finished
+ * statistics are committed as a {@code com.antoanetatanasova.DataLoad} JFR event and passed to the registered
+ * {@link DataLoadListener}s. When no listener is registered and the JFR event is not enabled, {@code start}
+ * returns a disabled recorder whose methods do nothing, so the instrumentation costs nothing in normal runs.
+ * <p>
+ * The JFR events can be recorded with {@code -XX:StartFlightRecording} and viewed with
+ * {@code jfr print --events com.antoanetatanasova.DataLoad recording.jfr}.
+ */
+public final class DataLoadMetrics {
+    private static final List<DataLoadListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private DataLoadMetrics() {
+    }
+
+    /**
+     * Registers a listener receiving the statistics of every following load.
+     *
+     * @param listener the listener to add
+     */
+    public static void addListener(DataLoadListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove
+     */
+    public static void removeListener(DataLoadListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Starts measuring a load.
+     *
+     * @param reader the name of the reader, for example {@code "CsvDataProvider.getCsvData[PARALLEL]"}
+     * @param source the path of the file being loaded
+     * @param type   the class the rows are mapped to
+     * @return the recorder of the load; disabled when nobody is interested in the statistics
+     */
+    public static DataLoadRecorder start(String reader, String source, Class<?> type) {
+        DataLoadEvent event = new DataLoadEvent();
+        if (LISTENERS.isEmpty() && !event.isEnabled()) {
+            return DataLoadRecorder.disabled();
+        }
+        return new DataLoadRecorder(reader, source, type, event);
+    }
+
+    static void publish(DataLoadStats stats) {
+        for (DataLoadListener listener : LISTENERS) {
+            listener.onLoad(stats);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+import com.antoanetatanasova.dataprovider.cache.FootprintEstimator;
+
+import java.io.File;
+
+/**
+ * Measures the phases of a single data set load.
+ * <p>
+ * The load starts when the recorder is created. Readers that open, parse and map in separate steps call
+ * {@link #opened()} and {@link #parsed()} at the end of the first two phases; streaming readers, which parse
+ * and map row by row, call {@link #opened()} once the first row is available and time each mapped row with
+ * {@link #now()} and {@link #mapped(long)}, in which case the parse time is what remains of the total.
+ * {@link #finish(Object, long)} publishes the statistics.
+ * <p>
+ * A recorder belongs to the thread performing the load and is not thread-safe.
+ */
+public final class DataLoadRecorder {
+    private static final DataLoadRecorder DISABLED = new DataLoadRecorder(null, null, null, null);
+
+    private final String reader;
+    private final String source;
+    private final Class<?> type;
+    private final DataLoadEvent event;
+    private final long start;
+
+    private long openTime = -1;
+    private long parseTime = -1;
+    private long mappingTime;
+    private long mappedRows;
+    private long rowsSkipped;
+
+    DataLoadRecorder(String reader, String source, Class<?> type, DataLoadEvent event) {
+        this.reader = reader;
+        this.source = source;
+        this.type = type;
+        this.event = event;
+        this.start = event != null ? System.nanoTime() : 0;
+        if (event != null) {
+            event.begin();
+        }
+    }
+
+    /**
+     * Returns a recorder that ignores all calls, for loads that are not reported on their own.
+     *
+     * @return the disabled recorder
+     */
+    public static DataLoadRecorder disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns whether the statistics of this load are recorded.
+     *
+     * @return {@code false} for the disabled recorder
+     */
+    public boolean isEnabled() {
+        return event != null;
+    }
+
+    /**
+     * Returns the current time for {@link #mapped(long)}, or {@code 0} when the recorder is disabled.
+     *
+     * @return the current value of {@link System#nanoTime()}
+     */
+    public long now() {
+        return event != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of the open phase. Only the first call has an effect.
+     */
+    public void opened() {
+        if (event != null && openTime < 0) {
+            openTime = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Marks the end of the parse phase of a reader that parses the whole file before mapping any row.
+     */
+    public void parsed() {
+        if (event != null) {
+            opened();
+            parseTime = System.nanoTime() - start - openTime - mappingTime;
+        }
+    }
+
+    /**
+     * Records a row that has been mapped since the given time.
+     *
+     * @param mappingStart the value of {@link #now()} before the row was mapped
+     */
+    public void mapped(long mappingStart) {
+        if (event != null) {
+            mappingTime += System.nanoTime() - mappingStart;
+            mappedRows++;
+        }
+    }
+
+    /**
+     * Records rows mapped concurrently by other threads, which cannot call {@link #mapped(long)}.
+     *
+     * @param rows        the number of mapped rows
+     * @param mappingTime the time spent mapping the rows, summed over all threads
+     */
+    public void mapped(long rows, long mappingTime) {
+        if (event != null) {
+            this.mappingTime += mappingTime;
+            mappedRows += rows;
+        }
+    }
+
+    /**
+     * Records a row that was skipped, for example an empty row.
+     */
+    public void skipped() {
+        if (event != null) {
+            rowsSkipped++;
+        }
+    }
+
+    /**
+     * Ends the load and publishes its statistics.
+     *
+     * @param dataSet the loaded data set, used for the footprint estimate
+     * @param rows    the number of rows loaded; rows recorded with {@link #mapped(long)} are used when negative
+     */
+    public void finish(Object dataSet, long rows) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        long total = System.nanoTime() - start;
+        long open = Math.max(openTime, 0);
+        long parse = parseTime >= 0 ? parseTime : Math.max(0, total - open - mappingTime);
+        long loadedRows = rows >= 0 ? rows : mappedRows;
+
+        DataLoadStats stats = new DataLoadStats(reader, source, type, total, open, parse, mappingTime,
+                loadedRows, rowsSkipped, new File(source).length(), FootprintEstimator.estimate(dataSet));
+
+        if (event.shouldCommit()) {
+            event.reader = reader;
+            event.source = source;
+            event.type = type;
+            event.openTime = stats.getOpenTime();
+            event.parseTime = stats.getParseTime();
+            event.mappingTime = stats.getMappingTime();
+            event.rows = stats.getRows();
+            event.rowsSkipped = stats.getRowsSkipped();
+            event.rowsPerSecond = stats.getRowsPerSecond();
+            event.bytesRead = stats.getBytesRead();
+            event.footprint = stats.getFootprint();
+            event.commit();
+        }
+        DataLoadMetrics.publish(stats);
+    }
+}
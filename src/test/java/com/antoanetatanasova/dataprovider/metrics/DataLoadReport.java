@@ -0,0 +1,94 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * TestNG suite listener writing a summary of all data sets loaded during the suite, slowest first, to
+ * {@code data-load-report.txt} in the suite output directory. The five slowest loads are also printed to the
+ * console, so slow fixtures are visible in CI logs without attaching a profiler.
+ * <p>
+ * The listener is opt-in: register it on a suite with {@code <listener class-name="...DataLoadReport"/>} or
+ * {@code @Listeners(DataLoadReport.class)}, or for a whole Maven run with {@code -Pload-report}.
+ */
+public class DataLoadReport implements ISuiteListener, DataLoadListener {
+    private static final String REPORT_FILE = "data-load-report.txt";
+    private static final int CONSOLE_ROWS = 5;
+
+    private final Queue<DataLoadStats> loads = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        loads.clear();
+        DataLoadMetrics.addListener(this);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        DataLoadMetrics.removeListener(this);
+        if (loads.isEmpty()) {
+            return;
+        }
+
+        List<DataLoadStats> sorted = new ArrayList<>(loads);
+        sorted.sort(Comparator.comparingLong(DataLoadStats::getTotalTime).reversed());
+
+        Path report = Paths.get(suite.getOutputDirectory(), REPORT_FILE);
+        try {
+            Files.createDirectories(report.getParent());
+            Files.write(report, format(suite.getName(), sorted, sorted.size()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Error writing data load report: " + e.getMessage());
+        }
+        System.out.print(format(suite.getName(), sorted, CONSOLE_ROWS));
+    }
+
+    @Override
+    public void onLoad(DataLoadStats stats) {
+        loads.add(stats);
+    }
+
+    static String format(String suiteName, List<DataLoadStats> loads, int limit) {
+        long totalTime = 0;
+        long totalRows = 0;
+        for (DataLoadStats stats : loads) {
+            totalTime += stats.getTotalTime();
+            totalRows += stats.getRows();
+        }
+
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        out.printf(Locale.ROOT, "Data loads of suite '%s': %d loads, %d rows, %.1f ms%n",
+                suiteName, loads.size(), totalRows, millis(totalTime));
+        out.printf(Locale.ROOT, "%10s %9s %9s %9s %10s %8s %12s %10s %10s  %s%n", "total ms", "open ms", "parse ms",
+                "map ms", "rows", "skipped", "rows/s", "read KB", "heap KB", "reader / source");
+        for (int i = 0; i < Math.min(limit, loads.size()); i++) {
+            DataLoadStats stats = loads.get(i);
+            out.printf(Locale.ROOT, "%10.1f %9.1f %9.1f %9.1f %10d %8d %12.0f %10d %10d  %s %s (%s)%n",
+                    millis(stats.getTotalTime()), millis(stats.getOpenTime()), millis(stats.getParseTime()),
+                    millis(stats.getMappingTime()), stats.getRows(), stats.getRowsSkipped(), stats.getRowsPerSecond(),
+                    stats.getBytesRead() >> 10, stats.getFootprint() >> 10, stats.getReader(), stats.getSource(),
+                    stats.getType() != null ? stats.getType().getSimpleName() : "-");
+        }
+        out.flush();
+        return text.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.antoanetatanasova.dataprovider.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a single data set load. All times are in nanoseconds.
+ */
+public final class DataLoadStats {
+    private final String reader;
+    private final String source;
+    private final Class<?> type;
+    private final long totalTime;
+    private final long openTime;
+    private final long parseTime;
+    private final long mappingTime;
+    private final long rows;
+    private final long rowsSkipped;
+    private final long bytesRead;
+    private final long footprint;
+
+    DataLoadStats(String reader, String source, Class<?> type, long totalTime, long openTime, long parseTime,
+                  long mappingTime, long rows, long rowsSkipped, long bytesRead, long footprint) {
+        this.reader = reader;
+        this.source = source;
+        this.type = type;
+        this.totalTime = totalTime;
+        this.openTime = openTime;
+        this.parseTime = parseTime;
+        this.mappingTime = mappingTime;
+        this.rows = rows;
+        this.rowsSkipped = rowsSkipped;
+        this.bytesRead = bytesRead;
+        this.footprint = footprint;
+    }
+
+    /**
+     * Returns the reader that loaded the data set, for example {@code "CoreDataProvider.getDataFromExcel[STREAMING]"}.
+     *
+     * @return the reader name
+     */
+    public String getReader() {
+        return reader;
+    }
+
+    /**
+     * Returns the path of the file the data set was loaded from.
+     *
+     * @return the file path
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the class the rows were mapped to.
+     *
+     * @return the DTO class, or {@code String[].class} for raw rows
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Returns the time until the file was opened and its first rows could be read.
+     *
+     * @return the open time in nanoseconds
+     */
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    /**
+     * Returns the time spent decompressing and parsing the file, excluding the open time.
+     *
+     * @return the parse time in nanoseconds
+     */
+    public long getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * Returns the time spent converting cell values and binding rows to objects.
+     *
+     * @return the mapping time in nanoseconds
+     */
+    public long getMappingTime() {
+        return mappingTime;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the estimated heap size of the loaded data set.
+     *
+     * @return the estimated size in bytes
+     * @see com.antoanetatanasova.dataprovider.cache.FootprintEstimator
+     */
+    public long getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * Returns the number of rows loaded per second of total load time.
+     *
+     * @return the throughput in rows per second
+     */
+    public double getRowsPerSecond() {
+        return totalTime > 0 ? rows * (double) TimeUnit.SECONDS.toNanos(1) / totalTime : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DataLoadStats{" +
+                "reader='" + reader + '\'' +
+                ", source='" + source + '\'' +
+                ", type=" + (type != null ? type.getSimpleName() : null) +
+                ", totalTime=" + totalTime +
+                ", openTime=" + openTime +
+                ", parseTime=" + parseTime +
+                ", mappingTime=" + mappingTime +
+                ", rows=" + rows +
+                ", rowsSkipped=" + rowsSkipped +
+                ", bytesRead=" + bytesRead +
+                ", footprint=" + footprint +
+                '}';
+    }
+}
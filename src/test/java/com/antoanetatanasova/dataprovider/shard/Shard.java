@@ -0,0 +1,158 @@
+package com.antoanetatanasova.dataprovider.shard;
+
+import com.antoanetatanasova.dataprovider.item.ExcelCells;
+import com.antoanetatanasova.utls.ConfigReader;
+
+import java.io.IOException;
+
+/**
+ * Identifies the part of a data set read by one of several workers that split a data-driven suite between them.
+ * <p>
+ * A data set of {@code n} rows is split into {@code count} shards, and shard {@code index} holds either:
+ * <ul>
+ *   <li>a contiguous range of rows ({@link #range(int, int)}), from row {@code n * index / count} up to, but
+ *   not including, row {@code n * (index + 1) / count}; readers can seek to the range and stop after it, or</li>
+ *   <li>the rows whose value in a key column hashes to the shard ({@link #hash(int, int, String)}), which keeps
+ *   rows with the same key together but requires every row to be parsed.</li>
+ * </ul>
+ * Together, the shards of all workers cover every row exactly once. Rows are counted without the header row.
+ * Instances are immutable.
+ */
+public final class Shard {
+    private static final Shard ALL = new Shard(0, 1, null);
+
+    private final int index;
+    private final int count;
+    private final String keyColumn;
+
+    private Shard(int index, int count, String keyColumn) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Returns the shard holding all rows.
+     *
+     * @return a single shard covering the whole data set
+     */
+    public static Shard all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a shard holding a contiguous range of rows.
+     *
+     * @param index the zero-based index of the shard
+     * @param count the number of shards
+     * @return the shard
+     * @throws IllegalArgumentException if {@code count < 1} or {@code index} is not in {@code [0, count)}
+     */
+    public static Shard range(int index, int count) {
+        return new Shard(index, count, null);
+    }
+
+    /**
+     * Returns a shard holding the rows whose value in the given column hashes to it.
+     *
+     * @param index     the zero-based index of the shard
+     * @param count     the number of shards
+     * @param keyColumn the header name of the key column
+     * @return the shard
+     * @throws IllegalArgumentException if {@code count < 1} or {@code index} is not in {@code [0, count)}
+     */
+    public static Shard hash(int index, int count, String keyColumn) {
+        if (keyColumn == null) {
+            throw new IllegalArgumentException("Missing key column for hash shard " + index + " of " + count);
+        }
+        return new Shard(index, count, keyColumn);
+    }
+
+    /**
+     * Returns the shard configured by the {@code shard.index} and {@code shard.count} properties, hashed by
+     * the column named in {@code shard.key} when that property is set. Like every configuration property,
+     * they can be passed as system properties, for example {@code -Dshard.index=2 -Dshard.count=4}.
+     *
+     * @return the configured shard, or {@link #all()} when no shard is configured
+     * @throws IOException if an error occurs while reading the configuration
+     */
+    public static Shard fromConfig() throws IOException {
+        int count = ConfigReader.fetchInt("shard.count", 1);
+        int index = ConfigReader.fetchInt("shard.index", 0);
+        String keyColumn = ConfigReader.fetchProperty("shard.key", null);
+        if (count == 1) {
+            return ALL;
+        }
+        return keyColumn != null ? hash(index, count, keyColumn) : range(index, count);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the header name of the key column of a hash shard.
+     *
+     * @return the key column, or {@code null} for a range shard
+     */
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * Checks whether this shard is selected by hashing a key column.
+     *
+     * @return {@code true} for a hash shard, {@code false} for a range shard
+     */
+    public boolean isHashed() {
+        return keyColumn != null;
+    }
+
+    /**
+     * Returns the first row of this range shard.
+     *
+     * @param rowCount the number of rows of the data set, without the header
+     * @return the zero-based index of the first row
+     */
+    public long rangeStart(long rowCount) {
+        return rowCount * index / count;
+    }
+
+    /**
+     * Returns the end of this range shard.
+     *
+     * @param rowCount the number of rows of the data set, without the header
+     * @return the zero-based index of the row following the last row of the shard
+     */
+    public long rangeEnd(long rowCount) {
+        return rowCount * (index + 1) / count;
+    }
+
+    /**
+     * Checks whether a row belongs to this hash shard. The hash of a {@code String} is the same on every
+     * JVM, so all workers agree on the shard of each key.
+     * <p>
+     * The key is trimmed and normalized with {@link ExcelCells#formatValue(String)} before it is hashed, so
+     * the same key lands in the same shard whether it was read from a CSV record ({@code "12"}) or from a
+     * numeric Excel cell ({@code "12.0"}).
+     *
+     * @param key the value of the key column, or {@code null} for a missing cell
+     * @return {@code true} if the row with the given key belongs to this shard
+     */
+    public boolean containsKey(String key) {
+        String normalized = key != null ? ExcelCells.formatValue(key.trim()) : "";
+        return Math.floorMod(normalized.hashCode(), count) == index;
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + (index + 1) + "/" + count + (keyColumn != null ? " by " + keyColumn : "");
+    }
+}
@@ -0,0 +1,646 @@
+package com.antoanetatanasova.dataprovider.snapshot;
+
+import com.antoanetatanasova.dataprovider._example.CsvDataProvider;
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.csv.CsvReadMode;
+import com.antoanetatanasova.dataprovider.item.CellSource;
+import com.antoanetatanasova.dataprovider.item.CoreDataProvider;
+import com.antoanetatanasova.dataprovider.item.ExcelCells;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.ExcelReadMode;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compact binary, column-oriented copy of a parsed data set, stored in a sidecar file next to its source.
+ * <p>
+ * Parsing .xlsx or .csv files is expensive, while the files themselves rarely change. A snapshot keeps the
+ * parsed values of every {@link ExcelColumn} field as a typed column: {@code int}, {@code long},
+ * {@code double} and {@code boolean} fields are stored as raw primitive values and {@code String} fields as
+ * indexes into a string dictionary shared by all columns. The header records the size and last-modified
+ * time of the source file and a hash of the schema (the DTO fields and the parse options), so an outdated
+ * snapshot is detected and compiled again. Up-to-date snapshots are memory-mapped and decoded without
+ * touching the source file. A truncated or otherwise corrupt snapshot is deleted and compiled again as well.
+ * <p>
+ * Sidecar files are named {@code <source>.<name>.snap}, for example {@code items.xlsx.Item.snap}.
+ */
+public final class ColumnarSnapshot {
+    private static final long MAGIC = 0x4452534E41503031L; // "DRSNAP01"
+    private static final int VERSION = 2;
+
+    private static final byte STRING = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private static final String TABLE_NAME = "table";
+    private static final String LENGTH_COLUMN = "#length";
+
+    private ColumnarSnapshot() {
+    }
+
+    /**
+     * Parses a source file when no up-to-date snapshot exists.
+     *
+     * @param <T> the type of the parsed data set
+     */
+    public interface Source<T> {
+        T parse() throws IOException;
+    }
+
+    /**
+     * Compiles a source file into a snapshot using the given command line arguments: the path to the source
+     * file and, for Excel documents, the fully qualified name of the DTO class.
+     * <p>
+     * Excel documents are read with {@link CoreDataProvider} and CSV files with {@link CsvDataProvider}.
+     * An up-to-date snapshot is left unchanged.
+     *
+     * @param args the source path and the DTO class name
+     * @throws Exception if the source cannot be parsed or the snapshot cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ColumnarSnapshot <source.csv | source.xlsx dto-class>");
+            return;
+        }
+        long start = System.nanoTime();
+        int rows;
+        if (args[0].toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            rows = CsvDataProvider.getCsvData(args[0], CsvFormat.DEFAULT, CsvReadMode.SNAPSHOT).length;
+        } else {
+            rows = compileExcel(args[0], Class.forName(args[1]));
+        }
+        System.out.println("Snapshot of " + args[0] + " with " + rows + " rows ready in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static <T> int compileExcel(String sourcePath, Class<T> clazz) throws IOException {
+        @SuppressWarnings("unchecked")
+        T[] template = (T[]) Array.newInstance(clazz, 0);
+        return CoreDataProvider.getDataFromExcel(sourcePath, clazz, template, ExcelReadMode.SNAPSHOT).length;
+    }
+
+    /**
+     * Returns the DTOs stored in the snapshot of a source file, compiling the snapshot first if it is missing
+     * or outdated.
+     *
+     * @param sourcePath    the path to the source file
+     * @param variant       a description of the parse options, for example the CSV delimiter; a snapshot
+     *                      compiled with different options is treated as outdated
+     * @param clazz         the DTO class
+     * @param arrayTemplate an array of the DTO type used as a template for the result
+     * @param source        parses the source file when the snapshot has to be compiled
+     * @param <T>           the DTO type
+     * @return the DTOs in source order
+     * @throws IOException if the source or the snapshot cannot be read, or the snapshot cannot be written
+     */
+    public static <T> T[] load(String sourcePath, String variant, Class<T> clazz, T[] arrayTemplate,
+                               Source<T[]> source) throws IOException {
+        List<Field> fields = annotatedFields(clazz);
+        long schemaHash = schemaHash(clazz, fields, variant);
+        Path sidecar = sidecarPath(sourcePath, clazz.getSimpleName());
+
+        Snapshot snapshot = open(sidecar, sourcePath, schemaHash);
+        if (snapshot != null) {
+            try {
+                return snapshot.toObjects(clazz, fields, arrayTemplate);
+            } catch (RuntimeException e) {
+                discardCorrupt(sidecar, e);
+            }
+        }
+
+        T[] records = source.parse();
+        write(sidecar, sourcePath, schemaHash, toColumns(records, fields));
+        return records;
+    }
+
+    /**
+     * Returns the raw records stored in the snapshot of a source file, compiling the snapshot first if it is
+     * missing or outdated.
+     *
+     * @param sourcePath the path to the source file
+     * @param variant    a description of the parse options, for example the CSV delimiter; a snapshot
+     *                   compiled with different options is treated as outdated
+     * @param source     parses the source file when the snapshot has to be compiled
+     * @return the records in source order
+     * @throws IOException if the source or the snapshot cannot be read, or the snapshot cannot be written
+     */
+    public static String[][] loadTable(String sourcePath, String variant, Source<String[][]> source) throws IOException {
+        long schemaHash = hash(TABLE_NAME + "|" + variant);
+        Path sidecar = sidecarPath(sourcePath, TABLE_NAME);
+
+        Snapshot snapshot = open(sidecar, sourcePath, schemaHash);
+        if (snapshot != null) {
+            try {
+                return snapshot.toTable();
+            } catch (RuntimeException e) {
+                discardCorrupt(sidecar, e);
+            }
+        }
+
+        String[][] records = source.parse();
+        write(sidecar, sourcePath, schemaHash, tableColumns(records));
+        return records;
+    }
+
+    /**
+     * Returns the path of the sidecar file of a source file.
+     *
+     * @param sourcePath the path to the source file
+     * @param name       the name of the snapshot, usually the simple name of the DTO class
+     * @return the sidecar path
+     */
+    public static Path sidecarPath(String sourcePath, String name) {
+        return Paths.get(sourcePath + "." + name + ".snap");
+    }
+
+    private static Snapshot open(Path sidecar, String sourcePath, long schemaHash) throws IOException {
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+        File sourceFile = new File(sourcePath);
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 44 || buffer.getLong() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != sourceFile.length() || buffer.getLong() != sourceFile.lastModified()
+                    || buffer.getLong() != schemaHash) {
+                return null;
+            }
+            try {
+                return Snapshot.read(buffer);
+            } catch (RuntimeException e) {
+                discardCorrupt(sidecar, e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Deletes a sidecar whose content could not be decoded, so that it is compiled again, or rethrows the
+     * failure if it was not caused by reading past the data of the snapshot.
+     */
+    private static void discardCorrupt(Path sidecar, RuntimeException failure) throws IOException {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BufferUnderflowException || cause instanceof IndexOutOfBoundsException) {
+                Files.deleteIfExists(sidecar);
+                return;
+            }
+        }
+        throw failure;
+    }
+
+    private static void write(Path sidecar, String sourcePath, long schemaHash, List<Column> columns) throws IOException {
+        File sourceFile = new File(sourcePath);
+        int rowCount = columns.isEmpty() ? 0 : columns.get(0).rowCount;
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> dictionaryValues = new ArrayList<>();
+        for (Column column : columns) {
+            if (column.type == STRING) {
+                column.ids = new int[rowCount];
+                for (int row = 0; row < rowCount; row++) {
+                    String value = column.strings[row];
+                    if (value == null) {
+                        column.ids[row] = -1;
+                        continue;
+                    }
+                    column.present = true;
+                    Integer id = dictionary.get(value);
+                    if (id == null) {
+                        id = dictionaryValues.size();
+                        dictionary.put(value, id);
+                        dictionaryValues.add(value);
+                    }
+                    column.ids[row] = id;
+                }
+            }
+        }
+
+        Path temp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName() + ".", ".tmp");
+        try {
+            writeColumns(temp, sourceFile, schemaHash, rowCount, columns, dictionaryValues);
+            try {
+                Files.move(temp, sidecar, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeColumns(Path temp, File sourceFile, long schemaHash, int rowCount, List<Column> columns,
+                                     List<String> dictionaryValues) throws IOException {
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceFile.length());
+            out.writeLong(sourceFile.lastModified());
+            out.writeLong(schemaHash);
+            out.writeInt(rowCount);
+            out.writeInt(columns.size());
+            for (Column column : columns) {
+                out.writeByte(column.type);
+                out.writeBoolean(column.present);
+                writeString(out, column.name);
+            }
+
+            out.writeInt(dictionaryValues.size());
+            for (String value : dictionaryValues) {
+                writeString(out, value);
+            }
+
+            for (Column column : columns) {
+                for (int row = 0; row < rowCount; row++) {
+                    switch (column.type) {
+                        case STRING:
+                        case INT:
+                            out.writeInt(column.type == STRING ? column.ids[row] : column.ints[row]);
+                            break;
+                        case LONG:
+                            out.writeLong(column.longs[row]);
+                            break;
+                        case DOUBLE:
+                            out.writeDouble(column.doubles[row]);
+                            break;
+                        default:
+                            out.writeBoolean(column.booleans[row]);
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count of entries that take at least {@code entrySize} bytes each.
+     *
+     * @throws BufferUnderflowException if the rest of the buffer cannot hold that many entries
+     */
+    private static int readCount(ByteBuffer buffer, int entrySize) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * entrySize > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static List<Field> annotatedFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(ExcelColumn.class)) {
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static long schemaHash(Class<?> clazz, List<Field> fields, String variant) {
+        StringBuilder schema = new StringBuilder(clazz.getName());
+        for (Field field : fields) {
+            schema.append('|').append(field.getName()).append(':').append(field.getType().getName())
+                    .append(Arrays.toString(field.getAnnotation(ExcelColumn.class).names()));
+        }
+        schema.append('|').append(variant);
+        return hash(schema.toString());
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of a string.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static byte columnType(Class<?> type) {
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == double.class) return DOUBLE;
+        if (type == boolean.class) return BOOLEAN;
+        return STRING;
+    }
+
+    private static <T> List<Column> toColumns(T[] records, List<Field> fields) {
+        List<Column> columns = new ArrayList<>();
+        try {
+            for (Field field : fields) {
+                Column column = new Column(field.getName(), columnType(field.getType()), records.length);
+                for (int row = 0; row < records.length; row++) {
+                    T record = records[row];
+                    switch (column.type) {
+                        case INT:
+                            column.ints[row] = field.getInt(record);
+                            break;
+                        case LONG:
+                            column.longs[row] = field.getLong(record);
+                            break;
+                        case DOUBLE:
+                            column.doubles[row] = field.getDouble(record);
+                            break;
+                        case BOOLEAN:
+                            column.booleans[row] = field.getBoolean(record);
+                            break;
+                        default:
+                            Object value = field.get(record);
+                            column.strings[row] = value != null ? value.toString() : null;
+                            break;
+                    }
+                }
+                columns.add(column);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read DTO fields", e);
+        }
+        return columns;
+    }
+
+    private static List<Column> tableColumns(String[][] records) {
+        int width = 0;
+        for (String[] record : records) {
+            width = Math.max(width, record.length);
+        }
+
+        List<Column> columns = new ArrayList<>();
+        Column lengths = new Column(LENGTH_COLUMN, INT, records.length);
+        for (int row = 0; row < records.length; row++) {
+            lengths.ints[row] = records[row].length;
+        }
+        columns.add(lengths);
+
+        for (int col = 0; col < width; col++) {
+            Column column = new Column(Integer.toString(col), STRING, records.length);
+            for (int row = 0; row < records.length; row++) {
+                column.strings[row] = col < records[row].length ? records[row][col] : null;
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * A column being written. A string column is present if it holds at least one value; a column without
+     * any value stands for a field that had no column in the source file.
+     */
+    private static final class Column {
+        final String name;
+        final byte type;
+        final int rowCount;
+        boolean present;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        boolean[] booleans;
+        String[] strings;
+        int[] ids;
+
+        Column(String name, byte type, int rowCount) {
+            this.name = name;
+            this.type = type;
+            this.rowCount = rowCount;
+            this.present = type != STRING;
+            switch (type) {
+                case INT:
+                    ints = new int[rowCount];
+                    break;
+                case LONG:
+                    longs = new long[rowCount];
+                    break;
+                case DOUBLE:
+                    doubles = new double[rowCount];
+                    break;
+                case BOOLEAN:
+                    booleans = new boolean[rowCount];
+                    break;
+                default:
+                    strings = new String[rowCount];
+                    break;
+            }
+        }
+    }
+
+    /**
+     * A memory-mapped snapshot being read.
+     */
+    private static final class Snapshot {
+        private final int rowCount;
+        private final String[] names;
+        private final byte[] types;
+        private final boolean[] present;
+        private final int[] offsets;
+        private final String[] dictionary;
+        private final ByteBuffer buffer;
+
+        private Snapshot(int rowCount, String[] names, byte[] types, boolean[] present, int[] offsets,
+                         String[] dictionary, ByteBuffer buffer) {
+            this.rowCount = rowCount;
+            this.names = names;
+            this.types = types;
+            this.present = present;
+            this.offsets = offsets;
+            this.dictionary = dictionary;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Reads the column layout and the string dictionary of a snapshot.
+         *
+         * @throws BufferUnderflowException if the snapshot is truncated or a count in it is corrupt
+         */
+        static Snapshot read(ByteBuffer buffer) {
+            int rowCount = buffer.getInt();
+            if (rowCount < 0) {
+                throw new BufferUnderflowException();
+            }
+            int columnCount = readCount(buffer, 6);
+            String[] names = new String[columnCount];
+            byte[] types = new byte[columnCount];
+            boolean[] present = new boolean[columnCount];
+            for (int col = 0; col < columnCount; col++) {
+                types[col] = buffer.get();
+                present[col] = buffer.get() != 0;
+                names[col] = readString(buffer);
+            }
+
+            String[] dictionary = new String[readCount(buffer, 4)];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buffer);
+            }
+
+            // the mapped file is smaller than 2 GB, so the column offsets fit into an int once they are checked
+            int[] offsets = new int[columnCount];
+            long offset = buffer.position();
+            for (int col = 0; col < columnCount; col++) {
+                offsets[col] = (int) offset;
+                offset += (long) rowCount * width(types[col]);
+                if (offset > buffer.limit()) {
+                    throw new BufferUnderflowException();
+                }
+            }
+            return new Snapshot(rowCount, names, types, present, offsets, dictionary, buffer);
+        }
+
+        private static int width(byte type) {
+            switch (type) {
+                case LONG:
+                case DOUBLE:
+                    return 8;
+                case BOOLEAN:
+                    return 1;
+                default:
+                    return 4;
+            }
+        }
+
+        private int column(String name) {
+            for (int col = 0; col < names.length; col++) {
+                if (names[col].equals(name)) return col;
+            }
+            return -1;
+        }
+
+        private String string(int col, int row) {
+            int id = buffer.getInt(offsets[col] + row * 4);
+            return id < 0 ? null : dictionary[id];
+        }
+
+        /**
+         * Binds every row through the {@link RowBinder} of the DTO class, like a load from the source file,
+         * so the rows go through the same generated mapper or field bindings and the same string
+         * dictionaries. Each column is presented under the first possible header name of its field; a
+         * column that was not present in the source file is left out, so the field keeps its default value.
+         */
+        <T> T[] toObjects(Class<T> clazz, List<Field> fields, T[] arrayTemplate) {
+            Map<String, String> headerNames = new HashMap<>();
+            for (Field field : fields) {
+                headerNames.put(field.getName(), field.getAnnotation(ExcelColumn.class).names()[0]);
+            }
+            List<String> headers = new ArrayList<>(names.length);
+            for (int col = 0; col < names.length; col++) {
+                String header = headerNames.get(names[col]);
+                headers.add(header != null && present[col] ? header : "");
+            }
+
+            RowBinder<T> binder = RowBinder.forHeader(clazz, headers);
+            T[] records = Arrays.copyOf(arrayTemplate, rowCount);
+            Row row = new Row();
+            for (int index = 0; index < rowCount; index++) {
+                row.index = index;
+                records[index] = binder.bind(row);
+            }
+            return records;
+        }
+
+        String[][] toTable() {
+            String[][] records = new String[rowCount][];
+            int lengths = column(LENGTH_COLUMN);
+            for (int row = 0; row < rowCount; row++) {
+                int length = buffer.getInt(offsets[lengths] + row * 4);
+                if (length < 0 || length >= names.length) {
+                    throw new IndexOutOfBoundsException("Record " + row + " has " + length + " fields");
+                }
+                String[] record = new String[length];
+                for (int col = 0; col < record.length; col++) {
+                    record[col] = string(col + 1, row);
+                }
+                records[row] = record;
+            }
+            return records;
+        }
+
+        /**
+         * A row of the snapshot as a {@link CellSource}, with one column per stored column. Primitive
+         * columns are read directly from the mapped buffer; {@code null} strings are passed on as is.
+         */
+        private final class Row implements CellSource {
+            private int index;
+
+            @Override
+            public String getString(int column) {
+                int position = offsets[column] + index * width(types[column]);
+                switch (types[column]) {
+                    case INT:
+                        return Integer.toString(buffer.getInt(position));
+                    case LONG:
+                        return Long.toString(buffer.getLong(position));
+                    case DOUBLE:
+                        return ExcelCells.formatValue(Double.toString(buffer.getDouble(position)));
+                    case BOOLEAN:
+                        return Boolean.toString(buffer.get(position) != 0);
+                    default:
+                        return string(column, index);
+                }
+            }
+
+            @Override
+            public int getInt(int column) {
+                return types[column] == INT ? buffer.getInt(offsets[column] + index * 4)
+                        : CellSource.super.getInt(column);
+            }
+
+            @Override
+            public long getLong(int column) {
+                return types[column] == LONG ? buffer.getLong(offsets[column] + index * 8)
+                        : CellSource.super.getLong(column);
+            }
+
+            @Override
+            public double getDouble(int column) {
+                return types[column] == DOUBLE ? buffer.getDouble(offsets[column] + index * 8)
+                        : CellSource.super.getDouble(column);
+            }
+
+            @Override
+            public boolean getBoolean(int column) {
+                return types[column] == BOOLEAN ? buffer.get(offsets[column] + index) != 0
+                        : CellSource.super.getBoolean(column);
+            }
+        }
+    }
+}
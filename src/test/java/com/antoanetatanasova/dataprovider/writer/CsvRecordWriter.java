@@ -0,0 +1,225 @@
+package com.antoanetatanasova.dataprovider.writer;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes records to a UTF-8 CSV file with a header record.
+ * <p>
+ * Values are encoded straight into a fixed {@value #BUFFER_SIZE} byte buffer that is flushed to the file
+ * when full: numbers are written digit by digit and ASCII text byte by byte, so writing a record of
+ * primitive fields and ASCII strings allocates nothing and memory use does not depend on the number of
+ * records. Records end with CRLF as in RFC 4180. Fields containing the delimiter, the quote, a line break or
+ * leading or trailing whitespace are enclosed in quotes, with quotes doubled. Whole {@code double} values
+ * are written without a fraction, like the formatted cells of an Excel sheet, and {@code null} values as
+ * empty fields.
+ *
+ * @param <T> the type of the records
+ */
+public final class CsvRecordWriter<T> implements RecordWriter<T> {
+    /**
+     * Size of the output buffer in bytes.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    private static final double MAX_WHOLE = 1e15;
+
+    private final RecordLayout<T> layout;
+    private final OutputStream out;
+    private final byte delimiter;
+    private final byte quote;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] digits = new byte[20];
+    private int count;
+    private long rows;
+
+    private CsvRecordWriter(RecordLayout<T> layout, OutputStream out, CsvFormat format) {
+        this.layout = layout;
+        this.out = out;
+        this.delimiter = (byte) format.getDelimiter();
+        this.quote = (byte) format.getQuote();
+    }
+
+    /**
+     * Creates a writer of a CSV file and writes its header record.
+     *
+     * @param filePath the path of the file to create; an existing file is replaced
+     * @param format   the dialect of the file
+     * @param clazz    the class whose {@link com.antoanetatanasova.dataprovider.item.ExcelColumn} annotated
+     *                 fields are written, in declaration order
+     * @param <T>      the generic type of the records
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    public static <T> CsvRecordWriter<T> open(String filePath, CsvFormat format, Class<T> clazz) throws IOException {
+        RecordLayout<T> layout = RecordLayout.of(clazz);
+        OutputStream out;
+        try {
+            out = new FileOutputStream(filePath);
+        } catch (IOException e) {
+            System.err.println("Error writing CSV file: " + e.getMessage());
+            throw e;
+        }
+        CsvRecordWriter<T> writer = new CsvRecordWriter<>(layout, out, format);
+        for (int i = 0; i < layout.size(); i++) {
+            if (i > 0) {
+                writer.put(writer.delimiter);
+            }
+            writer.putText(layout.header(i));
+        }
+        writer.endRecord();
+        return writer;
+    }
+
+    @Override
+    public void write(T record) throws IOException {
+        for (int i = 0; i < layout.size(); i++) {
+            if (i > 0) {
+                put(delimiter);
+            }
+            if (layout.isPrimitive(i)) {
+                switch (layout.kind(i)) {
+                    case RecordLayout.INT:
+                        putLong(layout.getInt(record, i));
+                        break;
+                    case RecordLayout.LONG:
+                        putLong(layout.getLong(record, i));
+                        break;
+                    case RecordLayout.DOUBLE:
+                        putDouble(layout.getDouble(record, i));
+                        break;
+                    default:
+                        putAscii(layout.getBoolean(record, i) ? "true" : "false");
+                }
+                continue;
+            }
+
+            Object value = layout.get(record, i);
+            if (value instanceof Double) {
+                putDouble((Double) value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                putLong(((Number) value).longValue());
+            } else if (value != null) {
+                putText(value.toString());
+            }
+        }
+        endRecord();
+        rows++;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Flushes the buffer and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void endRecord() throws IOException {
+        put((byte) '\r');
+        put((byte) '\n');
+    }
+
+    private void put(byte b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = b;
+    }
+
+    private void flushBuffer() throws IOException {
+        try {
+            out.write(buffer, 0, count);
+            count = 0;
+        } catch (IOException e) {
+            System.err.println("Error writing CSV file: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) {
+            put(digits[--length]);
+        }
+    }
+
+    private void putDouble(double value) throws IOException {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_WHOLE) {
+            putLong((long) value);
+        } else {
+            putAscii(Double.toString(value));
+        }
+    }
+
+    private void putAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            put((byte) value.charAt(i));
+        }
+    }
+
+    private void putText(String value) throws IOException {
+        boolean ascii = true;
+        boolean quoted = !value.isEmpty()
+                && (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+            } else if (c == delimiter || c == quote || c == '\r' || c == '\n') {
+                quoted = true;
+            }
+        }
+
+        if (quoted) {
+            put(quote);
+        }
+        if (ascii) {
+            for (int i = 0; i < value.length(); i++) {
+                byte b = (byte) value.charAt(i);
+                put(b);
+                if (b == quote) {
+                    put(quote);
+                }
+            }
+        } else {
+            // multi-byte UTF-8 sequences never contain ASCII bytes, so quotes are found byte by byte
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                put(b);
+                if (b == quote) {
+                    put(quote);
+                }
+            }
+        }
+        if (quoted) {
+            put(quote);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.antoanetatanasova.dataprovider.writer;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Writes records to a single-sheet .xlsx document through POI's SXSSF streaming workbook.
+ * <p>
+ * Only the last {@value #WINDOW_SIZE} rows are kept in memory; older rows are flushed to a compressed
+ * temporary file, so memory use does not depend on the number of rows. Numeric and boolean fields are
+ * written as numeric and boolean cells, all other fields as inline strings; {@code null} values leave the
+ * cell empty. Excel stores every number as a {@code double}, so {@code long} values beyond 2<sup>53</sup>
+ * lose precision. The document is written to its path when the writer is closed, which also deletes the
+ * temporary file.
+ * <p>
+ * A sheet holds at most 1,048,575 data rows.
+ *
+ * @param <T> the type of the records
+ */
+public final class ExcelRecordWriter<T> implements RecordWriter<T> {
+    /**
+     * Number of rows kept in memory before they are flushed to the temporary file.
+     */
+    public static final int WINDOW_SIZE = 100;
+
+    private static final String DEFAULT_SHEET = "Sheet1";
+
+    private final String filePath;
+    private final RecordLayout<T> layout;
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private int rowNum;
+
+    private ExcelRecordWriter(String filePath, RecordLayout<T> layout, String sheetName) {
+        this.filePath = filePath;
+        this.layout = layout;
+        this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < layout.size(); i++) {
+            header.createCell(i).setCellValue(layout.header(i));
+        }
+    }
+
+    /**
+     * Creates a writer of an Excel document whose only sheet is the predefined sheet read by the Excel data
+     * providers. The header row is written at once.
+     *
+     * @param filePath the path of the document to create; an existing file is replaced on close
+     * @param clazz    the class whose {@link com.antoanetatanasova.dataprovider.item.ExcelColumn} annotated
+     *                 fields are written, in declaration order
+     * @param <T>      the generic type of the records
+     * @return the writer
+     */
+    public static <T> ExcelRecordWriter<T> open(String filePath, Class<T> clazz) {
+        return open(filePath, clazz, DEFAULT_SHEET);
+    }
+
+    /**
+     * Creates a writer of an Excel document with a single sheet of the given name.
+     *
+     * @param filePath  the path of the document to create; an existing file is replaced on close
+     * @param clazz     the class whose annotated fields are written
+     * @param sheetName the name of the sheet
+     * @param <T>       the generic type of the records
+     * @return the writer
+     */
+    public static <T> ExcelRecordWriter<T> open(String filePath, Class<T> clazz, String sheetName) {
+        return new ExcelRecordWriter<>(filePath, RecordLayout.of(clazz), sheetName);
+    }
+
+    @Override
+    public void write(T record) {
+        Row row = sheet.createRow(++rowNum);
+        for (int i = 0; i < layout.size(); i++) {
+            if (layout.isPrimitive(i)) {
+                switch (layout.kind(i)) {
+                    case RecordLayout.INT:
+                        row.createCell(i).setCellValue(layout.getInt(record, i));
+                        break;
+                    case RecordLayout.LONG:
+                        row.createCell(i).setCellValue(layout.getLong(record, i));
+                        break;
+                    case RecordLayout.DOUBLE:
+                        row.createCell(i).setCellValue(layout.getDouble(record, i));
+                        break;
+                    default:
+                        row.createCell(i).setCellValue(layout.getBoolean(record, i));
+                }
+                continue;
+            }
+
+            Object value = layout.get(record, i);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Number && layout.kind(i) != RecordLayout.TEXT) {
+                row.createCell(i).setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                row.createCell(i).setCellValue((Boolean) value);
+            } else {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowNum;
+    }
+
+    /**
+     * Writes the document to its path and releases the temporary file.
+     *
+     * @throws IOException if the document cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try (OutputStream out = Files.newOutputStream(Paths.get(filePath))) {
+            workbook.write(out);
+        } catch (IOException e) {
+            System.err.println("Error writing Excel file: " + e.getMessage());
+            throw e;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.antoanetatanasova.dataprovider.writer;
+
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columns written for the {@link ExcelColumn} annotated fields of a class, in field declaration order.
+ * <p>
+ * Each column reads its field through a {@link MethodHandle}; primitive fields are read without boxing. The
+ * header of a column is the first of its names without invisible characters, so a field that lists a
+ * zero-width space variant of its name next to the plain name is written under the plain name, which every
+ * reader of the field matches.
+ *
+ * @param <T> the type of the records
+ */
+final class RecordLayout<T> {
+    static final byte TEXT = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<T> clazz;
+    private final String[] headers;
+    private final ExcelColumn[] annotations;
+    private final byte[] kinds;
+    private final boolean[] primitive;
+    private final MethodHandle[] getters;
+
+    private RecordLayout(Class<T> clazz, List<Field> fields) throws IllegalAccessException {
+        this.clazz = clazz;
+        int count = fields.size();
+        headers = new String[count];
+        annotations = new ExcelColumn[count];
+        kinds = new byte[count];
+        primitive = new boolean[count];
+        getters = new MethodHandle[count];
+        for (int i = 0; i < count; i++) {
+            Field field = fields.get(i);
+            field.setAccessible(true);
+            Class<?> type = field.getType();
+            annotations[i] = field.getAnnotation(ExcelColumn.class);
+            headers[i] = header(annotations[i]);
+            kinds[i] = kind(type);
+            primitive[i] = type.isPrimitive();
+            MethodHandle getter = LOOKUP.unreflectGetter(field);
+            getters[i] = getter.asType(MethodType.methodType(type.isPrimitive() ? type : Object.class, Object.class));
+        }
+    }
+
+    /**
+     * Creates the layout of a class.
+     *
+     * @param clazz the class whose annotated fields are written
+     * @param <T>   the generic type of the records
+     * @return the layout
+     * @throws IllegalArgumentException if the class has no {@link ExcelColumn} annotated fields
+     */
+    static <T> RecordLayout<T> of(Class<T> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(ExcelColumn.class)) {
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException(clazz.getSimpleName() + " has no @ExcelColumn fields");
+        }
+        try {
+            return new RecordLayout<>(clazz, fields);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to read the fields of " + clazz.getSimpleName(), e);
+        }
+    }
+
+    Class<T> getRecordClass() {
+        return clazz;
+    }
+
+    int size() {
+        return headers.length;
+    }
+
+    String[] getHeaders() {
+        return headers.clone();
+    }
+
+    String header(int column) {
+        return headers[column];
+    }
+
+    ExcelColumn annotation(int column) {
+        return annotations[column];
+    }
+
+    /**
+     * Returns the kind of value of a column: {@link #INT}, {@link #LONG}, {@link #DOUBLE} and
+     * {@link #BOOLEAN} for those primitives and their wrappers, {@link #TEXT} for all other types.
+     */
+    byte kind(int column) {
+        return kinds[column];
+    }
+
+    /**
+     * Checks whether a column is read by the typed getters; other columns are read by {@link #get}.
+     */
+    boolean isPrimitive(int column) {
+        return primitive[column];
+    }
+
+    int getInt(T record, int column) {
+        try {
+            return (int) getters[column].invokeExact((Object) record);
+        } catch (Throwable e) {
+            throw failure(column, e);
+        }
+    }
+
+    long getLong(T record, int column) {
+        try {
+            return (long) getters[column].invokeExact((Object) record);
+        } catch (Throwable e) {
+            throw failure(column, e);
+        }
+    }
+
+    double getDouble(T record, int column) {
+        try {
+            return (double) getters[column].invokeExact((Object) record);
+        } catch (Throwable e) {
+            throw failure(column, e);
+        }
+    }
+
+    boolean getBoolean(T record, int column) {
+        try {
+            return (boolean) getters[column].invokeExact((Object) record);
+        } catch (Throwable e) {
+            throw failure(column, e);
+        }
+    }
+
+    Object get(T record, int column) {
+        try {
+            return getters[column].invokeExact((Object) record);
+        } catch (Throwable e) {
+            throw failure(column, e);
+        }
+    }
+
+    private RuntimeException failure(int column, Throwable e) {
+        return new RuntimeException("Failed to read column '" + headers[column] + "' of " + clazz.getSimpleName(), e);
+    }
+
+    private static String header(ExcelColumn annotation) {
+        for (String name : annotation.names()) {
+            if (isVisible(name)) {
+                return name;
+            }
+        }
+        return annotation.names()[0];
+    }
+
+    private static boolean isVisible(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.getType(name.charAt(i)) == Character.FORMAT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte kind(Class<?> type) {
+        if (type == int.class || type == Integer.class) return INT;
+        if (type == long.class || type == Long.class) return LONG;
+        if (type == double.class || type == Double.class) return DOUBLE;
+        if (type == boolean.class || type == Boolean.class) return BOOLEAN;
+        return TEXT;
+    }
+}
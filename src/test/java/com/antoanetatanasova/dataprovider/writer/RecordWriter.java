@@ -0,0 +1,55 @@
+package com.antoanetatanasova.dataprovider.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes {@link com.antoanetatanasova.dataprovider.item.ExcelColumn} annotated records to a file one at a
+ * time, in a form the data providers of this project read back into equal records.
+ * <p>
+ * Writers hold a bounded amount of data in memory whatever the number of records, so fixtures of millions of
+ * rows can be produced from a stream. The file is complete only once the writer is closed. Writers are not
+ * thread-safe.
+ *
+ * @param <T> the type of the records
+ */
+public interface RecordWriter<T> extends Closeable {
+    /**
+     * Appends a record as the next row.
+     *
+     * @param record the record to write
+     * @throws IOException if the record cannot be written
+     */
+    void write(T record) throws IOException;
+
+    /**
+     * Returns the number of records written so far, not counting the header.
+     *
+     * @return the record count
+     */
+    long getRowCount();
+
+    /**
+     * Appends all remaining records of an iterator.
+     *
+     * @param records the records to write
+     * @throws IOException if a record cannot be written
+     */
+    default void writeAll(Iterator<? extends T> records) throws IOException {
+        while (records.hasNext()) {
+            write(records.next());
+        }
+    }
+
+    /**
+     * Appends all records of a stream, in encounter order.
+     *
+     * @param records the records to write
+     * @throws IOException if a record cannot be written
+     */
+    default void writeAll(Stream<? extends T> records) throws IOException {
+        writeAll(records.sequential().iterator());
+    }
+}
@@ -0,0 +1,201 @@
+package com.antoanetatanasova.dataprovider.writer;
+
+import com.antoanetatanasova.dataprovider.csv.CsvFormat;
+import com.antoanetatanasova.dataprovider.item.CellSource;
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+import com.antoanetatanasova.dataprovider.item.RowBinder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Seeded generator of synthetic records for large, reproducible test fixtures.
+ * <p>
+ * Every {@link ExcelColumn} annotated field gets a value derived from its type and column header:
+ * <ul>
+ *     <li>{@code int} fields a value from 1 to 1000, {@code long} fields a value from 1 to 10<sup>9</sup>;</li>
+ *     <li>{@code double} fields an amount with two decimals from 0.01 to 999.99;</li>
+ *     <li>{@code boolean} fields {@code true} or {@code false};</li>
+ *     <li>text fields whose deduplication is {@link ExcelColumn.Dedup#NEVER} a unique value, the header
+ *     followed by the row number, such as {@code "Item Name 42"}; other text fields one of
+ *     {@value #DISTINCT_VALUES} values, such as {@code "Batch 7"}.</li>
+ * </ul>
+ * The values of a row depend only on the seed and the row index, so the same seed always produces the same
+ * fixture, any row can be generated on its own and {@link #stream(long)} can run in parallel.
+ * <p>
+ * Fixtures are written from the command line with {@link #main(String[])}.
+ *
+ * @param <T> the type of the records
+ */
+public final class SyntheticData<T> {
+    /**
+     * Number of distinct values of text fields that are not unique.
+     */
+    public static final int DISTINCT_VALUES = 16;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final RecordLayout<T> layout;
+    private final RowBinder<T> binder;
+    private final long seed;
+    private final boolean[] unique;
+
+    private SyntheticData(RecordLayout<T> layout, long seed) {
+        this.layout = layout;
+        this.seed = seed;
+        this.unique = new boolean[layout.size()];
+        List<String> headers = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            headers.add(layout.header(i));
+            unique[i] = layout.annotation(i).dedup() == ExcelColumn.Dedup.NEVER;
+        }
+        this.binder = RowBinder.forHeader(layout.getRecordClass(), headers);
+    }
+
+    /**
+     * Creates a generator of records of the given class.
+     *
+     * @param clazz the class whose annotated fields are populated
+     * @param seed  the seed from which all values are derived
+     * @param <T>   the generic type of the records
+     * @return the generator
+     */
+    public static <T> SyntheticData<T> of(Class<T> clazz, long seed) {
+        return new SyntheticData<>(RecordLayout.of(clazz), seed);
+    }
+
+    /**
+     * Generates the record of one row.
+     *
+     * @param index the zero-based row index
+     * @return a new record
+     */
+    public T row(long index) {
+        return binder.bind(new GeneratedRow(index));
+    }
+
+    /**
+     * Returns an iterator over the first rows.
+     *
+     * @param rows the number of rows
+     * @return an iterator generating each record when it is requested
+     */
+    public Iterator<T> iterator(long rows) {
+        return new Iterator<T>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rows;
+            }
+
+            @Override
+            public T next() {
+                if (next >= rows) {
+                    throw new NoSuchElementException();
+                }
+                return row(next++);
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the first rows, in row order.
+     *
+     * @param rows the number of rows
+     * @return a stream generating each record when it is consumed
+     */
+    public Stream<T> stream(long rows) {
+        return LongStream.range(0, rows).mapToObj(this::row);
+    }
+
+    /**
+     * Writes the first rows to a file, as .xlsx or .csv depending on its extension.
+     *
+     * @param filePath the path of the file to create
+     * @param rows     the number of rows
+     * @throws IOException if the file cannot be written
+     */
+    public void write(String filePath, long rows) throws IOException {
+        try (RecordWriter<T> writer = filePath.toLowerCase().endsWith(".csv")
+                ? CsvRecordWriter.open(filePath, CsvFormat.DEFAULT, layout.getRecordClass())
+                : ExcelRecordWriter.open(filePath, layout.getRecordClass())) {
+            writer.writeAll(iterator(rows));
+        }
+    }
+
+    /**
+     * Writes a synthetic fixture using the given command line arguments: the fully qualified name of the DTO
+     * class, the number of rows, the path of the .xlsx or .csv file to create and, optionally, the seed.
+     *
+     * @param args the DTO class name, row count, output path and seed
+     * @throws Exception if the class cannot be loaded or the file cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticData <dto class> <rows> <file.xlsx|file.csv> [seed]");
+            System.exit(2);
+        }
+        long rows = Long.parseLong(args[1]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0L;
+        long start = System.nanoTime();
+        of(Class.forName(args[0]), seed).write(args[2], rows);
+        System.out.println("Wrote " + rows + " rows to " + args[2] + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Values of one row, generated from a random generator seeded with the row index. Field {@code i} of the
+     * layout is column {@code i}.
+     */
+    private final class GeneratedRow implements CellSource {
+        private final long index;
+        private final SplittableRandom random;
+
+        GeneratedRow(long index) {
+            this.index = index;
+            this.random = new SplittableRandom(seed + GOLDEN_GAMMA * (index + 1));
+        }
+
+        @Override
+        public String getString(int column) {
+            switch (layout.kind(column)) {
+                case RecordLayout.INT:
+                    return Integer.toString(getInt(column));
+                case RecordLayout.LONG:
+                    return Long.toString(getLong(column));
+                case RecordLayout.DOUBLE:
+                    return Double.toString(getDouble(column));
+                case RecordLayout.BOOLEAN:
+                    return Boolean.toString(getBoolean(column));
+                default:
+                    return layout.header(column) + " " + (unique[column] ? index + 1 : 1 + random.nextInt(DISTINCT_VALUES));
+            }
+        }
+
+        @Override
+        public int getInt(int column) {
+            return 1 + random.nextInt(1000);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return random.nextLong(1, 1_000_000_001L);
+        }
+
+        @Override
+        public double getDouble(int column) {
+            return (1 + random.nextInt(99_999)) / 100.0;
+        }
+
+        @Override
+        public boolean getBoolean(int column) {
+            return random.nextBoolean();
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.antoanetatanasova.dto;
 
+import com.antoanetatanasova.dataprovider.item.ExcelColumn;
+
 public class Customer {
+    @ExcelColumn(names = {"Customer Name\u200B", "Customer Name"}, dedup = ExcelColumn.Dedup.NEVER)
     private String name;
+    @ExcelColumn(names = {"Address\u200B", "Address"}, dedup = ExcelColumn.Dedup.NEVER)
     private String address;
+    @ExcelColumn(names = {"City\u200B", "City"})
     private String city;
 
     public Customer() {
@@ -3,7 +3,7 @@ package com.antoanetatanasova.dto;
 import com.antoanetatanasova.dataprovider.item.ExcelColumn;
 
 public class Item {
-    @ExcelColumn(names = {"Item Name\u200B", "Item Name"})
+    @ExcelColumn(names = {"Item Name\u200B", "Item Name"}, dedup = ExcelColumn.Dedup.NEVER)
     private String name;
     @ExcelColumn(names = {"Unit Price\u200B", "Unit Price"})
     private double unitPrice;
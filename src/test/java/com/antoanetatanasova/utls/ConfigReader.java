@@ -1,26 +1,213 @@
 package com.antoanetatanasova.utls;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ConfigReader {
+    private static final Path CONFIG_FILE = Paths.get("./config/config.properties");
+    private static final AtomicReference<Map<String, String>> SNAPSHOT = new AtomicReference<>();
+    private static final Object LOAD_LOCK = new Object();
 
     /**
      * Fetches the value of a given key from the {@code config.properties} file.
      * <p>
-     * The method loads the properties file located at {@code ./config/config.properties}
-     * and retrieves the value associated with the specified key.
+     * The properties file located at {@code ./config/config.properties} is parsed once into an immutable
+     * snapshot, which is replaced atomically whenever the file changes on disk. Lookups only read the current
+     * snapshot, so they do not touch the file system.
+     * <p>
+     * A value can be overridden by a system property with the same key, or by an environment variable named
+     * after the key in upper case with dots replaced by underscores (for example {@code FILES_ITEMXLSX} for
+     * {@code files.itemXLSX}). System properties take precedence over environment variables, which take
+     * precedence over the file; keys that are missing from the file can be set by either. Leading and
+     * trailing whitespace is removed from all values.
      *
      * @param key the property key to look up
      * @return the value corresponding to the provided key, or {@code null} if the key is not found
-     * @throws IOException if an error occurs while reading the properties file
+     * @throws IOException if an error occurs while reading the properties file for the first time
      */
     public static String fetchProperty(String key) throws IOException {
-        FileInputStream file = new FileInputStream("./config/config.properties");
+        String override = System.getProperty(key);
+        if (override != null) {
+            return override.trim();
+        }
+        String value = snapshot().get(key);
+        if (value == null) {
+            String env = System.getenv(environmentName(key));
+            value = env != null ? env.trim() : null;
+        }
+        return value;
+    }
+
+    /**
+     * Fetches the value of a given key, falling back to a default value when the key is not configured.
+     *
+     * @param key          the property key to look up
+     * @param defaultValue the value returned when the key is not found
+     * @return the configured value, or {@code defaultValue}
+     * @throws IOException if an error occurs while reading the properties file for the first time
+     */
+    public static String fetchProperty(String key, String defaultValue) throws IOException {
+        String value = fetchProperty(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Fetches an integer property.
+     *
+     * @param key          the property key to look up
+     * @param defaultValue the value returned when the key is not found
+     * @return the configured value, or {@code defaultValue}
+     * @throws IOException           if an error occurs while reading the properties file for the first time
+     * @throws NumberFormatException if the configured value is not an integer
+     */
+    public static int fetchInt(String key, int defaultValue) throws IOException {
+        String value = fetchProperty(key, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Fetches a long property.
+     *
+     * @param key          the property key to look up
+     * @param defaultValue the value returned when the key is not found
+     * @return the configured value, or {@code defaultValue}
+     * @throws IOException           if an error occurs while reading the properties file for the first time
+     * @throws NumberFormatException if the configured value is not a long
+     */
+    public static long fetchLong(String key, long defaultValue) throws IOException {
+        String value = fetchProperty(key, null);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    /**
+     * Fetches a boolean property; only {@code "true"} (ignoring case) is read as {@code true}.
+     *
+     * @param key          the property key to look up
+     * @param defaultValue the value returned when the key is not found
+     * @return the configured value, or {@code defaultValue}
+     * @throws IOException if an error occurs while reading the properties file for the first time
+     */
+    public static boolean fetchBoolean(String key, boolean defaultValue) throws IOException {
+        String value = fetchProperty(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    /**
+     * Fetches all properties whose key starts with the given prefix, for example {@code "files."}.
+     * System property overrides are applied to the returned values.
+     *
+     * @param prefix the key prefix
+     * @return the matching keys and values, sorted by key
+     * @throws IOException if an error occurs while reading the properties file for the first time
+     */
+    public static Map<String, String> fetchProperties(String prefix) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        for (Map.Entry<String, String> entry : snapshot().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                result.put(entry.getKey(), fetchProperty(entry.getKey()));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Reloads the properties file and replaces the current snapshot.
+     *
+     * @throws IOException if an error occurs while reading the properties file
+     */
+    public static void reload() throws IOException {
+        SNAPSHOT.set(load());
+    }
+
+    private static Map<String, String> snapshot() throws IOException {
+        Map<String, String> snapshot = SNAPSHOT.get();
+        if (snapshot == null) {
+            synchronized (LOAD_LOCK) {
+                snapshot = SNAPSHOT.get();
+                if (snapshot == null) {
+                    snapshot = load();
+                    SNAPSHOT.set(snapshot);
+                    startWatcher();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static Map<String, String> load() throws IOException {
         Properties property = new Properties();
-        property.load(file);
-        return property.getProperty(key);
+        try (InputStream file = Files.newInputStream(CONFIG_FILE)) {
+            property.load(file);
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (String key : property.stringPropertyNames()) {
+            String env = System.getenv(environmentName(key));
+            values.put(key, (env != null ? env : property.getProperty(key)).trim());
+        }
+        return Collections.unmodifiableMap(values);
     }
 
+    private static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_');
+    }
+
+    /**
+     * Starts a daemon thread that reloads the snapshot when the properties file is modified.
+     * If the file system does not support watching, the first snapshot is kept.
+     */
+    private static void startWatcher() {
+        Path directory = CONFIG_FILE.toAbsolutePath().normalize().getParent();
+        Path fileName = CONFIG_FILE.getFileName();
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Config file changes will not be detected: " + e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= fileName.equals(event.context());
+                    }
+                    if (changed) {
+                        try {
+                            reload();
+                        } catch (IOException e) {
+                            System.err.println("Error reloading config file: " + e.getMessage());
+                        }
+                    }
+                    if (!key.reset()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // stop watching
+            }
+        }, "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
 }